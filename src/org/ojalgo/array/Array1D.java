@@ -600,6 +600,13 @@ public final class Array1D<N extends Number> extends AbstractList<N> implements
         }
     }
 
+    /**
+     * @return A strided view of this array – can be reshaped and sliced without copying
+     */
+    public StridedArray<N> strided() {
+        return new StridedArray<>(myDelegate, myFirst, new long[] { length }, new long[] { myStep });
+    }
+
     @Override
     public Array1D<N> subList(final int first, final int limit) {
         return this.sliceRange(first, limit);
@@ -666,6 +666,14 @@ public final class Array2D<N extends Number> implements Access2D<N>, Access2D.El
         return new Array1D<>(myDelegate, Structure2D.index(myRowsCount, row, col), Structure2D.index(myRowsCount, row, myColumnsCount), myRowsCount);
     }
 
+    /**
+     * @return A strided (rows, columns) view of this array – can be transposed, reshaped and sliced without
+     *         copying
+     */
+    public StridedArray<N> strided() {
+        return new StridedArray<>(myDelegate, 0L, new long[] { myRowsCount, myColumnsCount }, new long[] { 1L, myRowsCount });
+    }
+
     @Override
     public String toString() {
         return myDelegate.toString();
@@ -426,6 +426,13 @@ public final class ArrayAnyD<N extends Number> implements AccessAnyD<N>, AccessA
         return new Array1D<>(myDelegate, first.longValue(), limit.longValue(), step.longValue());
     }
 
+    /**
+     * @return A strided view of this array – can be transposed, permuted, reshaped and sliced without copying
+     */
+    public StridedArray<N> strided() {
+        return new StridedArray<>(myDelegate, 0L, myStructure.clone(), StridedArray.strides(myStructure));
+    }
+
     @Override
     public String toString() {
 
@@ -196,6 +196,14 @@ public abstract class BasicArray<N extends Number>
         this.modify(first, limit, 1L, modifier);
     }
 
+    /**
+     * @return A balanced, {@link java.util.Spliterator#SIZED} and {@link java.util.Spliterator#SUBSIZED},
+     *         spliterator over all elements – index and (unboxed) value
+     */
+    public PrimitiveSpliterator primitiveSpliterator() {
+        return PrimitiveSpliterator.of(this);
+    }
+
     @Override
     public String toString() {
 
@@ -36,6 +36,8 @@ import java.nio.FloatBuffer;
 import java.nio.MappedByteBuffer;
 import java.nio.channels.FileChannel;
 import java.nio.channels.FileChannel.MapMode;
+import java.util.stream.DoubleStream;
+import java.util.stream.StreamSupport;
 
 import org.ojalgo.ProgrammingError;
 import org.ojalgo.constant.PrimitiveMath;
@@ -527,6 +529,10 @@ public abstract class BufferArray extends PlainArray<Double> {
         return myBuffer.capacity();
     }
 
+    public DoubleStream stream(final boolean parallel) {
+        return StreamSupport.doubleStream(this.primitiveSpliterator(), parallel);
+    }
+
     @Override
     protected void sortAscending() {
         ProgrammingError.throwForUnsupportedOptionalOperation();
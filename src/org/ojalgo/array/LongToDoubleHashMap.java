@@ -0,0 +1,255 @@
+/*
+ * Copyright 1997-2018 Optimatika
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.ojalgo.array;
+
+import static org.ojalgo.constant.PrimitiveMath.*;
+
+import java.util.Arrays;
+
+import org.ojalgo.array.SparseArray.NonzeroPrimitiveCallback;
+import org.ojalgo.structure.Mutate1D;
+
+/**
+ * A hash map with primitive long keys and primitive double values, using open addressing (linear probing)
+ * in parallel key/value arrays. Inserting, updating and accumulating in random key order is O(1) (amortised)
+ * – use it where {@link LongToNumberMap} or {@link SparseArray}, that keep their keys sorted and therefore
+ * have O(n) random order inserts, would be too slow. Iteration order is undefined; use
+ * {@link #supplyTo(Mutate1D)} or {@link #sortedKeys()} when order matters.
+ * <p>
+ * Absent keys are treated as having the value 0.0.
+ * </p>
+ *
+ * @author apete
+ */
+public final class LongToDoubleHashMap {
+
+    private static final int INITIAL = 16;
+
+    static int hash(final long key) {
+        final long tmpMixed = key * 0x9E3779B97F4A7C15L;
+        return (int) (tmpMixed ^ (tmpMixed >>> 32));
+    }
+
+    private long[] myKeys;
+    private int myMask;
+    private boolean[] myOccupied;
+    private int mySize = 0;
+    private int myThreshold;
+    private double[] myValues;
+
+    public LongToDoubleHashMap() {
+        this(INITIAL);
+    }
+
+    /**
+     * @param expected The expected number of entries – the map will not have to grow until it contains more
+     *        than that.
+     */
+    public LongToDoubleHashMap(final int expected) {
+
+        super();
+
+        this.allocate(1 << Math.max(4, powerOf2Larger(2L * Math.max(1, expected))));
+    }
+
+    /**
+     * Adds to the existing value, or puts the addend if the key is not present.
+     */
+    public void add(final long key, final double addend) {
+        final int tmpSlot = this.slot(key);
+        if (myOccupied[tmpSlot]) {
+            myValues[tmpSlot] += addend;
+        } else {
+            this.insert(tmpSlot, key, addend);
+        }
+    }
+
+    /**
+     * The number of entries the map can hold before it has to grow.
+     */
+    public int capacity() {
+        return myThreshold;
+    }
+
+    public void clear() {
+        Arrays.fill(myOccupied, false);
+        mySize = 0;
+    }
+
+    public boolean containsKey(final long key) {
+        return myOccupied[this.slot(key)];
+    }
+
+    public void forEach(final NonzeroPrimitiveCallback callback) {
+        for (int i = 0; i < myOccupied.length; i++) {
+            if (myOccupied[i]) {
+                callback.call(myKeys[i], myValues[i]);
+            }
+        }
+    }
+
+    /**
+     * @return The value, or 0.0 if the key is not present.
+     */
+    public double get(final long key) {
+        return this.get(key, ZERO);
+    }
+
+    public double get(final long key, final double defaultValue) {
+        final int tmpSlot = this.slot(key);
+        return myOccupied[tmpSlot] ? myValues[tmpSlot] : defaultValue;
+    }
+
+    public boolean isEmpty() {
+        return mySize == 0;
+    }
+
+    /**
+     * @return A copy of the keys, in no particular order
+     */
+    public long[] keys() {
+        final long[] retVal = new long[mySize];
+        int tmpIndex = 0;
+        for (int i = 0; i < myOccupied.length; i++) {
+            if (myOccupied[i]) {
+                retVal[tmpIndex++] = myKeys[i];
+            }
+        }
+        return retVal;
+    }
+
+    public void put(final long key, final double value) {
+        final int tmpSlot = this.slot(key);
+        if (myOccupied[tmpSlot]) {
+            myValues[tmpSlot] = value;
+        } else {
+            this.insert(tmpSlot, key, value);
+        }
+    }
+
+    /**
+     * @return The removed value, or 0.0 if the key was not present.
+     */
+    public double remove(final long key) {
+
+        int tmpSlot = this.slot(key);
+
+        if (!myOccupied[tmpSlot]) {
+            return ZERO;
+        }
+
+        final double retVal = myValues[tmpSlot];
+
+        // Backward shift deletion – no tombstones
+        int tmpNext = (tmpSlot + 1) & myMask;
+        while (myOccupied[tmpNext]) {
+            final int tmpHome = LongToDoubleHashMap.hash(myKeys[tmpNext]) & myMask;
+            if (((tmpNext - tmpHome) & myMask) >= ((tmpNext - tmpSlot) & myMask)) {
+                myKeys[tmpSlot] = myKeys[tmpNext];
+                myValues[tmpSlot] = myValues[tmpNext];
+                tmpSlot = tmpNext;
+            }
+            tmpNext = (tmpNext + 1) & myMask;
+        }
+        myOccupied[tmpSlot] = false;
+        mySize--;
+
+        return retVal;
+    }
+
+    public int size() {
+        return mySize;
+    }
+
+    /**
+     * @return A copy of the keys, in ascending order
+     */
+    public long[] sortedKeys() {
+        final long[] retVal = this.keys();
+        Arrays.sort(retVal);
+        return retVal;
+    }
+
+    /**
+     * Sets all entries on the receiver in ascending key order, which is the order that lets a
+     * {@link SparseArray} (or anything backed by one) append rather than insert.
+     */
+    public void supplyTo(final Mutate1D receiver) {
+        for (final long key : this.sortedKeys()) {
+            receiver.set(key, this.get(key));
+        }
+    }
+
+    @Override
+    public String toString() {
+        return this.getClass().getSimpleName() + " size=" + mySize;
+    }
+
+    private void allocate(final int length) {
+        myKeys = new long[length];
+        myValues = new double[length];
+        myOccupied = new boolean[length];
+        myMask = length - 1;
+        myThreshold = length / 2;
+    }
+
+    private void insert(final int slot, final long key, final double value) {
+
+        myKeys[slot] = key;
+        myValues[slot] = value;
+        myOccupied[slot] = true;
+
+        if (++mySize > myThreshold) {
+            this.rehash();
+        }
+    }
+
+    private void rehash() {
+
+        final long[] tmpKeys = myKeys;
+        final double[] tmpValues = myValues;
+        final boolean[] tmpOccupied = myOccupied;
+
+        this.allocate(2 * tmpKeys.length);
+
+        for (int i = 0; i < tmpOccupied.length; i++) {
+            if (tmpOccupied[i]) {
+                final int tmpSlot = this.slot(tmpKeys[i]);
+                myKeys[tmpSlot] = tmpKeys[i];
+                myValues[tmpSlot] = tmpValues[i];
+                myOccupied[tmpSlot] = true;
+            }
+        }
+    }
+
+    /**
+     * @return The slot holding the key, or the (unoccupied) slot where it should be inserted
+     */
+    private int slot(final long key) {
+        int retVal = LongToDoubleHashMap.hash(key) & myMask;
+        while (myOccupied[retVal] && (myKeys[retVal] != key)) {
+            retVal = (retVal + 1) & myMask;
+        }
+        return retVal;
+    }
+
+}
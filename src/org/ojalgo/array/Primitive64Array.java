@@ -412,6 +412,11 @@ public class Primitive64Array extends PrimitiveArray {
         return Arrays.hashCode(data);
     }
 
+    @Override
+    public PrimitiveSpliterator primitiveSpliterator() {
+        return PrimitiveSpliterator.of(data, 0, 1, data.length);
+    }
+
     @Override
     public final void sortAscending() {
         Arrays.parallelSort(data);
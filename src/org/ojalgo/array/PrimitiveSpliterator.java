@@ -0,0 +1,251 @@
+/*
+ * Copyright 1997-2018 Optimatika
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.ojalgo.array;
+
+import java.util.Spliterator;
+import java.util.function.DoubleConsumer;
+
+import org.ojalgo.array.SparseArray.NonzeroPrimitiveCallback;
+import org.ojalgo.structure.Access1D;
+
+/**
+ * A {@link Spliterator.OfDouble} that always splits in (equally sized) halves and always knows its exact
+ * size – {@link Spliterator#SIZED} and {@link Spliterator#SUBSIZED}. Use it with
+ * {@link java.util.stream.StreamSupport#doubleStream(Spliterator.OfDouble, boolean)} for unboxed (parallel)
+ * streams of values, or call {@link #forEachRemaining(NonzeroPrimitiveCallback)} to get each element's index
+ * together with its value – also without boxing. Depending on where the spliterator came from the values
+ * may, or may not, include zeros.
+ *
+ * @author apete
+ */
+public abstract class PrimitiveSpliterator implements Spliterator.OfDouble {
+
+    static final class AnyAccess extends PrimitiveSpliterator {
+
+        private final Access1D<?> myValues;
+
+        AnyAccess(final Access1D<?> values, final long first, final long limit) {
+            super(first, limit);
+            myValues = values;
+        }
+
+        @Override
+        double doubleValue(final long position) {
+            return myValues.doubleValue(position);
+        }
+
+        @Override
+        long index(final long position) {
+            return position;
+        }
+
+        @Override
+        PrimitiveSpliterator split(final long first, final long limit) {
+            return new AnyAccess(myValues, first, limit);
+        }
+
+    }
+
+    static final class ArrayRange extends PrimitiveSpliterator {
+
+        private final double[] myData;
+        private final int myOffset;
+        private final int myStride;
+
+        ArrayRange(final double[] data, final int offset, final int stride, final long first, final long limit) {
+            super(first, limit);
+            myData = data;
+            myOffset = offset;
+            myStride = stride;
+        }
+
+        @Override
+        public void forEachRemaining(final DoubleConsumer action) {
+            final double[] tmpData = myData;
+            for (int i = myOffset + ((int) this.cursor() * myStride), lim = myOffset + ((int) this.limit() * myStride); i < lim; i += myStride) {
+                action.accept(tmpData[i]);
+            }
+            this.exhaust();
+        }
+
+        @Override
+        double doubleValue(final long position) {
+            return myData[myOffset + ((int) position * myStride)];
+        }
+
+        @Override
+        long index(final long position) {
+            return position;
+        }
+
+        @Override
+        PrimitiveSpliterator split(final long first, final long limit) {
+            return new ArrayRange(myData, myOffset, myStride, first, limit);
+        }
+
+    }
+
+    static final class Nonzeros extends PrimitiveSpliterator {
+
+        private final long[] myIndices;
+        private final DenseArray<?> myValues;
+
+        Nonzeros(final long[] indices, final DenseArray<?> values, final long first, final long limit) {
+            super(first, limit);
+            myIndices = indices;
+            myValues = values;
+        }
+
+        @Override
+        double doubleValue(final long position) {
+            return myValues.doubleValue(position);
+        }
+
+        @Override
+        long index(final long position) {
+            return myIndices[(int) position];
+        }
+
+        @Override
+        PrimitiveSpliterator split(final long first, final long limit) {
+            return new Nonzeros(myIndices, myValues, first, limit);
+        }
+
+    }
+
+    static final int CHARACTERISTICS = Spliterator.IMMUTABLE | Spliterator.NONNULL | Spliterator.ORDERED | Spliterator.SIZED | Spliterator.SUBSIZED;
+
+    /**
+     * Spliterator over any {@link Access1D}, the index of each element is its position in the structure.
+     */
+    public static PrimitiveSpliterator of(final Access1D<?> values) {
+        return new AnyAccess(values, 0L, values.count());
+    }
+
+    /**
+     * Spliterator over count elements of data, starting at offset and separated by stride. The index of each
+     * element is its position in that sequence – [0, count).
+     */
+    public static PrimitiveSpliterator of(final double[] data, final int offset, final int stride, final int count) {
+        return new ArrayRange(data, offset, stride, 0L, count);
+    }
+
+    private long myCursor;
+    private final long myLimit;
+
+    PrimitiveSpliterator(final long first, final long limit) {
+
+        super();
+
+        myCursor = first;
+        myLimit = limit;
+    }
+
+    public int characteristics() {
+        return CHARACTERISTICS;
+    }
+
+    public long estimateSize() {
+        return myLimit - myCursor;
+    }
+
+    public void forEachRemaining(final DoubleConsumer action) {
+        for (long p = myCursor; p < myLimit; p++) {
+            action.accept(this.doubleValue(p));
+        }
+        myCursor = myLimit;
+    }
+
+    /**
+     * Same as {@link #forEachRemaining(DoubleConsumer)} but also supplies the index of each element.
+     */
+    public void forEachRemaining(final NonzeroPrimitiveCallback action) {
+        for (long p = myCursor; p < myLimit; p++) {
+            action.call(this.index(p), this.doubleValue(p));
+        }
+        myCursor = myLimit;
+    }
+
+    public boolean tryAdvance(final DoubleConsumer action) {
+        if (myCursor < myLimit) {
+            action.accept(this.doubleValue(myCursor++));
+            return true;
+        } else {
+            return false;
+        }
+    }
+
+    /**
+     * Same as {@link #tryAdvance(DoubleConsumer)} but also supplies the index of the element.
+     */
+    public boolean tryAdvance(final NonzeroPrimitiveCallback action) {
+        if (myCursor < myLimit) {
+            final long tmpPosition = myCursor++;
+            action.call(this.index(tmpPosition), this.doubleValue(tmpPosition));
+            return true;
+        } else {
+            return false;
+        }
+    }
+
+    public PrimitiveSpliterator trySplit() {
+
+        final long remaining = myLimit - myCursor;
+
+        if (remaining > 1L) {
+
+            final long split = myCursor + (remaining / 2L);
+
+            final PrimitiveSpliterator retVal = this.split(myCursor, split);
+
+            myCursor = split;
+
+            return retVal;
+
+        } else {
+
+            return null;
+        }
+    }
+
+    final long cursor() {
+        return myCursor;
+    }
+
+    abstract double doubleValue(long position);
+
+    final void exhaust() {
+        myCursor = myLimit;
+    }
+
+    abstract long index(long position);
+
+    final long limit() {
+        return myLimit;
+    }
+
+    /**
+     * @return A new instance covering the positions [first, limit) of the same data
+     */
+    abstract PrimitiveSpliterator split(long first, long limit);
+
+}
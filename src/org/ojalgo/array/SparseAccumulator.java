@@ -0,0 +1,215 @@
+/*
+ * Copyright 1997-2018 Optimatika
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.ojalgo.array;
+
+import static org.ojalgo.constant.PrimitiveMath.*;
+
+import java.util.Arrays;
+
+import org.ojalgo.ProgrammingError;
+import org.ojalgo.structure.Mutate1D;
+import org.ojalgo.structure.Structure2D;
+
+/**
+ * Coordinate format (COO/triplet) assembly of sparse structures. Entries are appended, in any order and with
+ * any number of duplicates, at O(1) cost. Duplicates are summed when the accumulated entries are compressed
+ * – that happens (at most once per batch of added entries) when they are supplied to a receiver or converted
+ * to a {@link SparseArray}, and costs O(nnz log nnz).
+ * <p>
+ * Typical use is assembling finite element stiffness matrices or model coefficients, where each entry is a
+ * sum of contributions that arrive in random order. Populate a SparseStore with
+ * {@link #supplyTo(Mutate1D)} – the entries are set in column-major (increasing index) order, so the
+ * SparseStore's internal storage is appended to rather than shifted.
+ * </p>
+ * <p>
+ * Separate instances can be populated by separate threads and then merged with
+ * {@link #addAll(SparseAccumulator)}.
+ * </p>
+ *
+ * @author apete
+ */
+public final class SparseAccumulator implements Structure2D {
+
+    private static final int INITIAL = 16;
+
+    private final long myColumns;
+    private int myCompressed = 0;
+    private long[] myIndices;
+    private final long myRows;
+    private int mySize = 0;
+    private double[] myValues;
+
+    /**
+     * For a 1-dimensional structure (a single column).
+     */
+    public SparseAccumulator(final long count) {
+        this(count, 1L);
+    }
+
+    public SparseAccumulator(final long rows, final long columns) {
+        this(rows, columns, INITIAL);
+    }
+
+    /**
+     * @param expected The expected number of added entries (including duplicates)
+     */
+    public SparseAccumulator(final long rows, final long columns, final int expected) {
+
+        super();
+
+        if ((rows < 0L) || (columns < 0L)) {
+            throw new IllegalArgumentException();
+        }
+
+        myRows = rows;
+        myColumns = columns;
+
+        myIndices = new long[Math.max(1, expected)];
+        myValues = new double[myIndices.length];
+    }
+
+    public void add(final long index, final double value) {
+
+        if ((index < 0L) || (index >= this.count())) {
+            throw new ArrayIndexOutOfBoundsException();
+        }
+
+        if (mySize == myIndices.length) {
+            this.grow(mySize + 1);
+        }
+
+        myIndices[mySize] = index;
+        myValues[mySize] = value;
+        mySize++;
+    }
+
+    public void add(final long row, final long col, final double value) {
+
+        if ((row < 0L) || (row >= myRows) || (col < 0L) || (col >= myColumns)) {
+            throw new ArrayIndexOutOfBoundsException();
+        }
+
+        this.add(Structure2D.index(myRows, row, col), value);
+    }
+
+    /**
+     * Appends all entries of the other instance, that must have the same shape.
+     */
+    public void addAll(final SparseAccumulator other) {
+
+        if ((myRows != other.countRows()) || (myColumns != other.countColumns())) {
+            throw new ProgrammingError("Not equal dimensions!");
+        }
+
+        if ((mySize + other.size()) > myIndices.length) {
+            this.grow(mySize + other.size());
+        }
+
+        System.arraycopy(other.myIndices, 0, myIndices, mySize, other.size());
+        System.arraycopy(other.myValues, 0, myValues, mySize, other.size());
+        mySize += other.size();
+    }
+
+    public long countColumns() {
+        return myColumns;
+    }
+
+    public long countRows() {
+        return myRows;
+    }
+
+    public void reset() {
+        mySize = 0;
+        myCompressed = 0;
+    }
+
+    /**
+     * @return The number of entries currently held – duplicates are counted separately until they have been
+     *         summed.
+     */
+    public int size() {
+        return mySize;
+    }
+
+    /**
+     * Sums duplicates and sets the (nonzero) results on the receiver in increasing index order.
+     */
+    public void supplyTo(final Mutate1D receiver) {
+
+        this.compress();
+
+        for (int i = 0; i < mySize; i++) {
+            receiver.set(myIndices[i], myValues[i]);
+        }
+    }
+
+    public <N extends Number> SparseArray<N> toSparseArray(final DenseArray.Factory<N> denseFactory) {
+
+        this.compress();
+
+        final SparseArray<N> retVal = SparseArray.factory(denseFactory, this.count()).initial(Math.max(1, mySize)).make();
+        this.supplyTo(retVal);
+        return retVal;
+    }
+
+    @Override
+    public String toString() {
+        return this.getClass().getSimpleName() + " " + myRows + "x" + myColumns + " size=" + mySize;
+    }
+
+    /**
+     * Sums duplicates, drops zeros and sorts by index. The entries up to {@link #myCompressed} already are.
+     */
+    void compress() {
+
+        if (myCompressed == mySize) {
+            return;
+        }
+
+        final LongToDoubleHashMap tmpSums = new LongToDoubleHashMap(mySize);
+        for (int i = 0; i < mySize; i++) {
+            tmpSums.add(myIndices[i], myValues[i]);
+        }
+
+        final long[] tmpKeys = tmpSums.sortedKeys();
+
+        int tmpSize = 0;
+        for (int k = 0; k < tmpKeys.length; k++) {
+            final double tmpValue = tmpSums.get(tmpKeys[k]);
+            if (tmpValue != ZERO) {
+                myIndices[tmpSize] = tmpKeys[k];
+                myValues[tmpSize] = tmpValue;
+                tmpSize++;
+            }
+        }
+
+        mySize = tmpSize;
+        myCompressed = tmpSize;
+    }
+
+    private void grow(final int minimum) {
+        final int tmpLength = Math.max(minimum, 2 * myIndices.length);
+        myIndices = Arrays.copyOf(myIndices, tmpLength);
+        myValues = Arrays.copyOf(myValues, tmpLength);
+    }
+
+}
@@ -444,6 +444,14 @@ public final class SparseArray<N extends Number> extends BasicArray<N> {
         this.set(index, modifier.invoke(this.get(index)));
     }
 
+    /**
+     * Same nonzero elements as {@link #nonzeros()}, but primitive – no boxing and no per-element view objects
+     * – and always splitting in halves.
+     */
+    public PrimitiveSpliterator nonzeroSpliterator() {
+        return new PrimitiveSpliterator.Nonzeros(myIndices, myValues, 0L, myActualLength);
+    }
+
     public NonzeroView<N> nonzeros() {
         return new NonzeroView<>(myIndices, myValues, myActualLength);
     }
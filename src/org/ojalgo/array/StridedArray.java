@@ -0,0 +1,412 @@
+/*
+ * Copyright 1997-2018 Optimatika
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.ojalgo.array;
+
+import java.util.Arrays;
+
+import org.ojalgo.function.NullaryFunction;
+import org.ojalgo.function.UnaryFunction;
+import org.ojalgo.function.VoidFunction;
+import org.ojalgo.structure.AccessAnyD;
+import org.ojalgo.structure.MutateAnyD;
+import org.ojalgo.structure.StructureAnyD;
+
+/**
+ * A view of (part of) a {@link BasicArray} described by an offset and a stride per dimension. Transposing,
+ * permuting, reshaping and slicing (sub-blocks and steps) all return new views of the same underlying array
+ * – nothing is copied. Use {@link #copy()} to get an independent, compact, {@link ArrayAnyD}.
+ * <p>
+ * Linear indices, as well as the iteration order of the bulk operations, follow the ojAlgo convention that
+ * the first dimension varies fastest. The bulk operations ({@link #fillAll(Number)},
+ * {@link #modifyAll(UnaryFunction)}, {@link #visitAll(VoidFunction)} and {@link #copy()}) first merge
+ * dimensions that are laid out contiguously in relation to each other, and then delegate each run along the
+ * (merged) first dimension to the underlying array's strided range operations.
+ *
+ * @author apete
+ */
+public final class StridedArray<N extends Number> implements AccessAnyD<N>, MutateAnyD {
+
+    @FunctionalInterface
+    interface RunCallback {
+
+        void call(long first, long limit, long step);
+
+    }
+
+    static long[] strides(final long[] shape) {
+        final long[] retVal = new long[shape.length];
+        long tmpStride = 1L;
+        for (int d = 0; d < shape.length; d++) {
+            retVal[d] = tmpStride;
+            tmpStride *= shape[d];
+        }
+        return retVal;
+    }
+
+    private final BasicArray<N> myDelegate;
+    private final long myOffset;
+    private final long[] myShape;
+    private final long[] myStrides;
+
+    StridedArray(final BasicArray<N> delegate, final long offset, final long[] shape, final long[] strides) {
+
+        super();
+
+        myDelegate = delegate;
+        myOffset = offset;
+        myShape = shape;
+        myStrides = strides;
+    }
+
+    public void add(final long index, final double addend) {
+        myDelegate.add(this.index(index), addend);
+    }
+
+    public void add(final long index, final Number addend) {
+        myDelegate.add(this.index(index), addend);
+    }
+
+    public void add(final long[] reference, final double addend) {
+        myDelegate.add(this.index(reference), addend);
+    }
+
+    public void add(final long[] reference, final Number addend) {
+        myDelegate.add(this.index(reference), addend);
+    }
+
+    /**
+     * @return A compact copy, with the same shape, backed by a new array of the same type as the underlying
+     *         array of this view.
+     */
+    @SuppressWarnings("unchecked")
+    public ArrayAnyD<N> copy() {
+
+        final BasicArray<N> tmpCopy = (BasicArray<N>) myDelegate.factory().makeZero(this.count());
+
+        final long[] tmpIndex = new long[1];
+        this.runs((first, limit, step) -> {
+            for (long i = first; i < limit; i += step) {
+                tmpCopy.fillOne(tmpIndex[0]++, myDelegate, i);
+            }
+        });
+
+        return tmpCopy.wrapInArrayAnyD(this.shape());
+    }
+
+    public long count() {
+        return StructureAnyD.count(myShape);
+    }
+
+    public long count(final int dimension) {
+        return dimension < myShape.length ? myShape[dimension] : 1L;
+    }
+
+    @Override
+    public double doubleValue(final long index) {
+        return myDelegate.doubleValue(this.index(index));
+    }
+
+    public double doubleValue(final long[] ref) {
+        return myDelegate.doubleValue(this.index(ref));
+    }
+
+    public void fillAll(final N value) {
+        this.runs((first, limit, step) -> myDelegate.fill(first, limit, step, value));
+    }
+
+    public void fillAll(final NullaryFunction<N> supplier) {
+        this.runs((first, limit, step) -> myDelegate.fill(first, limit, step, supplier));
+    }
+
+    @Override
+    public N get(final long index) {
+        return myDelegate.get(this.index(index));
+    }
+
+    public N get(final long[] ref) {
+        return myDelegate.get(this.index(ref));
+    }
+
+    /**
+     * @return true if the elements of this view make up one contiguous range of the underlying array (in the
+     *         same order)
+     */
+    public boolean isContiguous() {
+        final long[][] tmpMerged = this.merge();
+        return (tmpMerged[0].length == 0) || ((tmpMerged[0].length == 1) && (tmpMerged[1][0] == 1L));
+    }
+
+    public void modifyAll(final UnaryFunction<N> modifier) {
+        this.runs((first, limit, step) -> myDelegate.modify(first, limit, step, modifier));
+    }
+
+    /**
+     * @param dimensions The new order of the dimensions – dimension d of the returned view is dimension
+     *        dimensions[d] of this view.
+     */
+    public StridedArray<N> permute(final int... dimensions) {
+
+        if (dimensions.length != myShape.length) {
+            throw new IllegalArgumentException("Must specify all " + myShape.length + " dimensions!");
+        }
+
+        final boolean[] tmpUsed = new boolean[myShape.length];
+        final long[] tmpShape = new long[myShape.length];
+        final long[] tmpStrides = new long[myShape.length];
+
+        for (int d = 0; d < dimensions.length; d++) {
+            if (tmpUsed[dimensions[d]]) {
+                throw new IllegalArgumentException("Repeated dimension " + dimensions[d] + "!");
+            }
+            tmpUsed[dimensions[d]] = true;
+            tmpShape[d] = myShape[dimensions[d]];
+            tmpStrides[d] = myStrides[dimensions[d]];
+        }
+
+        return new StridedArray<>(myDelegate, myOffset, tmpShape, tmpStrides);
+    }
+
+    public int rank() {
+        return myShape.length;
+    }
+
+    /**
+     * Only possible, without copying, when the elements are evenly spaced in the underlying array (when the
+     * view is contiguous or a stepped range of a contiguous view).
+     *
+     * @param shape The new shape, must have the same total count
+     */
+    public StridedArray<N> reshape(final long... shape) {
+
+        if (StructureAnyD.count(shape) != this.count()) {
+            throw new IllegalArgumentException("Count mismatch: " + Arrays.toString(shape) + " vs " + Arrays.toString(myShape) + "!");
+        }
+
+        final long[][] tmpMerged = this.merge();
+        if (tmpMerged[0].length > 1) {
+            throw new IllegalStateException("Not possible without copying – use copy() first!");
+        }
+
+        final long tmpStep = tmpMerged[0].length == 1 ? tmpMerged[1][0] : 1L;
+
+        final long[] tmpStrides = StridedArray.strides(shape);
+        for (int d = 0; d < tmpStrides.length; d++) {
+            tmpStrides[d] *= tmpStep;
+        }
+
+        return new StridedArray<>(myDelegate, myOffset, shape.clone(), tmpStrides);
+    }
+
+    /**
+     * @return A view of rank one less, with the specified dimension fixed at the specified index
+     */
+    public StridedArray<N> select(final int dimension, final long index) {
+
+        this.check(dimension, index);
+
+        final long[] tmpShape = new long[myShape.length - 1];
+        final long[] tmpStrides = new long[myShape.length - 1];
+        for (int d = 0, t = 0; d < myShape.length; d++) {
+            if (d != dimension) {
+                tmpShape[t] = myShape[d];
+                tmpStrides[t] = myStrides[d];
+                t++;
+            }
+        }
+
+        return new StridedArray<>(myDelegate, myOffset + (index * myStrides[dimension]), tmpShape, tmpStrides);
+    }
+
+    public void set(final long index, final double value) {
+        myDelegate.set(this.index(index), value);
+    }
+
+    public void set(final long index, final Number value) {
+        myDelegate.set(this.index(index), value);
+    }
+
+    public void set(final long[] reference, final double value) {
+        myDelegate.set(this.index(reference), value);
+    }
+
+    public void set(final long[] reference, final Number value) {
+        myDelegate.set(this.index(reference), value);
+    }
+
+    public long[] shape() {
+        return myShape.clone();
+    }
+
+    /**
+     * @param dimension The dimension to slice
+     * @param first The first index to include
+     * @param limit The index limit (exclusive)
+     * @param step Include every step:th index (must be positive)
+     */
+    public StridedArray<N> slice(final int dimension, final long first, final long limit, final long step) {
+
+        this.check(dimension, first);
+        if ((limit < first) || (limit > myShape[dimension]) || (step < 1L)) {
+            throw new IllegalArgumentException();
+        }
+
+        final long[] tmpShape = myShape.clone();
+        final long[] tmpStrides = myStrides.clone();
+
+        tmpShape[dimension] = ((limit - first) + step - 1L) / step;
+        tmpStrides[dimension] = myStrides[dimension] * step;
+
+        return new StridedArray<>(myDelegate, myOffset + (first * myStrides[dimension]), tmpShape, tmpStrides);
+    }
+
+    /**
+     * @param first The first reference to include
+     * @param limit The reference limits (exclusive)
+     * @return The sub-block [first, limit)
+     */
+    public StridedArray<N> slice(final long[] first, final long[] limit) {
+
+        StridedArray<N> retVal = this;
+
+        for (int d = 0; d < myShape.length; d++) {
+            retVal = retVal.slice(d, first[d], limit[d], 1L);
+        }
+
+        return retVal;
+    }
+
+    @Override
+    public String toString() {
+        return StridedArray.class.getSimpleName() + Arrays.toString(myShape);
+    }
+
+    /**
+     * @return A view with the dimensions in reverse order – for a 2D view the usual matrix transpose
+     */
+    public StridedArray<N> transpose() {
+
+        final int tmpRank = myShape.length;
+
+        final int[] tmpDimensions = new int[tmpRank];
+        for (int d = 0; d < tmpRank; d++) {
+            tmpDimensions[d] = tmpRank - 1 - d;
+        }
+
+        return this.permute(tmpDimensions);
+    }
+
+    public void visitAll(final VoidFunction<N> visitor) {
+        this.runs((first, limit, step) -> myDelegate.visit(first, limit, step, visitor));
+    }
+
+    private void check(final int dimension, final long index) {
+        if ((dimension < 0) || (dimension >= myShape.length) || (index < 0L) || (index >= myShape[dimension])) {
+            throw new ArrayIndexOutOfBoundsException("Dimension " + dimension + " index " + index + " not within " + Arrays.toString(myShape));
+        }
+    }
+
+    private long index(final long index) {
+        long retVal = myOffset;
+        long tmpRemaining = index;
+        for (int d = 0; d < myShape.length; d++) {
+            retVal += (tmpRemaining % myShape[d]) * myStrides[d];
+            tmpRemaining /= myShape[d];
+        }
+        return retVal;
+    }
+
+    private long index(final long[] reference) {
+        long retVal = myOffset;
+        for (int d = 0; d < reference.length; d++) {
+            retVal += reference[d] * myStrides[d];
+        }
+        return retVal;
+    }
+
+    /**
+     * Drops dimensions of size 1 and merges consecutive dimensions when the stride of the next one equals
+     * the extent of the previous.
+     *
+     * @return The merged shape and strides
+     */
+    private long[][] merge() {
+
+        final long[] tmpShape = new long[myShape.length];
+        final long[] tmpStrides = new long[myShape.length];
+        int tmpRank = 0;
+
+        for (int d = 0; d < myShape.length; d++) {
+            if (myShape[d] != 1L) {
+                if ((tmpRank > 0) && (myStrides[d] == (tmpStrides[tmpRank - 1] * tmpShape[tmpRank - 1]))) {
+                    tmpShape[tmpRank - 1] *= myShape[d];
+                } else {
+                    tmpShape[tmpRank] = myShape[d];
+                    tmpStrides[tmpRank] = myStrides[d];
+                    tmpRank++;
+                }
+            }
+        }
+
+        return new long[][] { Arrays.copyOf(tmpShape, tmpRank), Arrays.copyOf(tmpStrides, tmpRank) };
+    }
+
+    /**
+     * Calls back once for each run along the (merged) first dimension
+     */
+    private void runs(final RunCallback callback) {
+
+        if (this.count() == 0L) {
+            return;
+        }
+
+        final long[][] tmpMerged = this.merge();
+        final long[] tmpShape = tmpMerged[0];
+        final long[] tmpStrides = tmpMerged[1];
+        final int tmpRank = tmpShape.length;
+
+        if (tmpRank == 0) {
+            callback.call(myOffset, myOffset + 1L, 1L);
+            return;
+        }
+
+        final long tmpRunLength = tmpShape[0] * tmpStrides[0];
+        final long[] tmpRef = new long[tmpRank];
+        long tmpFirst = myOffset;
+
+        int d;
+        do {
+
+            callback.call(tmpFirst, tmpFirst + tmpRunLength, tmpStrides[0]);
+
+            for (d = 1; d < tmpRank; d++) {
+                tmpFirst += tmpStrides[d];
+                if (++tmpRef[d] < tmpShape[d]) {
+                    break;
+                }
+                tmpFirst -= tmpStrides[d] * tmpShape[d];
+                tmpRef[d] = 0L;
+            }
+
+        } while (d < tmpRank);
+    }
+
+}
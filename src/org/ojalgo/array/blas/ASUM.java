@@ -21,8 +21,6 @@
  */
 package org.ojalgo.array.blas;
 
-import org.ojalgo.function.PrimitiveFunction;
-
 /**
  * The ?asum routine computes the sum of the magnitudes of elements of a real vector, or the sum of magnitudes
  * of the real and imaginary parts of elements of a complex vector: res = |Re x1| + |Im x1| + |Re x2| + |Im
@@ -33,11 +31,24 @@ import org.ojalgo.function.PrimitiveFunction;
 public abstract class ASUM implements BLAS1 {
 
     public static double invoke(final double[] data, final int first, final int limit, final int step) {
-        double retVal = 0D;
-        for (int i = first; i < limit; i += step) {
-            retVal += PrimitiveFunction.ABS.invoke(data[i]);
+
+        double s0 = 0D;
+        double s1 = 0D;
+        double s2 = 0D;
+        double s3 = 0D;
+
+        int i = first;
+        for (final int last = limit - (3 * step); i < last; i += 4 * step) {
+            s0 += Math.abs(data[i]);
+            s1 += Math.abs(data[i + step]);
+            s2 += Math.abs(data[i + (2 * step)]);
+            s3 += Math.abs(data[i + (3 * step)]);
         }
-        return retVal;
+        for (; i < limit; i += step) {
+            s0 += Math.abs(data[i]);
+        }
+
+        return (s0 + s1) + (s2 + s3);
     }
 
 }
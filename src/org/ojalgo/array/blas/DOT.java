@@ -36,6 +36,13 @@ import org.ojalgo.scalar.Scalar;
  */
 public abstract class DOT implements BLAS1 {
 
+    /**
+     * Vectors shorter than this are summed with a single accumulator. Longer ones are unrolled by 4 with 4
+     * independent accumulators, which breaks the loop carried dependency on the sum and lets the JIT keep
+     * several multiply-add chains (and SIMD lanes) in flight.
+     */
+    public static int UNROLL = 16;
+
     public static BigDecimal invoke(final BigDecimal[] array1, final int offset1, final BigDecimal[] array2, final int offset2, final int first,
             final int limit) {
         BigDecimal retVal = BigMath.ZERO;
@@ -55,206 +62,52 @@ public abstract class DOT implements BLAS1 {
     }
 
     public static double invoke(final double[] array1, final int offset1, final double[] array2, final int offset2, final int first, final int limit) {
-        double retVal = PrimitiveMath.ZERO;
-        for (int i = first; i < limit; i++) {
-            retVal += array1[offset1 + i] * array2[offset2 + i];
-        }
-        return retVal;
-    }
 
-    public static <N extends Number & Scalar<N>> N invoke(final N[] array1, final int offset1, final N[] array2, final int offset2, final int first,
-            final int limit, final Scalar.Factory<N> factory) {
-        Scalar<N> retVal = factory.zero();
-        for (int i = first; i < limit; i++) {
-            retVal = retVal.add(array1[offset1 + i].multiply(array2[offset2 + i]));
+        if ((limit - first) < UNROLL) {
+            double retVal = PrimitiveMath.ZERO;
+            for (int i = first; i < limit; i++) {
+                retVal += array1[offset1 + i] * array2[offset2 + i];
+            }
+            return retVal;
         }
-        return retVal.get();
-    }
 
-    public static double invoke2(final double[] array1, final int offset1, final double[] array2, final int offset2, final int first, final int limit) {
-
-        double retVal = PrimitiveMath.ZERO;
+        double s0 = PrimitiveMath.ZERO;
+        double s1 = PrimitiveMath.ZERO;
+        double s2 = PrimitiveMath.ZERO;
+        double s3 = PrimitiveMath.ZERO;
 
         int i = first;
-
-        for (; (i + 8) < limit; i += 8) {
-
-            final int base1 = offset1 + i;
-            final int base2 = offset2 + i;
-
-            final double m0 = array1[base1] * array2[base2];
-            final double m1 = array1[base1 + 1] * array2[base2 + 1];
-            final double m2 = array1[base1 + 2] * array2[base2 + 2];
-            final double m3 = array1[base1 + 3] * array2[base2 + 3];
-            final double m4 = array1[base1 + 4] * array2[base2 + 4];
-            final double m5 = array1[base1 + 5] * array2[base2 + 5];
-            final double m6 = array1[base1 + 6] * array2[base2 + 6];
-            final double m7 = array1[base1 + 7] * array2[base2 + 7];
-
-            final double s0 = m0 + m1;
-            final double s1 = m2 + m3;
-            final double s2 = m4 + m5;
-            final double s3 = m6 + m7;
-
-            final double a0 = s0 + s1;
-            final double a1 = s2 + s3;
-
-            retVal += (a0 + a1);
-        }
-
-        switch ((limit - first) % 8) {
-
-        case 7: {
-
-            final int base1 = offset1 + i;
-            final int base2 = offset2 + i;
-
-            final double m0 = array1[base1] * array2[base2];
-            final double m1 = array1[base1 + 1] * array2[base2 + 1];
-            final double m2 = array1[base1 + 2] * array2[base2 + 2];
-            final double m3 = array1[base1 + 3] * array2[base2 + 3];
-            final double m4 = array1[base1 + 4] * array2[base2 + 4];
-            final double m5 = array1[base1 + 5] * array2[base2 + 5];
-            final double m6 = array1[base1 + 6] * array2[base2 + 6];
-
-            final double s0 = m0 + m1;
-            final double s1 = m2 + m3;
-            final double s2 = m4 + m5;
-            final double s3 = m6;
-
-            final double a0 = s0 + s1;
-            final double a1 = s2 + s3;
-
-            retVal += (a0 + a1);
+        for (final int last = limit - 3; i < last; i += 4) {
+            final int i1 = offset1 + i;
+            final int i2 = offset2 + i;
+            s0 += array1[i1] * array2[i2];
+            s1 += array1[i1 + 1] * array2[i2 + 1];
+            s2 += array1[i1 + 2] * array2[i2 + 2];
+            s3 += array1[i1 + 3] * array2[i2 + 3];
         }
-
-            break;
-
-        case 6: {
-
-            final int base1 = offset1 + i;
-            final int base2 = offset2 + i;
-
-            final double m0 = array1[base1] * array2[base2];
-            final double m1 = array1[base1 + 1] * array2[base2 + 1];
-            final double m2 = array1[base1 + 2] * array2[base2 + 2];
-            final double m3 = array1[base1 + 3] * array2[base2 + 3];
-            final double m4 = array1[base1 + 4] * array2[base2 + 4];
-            final double m5 = array1[base1 + 5] * array2[base2 + 5];
-
-            final double s0 = m0 + m1;
-            final double s1 = m2 + m3;
-            final double s2 = m4 + m5;
-
-            final double a0 = s0 + s1;
-            final double a1 = s2;
-
-            retVal += (a0 + a1);
-        }
-
-            break;
-
-        case 5: {
-
-            final int base1 = offset1 + i;
-            final int base2 = offset2 + i;
-
-            final double m0 = array1[base1] * array2[base2];
-            final double m1 = array1[base1 + 1] * array2[base2 + 1];
-            final double m2 = array1[base1 + 2] * array2[base2 + 2];
-            final double m3 = array1[base1 + 3] * array2[base2 + 3];
-            final double m4 = array1[base1 + 4] * array2[base2 + 4];
-
-            final double s0 = m0 + m1;
-            final double s1 = m2 + m3;
-            final double s2 = m4;
-
-            final double a0 = s0 + s1;
-            final double a1 = s2;
-
-            retVal += (a0 + a1);
+        for (; i < limit; i++) {
+            s0 += array1[offset1 + i] * array2[offset2 + i];
         }
 
-            break;
-
-        case 4: {
-
-            final int base1 = offset1 + i;
-            final int base2 = offset2 + i;
-
-            final double m0 = array1[base1] * array2[base2];
-            final double m1 = array1[base1 + 1] * array2[base2 + 1];
-            final double m2 = array1[base1 + 2] * array2[base2 + 2];
-            final double m3 = array1[base1 + 3] * array2[base2 + 3];
-
-            final double s0 = m0 + m1;
-            final double s1 = m2 + m3;
-
-            final double a0 = s0 + s1;
-
-            retVal += a0;
-        }
-
-            break;
-
-        case 3: {
-
-            final int base1 = offset1 + i;
-            final int base2 = offset2 + i;
-
-            final double m0 = array1[base1] * array2[base2];
-            final double m1 = array1[base1 + 1] * array2[base2 + 1];
-            final double m2 = array1[base1 + 2] * array2[base2 + 2];
-
-            final double s0 = m0 + m1;
-            final double s1 = m2;
-
-            final double a0 = s0 + s1;
-
-            retVal += a0;
-        }
-
-            break;
-
-        case 2: {
-
-            final int base1 = offset1 + i;
-            final int base2 = offset2 + i;
-
-            final double m0 = array1[base1] * array2[base2];
-            final double m1 = array1[base1 + 1] * array2[base2 + 1];
-
-            final double s0 = m0 + m1;
-
-            final double a0 = s0;
-
-            retVal += a0;
-        }
-
-            break;
-
-        case 1: {
-
-            final int base1 = offset1 + i;
-            final int base2 = offset2 + i;
-
-            final double m0 = array1[base1] * array2[base2];
-
-            final double s0 = m0;
-
-            final double a0 = s0;
-
-            retVal += a0;
-        }
-
-            break;
-
-        default:
+        return (s0 + s1) + (s2 + s3);
+    }
 
-            throw new IllegalStateException();
+    public static <N extends Number & Scalar<N>> N invoke(final N[] array1, final int offset1, final N[] array2, final int offset2, final int first,
+            final int limit, final Scalar.Factory<N> factory) {
+        final Scalar.Accumulator<N> retVal = factory.newAccumulator();
+        for (int i = first; i < limit; i++) {
+            retVal.addProduct(array1[offset1 + i], array2[offset2 + i]);
         }
+        return retVal.get();
+    }
 
-        return retVal;
+    /**
+     * @deprecated Use {@link #invoke(double[], int, double[], int, int, int)} instead – it is now unrolled
+     *             with independent accumulators.
+     */
+    @Deprecated
+    public static double invoke2(final double[] array1, final int offset1, final double[] array2, final int offset2, final int first, final int limit) {
+        return DOT.invoke(array1, offset1, array2, offset2, first, limit);
     }
 
 }
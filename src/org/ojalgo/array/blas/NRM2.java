@@ -29,4 +29,60 @@ package org.ojalgo.array.blas;
  */
 public abstract class NRM2 implements BLAS1 {
 
+    /**
+     * Sums the squares using 4 independent accumulators. Only if that overflows, or underflows to zero while
+     * there are nonzero elements, is the (slower) scaled algorithm used.
+     */
+    public static double invoke(final double[] data, final int first, final int limit, final int step) {
+
+        double s0 = 0D;
+        double s1 = 0D;
+        double s2 = 0D;
+        double s3 = 0D;
+
+        int i = first;
+        for (final int last = limit - (3 * step); i < last; i += 4 * step) {
+            final double v0 = data[i];
+            final double v1 = data[i + step];
+            final double v2 = data[i + (2 * step)];
+            final double v3 = data[i + (3 * step)];
+            s0 += v0 * v0;
+            s1 += v1 * v1;
+            s2 += v2 * v2;
+            s3 += v3 * v3;
+        }
+        for (; i < limit; i += step) {
+            final double v0 = data[i];
+            s0 += v0 * v0;
+        }
+
+        final double retVal = Math.sqrt((s0 + s1) + (s2 + s3));
+
+        if (Double.isInfinite(retVal) || ((retVal == 0D) && (ASUM.invoke(data, first, limit, step) != 0D))) {
+            return NRM2.scaled(data, first, limit, step);
+        } else {
+            return retVal;
+        }
+    }
+
+    static double scaled(final double[] data, final int first, final int limit, final int step) {
+
+        double largest = 0D;
+        for (int i = first; i < limit; i += step) {
+            largest = Math.max(largest, Math.abs(data[i]));
+        }
+
+        if ((largest == 0D) || Double.isInfinite(largest) || Double.isNaN(largest)) {
+            return largest;
+        }
+
+        double sum = 0D;
+        for (int i = first; i < limit; i += step) {
+            final double v = data[i] / largest;
+            sum += v * v;
+        }
+
+        return largest * Math.sqrt(sum);
+    }
+
 }
@@ -29,4 +29,10 @@ package org.ojalgo.array.blas;
  */
 public abstract class SCAL implements BLAS1 {
 
+    public static void invoke(final double[] x, final int basex, final double a, final int first, final int limit) {
+        for (int i = first; i < limit; i++) {
+            x[basex + i] *= a;
+        }
+    }
+
 }
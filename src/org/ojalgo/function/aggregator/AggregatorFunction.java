@@ -36,6 +36,16 @@ public interface AggregatorFunction<N extends Number> extends VoidFunction<N>, A
      */
     void merge(N result);
 
+    /**
+     * Combine the partial state of another instance (of the same aggregator) into this one. Unlike
+     * {@link #merge(Number)} this always works – also for aggregators that are not {@link #isMergeable()}
+     * such as {@link Aggregator#AVERAGE} – and it correctly handles partial aggregators that have not
+     * seen any elements. The other instance is left unchanged.
+     */
+    default void merge(final AggregatorFunction<N> other) {
+        this.merge(other.get());
+    }
+
     AggregatorFunction<N> reset();
 
     Scalar<N> toScalar();
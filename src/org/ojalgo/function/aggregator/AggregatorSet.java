@@ -21,16 +21,26 @@
  */
 package org.ojalgo.function.aggregator;
 
+import java.util.stream.Collector;
+
+import org.ojalgo.structure.AccessScalar;
+
 /**
  * Do not cache instances of this class! The methods {@linkplain BigAggregator#getSet()},
  * {@linkplain ComplexAggregator#getSet()} and {@linkplain PrimitiveAggregator#getSet()} return threadlocal
  * instances, and when you access the individual aggregators they are {@linkplain AggregatorFunction#reset()}
- * for you.
+ * for you. When aggregating in parallel use {@linkplain #newInstance(Aggregator)} to get instances that are
+ * not shared, and combine the partial results using {@linkplain AggregatorFunction#merge(AggregatorFunction)}.
  *
  * @author apete
  */
 public abstract class AggregatorSet<N extends Number> {
 
+    private static <N extends Number> AggregatorFunction<N> combine(final AggregatorFunction<N> left, final AggregatorFunction<N> right) {
+        left.merge(right);
+        return left;
+    }
+
     protected AggregatorSet() {
         super();
     }
@@ -45,6 +55,22 @@ public abstract class AggregatorSet<N extends Number> {
      */
     public abstract AggregatorFunction<N> cardinality();
 
+    /**
+     * @return A {@link Collector} that aggregates a, possibly parallel, stream of numbers
+     */
+    public final Collector<N, AggregatorFunction<N>, N> collector(final Aggregator aggregator) {
+        return Collector.of(() -> this.newInstance(aggregator), (aggr, value) -> aggr.invoke(value), AggregatorSet::combine, AggregatorFunction::get);
+    }
+
+    /**
+     * Same as {@link #collector(Aggregator)} but for streams of element views – typically
+     * {@linkplain org.ojalgo.structure.ElementView1D#stream(boolean)}.
+     */
+    public final Collector<AccessScalar<N>, AggregatorFunction<N>, N> collectorOfElements(final Aggregator aggregator) {
+        return Collector.of(() -> this.newInstance(aggregator), (aggr, element) -> aggr.invoke(element.get()), AggregatorSet::combine,
+                AggregatorFunction::get);
+    }
+
     public final AggregatorFunction<N> get(final Aggregator aggregator) {
 
         switch (aggregator) {
@@ -118,6 +144,12 @@ public abstract class AggregatorSet<N extends Number> {
      */
     public abstract AggregatorFunction<N> minimum();
 
+    /**
+     * Unlike {@link #get(Aggregator)} this returns a new instance that is not thread-local and not reused by
+     * anything else. Use it to hold partial results when aggregating in parallel.
+     */
+    public abstract AggregatorFunction<N> newInstance(Aggregator aggregator);
+
     /**
      * Equivalent to, but probably faster than, norm(1);
      */
@@ -25,6 +25,7 @@ import static org.ojalgo.constant.BigMath.*;
 import static org.ojalgo.function.BigFunction.*;
 
 import java.math.BigDecimal;
+import java.util.function.Supplier;
 
 import org.ojalgo.ProgrammingError;
 import org.ojalgo.function.BigFunction;
@@ -33,66 +34,114 @@ import org.ojalgo.scalar.Scalar;
 
 public final class BigAggregator extends AggregatorSet<BigDecimal> {
 
-    static abstract class BigAggregatorFunction implements AggregatorFunction<BigDecimal> {
+    static final class Average extends BigAggregatorFunction {
 
-        public final double doubleValue() {
-            return this.get().doubleValue();
+        private int myCount = 0;
+        private BigDecimal myNumber = ZERO;
+
+        public BigDecimal get() {
+            return DIVIDE.invoke(myNumber, BigDecimal.valueOf(myCount));
         }
 
-        public final void invoke(final double anArg) {
-            this.invoke(new BigDecimal(anArg));
+        public int intValue() {
+            return this.get().intValue();
         }
 
-        public final Scalar<BigDecimal> toScalar() {
-            return BigScalar.of(this.get());
+        public void invoke(final BigDecimal anArg) {
+            myCount++;
+            myNumber = ADD.invoke(myNumber, anArg);
+        }
+
+        public boolean isMergeable() {
+            return false;
+        }
+
+        public void merge(final AggregatorFunction<BigDecimal> other) {
+
+            final Average tmpOther = (Average) other;
+
+            myCount += tmpOther.myCount;
+            myNumber = ADD.invoke(myNumber, tmpOther.myNumber);
+        }
+
+        public void merge(final BigDecimal result) {
+            ProgrammingError.throwForIllegalInvocation();
+        }
+
+        public AggregatorFunction<BigDecimal> reset() {
+            myCount = 0;
+            myNumber = ZERO;
+            return this;
         }
 
     }
 
-    public static final ThreadLocal<AggregatorFunction<BigDecimal>> AVERAGE = new ThreadLocal<AggregatorFunction<BigDecimal>>() {
+    static final class Minimum extends BigAggregatorFunction {
 
-        @Override
-        protected AggregatorFunction<BigDecimal> initialValue() {
-            return new BigAggregatorFunction() {
+        private BigDecimal myNumber = VERY_POSITIVE;
 
-                private int myCount = 0;
-                private BigDecimal myNumber = ZERO;
+        public BigDecimal get() {
+            if (myNumber.compareTo(VERY_POSITIVE) == 0) {
+                return ZERO;
+            } else {
+                return myNumber;
+            }
+        }
 
-                public BigDecimal get() {
-                    return DIVIDE.invoke(myNumber, BigDecimal.valueOf(myCount));
-                }
+        public int intValue() {
+            return this.get().intValue();
+        }
 
-                public int intValue() {
-                    return this.get().intValue();
-                }
+        public void invoke(final BigDecimal anArg) {
+            myNumber = BigFunction.MIN.invoke(myNumber, anArg);
+        }
 
-                public void invoke(final BigDecimal anArg) {
-                    myCount++;
-                    myNumber = ADD.invoke(myNumber, anArg);
-                }
+        public void merge(final AggregatorFunction<BigDecimal> other) {
 
-                public boolean isMergeable() {
-                    return false;
-                }
+            final Minimum tmpOther = (Minimum) other;
 
-                public void merge(final BigDecimal result) {
-                    ProgrammingError.throwForIllegalInvocation();
-                }
+            this.invoke(tmpOther.myNumber);
+        }
 
-                public AggregatorFunction<BigDecimal> reset() {
-                    myCount = 0;
-                    myNumber = ZERO;
-                    return this;
-                }
+        public void merge(final BigDecimal result) {
+            this.invoke(result);
+        }
 
-            };
+        public AggregatorFunction<BigDecimal> reset() {
+            myNumber = VERY_POSITIVE;
+            return this;
+        }
+
+    }
+
+    static abstract class BigAggregatorFunction implements AggregatorFunction<BigDecimal> {
+
+        public final double doubleValue() {
+            return this.get().doubleValue();
+        }
+
+        public final void invoke(final double anArg) {
+            this.invoke(new BigDecimal(anArg));
+        }
+
+        public final Scalar<BigDecimal> toScalar() {
+            return BigScalar.of(this.get());
+        }
+
+    }
+
+    private static final Supplier<AggregatorFunction<BigDecimal>> NEW_AVERAGE = new Supplier<AggregatorFunction<BigDecimal>>() {
+
+        public AggregatorFunction<BigDecimal> get() {
+            return new Average();
         }
     };
 
-    public static final ThreadLocal<AggregatorFunction<BigDecimal>> CARDINALITY = new ThreadLocal<AggregatorFunction<BigDecimal>>() {
+    public static final ThreadLocal<AggregatorFunction<BigDecimal>> AVERAGE = ThreadLocal.withInitial(NEW_AVERAGE);
+
+    private static final Supplier<AggregatorFunction<BigDecimal>> NEW_CARDINALITY = new Supplier<AggregatorFunction<BigDecimal>>() {
 
-        @Override
-        protected AggregatorFunction<BigDecimal> initialValue() {
+        public AggregatorFunction<BigDecimal> get() {
             return new BigAggregatorFunction() {
 
                 private int myCount = 0;
@@ -124,10 +173,11 @@ public final class BigAggregator extends AggregatorSet<BigDecimal> {
         }
     };
 
-    public static final ThreadLocal<AggregatorFunction<BigDecimal>> LARGEST = new ThreadLocal<AggregatorFunction<BigDecimal>>() {
+    public static final ThreadLocal<AggregatorFunction<BigDecimal>> CARDINALITY = ThreadLocal.withInitial(NEW_CARDINALITY);
 
-        @Override
-        protected AggregatorFunction<BigDecimal> initialValue() {
+    private static final Supplier<AggregatorFunction<BigDecimal>> NEW_LARGEST = new Supplier<AggregatorFunction<BigDecimal>>() {
+
+        public AggregatorFunction<BigDecimal> get() {
             return new BigAggregatorFunction() {
 
                 private BigDecimal myNumber = ZERO;
@@ -157,10 +207,11 @@ public final class BigAggregator extends AggregatorSet<BigDecimal> {
         }
     };
 
-    public static final ThreadLocal<AggregatorFunction<BigDecimal>> MAX = new ThreadLocal<AggregatorFunction<BigDecimal>>() {
+    public static final ThreadLocal<AggregatorFunction<BigDecimal>> LARGEST = ThreadLocal.withInitial(NEW_LARGEST);
+
+    private static final Supplier<AggregatorFunction<BigDecimal>> NEW_MAX = new Supplier<AggregatorFunction<BigDecimal>>() {
 
-        @Override
-        protected AggregatorFunction<BigDecimal> initialValue() {
+        public AggregatorFunction<BigDecimal> get() {
             return new BigAggregatorFunction() {
 
                 private BigDecimal myNumber = ZERO;
@@ -190,47 +241,20 @@ public final class BigAggregator extends AggregatorSet<BigDecimal> {
         }
     };
 
-    public static final ThreadLocal<AggregatorFunction<BigDecimal>> MIN = new ThreadLocal<AggregatorFunction<BigDecimal>>() {
+    public static final ThreadLocal<AggregatorFunction<BigDecimal>> MAX = ThreadLocal.withInitial(NEW_MAX);
 
-        @Override
-        protected AggregatorFunction<BigDecimal> initialValue() {
-            return new BigAggregatorFunction() {
-
-                private BigDecimal myNumber = VERY_POSITIVE;
-
-                public BigDecimal get() {
-                    if (myNumber.compareTo(VERY_POSITIVE) == 0) {
-                        return ZERO;
-                    } else {
-                        return myNumber;
-                    }
-                }
-
-                public int intValue() {
-                    return this.get().intValue();
-                }
-
-                public void invoke(final BigDecimal anArg) {
-                    myNumber = BigFunction.MIN.invoke(myNumber, anArg);
-                }
-
-                public void merge(final BigDecimal result) {
-                    this.invoke(result);
-                }
+    private static final Supplier<AggregatorFunction<BigDecimal>> NEW_MIN = new Supplier<AggregatorFunction<BigDecimal>>() {
 
-                public AggregatorFunction<BigDecimal> reset() {
-                    myNumber = VERY_POSITIVE;
-                    return this;
-                }
-
-            };
+        public AggregatorFunction<BigDecimal> get() {
+            return new Minimum();
         }
     };
 
-    public static final ThreadLocal<AggregatorFunction<BigDecimal>> NORM1 = new ThreadLocal<AggregatorFunction<BigDecimal>>() {
+    public static final ThreadLocal<AggregatorFunction<BigDecimal>> MIN = ThreadLocal.withInitial(NEW_MIN);
 
-        @Override
-        protected AggregatorFunction<BigDecimal> initialValue() {
+    private static final Supplier<AggregatorFunction<BigDecimal>> NEW_NORM1 = new Supplier<AggregatorFunction<BigDecimal>>() {
+
+        public AggregatorFunction<BigDecimal> get() {
             return new BigAggregatorFunction() {
 
                 private BigDecimal myNumber = ZERO;
@@ -260,10 +284,11 @@ public final class BigAggregator extends AggregatorSet<BigDecimal> {
         }
     };
 
-    public static final ThreadLocal<AggregatorFunction<BigDecimal>> NORM2 = new ThreadLocal<AggregatorFunction<BigDecimal>>() {
+    public static final ThreadLocal<AggregatorFunction<BigDecimal>> NORM1 = ThreadLocal.withInitial(NEW_NORM1);
+
+    private static final Supplier<AggregatorFunction<BigDecimal>> NEW_NORM2 = new Supplier<AggregatorFunction<BigDecimal>>() {
 
-        @Override
-        protected AggregatorFunction<BigDecimal> initialValue() {
+        public AggregatorFunction<BigDecimal> get() {
             return new BigAggregatorFunction() {
 
                 private BigDecimal myNumber = ZERO;
@@ -293,10 +318,11 @@ public final class BigAggregator extends AggregatorSet<BigDecimal> {
         }
     };
 
-    public static final ThreadLocal<AggregatorFunction<BigDecimal>> PRODUCT = new ThreadLocal<AggregatorFunction<BigDecimal>>() {
+    public static final ThreadLocal<AggregatorFunction<BigDecimal>> NORM2 = ThreadLocal.withInitial(NEW_NORM2);
 
-        @Override
-        protected AggregatorFunction<BigDecimal> initialValue() {
+    private static final Supplier<AggregatorFunction<BigDecimal>> NEW_PRODUCT = new Supplier<AggregatorFunction<BigDecimal>>() {
+
+        public AggregatorFunction<BigDecimal> get() {
             return new BigAggregatorFunction() {
 
                 private BigDecimal myNumber = ONE;
@@ -326,10 +352,11 @@ public final class BigAggregator extends AggregatorSet<BigDecimal> {
         }
     };
 
-    public static final ThreadLocal<AggregatorFunction<BigDecimal>> PRODUCT2 = new ThreadLocal<AggregatorFunction<BigDecimal>>() {
+    public static final ThreadLocal<AggregatorFunction<BigDecimal>> PRODUCT = ThreadLocal.withInitial(NEW_PRODUCT);
+
+    private static final Supplier<AggregatorFunction<BigDecimal>> NEW_PRODUCT2 = new Supplier<AggregatorFunction<BigDecimal>>() {
 
-        @Override
-        protected AggregatorFunction<BigDecimal> initialValue() {
+        public AggregatorFunction<BigDecimal> get() {
             return new BigAggregatorFunction() {
 
                 private BigDecimal myNumber = ONE;
@@ -359,10 +386,11 @@ public final class BigAggregator extends AggregatorSet<BigDecimal> {
         }
     };
 
-    public static final ThreadLocal<AggregatorFunction<BigDecimal>> SMALLEST = new ThreadLocal<AggregatorFunction<BigDecimal>>() {
+    public static final ThreadLocal<AggregatorFunction<BigDecimal>> PRODUCT2 = ThreadLocal.withInitial(NEW_PRODUCT2);
 
-        @Override
-        protected AggregatorFunction<BigDecimal> initialValue() {
+    private static final Supplier<AggregatorFunction<BigDecimal>> NEW_SMALLEST = new Supplier<AggregatorFunction<BigDecimal>>() {
+
+        public AggregatorFunction<BigDecimal> get() {
             return new BigAggregatorFunction() {
 
                 private BigDecimal myNumber = VERY_POSITIVE;
@@ -398,10 +426,11 @@ public final class BigAggregator extends AggregatorSet<BigDecimal> {
         }
     };
 
-    public static final ThreadLocal<AggregatorFunction<BigDecimal>> SUM = new ThreadLocal<AggregatorFunction<BigDecimal>>() {
+    public static final ThreadLocal<AggregatorFunction<BigDecimal>> SMALLEST = ThreadLocal.withInitial(NEW_SMALLEST);
+
+    private static final Supplier<AggregatorFunction<BigDecimal>> NEW_SUM = new Supplier<AggregatorFunction<BigDecimal>>() {
 
-        @Override
-        protected AggregatorFunction<BigDecimal> initialValue() {
+        public AggregatorFunction<BigDecimal> get() {
             return new BigAggregatorFunction() {
 
                 private BigDecimal myNumber = ZERO;
@@ -431,10 +460,11 @@ public final class BigAggregator extends AggregatorSet<BigDecimal> {
         }
     };
 
-    public static final ThreadLocal<AggregatorFunction<BigDecimal>> SUM2 = new ThreadLocal<AggregatorFunction<BigDecimal>>() {
+    public static final ThreadLocal<AggregatorFunction<BigDecimal>> SUM = ThreadLocal.withInitial(NEW_SUM);
 
-        @Override
-        protected AggregatorFunction<BigDecimal> initialValue() {
+    private static final Supplier<AggregatorFunction<BigDecimal>> NEW_SUM2 = new Supplier<AggregatorFunction<BigDecimal>>() {
+
+        public AggregatorFunction<BigDecimal> get() {
             return new BigAggregatorFunction() {
 
                 private BigDecimal myNumber = ZERO;
@@ -464,6 +494,8 @@ public final class BigAggregator extends AggregatorSet<BigDecimal> {
         }
     };
 
+    public static final ThreadLocal<AggregatorFunction<BigDecimal>> SUM2 = ThreadLocal.withInitial(NEW_SUM2);
+
     private static final BigAggregator SET = new BigAggregator();
 
     public static BigAggregator getSet() {
@@ -499,6 +531,65 @@ public final class BigAggregator extends AggregatorSet<BigDecimal> {
         return MIN.get().reset();
     }
 
+    @Override
+    public AggregatorFunction<BigDecimal> newInstance(final Aggregator aggregator) {
+
+        switch (aggregator) {
+
+        case AVERAGE:
+
+            return NEW_AVERAGE.get();
+
+        case CARDINALITY:
+
+            return NEW_CARDINALITY.get();
+
+        case LARGEST:
+
+            return NEW_LARGEST.get();
+
+        case MAXIMUM:
+
+            return NEW_MAX.get();
+
+        case MINIMUM:
+
+            return NEW_MIN.get();
+
+        case NORM1:
+
+            return NEW_NORM1.get();
+
+        case NORM2:
+
+            return NEW_NORM2.get();
+
+        case PRODUCT:
+
+            return NEW_PRODUCT.get();
+
+        case PRODUCT2:
+
+            return NEW_PRODUCT2.get();
+
+        case SMALLEST:
+
+            return NEW_SMALLEST.get();
+
+        case SUM:
+
+            return NEW_SUM.get();
+
+        case SUM2:
+
+            return NEW_SUM2.get();
+
+        default:
+
+            return null;
+        }
+    }
+
     @Override
     public AggregatorFunction<BigDecimal> norm1() {
         return NORM1.get().reset();
@@ -23,6 +23,8 @@ package org.ojalgo.function.aggregator;
 
 import static org.ojalgo.function.ComplexFunction.*;
 
+import java.util.function.Supplier;
+
 import org.ojalgo.ProgrammingError;
 import org.ojalgo.constant.PrimitiveMath;
 import org.ojalgo.function.ComplexFunction;
@@ -33,66 +35,114 @@ import org.ojalgo.scalar.Scalar;
 
 public final class ComplexAggregator extends AggregatorSet<ComplexNumber> {
 
-    static abstract class ComplexAggregatorFunction implements AggregatorFunction<ComplexNumber> {
+    static final class Average extends ComplexAggregatorFunction {
 
-        public final double doubleValue() {
-            return this.get().doubleValue();
+        private int myCount = 0;
+        private ComplexNumber myNumber = ComplexNumber.ZERO;
+
+        public ComplexNumber get() {
+            return myNumber.divide(myCount);
         }
 
-        public final void invoke(final double anArg) {
-            this.invoke(ComplexNumber.valueOf(anArg));
+        public int intValue() {
+            return this.get().intValue();
         }
 
-        public final Scalar<ComplexNumber> toScalar() {
-            return this.get();
+        public void invoke(final ComplexNumber anArg) {
+            myCount++;
+            myNumber = myNumber.add(anArg);
+        }
+
+        public boolean isMergeable() {
+            return false;
+        }
+
+        public void merge(final AggregatorFunction<ComplexNumber> other) {
+
+            final Average tmpOther = (Average) other;
+
+            myCount += tmpOther.myCount;
+            myNumber = myNumber.add(tmpOther.myNumber);
+        }
+
+        public void merge(final ComplexNumber result) {
+            ProgrammingError.throwForIllegalInvocation();
+        }
+
+        public AggregatorFunction<ComplexNumber> reset() {
+            myCount = 0;
+            myNumber = ComplexNumber.ZERO;
+            return this;
         }
 
     }
 
-    public static final ThreadLocal<AggregatorFunction<ComplexNumber>> AVERAGE = new ThreadLocal<AggregatorFunction<ComplexNumber>>() {
+    static final class Minimum extends ComplexAggregatorFunction {
 
-        @Override
-        protected AggregatorFunction<ComplexNumber> initialValue() {
-            return new ComplexAggregatorFunction() {
+        private ComplexNumber myNumber = ComplexNumber.INFINITY;
 
-                private int myCount = 0;
-                private ComplexNumber myNumber = ComplexNumber.ZERO;
+        public ComplexNumber get() {
+            if (ComplexNumber.isInfinite(myNumber)) {
+                return ComplexNumber.ZERO;
+            } else {
+                return myNumber;
+            }
+        }
 
-                public ComplexNumber get() {
-                    return myNumber.divide(myCount);
-                }
+        public int intValue() {
+            return this.get().intValue();
+        }
 
-                public int intValue() {
-                    return this.get().intValue();
-                }
+        public void invoke(final ComplexNumber anArg) {
+            myNumber = ComplexFunction.MIN.invoke(myNumber, anArg);
+        }
 
-                public void invoke(final ComplexNumber anArg) {
-                    myCount++;
-                    myNumber = myNumber.add(anArg);
-                }
+        public void merge(final AggregatorFunction<ComplexNumber> other) {
 
-                public boolean isMergeable() {
-                    return false;
-                }
+            final Minimum tmpOther = (Minimum) other;
 
-                public void merge(final ComplexNumber result) {
-                    ProgrammingError.throwForIllegalInvocation();
-                }
+            this.invoke(tmpOther.myNumber);
+        }
 
-                public AggregatorFunction<ComplexNumber> reset() {
-                    myCount = 0;
-                    myNumber = ComplexNumber.ZERO;
-                    return this;
-                }
+        public void merge(final ComplexNumber result) {
+            this.invoke(result);
+        }
 
-            };
+        public AggregatorFunction<ComplexNumber> reset() {
+            myNumber = ComplexNumber.INFINITY;
+            return this;
+        }
+
+    }
+
+    static abstract class ComplexAggregatorFunction implements AggregatorFunction<ComplexNumber> {
+
+        public final double doubleValue() {
+            return this.get().doubleValue();
+        }
+
+        public final void invoke(final double anArg) {
+            this.invoke(ComplexNumber.valueOf(anArg));
+        }
+
+        public final Scalar<ComplexNumber> toScalar() {
+            return this.get();
+        }
+
+    }
+
+    private static final Supplier<AggregatorFunction<ComplexNumber>> NEW_AVERAGE = new Supplier<AggregatorFunction<ComplexNumber>>() {
+
+        public AggregatorFunction<ComplexNumber> get() {
+            return new Average();
         }
     };
 
-    public static final ThreadLocal<AggregatorFunction<ComplexNumber>> CARDINALITY = new ThreadLocal<AggregatorFunction<ComplexNumber>>() {
+    public static final ThreadLocal<AggregatorFunction<ComplexNumber>> AVERAGE = ThreadLocal.withInitial(NEW_AVERAGE);
+
+    private static final Supplier<AggregatorFunction<ComplexNumber>> NEW_CARDINALITY = new Supplier<AggregatorFunction<ComplexNumber>>() {
 
-        @Override
-        protected AggregatorFunction<ComplexNumber> initialValue() {
+        public AggregatorFunction<ComplexNumber> get() {
             return new ComplexAggregatorFunction() {
 
                 private int myCount = 0;
@@ -123,10 +173,11 @@ public final class ComplexAggregator extends AggregatorSet<ComplexNumber> {
             };
         }
     };
-    public static final ThreadLocal<AggregatorFunction<ComplexNumber>> LARGEST = new ThreadLocal<AggregatorFunction<ComplexNumber>>() {
 
-        @Override
-        protected AggregatorFunction<ComplexNumber> initialValue() {
+    public static final ThreadLocal<AggregatorFunction<ComplexNumber>> CARDINALITY = ThreadLocal.withInitial(NEW_CARDINALITY);
+    private static final Supplier<AggregatorFunction<ComplexNumber>> NEW_LARGEST = new Supplier<AggregatorFunction<ComplexNumber>>() {
+
+        public AggregatorFunction<ComplexNumber> get() {
             return new ComplexAggregatorFunction() {
 
                 private ComplexNumber myNumber = ComplexNumber.ZERO;
@@ -156,10 +207,11 @@ public final class ComplexAggregator extends AggregatorSet<ComplexNumber> {
         }
     };
 
-    public static final ThreadLocal<AggregatorFunction<ComplexNumber>> MAX = new ThreadLocal<AggregatorFunction<ComplexNumber>>() {
+    public static final ThreadLocal<AggregatorFunction<ComplexNumber>> LARGEST = ThreadLocal.withInitial(NEW_LARGEST);
+
+    private static final Supplier<AggregatorFunction<ComplexNumber>> NEW_MAX = new Supplier<AggregatorFunction<ComplexNumber>>() {
 
-        @Override
-        protected AggregatorFunction<ComplexNumber> initialValue() {
+        public AggregatorFunction<ComplexNumber> get() {
             return new ComplexAggregatorFunction() {
 
                 private ComplexNumber myNumber = ComplexNumber.ZERO;
@@ -189,47 +241,20 @@ public final class ComplexAggregator extends AggregatorSet<ComplexNumber> {
         }
     };
 
-    public static final ThreadLocal<AggregatorFunction<ComplexNumber>> MIN = new ThreadLocal<AggregatorFunction<ComplexNumber>>() {
+    public static final ThreadLocal<AggregatorFunction<ComplexNumber>> MAX = ThreadLocal.withInitial(NEW_MAX);
 
-        @Override
-        protected AggregatorFunction<ComplexNumber> initialValue() {
-            return new ComplexAggregatorFunction() {
-
-                private ComplexNumber myNumber = ComplexNumber.INFINITY;
-
-                public ComplexNumber get() {
-                    if (ComplexNumber.isInfinite(myNumber)) {
-                        return ComplexNumber.ZERO;
-                    } else {
-                        return myNumber;
-                    }
-                }
-
-                public int intValue() {
-                    return this.get().intValue();
-                }
-
-                public void invoke(final ComplexNumber anArg) {
-                    myNumber = ComplexFunction.MIN.invoke(myNumber, anArg);
-                }
-
-                public void merge(final ComplexNumber result) {
-                    this.invoke(result);
-                }
+    private static final Supplier<AggregatorFunction<ComplexNumber>> NEW_MIN = new Supplier<AggregatorFunction<ComplexNumber>>() {
 
-                public AggregatorFunction<ComplexNumber> reset() {
-                    myNumber = ComplexNumber.INFINITY;
-                    return this;
-                }
-
-            };
+        public AggregatorFunction<ComplexNumber> get() {
+            return new Minimum();
         }
     };
 
-    public static final ThreadLocal<AggregatorFunction<ComplexNumber>> NORM1 = new ThreadLocal<AggregatorFunction<ComplexNumber>>() {
+    public static final ThreadLocal<AggregatorFunction<ComplexNumber>> MIN = ThreadLocal.withInitial(NEW_MIN);
 
-        @Override
-        protected AggregatorFunction<ComplexNumber> initialValue() {
+    private static final Supplier<AggregatorFunction<ComplexNumber>> NEW_NORM1 = new Supplier<AggregatorFunction<ComplexNumber>>() {
+
+        public AggregatorFunction<ComplexNumber> get() {
             return new ComplexAggregatorFunction() {
 
                 private ComplexNumber myNumber = ComplexNumber.ZERO;
@@ -259,10 +284,11 @@ public final class ComplexAggregator extends AggregatorSet<ComplexNumber> {
         }
     };
 
-    public static final ThreadLocal<AggregatorFunction<ComplexNumber>> NORM2 = new ThreadLocal<AggregatorFunction<ComplexNumber>>() {
+    public static final ThreadLocal<AggregatorFunction<ComplexNumber>> NORM1 = ThreadLocal.withInitial(NEW_NORM1);
+
+    private static final Supplier<AggregatorFunction<ComplexNumber>> NEW_NORM2 = new Supplier<AggregatorFunction<ComplexNumber>>() {
 
-        @Override
-        protected AggregatorFunction<ComplexNumber> initialValue() {
+        public AggregatorFunction<ComplexNumber> get() {
             return new ComplexAggregatorFunction() {
 
                 private ComplexNumber myNumber = ComplexNumber.ZERO;
@@ -293,10 +319,11 @@ public final class ComplexAggregator extends AggregatorSet<ComplexNumber> {
         }
     };
 
-    public static final ThreadLocal<AggregatorFunction<ComplexNumber>> PRODUCT = new ThreadLocal<AggregatorFunction<ComplexNumber>>() {
+    public static final ThreadLocal<AggregatorFunction<ComplexNumber>> NORM2 = ThreadLocal.withInitial(NEW_NORM2);
 
-        @Override
-        protected AggregatorFunction<ComplexNumber> initialValue() {
+    private static final Supplier<AggregatorFunction<ComplexNumber>> NEW_PRODUCT = new Supplier<AggregatorFunction<ComplexNumber>>() {
+
+        public AggregatorFunction<ComplexNumber> get() {
             return new ComplexAggregatorFunction() {
 
                 private ComplexNumber myNumber = ComplexNumber.ONE;
@@ -325,10 +352,11 @@ public final class ComplexAggregator extends AggregatorSet<ComplexNumber> {
             };
         }
     };
-    public static final ThreadLocal<AggregatorFunction<ComplexNumber>> PRODUCT2 = new ThreadLocal<AggregatorFunction<ComplexNumber>>() {
 
-        @Override
-        protected AggregatorFunction<ComplexNumber> initialValue() {
+    public static final ThreadLocal<AggregatorFunction<ComplexNumber>> PRODUCT = ThreadLocal.withInitial(NEW_PRODUCT);
+    private static final Supplier<AggregatorFunction<ComplexNumber>> NEW_PRODUCT2 = new Supplier<AggregatorFunction<ComplexNumber>>() {
+
+        public AggregatorFunction<ComplexNumber> get() {
             return new ComplexAggregatorFunction() {
 
                 private ComplexNumber myNumber = ComplexNumber.ONE;
@@ -358,10 +386,11 @@ public final class ComplexAggregator extends AggregatorSet<ComplexNumber> {
         }
     };
 
-    public static final ThreadLocal<AggregatorFunction<ComplexNumber>> SMALLEST = new ThreadLocal<AggregatorFunction<ComplexNumber>>() {
+    public static final ThreadLocal<AggregatorFunction<ComplexNumber>> PRODUCT2 = ThreadLocal.withInitial(NEW_PRODUCT2);
 
-        @Override
-        protected AggregatorFunction<ComplexNumber> initialValue() {
+    private static final Supplier<AggregatorFunction<ComplexNumber>> NEW_SMALLEST = new Supplier<AggregatorFunction<ComplexNumber>>() {
+
+        public AggregatorFunction<ComplexNumber> get() {
             return new ComplexAggregatorFunction() {
 
                 private ComplexNumber myNumber = ComplexNumber.INFINITY;
@@ -397,10 +426,11 @@ public final class ComplexAggregator extends AggregatorSet<ComplexNumber> {
         }
     };
 
-    public static final ThreadLocal<AggregatorFunction<ComplexNumber>> SUM = new ThreadLocal<AggregatorFunction<ComplexNumber>>() {
+    public static final ThreadLocal<AggregatorFunction<ComplexNumber>> SMALLEST = ThreadLocal.withInitial(NEW_SMALLEST);
+
+    private static final Supplier<AggregatorFunction<ComplexNumber>> NEW_SUM = new Supplier<AggregatorFunction<ComplexNumber>>() {
 
-        @Override
-        protected AggregatorFunction<ComplexNumber> initialValue() {
+        public AggregatorFunction<ComplexNumber> get() {
             return new ComplexAggregatorFunction() {
 
                 private ComplexNumber myNumber = ComplexNumber.ZERO;
@@ -430,10 +460,11 @@ public final class ComplexAggregator extends AggregatorSet<ComplexNumber> {
         }
     };
 
-    public static final ThreadLocal<AggregatorFunction<ComplexNumber>> SUM2 = new ThreadLocal<AggregatorFunction<ComplexNumber>>() {
+    public static final ThreadLocal<AggregatorFunction<ComplexNumber>> SUM = ThreadLocal.withInitial(NEW_SUM);
 
-        @Override
-        protected AggregatorFunction<ComplexNumber> initialValue() {
+    private static final Supplier<AggregatorFunction<ComplexNumber>> NEW_SUM2 = new Supplier<AggregatorFunction<ComplexNumber>>() {
+
+        public AggregatorFunction<ComplexNumber> get() {
             return new ComplexAggregatorFunction() {
 
                 private ComplexNumber myNumber = ComplexNumber.ZERO;
@@ -463,6 +494,8 @@ public final class ComplexAggregator extends AggregatorSet<ComplexNumber> {
         }
     };
 
+    public static final ThreadLocal<AggregatorFunction<ComplexNumber>> SUM2 = ThreadLocal.withInitial(NEW_SUM2);
+
     private static final ComplexAggregator SET = new ComplexAggregator();
 
     public static ComplexAggregator getSet() {
@@ -498,6 +531,65 @@ public final class ComplexAggregator extends AggregatorSet<ComplexNumber> {
         return MIN.get().reset();
     }
 
+    @Override
+    public AggregatorFunction<ComplexNumber> newInstance(final Aggregator aggregator) {
+
+        switch (aggregator) {
+
+        case AVERAGE:
+
+            return NEW_AVERAGE.get();
+
+        case CARDINALITY:
+
+            return NEW_CARDINALITY.get();
+
+        case LARGEST:
+
+            return NEW_LARGEST.get();
+
+        case MAXIMUM:
+
+            return NEW_MAX.get();
+
+        case MINIMUM:
+
+            return NEW_MIN.get();
+
+        case NORM1:
+
+            return NEW_NORM1.get();
+
+        case NORM2:
+
+            return NEW_NORM2.get();
+
+        case PRODUCT:
+
+            return NEW_PRODUCT.get();
+
+        case PRODUCT2:
+
+            return NEW_PRODUCT2.get();
+
+        case SMALLEST:
+
+            return NEW_SMALLEST.get();
+
+        case SUM:
+
+            return NEW_SUM.get();
+
+        case SUM2:
+
+            return NEW_SUM2.get();
+
+        default:
+
+            return null;
+        }
+    }
+
     @Override
     public AggregatorFunction<ComplexNumber> norm1() {
         return NORM1.get().reset();
@@ -23,6 +23,8 @@ package org.ojalgo.function.aggregator;
 
 import static org.ojalgo.constant.PrimitiveMath.*;
 
+import java.util.function.Supplier;
+
 import org.ojalgo.ProgrammingError;
 import org.ojalgo.constant.PrimitiveMath;
 import org.ojalgo.function.PrimitiveFunction;
@@ -32,66 +34,114 @@ import org.ojalgo.type.context.NumberContext;
 
 public final class PrimitiveAggregator extends AggregatorSet<Double> {
 
-    static abstract class PrimitiveAggregatorFunction implements AggregatorFunction<Double> {
+    static final class Average extends PrimitiveAggregatorFunction {
 
-        public final Double get() {
-            return Double.valueOf(this.doubleValue());
+        private int myCount = 0;
+        private double myValue = ZERO;
+
+        public double doubleValue() {
+            return myValue / myCount;
         }
 
-        public final void invoke(final Double anArg) {
-            this.invoke(anArg.doubleValue());
+        public int intValue() {
+            return (int) this.doubleValue();
         }
 
-        public final Scalar<Double> toScalar() {
-            return PrimitiveScalar.of(this.doubleValue());
+        public void invoke(final double anArg) {
+            myCount++;
+            myValue += anArg;
+        }
+
+        public boolean isMergeable() {
+            return false;
+        }
+
+        public void merge(final AggregatorFunction<Double> other) {
+
+            final Average tmpOther = (Average) other;
+
+            myCount += tmpOther.myCount;
+            myValue += tmpOther.myValue;
+        }
+
+        public void merge(final Double result) {
+            ProgrammingError.throwForIllegalInvocation();
+        }
+
+        public AggregatorFunction<Double> reset() {
+            myCount = 0;
+            myValue = ZERO;
+            return this;
         }
 
     }
 
-    public static final ThreadLocal<AggregatorFunction<Double>> AVERAGE = new ThreadLocal<AggregatorFunction<Double>>() {
+    static final class Minimum extends PrimitiveAggregatorFunction {
 
-        @Override
-        protected AggregatorFunction<Double> initialValue() {
-            return new PrimitiveAggregatorFunction() {
+        private double myValue = POSITIVE_INFINITY;
 
-                private int myCount = 0;
-                private double myValue = ZERO;
+        public double doubleValue() {
+            if (Double.isInfinite(myValue)) {
+                return ZERO;
+            } else {
+                return myValue;
+            }
+        }
 
-                public double doubleValue() {
-                    return myValue / myCount;
-                }
+        public int intValue() {
+            return (int) this.doubleValue();
+        }
 
-                public int intValue() {
-                    return (int) this.doubleValue();
-                }
+        public void invoke(final double anArg) {
+            myValue = PrimitiveFunction.MIN.invoke(myValue, anArg);
+        }
 
-                public void invoke(final double anArg) {
-                    myCount++;
-                    myValue += anArg;
-                }
+        public void merge(final AggregatorFunction<Double> other) {
 
-                public boolean isMergeable() {
-                    return false;
-                }
+            final Minimum tmpOther = (Minimum) other;
 
-                public void merge(final Double result) {
-                    ProgrammingError.throwForIllegalInvocation();
-                }
+            this.invoke(tmpOther.myValue);
+        }
 
-                public AggregatorFunction<Double> reset() {
-                    myCount = 0;
-                    myValue = ZERO;
-                    return this;
-                }
+        public void merge(final Double result) {
+            this.invoke(result.doubleValue());
+        }
 
-            };
+        public AggregatorFunction<Double> reset() {
+            myValue = POSITIVE_INFINITY;
+            return this;
+        }
+
+    }
+
+    static abstract class PrimitiveAggregatorFunction implements AggregatorFunction<Double> {
+
+        public final Double get() {
+            return Double.valueOf(this.doubleValue());
+        }
+
+        public final void invoke(final Double anArg) {
+            this.invoke(anArg.doubleValue());
+        }
+
+        public final Scalar<Double> toScalar() {
+            return PrimitiveScalar.of(this.doubleValue());
+        }
+
+    }
+
+    private static final Supplier<AggregatorFunction<Double>> NEW_AVERAGE = new Supplier<AggregatorFunction<Double>>() {
+
+        public AggregatorFunction<Double> get() {
+            return new Average();
         }
     };
 
-    public static final ThreadLocal<AggregatorFunction<Double>> CARDINALITY = new ThreadLocal<AggregatorFunction<Double>>() {
+    public static final ThreadLocal<AggregatorFunction<Double>> AVERAGE = ThreadLocal.withInitial(NEW_AVERAGE);
+
+    private static final Supplier<AggregatorFunction<Double>> NEW_CARDINALITY = new Supplier<AggregatorFunction<Double>>() {
 
-        @Override
-        protected AggregatorFunction<Double> initialValue() {
+        public AggregatorFunction<Double> get() {
             return new PrimitiveAggregatorFunction() {
 
                 private int myCount = 0;
@@ -123,10 +173,11 @@ public final class PrimitiveAggregator extends AggregatorSet<Double> {
         }
     };
 
-    public static final ThreadLocal<AggregatorFunction<Double>> LARGEST = new ThreadLocal<AggregatorFunction<Double>>() {
+    public static final ThreadLocal<AggregatorFunction<Double>> CARDINALITY = ThreadLocal.withInitial(NEW_CARDINALITY);
 
-        @Override
-        protected AggregatorFunction<Double> initialValue() {
+    private static final Supplier<AggregatorFunction<Double>> NEW_LARGEST = new Supplier<AggregatorFunction<Double>>() {
+
+        public AggregatorFunction<Double> get() {
             return new PrimitiveAggregatorFunction() {
 
                 private double myValue = ZERO;
@@ -156,10 +207,11 @@ public final class PrimitiveAggregator extends AggregatorSet<Double> {
         }
     };
 
-    public static final ThreadLocal<AggregatorFunction<Double>> MAX = new ThreadLocal<AggregatorFunction<Double>>() {
+    public static final ThreadLocal<AggregatorFunction<Double>> LARGEST = ThreadLocal.withInitial(NEW_LARGEST);
+
+    private static final Supplier<AggregatorFunction<Double>> NEW_MAX = new Supplier<AggregatorFunction<Double>>() {
 
-        @Override
-        protected AggregatorFunction<Double> initialValue() {
+        public AggregatorFunction<Double> get() {
             return new PrimitiveAggregatorFunction() {
 
                 private double myValue = ZERO;
@@ -189,47 +241,20 @@ public final class PrimitiveAggregator extends AggregatorSet<Double> {
         }
     };
 
-    public static final ThreadLocal<AggregatorFunction<Double>> MIN = new ThreadLocal<AggregatorFunction<Double>>() {
+    public static final ThreadLocal<AggregatorFunction<Double>> MAX = ThreadLocal.withInitial(NEW_MAX);
 
-        @Override
-        protected AggregatorFunction<Double> initialValue() {
-            return new PrimitiveAggregatorFunction() {
-
-                private double myValue = POSITIVE_INFINITY;
-
-                public double doubleValue() {
-                    if (Double.isInfinite(myValue)) {
-                        return ZERO;
-                    } else {
-                        return myValue;
-                    }
-                }
-
-                public int intValue() {
-                    return (int) this.doubleValue();
-                }
-
-                public void invoke(final double anArg) {
-                    myValue = PrimitiveFunction.MIN.invoke(myValue, anArg);
-                }
-
-                public void merge(final Double result) {
-                    this.invoke(result.doubleValue());
-                }
+    private static final Supplier<AggregatorFunction<Double>> NEW_MIN = new Supplier<AggregatorFunction<Double>>() {
 
-                public AggregatorFunction<Double> reset() {
-                    myValue = POSITIVE_INFINITY;
-                    return this;
-                }
-
-            };
+        public AggregatorFunction<Double> get() {
+            return new Minimum();
         }
     };
 
-    public static final ThreadLocal<AggregatorFunction<Double>> NORM1 = new ThreadLocal<AggregatorFunction<Double>>() {
+    public static final ThreadLocal<AggregatorFunction<Double>> MIN = ThreadLocal.withInitial(NEW_MIN);
 
-        @Override
-        protected AggregatorFunction<Double> initialValue() {
+    private static final Supplier<AggregatorFunction<Double>> NEW_NORM1 = new Supplier<AggregatorFunction<Double>>() {
+
+        public AggregatorFunction<Double> get() {
             return new PrimitiveAggregatorFunction() {
 
                 private double myValue = ZERO;
@@ -259,10 +284,11 @@ public final class PrimitiveAggregator extends AggregatorSet<Double> {
         }
     };
 
-    public static final ThreadLocal<AggregatorFunction<Double>> NORM2 = new ThreadLocal<AggregatorFunction<Double>>() {
+    public static final ThreadLocal<AggregatorFunction<Double>> NORM1 = ThreadLocal.withInitial(NEW_NORM1);
+
+    private static final Supplier<AggregatorFunction<Double>> NEW_NORM2 = new Supplier<AggregatorFunction<Double>>() {
 
-        @Override
-        protected AggregatorFunction<Double> initialValue() {
+        public AggregatorFunction<Double> get() {
             return new PrimitiveAggregatorFunction() {
 
                 private double myValue = ZERO;
@@ -294,10 +320,11 @@ public final class PrimitiveAggregator extends AggregatorSet<Double> {
         }
     };
 
-    public static final ThreadLocal<AggregatorFunction<Double>> PRODUCT = new ThreadLocal<AggregatorFunction<Double>>() {
+    public static final ThreadLocal<AggregatorFunction<Double>> NORM2 = ThreadLocal.withInitial(NEW_NORM2);
 
-        @Override
-        protected AggregatorFunction<Double> initialValue() {
+    private static final Supplier<AggregatorFunction<Double>> NEW_PRODUCT = new Supplier<AggregatorFunction<Double>>() {
+
+        public AggregatorFunction<Double> get() {
             return new PrimitiveAggregatorFunction() {
 
                 private double myValue = ONE;
@@ -327,10 +354,11 @@ public final class PrimitiveAggregator extends AggregatorSet<Double> {
         }
     };
 
-    public static final ThreadLocal<AggregatorFunction<Double>> PRODUCT2 = new ThreadLocal<AggregatorFunction<Double>>() {
+    public static final ThreadLocal<AggregatorFunction<Double>> PRODUCT = ThreadLocal.withInitial(NEW_PRODUCT);
+
+    private static final Supplier<AggregatorFunction<Double>> NEW_PRODUCT2 = new Supplier<AggregatorFunction<Double>>() {
 
-        @Override
-        protected AggregatorFunction<Double> initialValue() {
+        public AggregatorFunction<Double> get() {
             return new PrimitiveAggregatorFunction() {
 
                 private double myValue = ONE;
@@ -360,10 +388,11 @@ public final class PrimitiveAggregator extends AggregatorSet<Double> {
         }
     };
 
-    public static final ThreadLocal<AggregatorFunction<Double>> SMALLEST = new ThreadLocal<AggregatorFunction<Double>>() {
+    public static final ThreadLocal<AggregatorFunction<Double>> PRODUCT2 = ThreadLocal.withInitial(NEW_PRODUCT2);
 
-        @Override
-        protected AggregatorFunction<Double> initialValue() {
+    private static final Supplier<AggregatorFunction<Double>> NEW_SMALLEST = new Supplier<AggregatorFunction<Double>>() {
+
+        public AggregatorFunction<Double> get() {
             return new PrimitiveAggregatorFunction() {
 
                 private double myValue = POSITIVE_INFINITY;
@@ -401,10 +430,11 @@ public final class PrimitiveAggregator extends AggregatorSet<Double> {
         }
     };
 
-    public static final ThreadLocal<AggregatorFunction<Double>> SUM = new ThreadLocal<AggregatorFunction<Double>>() {
+    public static final ThreadLocal<AggregatorFunction<Double>> SMALLEST = ThreadLocal.withInitial(NEW_SMALLEST);
+
+    private static final Supplier<AggregatorFunction<Double>> NEW_SUM = new Supplier<AggregatorFunction<Double>>() {
 
-        @Override
-        protected AggregatorFunction<Double> initialValue() {
+        public AggregatorFunction<Double> get() {
             return new PrimitiveAggregatorFunction() {
 
                 private double myValue = ZERO;
@@ -434,10 +464,11 @@ public final class PrimitiveAggregator extends AggregatorSet<Double> {
         }
     };
 
-    public static final ThreadLocal<AggregatorFunction<Double>> SUM2 = new ThreadLocal<AggregatorFunction<Double>>() {
+    public static final ThreadLocal<AggregatorFunction<Double>> SUM = ThreadLocal.withInitial(NEW_SUM);
 
-        @Override
-        protected AggregatorFunction<Double> initialValue() {
+    private static final Supplier<AggregatorFunction<Double>> NEW_SUM2 = new Supplier<AggregatorFunction<Double>>() {
+
+        public AggregatorFunction<Double> get() {
             return new PrimitiveAggregatorFunction() {
 
                 private double myValue = ZERO;
@@ -467,6 +498,8 @@ public final class PrimitiveAggregator extends AggregatorSet<Double> {
         }
     };
 
+    public static final ThreadLocal<AggregatorFunction<Double>> SUM2 = ThreadLocal.withInitial(NEW_SUM2);
+
     private static final PrimitiveAggregator SET = new PrimitiveAggregator();
 
     public static PrimitiveAggregator getSet() {
@@ -502,6 +535,65 @@ public final class PrimitiveAggregator extends AggregatorSet<Double> {
         return MIN.get().reset();
     }
 
+    @Override
+    public AggregatorFunction<Double> newInstance(final Aggregator aggregator) {
+
+        switch (aggregator) {
+
+        case AVERAGE:
+
+            return NEW_AVERAGE.get();
+
+        case CARDINALITY:
+
+            return NEW_CARDINALITY.get();
+
+        case LARGEST:
+
+            return NEW_LARGEST.get();
+
+        case MAXIMUM:
+
+            return NEW_MAX.get();
+
+        case MINIMUM:
+
+            return NEW_MIN.get();
+
+        case NORM1:
+
+            return NEW_NORM1.get();
+
+        case NORM2:
+
+            return NEW_NORM2.get();
+
+        case PRODUCT:
+
+            return NEW_PRODUCT.get();
+
+        case PRODUCT2:
+
+            return NEW_PRODUCT2.get();
+
+        case SMALLEST:
+
+            return NEW_SMALLEST.get();
+
+        case SUM:
+
+            return NEW_SUM.get();
+
+        case SUM2:
+
+            return NEW_SUM2.get();
+
+        default:
+
+            return null;
+        }
+    }
+
     @Override
     public AggregatorFunction<Double> norm1() {
         return NORM1.get().reset();
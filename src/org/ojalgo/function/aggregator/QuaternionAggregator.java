@@ -23,6 +23,8 @@ package org.ojalgo.function.aggregator;
 
 import static org.ojalgo.function.QuaternionFunction.*;
 
+import java.util.function.Supplier;
+
 import org.ojalgo.ProgrammingError;
 import org.ojalgo.constant.PrimitiveMath;
 import org.ojalgo.function.PrimitiveFunction;
@@ -33,67 +35,115 @@ import org.ojalgo.scalar.Scalar;
 
 public final class QuaternionAggregator extends AggregatorSet<Quaternion> {
 
-    static abstract class QuaternionAggregatorFunction implements AggregatorFunction<Quaternion> {
+    static final class Average extends QuaternionAggregatorFunction {
 
-        public final double doubleValue() {
-            return this.get().doubleValue();
+        private int myCount = 0;
+
+        private Quaternion myNumber = Quaternion.ZERO;
+
+        public Quaternion get() {
+            return myNumber.divide(myCount);
         }
 
-        public final void invoke(final double anArg) {
-            this.invoke(Quaternion.valueOf(anArg));
+        public int intValue() {
+            return this.get().intValue();
         }
 
-        public final Scalar<Quaternion> toScalar() {
-            return this.get();
+        public void invoke(final Quaternion anArg) {
+            myCount++;
+            myNumber = myNumber.add(anArg);
+        }
+
+        public boolean isMergeable() {
+            return false;
+        }
+
+        public void merge(final AggregatorFunction<Quaternion> other) {
+
+            final Average tmpOther = (Average) other;
+
+            myCount += tmpOther.myCount;
+            myNumber = myNumber.add(tmpOther.myNumber);
+        }
+
+        public void merge(final Quaternion result) {
+            ProgrammingError.throwForIllegalInvocation();
+        }
+
+        public AggregatorFunction<Quaternion> reset() {
+            myCount = 0;
+            myNumber = Quaternion.ZERO;
+            return this;
         }
 
     }
 
-    public static final ThreadLocal<AggregatorFunction<Quaternion>> AVERAGE = new ThreadLocal<AggregatorFunction<Quaternion>>() {
+    static final class Minimum extends QuaternionAggregatorFunction {
 
-        @Override
-        protected AggregatorFunction<Quaternion> initialValue() {
-            return new QuaternionAggregatorFunction() {
+        private Quaternion myNumber = Quaternion.INFINITY;
 
-                private int myCount = 0;
+        public Quaternion get() {
+            if (Quaternion.isInfinite(myNumber)) {
+                return Quaternion.ZERO;
+            } else {
+                return myNumber;
+            }
+        }
 
-                private Quaternion myNumber = Quaternion.ZERO;
+        public int intValue() {
+            return this.get().intValue();
+        }
 
-                public Quaternion get() {
-                    return myNumber.divide(myCount);
-                }
+        public void invoke(final Quaternion anArg) {
+            myNumber = QuaternionFunction.MIN.invoke(myNumber, anArg);
+        }
 
-                public int intValue() {
-                    return this.get().intValue();
-                }
+        public void merge(final AggregatorFunction<Quaternion> other) {
 
-                public void invoke(final Quaternion anArg) {
-                    myCount++;
-                    myNumber = myNumber.add(anArg);
-                }
+            final Minimum tmpOther = (Minimum) other;
 
-                public boolean isMergeable() {
-                    return false;
-                }
+            this.invoke(tmpOther.myNumber);
+        }
 
-                public void merge(final Quaternion result) {
-                    ProgrammingError.throwForIllegalInvocation();
-                }
+        public void merge(final Quaternion result) {
+            this.invoke(result);
+        }
 
-                public AggregatorFunction<Quaternion> reset() {
-                    myCount = 0;
-                    myNumber = Quaternion.ZERO;
-                    return this;
-                }
+        public AggregatorFunction<Quaternion> reset() {
+            myNumber = Quaternion.INFINITY;
+            return this;
+        }
 
-            };
+    }
+
+    static abstract class QuaternionAggregatorFunction implements AggregatorFunction<Quaternion> {
+
+        public final double doubleValue() {
+            return this.get().doubleValue();
+        }
+
+        public final void invoke(final double anArg) {
+            this.invoke(Quaternion.valueOf(anArg));
+        }
+
+        public final Scalar<Quaternion> toScalar() {
+            return this.get();
+        }
+
+    }
+
+    private static final Supplier<AggregatorFunction<Quaternion>> NEW_AVERAGE = new Supplier<AggregatorFunction<Quaternion>>() {
+
+        public AggregatorFunction<Quaternion> get() {
+            return new Average();
         }
     };
 
-    public static final ThreadLocal<AggregatorFunction<Quaternion>> CARDINALITY = new ThreadLocal<AggregatorFunction<Quaternion>>() {
+    public static final ThreadLocal<AggregatorFunction<Quaternion>> AVERAGE = ThreadLocal.withInitial(NEW_AVERAGE);
+
+    private static final Supplier<AggregatorFunction<Quaternion>> NEW_CARDINALITY = new Supplier<AggregatorFunction<Quaternion>>() {
 
-        @Override
-        protected AggregatorFunction<Quaternion> initialValue() {
+        public AggregatorFunction<Quaternion> get() {
             return new QuaternionAggregatorFunction() {
 
                 private int myCount = 0;
@@ -124,10 +174,11 @@ public final class QuaternionAggregator extends AggregatorSet<Quaternion> {
             };
         }
     };
-    public static final ThreadLocal<AggregatorFunction<Quaternion>> LARGEST = new ThreadLocal<AggregatorFunction<Quaternion>>() {
 
-        @Override
-        protected AggregatorFunction<Quaternion> initialValue() {
+    public static final ThreadLocal<AggregatorFunction<Quaternion>> CARDINALITY = ThreadLocal.withInitial(NEW_CARDINALITY);
+    private static final Supplier<AggregatorFunction<Quaternion>> NEW_LARGEST = new Supplier<AggregatorFunction<Quaternion>>() {
+
+        public AggregatorFunction<Quaternion> get() {
             return new QuaternionAggregatorFunction() {
 
                 private Quaternion myNumber = Quaternion.ZERO;
@@ -157,10 +208,11 @@ public final class QuaternionAggregator extends AggregatorSet<Quaternion> {
         }
     };
 
-    public static final ThreadLocal<AggregatorFunction<Quaternion>> MAX = new ThreadLocal<AggregatorFunction<Quaternion>>() {
+    public static final ThreadLocal<AggregatorFunction<Quaternion>> LARGEST = ThreadLocal.withInitial(NEW_LARGEST);
+
+    private static final Supplier<AggregatorFunction<Quaternion>> NEW_MAX = new Supplier<AggregatorFunction<Quaternion>>() {
 
-        @Override
-        protected AggregatorFunction<Quaternion> initialValue() {
+        public AggregatorFunction<Quaternion> get() {
             return new QuaternionAggregatorFunction() {
 
                 private Quaternion myNumber = Quaternion.ZERO;
@@ -190,47 +242,20 @@ public final class QuaternionAggregator extends AggregatorSet<Quaternion> {
         }
     };
 
-    public static final ThreadLocal<AggregatorFunction<Quaternion>> MIN = new ThreadLocal<AggregatorFunction<Quaternion>>() {
+    public static final ThreadLocal<AggregatorFunction<Quaternion>> MAX = ThreadLocal.withInitial(NEW_MAX);
 
-        @Override
-        protected AggregatorFunction<Quaternion> initialValue() {
-            return new QuaternionAggregatorFunction() {
-
-                private Quaternion myNumber = Quaternion.INFINITY;
-
-                public Quaternion get() {
-                    if (Quaternion.isInfinite(myNumber)) {
-                        return Quaternion.ZERO;
-                    } else {
-                        return myNumber;
-                    }
-                }
-
-                public int intValue() {
-                    return this.get().intValue();
-                }
-
-                public void invoke(final Quaternion anArg) {
-                    myNumber = QuaternionFunction.MIN.invoke(myNumber, anArg);
-                }
-
-                public void merge(final Quaternion result) {
-                    this.invoke(result);
-                }
+    private static final Supplier<AggregatorFunction<Quaternion>> NEW_MIN = new Supplier<AggregatorFunction<Quaternion>>() {
 
-                public AggregatorFunction<Quaternion> reset() {
-                    myNumber = Quaternion.INFINITY;
-                    return this;
-                }
-
-            };
+        public AggregatorFunction<Quaternion> get() {
+            return new Minimum();
         }
     };
 
-    public static final ThreadLocal<AggregatorFunction<Quaternion>> NORM1 = new ThreadLocal<AggregatorFunction<Quaternion>>() {
+    public static final ThreadLocal<AggregatorFunction<Quaternion>> MIN = ThreadLocal.withInitial(NEW_MIN);
 
-        @Override
-        protected AggregatorFunction<Quaternion> initialValue() {
+    private static final Supplier<AggregatorFunction<Quaternion>> NEW_NORM1 = new Supplier<AggregatorFunction<Quaternion>>() {
+
+        public AggregatorFunction<Quaternion> get() {
             return new QuaternionAggregatorFunction() {
 
                 private Quaternion myNumber = Quaternion.ZERO;
@@ -260,10 +285,11 @@ public final class QuaternionAggregator extends AggregatorSet<Quaternion> {
         }
     };
 
-    public static final ThreadLocal<AggregatorFunction<Quaternion>> NORM2 = new ThreadLocal<AggregatorFunction<Quaternion>>() {
+    public static final ThreadLocal<AggregatorFunction<Quaternion>> NORM1 = ThreadLocal.withInitial(NEW_NORM1);
+
+    private static final Supplier<AggregatorFunction<Quaternion>> NEW_NORM2 = new Supplier<AggregatorFunction<Quaternion>>() {
 
-        @Override
-        protected AggregatorFunction<Quaternion> initialValue() {
+        public AggregatorFunction<Quaternion> get() {
             return new QuaternionAggregatorFunction() {
 
                 private Quaternion myNumber = Quaternion.ZERO;
@@ -294,10 +320,11 @@ public final class QuaternionAggregator extends AggregatorSet<Quaternion> {
         }
     };
 
-    public static final ThreadLocal<AggregatorFunction<Quaternion>> PRODUCT = new ThreadLocal<AggregatorFunction<Quaternion>>() {
+    public static final ThreadLocal<AggregatorFunction<Quaternion>> NORM2 = ThreadLocal.withInitial(NEW_NORM2);
 
-        @Override
-        protected AggregatorFunction<Quaternion> initialValue() {
+    private static final Supplier<AggregatorFunction<Quaternion>> NEW_PRODUCT = new Supplier<AggregatorFunction<Quaternion>>() {
+
+        public AggregatorFunction<Quaternion> get() {
             return new QuaternionAggregatorFunction() {
 
                 private Quaternion myNumber = Quaternion.ONE;
@@ -326,10 +353,11 @@ public final class QuaternionAggregator extends AggregatorSet<Quaternion> {
             };
         }
     };
-    public static final ThreadLocal<AggregatorFunction<Quaternion>> PRODUCT2 = new ThreadLocal<AggregatorFunction<Quaternion>>() {
 
-        @Override
-        protected AggregatorFunction<Quaternion> initialValue() {
+    public static final ThreadLocal<AggregatorFunction<Quaternion>> PRODUCT = ThreadLocal.withInitial(NEW_PRODUCT);
+    private static final Supplier<AggregatorFunction<Quaternion>> NEW_PRODUCT2 = new Supplier<AggregatorFunction<Quaternion>>() {
+
+        public AggregatorFunction<Quaternion> get() {
             return new QuaternionAggregatorFunction() {
 
                 private Quaternion myNumber = Quaternion.ONE;
@@ -359,10 +387,11 @@ public final class QuaternionAggregator extends AggregatorSet<Quaternion> {
         }
     };
 
-    public static final ThreadLocal<AggregatorFunction<Quaternion>> SMALLEST = new ThreadLocal<AggregatorFunction<Quaternion>>() {
+    public static final ThreadLocal<AggregatorFunction<Quaternion>> PRODUCT2 = ThreadLocal.withInitial(NEW_PRODUCT2);
 
-        @Override
-        protected AggregatorFunction<Quaternion> initialValue() {
+    private static final Supplier<AggregatorFunction<Quaternion>> NEW_SMALLEST = new Supplier<AggregatorFunction<Quaternion>>() {
+
+        public AggregatorFunction<Quaternion> get() {
             return new QuaternionAggregatorFunction() {
 
                 private Quaternion myNumber = Quaternion.INFINITY;
@@ -398,10 +427,11 @@ public final class QuaternionAggregator extends AggregatorSet<Quaternion> {
         }
     };
 
-    public static final ThreadLocal<AggregatorFunction<Quaternion>> SUM = new ThreadLocal<AggregatorFunction<Quaternion>>() {
+    public static final ThreadLocal<AggregatorFunction<Quaternion>> SMALLEST = ThreadLocal.withInitial(NEW_SMALLEST);
+
+    private static final Supplier<AggregatorFunction<Quaternion>> NEW_SUM = new Supplier<AggregatorFunction<Quaternion>>() {
 
-        @Override
-        protected AggregatorFunction<Quaternion> initialValue() {
+        public AggregatorFunction<Quaternion> get() {
             return new QuaternionAggregatorFunction() {
 
                 private Quaternion myNumber = Quaternion.ZERO;
@@ -431,10 +461,11 @@ public final class QuaternionAggregator extends AggregatorSet<Quaternion> {
         }
     };
 
-    public static final ThreadLocal<AggregatorFunction<Quaternion>> SUM2 = new ThreadLocal<AggregatorFunction<Quaternion>>() {
+    public static final ThreadLocal<AggregatorFunction<Quaternion>> SUM = ThreadLocal.withInitial(NEW_SUM);
 
-        @Override
-        protected AggregatorFunction<Quaternion> initialValue() {
+    private static final Supplier<AggregatorFunction<Quaternion>> NEW_SUM2 = new Supplier<AggregatorFunction<Quaternion>>() {
+
+        public AggregatorFunction<Quaternion> get() {
             return new QuaternionAggregatorFunction() {
 
                 private Quaternion myNumber = Quaternion.ZERO;
@@ -464,6 +495,8 @@ public final class QuaternionAggregator extends AggregatorSet<Quaternion> {
         }
     };
 
+    public static final ThreadLocal<AggregatorFunction<Quaternion>> SUM2 = ThreadLocal.withInitial(NEW_SUM2);
+
     private static final QuaternionAggregator SET = new QuaternionAggregator();
 
     public static QuaternionAggregator getSet() {
@@ -499,6 +532,65 @@ public final class QuaternionAggregator extends AggregatorSet<Quaternion> {
         return MIN.get().reset();
     }
 
+    @Override
+    public AggregatorFunction<Quaternion> newInstance(final Aggregator aggregator) {
+
+        switch (aggregator) {
+
+        case AVERAGE:
+
+            return NEW_AVERAGE.get();
+
+        case CARDINALITY:
+
+            return NEW_CARDINALITY.get();
+
+        case LARGEST:
+
+            return NEW_LARGEST.get();
+
+        case MAXIMUM:
+
+            return NEW_MAX.get();
+
+        case MINIMUM:
+
+            return NEW_MIN.get();
+
+        case NORM1:
+
+            return NEW_NORM1.get();
+
+        case NORM2:
+
+            return NEW_NORM2.get();
+
+        case PRODUCT:
+
+            return NEW_PRODUCT.get();
+
+        case PRODUCT2:
+
+            return NEW_PRODUCT2.get();
+
+        case SMALLEST:
+
+            return NEW_SMALLEST.get();
+
+        case SUM:
+
+            return NEW_SUM.get();
+
+        case SUM2:
+
+            return NEW_SUM2.get();
+
+        default:
+
+            return null;
+        }
+    }
+
     @Override
     public AggregatorFunction<Quaternion> norm1() {
         return NORM1.get().reset();
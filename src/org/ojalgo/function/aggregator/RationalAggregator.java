@@ -23,6 +23,8 @@ package org.ojalgo.function.aggregator;
 
 import static org.ojalgo.function.RationalFunction.*;
 
+import java.util.function.Supplier;
+
 import org.ojalgo.ProgrammingError;
 import org.ojalgo.constant.PrimitiveMath;
 import org.ojalgo.function.PrimitiveFunction;
@@ -33,67 +35,115 @@ import org.ojalgo.scalar.Scalar;
 
 public final class RationalAggregator extends AggregatorSet<RationalNumber> {
 
-    static abstract class RationalAggregatorFunction implements AggregatorFunction<RationalNumber> {
+    static final class Average extends RationalAggregatorFunction {
 
-        public final double doubleValue() {
-            return this.get().doubleValue();
+        private int myCount = 0;
+
+        private RationalNumber myNumber = RationalNumber.ZERO;
+
+        public RationalNumber get() {
+            return myNumber.divide(myCount);
         }
 
-        public final void invoke(final double anArg) {
-            this.invoke(RationalNumber.valueOf(anArg));
+        public int intValue() {
+            return this.get().intValue();
         }
 
-        public final Scalar<RationalNumber> toScalar() {
-            return this.get();
+        public void invoke(final RationalNumber anArg) {
+            myCount++;
+            myNumber = myNumber.add(anArg);
+        }
+
+        public boolean isMergeable() {
+            return false;
+        }
+
+        public void merge(final AggregatorFunction<RationalNumber> other) {
+
+            final Average tmpOther = (Average) other;
+
+            myCount += tmpOther.myCount;
+            myNumber = myNumber.add(tmpOther.myNumber);
+        }
+
+        public void merge(final RationalNumber result) {
+            ProgrammingError.throwForIllegalInvocation();
+        }
+
+        public AggregatorFunction<RationalNumber> reset() {
+            myCount = 0;
+            myNumber = RationalNumber.ZERO;
+            return this;
         }
 
     }
 
-    public static final ThreadLocal<AggregatorFunction<RationalNumber>> AVERAGE = new ThreadLocal<AggregatorFunction<RationalNumber>>() {
+    static final class Minimum extends RationalAggregatorFunction {
 
-        @Override
-        protected AggregatorFunction<RationalNumber> initialValue() {
-            return new RationalAggregatorFunction() {
+        private RationalNumber myNumber = RationalNumber.POSITIVE_INFINITY;
 
-                private int myCount = 0;
+        public RationalNumber get() {
+            if (RationalNumber.isInfinite(myNumber)) {
+                return RationalNumber.ZERO;
+            } else {
+                return myNumber;
+            }
+        }
 
-                private RationalNumber myNumber = RationalNumber.ZERO;
+        public int intValue() {
+            return this.get().intValue();
+        }
 
-                public RationalNumber get() {
-                    return myNumber.divide(myCount);
-                }
+        public void invoke(final RationalNumber anArg) {
+            myNumber = RationalFunction.MIN.invoke(myNumber, anArg);
+        }
 
-                public int intValue() {
-                    return this.get().intValue();
-                }
+        public void merge(final AggregatorFunction<RationalNumber> other) {
 
-                public void invoke(final RationalNumber anArg) {
-                    myCount++;
-                    myNumber = myNumber.add(anArg);
-                }
+            final Minimum tmpOther = (Minimum) other;
 
-                public boolean isMergeable() {
-                    return false;
-                }
+            this.invoke(tmpOther.myNumber);
+        }
 
-                public void merge(final RationalNumber result) {
-                    ProgrammingError.throwForIllegalInvocation();
-                }
+        public void merge(final RationalNumber result) {
+            this.invoke(result);
+        }
 
-                public AggregatorFunction<RationalNumber> reset() {
-                    myCount = 0;
-                    myNumber = RationalNumber.ZERO;
-                    return this;
-                }
+        public AggregatorFunction<RationalNumber> reset() {
+            myNumber = RationalNumber.POSITIVE_INFINITY;
+            return this;
+        }
 
-            };
+    }
+
+    static abstract class RationalAggregatorFunction implements AggregatorFunction<RationalNumber> {
+
+        public final double doubleValue() {
+            return this.get().doubleValue();
+        }
+
+        public final void invoke(final double anArg) {
+            this.invoke(RationalNumber.valueOf(anArg));
+        }
+
+        public final Scalar<RationalNumber> toScalar() {
+            return this.get();
+        }
+
+    }
+
+    private static final Supplier<AggregatorFunction<RationalNumber>> NEW_AVERAGE = new Supplier<AggregatorFunction<RationalNumber>>() {
+
+        public AggregatorFunction<RationalNumber> get() {
+            return new Average();
         }
     };
 
-    public static final ThreadLocal<AggregatorFunction<RationalNumber>> CARDINALITY = new ThreadLocal<AggregatorFunction<RationalNumber>>() {
+    public static final ThreadLocal<AggregatorFunction<RationalNumber>> AVERAGE = ThreadLocal.withInitial(NEW_AVERAGE);
+
+    private static final Supplier<AggregatorFunction<RationalNumber>> NEW_CARDINALITY = new Supplier<AggregatorFunction<RationalNumber>>() {
 
-        @Override
-        protected AggregatorFunction<RationalNumber> initialValue() {
+        public AggregatorFunction<RationalNumber> get() {
             return new RationalAggregatorFunction() {
 
                 private int myCount = 0;
@@ -124,10 +174,11 @@ public final class RationalAggregator extends AggregatorSet<RationalNumber> {
             };
         }
     };
-    public static final ThreadLocal<AggregatorFunction<RationalNumber>> LARGEST = new ThreadLocal<AggregatorFunction<RationalNumber>>() {
 
-        @Override
-        protected AggregatorFunction<RationalNumber> initialValue() {
+    public static final ThreadLocal<AggregatorFunction<RationalNumber>> CARDINALITY = ThreadLocal.withInitial(NEW_CARDINALITY);
+    private static final Supplier<AggregatorFunction<RationalNumber>> NEW_LARGEST = new Supplier<AggregatorFunction<RationalNumber>>() {
+
+        public AggregatorFunction<RationalNumber> get() {
             return new RationalAggregatorFunction() {
 
                 private RationalNumber myNumber = RationalNumber.ZERO;
@@ -157,10 +208,11 @@ public final class RationalAggregator extends AggregatorSet<RationalNumber> {
         }
     };
 
-    public static final ThreadLocal<AggregatorFunction<RationalNumber>> MAX = new ThreadLocal<AggregatorFunction<RationalNumber>>() {
+    public static final ThreadLocal<AggregatorFunction<RationalNumber>> LARGEST = ThreadLocal.withInitial(NEW_LARGEST);
+
+    private static final Supplier<AggregatorFunction<RationalNumber>> NEW_MAX = new Supplier<AggregatorFunction<RationalNumber>>() {
 
-        @Override
-        protected AggregatorFunction<RationalNumber> initialValue() {
+        public AggregatorFunction<RationalNumber> get() {
             return new RationalAggregatorFunction() {
 
                 private RationalNumber myNumber = RationalNumber.ZERO;
@@ -190,47 +242,20 @@ public final class RationalAggregator extends AggregatorSet<RationalNumber> {
         }
     };
 
-    public static final ThreadLocal<AggregatorFunction<RationalNumber>> MIN = new ThreadLocal<AggregatorFunction<RationalNumber>>() {
+    public static final ThreadLocal<AggregatorFunction<RationalNumber>> MAX = ThreadLocal.withInitial(NEW_MAX);
 
-        @Override
-        protected AggregatorFunction<RationalNumber> initialValue() {
-            return new RationalAggregatorFunction() {
-
-                private RationalNumber myNumber = RationalNumber.POSITIVE_INFINITY;
-
-                public RationalNumber get() {
-                    if (RationalNumber.isInfinite(myNumber)) {
-                        return RationalNumber.ZERO;
-                    } else {
-                        return myNumber;
-                    }
-                }
-
-                public int intValue() {
-                    return this.get().intValue();
-                }
-
-                public void invoke(final RationalNumber anArg) {
-                    myNumber = RationalFunction.MIN.invoke(myNumber, anArg);
-                }
-
-                public void merge(final RationalNumber result) {
-                    this.invoke(result);
-                }
+    private static final Supplier<AggregatorFunction<RationalNumber>> NEW_MIN = new Supplier<AggregatorFunction<RationalNumber>>() {
 
-                public AggregatorFunction<RationalNumber> reset() {
-                    myNumber = RationalNumber.POSITIVE_INFINITY;
-                    return this;
-                }
-
-            };
+        public AggregatorFunction<RationalNumber> get() {
+            return new Minimum();
         }
     };
 
-    public static final ThreadLocal<AggregatorFunction<RationalNumber>> NORM1 = new ThreadLocal<AggregatorFunction<RationalNumber>>() {
+    public static final ThreadLocal<AggregatorFunction<RationalNumber>> MIN = ThreadLocal.withInitial(NEW_MIN);
 
-        @Override
-        protected AggregatorFunction<RationalNumber> initialValue() {
+    private static final Supplier<AggregatorFunction<RationalNumber>> NEW_NORM1 = new Supplier<AggregatorFunction<RationalNumber>>() {
+
+        public AggregatorFunction<RationalNumber> get() {
             return new RationalAggregatorFunction() {
 
                 private RationalNumber myNumber = RationalNumber.ZERO;
@@ -260,10 +285,11 @@ public final class RationalAggregator extends AggregatorSet<RationalNumber> {
         }
     };
 
-    public static final ThreadLocal<AggregatorFunction<RationalNumber>> NORM2 = new ThreadLocal<AggregatorFunction<RationalNumber>>() {
+    public static final ThreadLocal<AggregatorFunction<RationalNumber>> NORM1 = ThreadLocal.withInitial(NEW_NORM1);
+
+    private static final Supplier<AggregatorFunction<RationalNumber>> NEW_NORM2 = new Supplier<AggregatorFunction<RationalNumber>>() {
 
-        @Override
-        protected AggregatorFunction<RationalNumber> initialValue() {
+        public AggregatorFunction<RationalNumber> get() {
             return new RationalAggregatorFunction() {
 
                 private RationalNumber myNumber = RationalNumber.ZERO;
@@ -294,10 +320,11 @@ public final class RationalAggregator extends AggregatorSet<RationalNumber> {
         }
     };
 
-    public static final ThreadLocal<AggregatorFunction<RationalNumber>> PRODUCT = new ThreadLocal<AggregatorFunction<RationalNumber>>() {
+    public static final ThreadLocal<AggregatorFunction<RationalNumber>> NORM2 = ThreadLocal.withInitial(NEW_NORM2);
 
-        @Override
-        protected AggregatorFunction<RationalNumber> initialValue() {
+    private static final Supplier<AggregatorFunction<RationalNumber>> NEW_PRODUCT = new Supplier<AggregatorFunction<RationalNumber>>() {
+
+        public AggregatorFunction<RationalNumber> get() {
             return new RationalAggregatorFunction() {
 
                 private RationalNumber myNumber = RationalNumber.ONE;
@@ -327,10 +354,11 @@ public final class RationalAggregator extends AggregatorSet<RationalNumber> {
         }
     };
 
-    public static final ThreadLocal<AggregatorFunction<RationalNumber>> PRODUCT2 = new ThreadLocal<AggregatorFunction<RationalNumber>>() {
+    public static final ThreadLocal<AggregatorFunction<RationalNumber>> PRODUCT = ThreadLocal.withInitial(NEW_PRODUCT);
+
+    private static final Supplier<AggregatorFunction<RationalNumber>> NEW_PRODUCT2 = new Supplier<AggregatorFunction<RationalNumber>>() {
 
-        @Override
-        protected AggregatorFunction<RationalNumber> initialValue() {
+        public AggregatorFunction<RationalNumber> get() {
             return new RationalAggregatorFunction() {
 
                 private RationalNumber myNumber = RationalNumber.ONE;
@@ -360,10 +388,11 @@ public final class RationalAggregator extends AggregatorSet<RationalNumber> {
         }
     };
 
-    public static final ThreadLocal<AggregatorFunction<RationalNumber>> SMALLEST = new ThreadLocal<AggregatorFunction<RationalNumber>>() {
+    public static final ThreadLocal<AggregatorFunction<RationalNumber>> PRODUCT2 = ThreadLocal.withInitial(NEW_PRODUCT2);
 
-        @Override
-        protected AggregatorFunction<RationalNumber> initialValue() {
+    private static final Supplier<AggregatorFunction<RationalNumber>> NEW_SMALLEST = new Supplier<AggregatorFunction<RationalNumber>>() {
+
+        public AggregatorFunction<RationalNumber> get() {
             return new RationalAggregatorFunction() {
 
                 private RationalNumber myNumber = RationalNumber.POSITIVE_INFINITY;
@@ -399,10 +428,11 @@ public final class RationalAggregator extends AggregatorSet<RationalNumber> {
         }
     };
 
-    public static final ThreadLocal<AggregatorFunction<RationalNumber>> SUM = new ThreadLocal<AggregatorFunction<RationalNumber>>() {
+    public static final ThreadLocal<AggregatorFunction<RationalNumber>> SMALLEST = ThreadLocal.withInitial(NEW_SMALLEST);
+
+    private static final Supplier<AggregatorFunction<RationalNumber>> NEW_SUM = new Supplier<AggregatorFunction<RationalNumber>>() {
 
-        @Override
-        protected AggregatorFunction<RationalNumber> initialValue() {
+        public AggregatorFunction<RationalNumber> get() {
             return new RationalAggregatorFunction() {
 
                 private RationalNumber myNumber = RationalNumber.ZERO;
@@ -432,10 +462,11 @@ public final class RationalAggregator extends AggregatorSet<RationalNumber> {
         }
     };
 
-    public static final ThreadLocal<AggregatorFunction<RationalNumber>> SUM2 = new ThreadLocal<AggregatorFunction<RationalNumber>>() {
+    public static final ThreadLocal<AggregatorFunction<RationalNumber>> SUM = ThreadLocal.withInitial(NEW_SUM);
 
-        @Override
-        protected AggregatorFunction<RationalNumber> initialValue() {
+    private static final Supplier<AggregatorFunction<RationalNumber>> NEW_SUM2 = new Supplier<AggregatorFunction<RationalNumber>>() {
+
+        public AggregatorFunction<RationalNumber> get() {
             return new RationalAggregatorFunction() {
 
                 private RationalNumber myNumber = RationalNumber.ZERO;
@@ -465,6 +496,8 @@ public final class RationalAggregator extends AggregatorSet<RationalNumber> {
         }
     };
 
+    public static final ThreadLocal<AggregatorFunction<RationalNumber>> SUM2 = ThreadLocal.withInitial(NEW_SUM2);
+
     private static final RationalAggregator SET = new RationalAggregator();
 
     public static RationalAggregator getSet() {
@@ -500,6 +533,65 @@ public final class RationalAggregator extends AggregatorSet<RationalNumber> {
         return MIN.get().reset();
     }
 
+    @Override
+    public AggregatorFunction<RationalNumber> newInstance(final Aggregator aggregator) {
+
+        switch (aggregator) {
+
+        case AVERAGE:
+
+            return NEW_AVERAGE.get();
+
+        case CARDINALITY:
+
+            return NEW_CARDINALITY.get();
+
+        case LARGEST:
+
+            return NEW_LARGEST.get();
+
+        case MAXIMUM:
+
+            return NEW_MAX.get();
+
+        case MINIMUM:
+
+            return NEW_MIN.get();
+
+        case NORM1:
+
+            return NEW_NORM1.get();
+
+        case NORM2:
+
+            return NEW_NORM2.get();
+
+        case PRODUCT:
+
+            return NEW_PRODUCT.get();
+
+        case PRODUCT2:
+
+            return NEW_PRODUCT2.get();
+
+        case SMALLEST:
+
+            return NEW_SMALLEST.get();
+
+        case SUM:
+
+            return NEW_SUM.get();
+
+        case SUM2:
+
+            return NEW_SUM2.get();
+
+        default:
+
+            return null;
+        }
+    }
+
     @Override
     public AggregatorFunction<RationalNumber> norm1() {
         return NORM1.get().reset();
@@ -21,8 +21,10 @@
  */
 package org.ojalgo.matrix;
 
+import org.ojalgo.RecoverableCondition;
 import org.ojalgo.matrix.decomposition.Cholesky;
 import org.ojalgo.matrix.decomposition.Eigenvalue;
+import org.ojalgo.matrix.decomposition.FractionFreeLU;
 import org.ojalgo.matrix.decomposition.LDL;
 import org.ojalgo.matrix.decomposition.LU;
 import org.ojalgo.matrix.decomposition.QR;
@@ -35,6 +37,7 @@ import org.ojalgo.matrix.store.SparseStore;
 import org.ojalgo.matrix.task.DeterminantTask;
 import org.ojalgo.matrix.task.InverterTask;
 import org.ojalgo.matrix.task.SolverTask;
+import org.ojalgo.scalar.BigRational;
 import org.ojalgo.scalar.RationalNumber;
 import org.ojalgo.structure.Access1D;
 import org.ojalgo.structure.Access2D;
@@ -121,11 +124,32 @@ public final class RationalMatrix extends BasicMatrix<RationalNumber, RationalMa
         return new RationalMatrix.DenseReceiver(FACTORY, this.getStore().copy());
     }
 
+    /**
+     * Same as {@link #getDeterminant()}, but calculated using fraction-free (Bareiss) elimination and
+     * arbitrary precision arithmetic. The result is always exact.
+     */
+    public BigRational getExactDeterminant() {
+        final FractionFreeLU tmpDecomposition = new FractionFreeLU();
+        tmpDecomposition.decompose(this);
+        return tmpDecomposition.getDeterminant();
+    }
+
     @Override
     public RationalMatrix.LogicalBuilder logical() {
         return new RationalMatrix.LogicalBuilder(FACTORY, this.getStore());
     }
 
+    /**
+     * Same as {@link #solve(Access2D)}, but calculated using fraction-free (Bareiss) elimination and
+     * arbitrary precision arithmetic. The solution is always exact – its elements may be too large to be
+     * represented by {@link RationalNumber}, and are therefore returned as {@link BigRational}.
+     *
+     * @throws RecoverableCondition If [this] is not square and nonsingular
+     */
+    public Access2D<BigRational> solveExactly(final Access2D<?> rhs) throws RecoverableCondition {
+        return new FractionFreeLU().solve(this, rhs);
+    }
+
     @SuppressWarnings("unchecked")
     @Override
     ElementsSupplier<RationalNumber> cast(final Access1D<?> matrix) {
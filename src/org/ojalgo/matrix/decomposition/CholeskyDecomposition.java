@@ -264,7 +264,7 @@ abstract class CholeskyDecomposition<N extends Number> extends InPlaceDecomposit
         myMaxDiag = ZERO;
         myMinDiag = POSITIVE_INFINITY;
 
-        final BasicArray<N> tmpMultipliers = this.makeArray(tmpRowDim);
+        final BasicArray<N> tmpMultipliers = this.borrowArray(tmpRowDim);
 
         // Check if hermitian, maybe
         if (tmpPositiveDefinite && checkHermitian) {
@@ -297,6 +297,8 @@ abstract class CholeskyDecomposition<N extends Number> extends InPlaceDecomposit
             }
         }
 
+        this.giveBack(tmpMultipliers);
+
         return this.computed(mySPD = tmpPositiveDefinite);
     }
 
@@ -0,0 +1,419 @@
+/*
+ * Copyright 1997-2018 Optimatika
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.ojalgo.matrix.decomposition;
+
+import java.math.BigInteger;
+
+import org.ojalgo.RecoverableCondition;
+import org.ojalgo.concurrent.DivideAndConquer;
+import org.ojalgo.scalar.BigRational;
+import org.ojalgo.structure.Access2D;
+
+/**
+ * Exact LU decomposition using fraction-free (Bareiss) elimination. Each row of the input matrix is scaled
+ * to integers, and the elimination is then done entirely in integer arithmetic with exact divisions – the
+ * intermediate entries are minors of the (scaled) input, so their size grows only linearly, and no gcd
+ * computations are needed. The work starts out using primitive long values and switches to
+ * {@link BigInteger} the first time an operation would overflow.
+ * <p>
+ * The results (determinant and solutions) are exact {@link BigRational} numbers. This is what to use instead
+ * of {@link LU#RATIONAL} when exact results are required and the numbers would outgrow
+ * {@link org.ojalgo.scalar.RationalNumber}.
+ * </p>
+ * <p>
+ * The multipliers (the fraction-free L) are kept below the diagonal, so any number of right hand sides can
+ * be solved with one decomposition.
+ * </p>
+ *
+ * @author apete
+ */
+public final class FractionFreeLU {
+
+    /**
+     * The minimum number of matrix elements (BigInteger operations) per parallel task
+     */
+    static int THRESHOLD = 4096;
+
+    private static BigInteger[] scale(final BigRational[] values) {
+
+        BigInteger tmpLCM = BigInteger.ONE;
+        for (final BigRational tmpValue : values) {
+            final BigInteger tmpDenom = tmpValue.denominator();
+            if (!BigInteger.ONE.equals(tmpDenom)) {
+                tmpLCM = tmpLCM.divide(tmpLCM.gcd(tmpDenom)).multiply(tmpDenom);
+            }
+        }
+
+        final BigInteger[] retVal = new BigInteger[values.length + 1];
+        for (int j = 0; j < values.length; j++) {
+            retVal[j] = values[j].numerator().multiply(tmpLCM.divide(values[j].denominator()));
+        }
+        retVal[values.length] = tmpLCM;
+        return retVal;
+    }
+
+    private BigInteger[][] myBig = null;
+    private int myColumns = 0;
+    private long[][] myLong = null;
+    private Pivot myPivot = null;
+    private int[] myPivotColumns = null;
+    private int myRank = 0;
+    private int myRows = 0;
+    /**
+     * The factor each (original) row was scaled with to make it integer
+     */
+    private BigInteger[] myScales = null;
+
+    public FractionFreeLU() {
+        super();
+    }
+
+    /**
+     * @param matrix Any matrix – the elements are converted to {@link BigRational} exactly (incl. double
+     *        values)
+     * @return true
+     */
+    public boolean decompose(final Access2D<?> matrix) {
+
+        myRows = Math.toIntExact(matrix.countRows());
+        myColumns = Math.toIntExact(matrix.countColumns());
+        myPivot = new Pivot(myRows);
+        myPivotColumns = new int[myRows];
+        myScales = new BigInteger[myRows];
+        myBig = null;
+        myLong = new long[myRows][myColumns];
+
+        final BigRational[] tmpRow = new BigRational[myColumns];
+        for (int i = 0; i < myRows; i++) {
+            for (int j = 0; j < myColumns; j++) {
+                tmpRow[j] = BigRational.valueOf(matrix.get(i, j));
+            }
+            final BigInteger[] tmpScaled = FractionFreeLU.scale(tmpRow);
+            myScales[i] = tmpScaled[myColumns];
+            for (int j = 0; j < myColumns; j++) {
+                if (myLong != null) {
+                    if (tmpScaled[j].bitLength() < Long.SIZE) {
+                        myLong[i][j] = tmpScaled[j].longValue();
+                    } else {
+                        this.promote();
+                    }
+                }
+                if (myLong == null) {
+                    myBig[i][j] = tmpScaled[j];
+                }
+            }
+        }
+
+        myRank = 0;
+
+        for (int c = 0; (c < myColumns) && (myRank < myRows); c++) {
+            if (this.pivot(myRank, c)) {
+                myPivotColumns[myRank] = c;
+                this.eliminate(myRank, c);
+                myRank++;
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * @return The exact determinant, requires a square matrix
+     */
+    public BigRational getDeterminant() {
+
+        if (myRows != myColumns) {
+            throw new IllegalStateException("Not square!");
+        }
+
+        if (myRank < myRows) {
+            return BigRational.ZERO;
+        }
+
+        BigInteger tmpScales = BigInteger.ONE;
+        for (int i = 0; i < myRows; i++) {
+            tmpScales = tmpScales.multiply(myScales[i]);
+        }
+
+        final BigInteger tmpMinor = myRows == 0 ? BigInteger.ONE : this.get(myRows - 1, myColumns - 1);
+
+        return BigRational.of(myPivot.signum() < 0 ? tmpMinor.negate() : tmpMinor, tmpScales);
+    }
+
+    /**
+     * @return The exact inverse, [this][inverse]=[I]
+     */
+    public Access2D<BigRational> getInverse() {
+
+        final BigInteger[][] tmpIdentity = new BigInteger[myRows][myRows];
+        for (int i = 0; i < myRows; i++) {
+            for (int j = 0; j < myRows; j++) {
+                tmpIdentity[i][j] = i == j ? myScales[i] : BigInteger.ZERO;
+            }
+        }
+
+        return this.solve(tmpIdentity, BigInteger.ONE);
+    }
+
+    public int[] getPivotOrder() {
+        return myPivot.getOrder();
+    }
+
+    public int getRank() {
+        return myRank;
+    }
+
+    /**
+     * @return The exact solution, [X], to [this][X]=[rhs]. The decomposition must be solvable.
+     */
+    public Access2D<BigRational> getSolution(final Access2D<?> rhs) {
+
+        final int tmpColumns = Math.toIntExact(rhs.countColumns());
+
+        // Scale the rhs rows as the body rows, then all of it to integers with one common denominator
+        final BigRational[] tmpAll = new BigRational[myRows * tmpColumns];
+        for (int i = 0; i < myRows; i++) {
+            final BigRational tmpScale = BigRational.of(myScales[i], BigInteger.ONE);
+            for (int j = 0; j < tmpColumns; j++) {
+                tmpAll[(i * tmpColumns) + j] = tmpScale.multiply(BigRational.valueOf(rhs.get(i, j)));
+            }
+        }
+        final BigInteger[] tmpScaled = FractionFreeLU.scale(tmpAll);
+
+        final BigInteger[][] tmpRHS = new BigInteger[myRows][tmpColumns];
+        for (int i = 0; i < myRows; i++) {
+            for (int j = 0; j < tmpColumns; j++) {
+                tmpRHS[i][j] = tmpScaled[(i * tmpColumns) + j];
+            }
+        }
+
+        return this.solve(tmpRHS, tmpScaled[tmpAll.length]);
+    }
+
+    /**
+     * @return true if the matrix is square and nonsingular
+     */
+    public boolean isSolvable() {
+        return (myRows == myColumns) && (myRank == myRows);
+    }
+
+    public void reset() {
+        myBig = null;
+        myLong = null;
+        myPivot = null;
+        myPivotColumns = null;
+        myScales = null;
+        myRows = 0;
+        myColumns = 0;
+        myRank = 0;
+    }
+
+    public Access2D<BigRational> solve(final Access2D<?> body, final Access2D<?> rhs) throws RecoverableCondition {
+
+        this.decompose(body);
+
+        if (this.isSolvable()) {
+            return this.getSolution(rhs);
+        } else {
+            throw RecoverableCondition.newEquationSystemNotSolvable();
+        }
+    }
+
+    private void eliminate(final int row, final int col) {
+
+        final int tmpFirst = row + 1;
+
+        if (myLong != null) {
+            final long tmpPivot = myLong[row][col];
+            final long tmpPrevious = row == 0 ? 1L : myLong[row - 1][myPivotColumns[row - 1]];
+            for (int i = tmpFirst; i < myRows; i++) {
+                if (!this.eliminateLong(i, row, col, tmpPivot, tmpPrevious)) {
+                    this.promote();
+                    this.eliminateBig(i, row, col);
+                    return;
+                }
+            }
+        } else {
+            this.eliminateBig(tmpFirst, row, col);
+        }
+    }
+
+    private void eliminateBig(final int first, final int row, final int col) {
+
+        final BigInteger tmpPivot = myBig[row][col];
+        final BigInteger tmpPrevious = row == 0 ? BigInteger.ONE : myBig[row - 1][myPivotColumns[row - 1]];
+
+        final int tmpWork = myColumns - col;
+
+        final DivideAndConquer tmpConquerer = new DivideAndConquer() {
+
+            @Override
+            protected void conquer(final int first, final int limit) {
+                for (int i = first; i < limit; i++) {
+                    FractionFreeLU.eliminateBig(myBig[i], myBig[row], col, myColumns, tmpPivot, tmpPrevious);
+                }
+            }
+
+        };
+
+        tmpConquerer.invoke(first, myRows, Math.max(1, THRESHOLD / Math.max(1, tmpWork)));
+    }
+
+    /**
+     * One fraction-free elimination step for one row – the entries after the pivot column are updated, the
+     * multiplier (in the pivot column) is left in place.
+     */
+    static void eliminateBig(final BigInteger[] target, final BigInteger[] pivotRow, final int col, final int limit, final BigInteger pivot,
+            final BigInteger previous) {
+
+        final BigInteger tmpMultiplier = target[col];
+        final boolean tmpDivide = !BigInteger.ONE.equals(previous);
+
+        for (int j = col + 1; j < limit; j++) {
+            BigInteger tmpValue = pivot.multiply(target[j]);
+            if (tmpMultiplier.signum() != 0) {
+                tmpValue = tmpValue.subtract(tmpMultiplier.multiply(pivotRow[j]));
+            }
+            target[j] = tmpDivide ? tmpValue.divide(previous) : tmpValue;
+        }
+    }
+
+    /**
+     * @return false if the row could not be updated without overflow, in which case it is left unchanged
+     */
+    private boolean eliminateLong(final int target, final int row, final int col, final long pivot, final long previous) {
+
+        final long[] tmpTarget = myLong[target];
+        final long[] tmpPivotRow = myLong[row];
+        final long tmpMultiplier = tmpTarget[col];
+
+        final long[] tmpUpdated = new long[myColumns];
+
+        try {
+            for (int j = col + 1; j < myColumns; j++) {
+                tmpUpdated[j] = Math.subtractExact(Math.multiplyExact(pivot, tmpTarget[j]), Math.multiplyExact(tmpMultiplier, tmpPivotRow[j])) / previous;
+            }
+        } catch (final ArithmeticException cause) {
+            return false;
+        }
+
+        System.arraycopy(tmpUpdated, col + 1, tmpTarget, col + 1, myColumns - col - 1);
+        return true;
+    }
+
+    private BigInteger get(final int row, final int col) {
+        return myLong != null ? BigInteger.valueOf(myLong[row][col]) : myBig[row][col];
+    }
+
+    /**
+     * Finds a nonzero pivot in the column, at or below the row, and swaps it into place.
+     *
+     * @return false if there is no nonzero pivot candidate
+     */
+    private boolean pivot(final int row, final int col) {
+
+        for (int i = row; i < myRows; i++) {
+            if (this.get(i, col).signum() != 0) {
+                if (i != row) {
+                    myPivot.change(row, i);
+                    if (myLong != null) {
+                        final long[] tmpRow = myLong[row];
+                        myLong[row] = myLong[i];
+                        myLong[i] = tmpRow;
+                    } else {
+                        final BigInteger[] tmpRow = myBig[row];
+                        myBig[row] = myBig[i];
+                        myBig[i] = tmpRow;
+                    }
+                }
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    private void promote() {
+
+        myBig = new BigInteger[myRows][myColumns];
+
+        for (int i = 0; i < myRows; i++) {
+            for (int j = 0; j < myColumns; j++) {
+                myBig[i][j] = BigInteger.valueOf(myLong[i][j]);
+            }
+        }
+
+        myLong = null;
+    }
+
+    /**
+     * Forward elimination replayed on the (permuted, integer) right hand side, then fraction-free back
+     * substitution. With d the last pivot (the determinant of the scaled and permuted body) the back
+     * substitution solves for d*[X] which is integer – all divisions are exact.
+     */
+    private Access2D<BigRational> solve(final BigInteger[][] rhs, final BigInteger denominator) {
+
+        if (!this.isSolvable()) {
+            throw new IllegalStateException("Not solvable!");
+        }
+
+        final int tmpDim = myRows;
+        final int tmpColumns = rhs.length > 0 ? rhs[0].length : 0;
+        final int[] tmpOrder = myPivot.getOrder();
+
+        final BigInteger[][] tmpWork = new BigInteger[tmpDim][];
+        for (int i = 0; i < tmpDim; i++) {
+            tmpWork[i] = rhs[tmpOrder[i]].clone();
+        }
+
+        BigInteger tmpPrevious = BigInteger.ONE;
+        for (int k = 0; k < (tmpDim - 1); k++) {
+            final BigInteger tmpPivot = this.get(k, k);
+            for (int i = k + 1; i < tmpDim; i++) {
+                final BigInteger tmpMultiplier = this.get(i, k);
+                for (int j = 0; j < tmpColumns; j++) {
+                    tmpWork[i][j] = tmpPivot.multiply(tmpWork[i][j]).subtract(tmpMultiplier.multiply(tmpWork[k][j])).divide(tmpPrevious);
+                }
+            }
+            tmpPrevious = tmpPivot;
+        }
+
+        final BigInteger tmpLast = tmpDim > 0 ? this.get(tmpDim - 1, tmpDim - 1) : BigInteger.ONE;
+
+        final BigRational[][] retVal = new BigRational[tmpDim][tmpColumns];
+
+        for (int j = 0; j < tmpColumns; j++) {
+            final BigInteger[] tmpScaledX = new BigInteger[tmpDim];
+            for (int i = tmpDim - 1; i >= 0; i--) {
+                BigInteger tmpSum = tmpLast.multiply(tmpWork[i][j]);
+                for (int k = i + 1; k < tmpDim; k++) {
+                    tmpSum = tmpSum.subtract(this.get(i, k).multiply(tmpScaledX[k]));
+                }
+                tmpScaledX[i] = tmpSum.divide(this.get(i, i));
+                retVal[i][j] = BigRational.of(tmpScaledX[i], tmpLast.multiply(denominator));
+            }
+        }
+
+        return Access2D.wrap(retVal);
+    }
+
+}
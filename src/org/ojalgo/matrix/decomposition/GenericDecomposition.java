@@ -22,10 +22,12 @@
 package org.ojalgo.matrix.decomposition;
 
 import org.ojalgo.array.BasicArray;
+import org.ojalgo.array.Primitive64Array;
 import org.ojalgo.function.FunctionSet;
 import org.ojalgo.function.aggregator.AggregatorSet;
 import org.ojalgo.matrix.store.MatrixStore;
 import org.ojalgo.matrix.store.PhysicalStore;
+import org.ojalgo.matrix.store.Workspace;
 import org.ojalgo.matrix.transformation.Householder;
 import org.ojalgo.matrix.transformation.Rotation;
 import org.ojalgo.scalar.Scalar;
@@ -58,6 +60,19 @@ abstract class GenericDecomposition<N extends Number> extends AbstractDecomposit
         return myFactory.makeZero(numberOfRows, numberOfColumns);
     }
 
+    /**
+     * Scratch array, that should be given back using {@link #giveBack(BasicArray)} when no longer needed.
+     * For primitive decompositions it is drawn from the thread-local {@link Workspace}.
+     */
+    @SuppressWarnings("unchecked")
+    protected final BasicArray<N> borrowArray(final int length) {
+        if (myFactory.array() == Primitive64Array.FACTORY) {
+            return (BasicArray<N>) Primitive64Array.wrap(Workspace.borrowArray(length));
+        } else {
+            return this.makeArray(length);
+        }
+    }
+
     @SuppressWarnings("unchecked")
     protected final MatrixStore<N> collect(final Access2D.Collectable<N, ? super DecompositionStore<N>> source) {
         if (source instanceof MatrixStore) {
@@ -77,6 +92,12 @@ abstract class GenericDecomposition<N extends Number> extends AbstractDecomposit
         return myFactory.function();
     }
 
+    protected final void giveBack(final BasicArray<N> array) {
+        if (array instanceof Primitive64Array) {
+            Workspace.giveBack(((Primitive64Array) array).data);
+        }
+    }
+
     protected final BasicArray<N> makeArray(final int length) {
         return myFactory.array().makeZero(length);
     }
@@ -271,7 +271,7 @@ abstract class LUDecomposition<N extends Number> extends InPlaceDecomposition<N>
 
         myPivot = new Pivot(tmpRowDim);
 
-        final BasicArray<N> tmpMultipliers = this.makeArray(tmpRowDim);
+        final BasicArray<N> tmpMultipliers = this.borrowArray(tmpRowDim);
 
         // Main loop - along the diagonal
         for (int ij = 0; ij < tmpMinDim; ij++) {
@@ -306,6 +306,8 @@ abstract class LUDecomposition<N extends Number> extends InPlaceDecomposition<N>
 
         }
 
+        this.giveBack(tmpMultipliers);
+
         return this.computed(true);
     }
 
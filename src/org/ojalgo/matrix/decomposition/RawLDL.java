@@ -30,6 +30,7 @@ import org.ojalgo.matrix.store.MatrixStore;
 import org.ojalgo.matrix.store.MatrixStore.LogicalBuilder;
 import org.ojalgo.matrix.store.PhysicalStore;
 import org.ojalgo.matrix.store.RawStore;
+import org.ojalgo.matrix.store.Workspace;
 import org.ojalgo.structure.Access2D;
 import org.ojalgo.structure.Access2D.Collectable;
 import org.ojalgo.structure.Structure2D;
@@ -162,7 +163,7 @@ final class RawLDL extends RawDecomposition implements LDL<Double> {
         final int tmpDiagDim = this.getRowDim();
         mySPD = (this.getColDim() == tmpDiagDim);
 
-        final double[] tmpRowIJ = new double[tmpDiagDim];
+        final double[] tmpRowIJ = Workspace.borrowArray(tmpDiagDim);
         double[] tmpRowI;
 
         // Main loop.
@@ -182,6 +183,8 @@ final class RawLDL extends RawDecomposition implements LDL<Double> {
             }
         }
 
+        Workspace.giveBack(tmpRowIJ);
+
         return this.computed(true);
     }
 
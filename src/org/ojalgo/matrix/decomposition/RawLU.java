@@ -32,6 +32,7 @@ import org.ojalgo.matrix.store.ElementsSupplier;
 import org.ojalgo.matrix.store.MatrixStore;
 import org.ojalgo.matrix.store.PhysicalStore;
 import org.ojalgo.matrix.store.RawStore;
+import org.ojalgo.matrix.store.Workspace;
 import org.ojalgo.scalar.PrimitiveScalar;
 import org.ojalgo.structure.Access2D;
 import org.ojalgo.structure.Access2D.Collectable;
@@ -225,7 +226,7 @@ final class RawLU extends RawDecomposition implements LU<Double> {
 
         myPivot = new Pivot(tmpRowDim);
 
-        final double[] tmpColJ = new double[tmpRowDim];
+        final double[] tmpColJ = Workspace.borrowArray(tmpRowDim);
 
         // Outer loop.
         for (int j = 0; j < tmpColDim; j++) {
@@ -265,6 +266,8 @@ final class RawLU extends RawDecomposition implements LU<Double> {
 
         }
 
+        Workspace.giveBack(tmpColJ);
+
         return this.computed(true);
     }
 
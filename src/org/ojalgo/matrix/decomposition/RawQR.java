@@ -22,12 +22,13 @@
 package org.ojalgo.matrix.decomposition;
 
 import static org.ojalgo.constant.PrimitiveMath.*;
-import static org.ojalgo.function.PrimitiveFunction.*;
 
 import org.ojalgo.RecoverableCondition;
 import org.ojalgo.array.Raw1D;
 import org.ojalgo.array.blas.AXPY;
 import org.ojalgo.array.blas.DOT;
+import org.ojalgo.array.blas.NRM2;
+import org.ojalgo.array.blas.SCAL;
 import org.ojalgo.function.aggregator.AggregatorFunction;
 import org.ojalgo.function.aggregator.PrimitiveAggregator;
 import org.ojalgo.matrix.store.MatrixStore;
@@ -309,11 +310,7 @@ final class RawQR extends RawDecomposition implements QR<Double> {
             tmpColK = data[k];
 
             // Compute 2-norm of k-th column without under/overflow.
-            nrm = ZERO;
-            for (int i = k; i < m; i++) {
-                final double a = nrm;
-                nrm = HYPOT.invoke(a, tmpColK[i]);
-            }
+            nrm = NRM2.invoke(tmpColK, k, m, 1);
 
             if (nrm != ZERO) {
 
@@ -323,8 +320,13 @@ final class RawQR extends RawDecomposition implements QR<Double> {
                 if (tmpColK[k] < 0) {
                     nrm = -nrm;
                 }
-                for (int i = k; i < m; i++) {
-                    tmpColK[i] /= nrm;
+                if (Math.abs(nrm) >= Double.MIN_NORMAL) {
+                    SCAL.invoke(tmpColK, 0, ONE / nrm, k, m);
+                } else {
+                    // The reciprocal would overflow
+                    for (int i = k; i < m; i++) {
+                        tmpColK[i] /= nrm;
+                    }
                 }
                 tmpColK[k] += ONE;
 
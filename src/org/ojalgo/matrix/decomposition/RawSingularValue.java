@@ -28,6 +28,8 @@ import org.ojalgo.RecoverableCondition;
 import org.ojalgo.array.Array1D;
 import org.ojalgo.array.blas.AXPY;
 import org.ojalgo.array.blas.DOT;
+import org.ojalgo.array.blas.NRM2;
+import org.ojalgo.array.blas.SCAL;
 import org.ojalgo.matrix.decomposition.function.ExchangeColumns;
 import org.ojalgo.matrix.decomposition.function.NegateColumn;
 import org.ojalgo.matrix.decomposition.function.RotateRight;
@@ -300,18 +302,20 @@ final class RawSingularValue extends RawDecomposition implements SingularValue<D
                 // place the k-th diagonal in s[k].
 
                 // Compute 2-norm of k-th column without under/overflow.
-                nrm = ZERO;
-                for (int i = k; i < m; i++) {
-                    nrm = HYPOT.invoke(nrm, tmpArr[i]);
-                }
+                nrm = NRM2.invoke(tmpArr, k, m, 1);
 
                 // Form k-th Householder column-vector.
                 if (nrm != ZERO) {
                     if (tmpArr[k] < ZERO) {
                         nrm = -nrm;
                     }
-                    for (int i = k; i < m; i++) {
-                        tmpArr[i] /= nrm;
+                    if (Math.abs(nrm) >= Double.MIN_NORMAL) {
+                        SCAL.invoke(tmpArr, 0, ONE / nrm, k, m);
+                    } else {
+                        // The reciprocal would overflow
+                        for (int i = k; i < m; i++) {
+                            tmpArr[i] /= nrm;
+                        }
                     }
                     tmpArr[k] += ONE;
 
@@ -343,17 +347,19 @@ final class RawSingularValue extends RawDecomposition implements SingularValue<D
                 // k-th super-diagonal in e[k].
 
                 // Compute 2-norm without under/overflow.
-                nrm = ZERO;
-                for (int i = k + 1; i < n; i++) {
-                    nrm = HYPOT.invoke(nrm, e[i]);
-                }
+                nrm = NRM2.invoke(e, k + 1, n, 1);
 
                 if (nrm != ZERO) {
                     if (e[k + 1] < ZERO) {
                         nrm = -nrm;
                     }
-                    for (int i = k + 1; i < n; i++) {
-                        e[i] /= nrm;
+                    if (Math.abs(nrm) >= Double.MIN_NORMAL) {
+                        SCAL.invoke(e, 0, ONE / nrm, k + 1, n);
+                    } else {
+                        // The reciprocal would overflow
+                        for (int i = k + 1; i < n; i++) {
+                            e[i] /= nrm;
+                        }
                     }
                     e[k + 1] += ONE;
 
@@ -25,7 +25,6 @@ import org.ojalgo.function.BinaryFunction;
 import org.ojalgo.function.FunctionUtils;
 import org.ojalgo.function.NullaryFunction;
 import org.ojalgo.function.UnaryFunction;
-import org.ojalgo.matrix.store.GenericDenseStore.GenericMultiplyBoth;
 import org.ojalgo.matrix.store.PrimitiveDenseStore.PrimitiveMultiplyBoth;
 import org.ojalgo.matrix.store.operation.MultiplyBoth;
 import org.ojalgo.structure.Access1D;
@@ -118,9 +117,8 @@ public interface ElementsConsumer<N extends Number> extends Mutate2D.ModifiableR
 
             if (multiplier instanceof PrimitiveMultiplyBoth) {
                 myMultiplier = (ElementsConsumer.FillByMultiplying<N>) MultiplyBoth.getPrimitive(rows, columns);
-            } else if (multiplier instanceof GenericMultiplyBoth) {
-                myMultiplier = (ElementsConsumer.FillByMultiplying<N>) MultiplyBoth.getGeneric(rows, columns);
             } else {
+                // The generic ones are bound to a scalar factory, and are reused as is
                 myMultiplier = multiplier;
             }
         }
@@ -21,6 +21,7 @@
  */
 package org.ojalgo.matrix.store;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 
@@ -48,6 +49,7 @@ import org.ojalgo.scalar.RationalNumber;
 import org.ojalgo.scalar.Scalar;
 import org.ojalgo.structure.Access1D;
 import org.ojalgo.structure.Access2D;
+import org.ojalgo.structure.Mutate1D;
 import org.ojalgo.type.context.NumberContext;
 
 /**
@@ -438,7 +440,7 @@ public final class GenericDenseStore<N extends Number & Scalar<N>> extends Scala
 
         myUtility = this.wrapInArray2D(myRowDim);
 
-        multiplyBoth = MultiplyBoth.getGeneric(myRowDim, myColDim);
+        multiplyBoth = MultiplyBoth.getGeneric(myRowDim, myColDim, factory.scalar());
         multiplyLeft = MultiplyLeft.getGeneric(myRowDim, myColDim);
         multiplyRight = MultiplyRight.getGeneric(myRowDim, myColDim);
         multiplyNeither = MultiplyNeither.getGeneric(myRowDim, myColDim);
@@ -455,7 +457,7 @@ public final class GenericDenseStore<N extends Number & Scalar<N>> extends Scala
 
         myUtility = this.wrapInArray2D(myRowDim);
 
-        multiplyBoth = MultiplyBoth.getGeneric(myRowDim, myColDim);
+        multiplyBoth = MultiplyBoth.getGeneric(myRowDim, myColDim, factory.scalar());
         multiplyLeft = MultiplyLeft.getGeneric(myRowDim, myColDim);
         multiplyRight = MultiplyRight.getGeneric(myRowDim, myColDim);
         multiplyNeither = MultiplyNeither.getGeneric(myRowDim, myColDim);
@@ -482,33 +484,38 @@ public final class GenericDenseStore<N extends Number & Scalar<N>> extends Scala
         final int tmpRowDim = myRowDim;
         final int tmpColDim = myColDim;
 
-        final AggregatorFunction<N> mainAggr = aggregator.getFunction(myFactory.aggregator());
+        if (tmpColDim > AggregateAll.THRESHOLD) {
 
-        if (mainAggr.isMergeable() && (tmpColDim > AggregateAll.THRESHOLD)) {
+            final AggregatorSet<N> tmpSet = myFactory.aggregator();
+            final AggregatorFunction<N> mainAggr = tmpSet.newInstance(aggregator);
 
             final DivideAndConquer tmpConquerer = new DivideAndConquer() {
 
                 @Override
                 public void conquer(final int aFirst, final int aLimit) {
 
-                    final AggregatorFunction<N> tmpPartAggr = aggregator.getFunction(myFactory.aggregator());
+                    final AggregatorFunction<N> tmpPartAggr = tmpSet.newInstance(aggregator);
 
                     GenericDenseStore.this.visit(tmpRowDim * aFirst, tmpRowDim * aLimit, 1, tmpPartAggr);
 
                     synchronized (mainAggr) {
-                        mainAggr.merge(tmpPartAggr.get());
+                        mainAggr.merge(tmpPartAggr);
                     }
                 }
             };
 
             tmpConquerer.invoke(0, tmpColDim, AggregateAll.THRESHOLD);
 
+            return mainAggr.get();
+
         } else {
 
+            final AggregatorFunction<N> mainAggr = aggregator.getFunction(myFactory.aggregator());
+
             GenericDenseStore.this.visit(0, this.size(), 1, mainAggr);
-        }
 
-        return mainAggr.get();
+            return mainAggr.get();
+        }
     }
 
     public void applyCholesky(final int iterationPoint, final BasicArray<N> multipliers) {
@@ -980,6 +987,83 @@ public final class GenericDenseStore<N extends Number & Scalar<N>> extends Scala
         return myFactory;
     }
 
+    public void reduceColumns(final Aggregator aggregator, final Mutate1D receiver) {
+
+        final int tmpRowDim = myRowDim;
+        final int tmpColDim = (int) Math.min(myColDim, receiver.count());
+        final N[] tmpData = data;
+
+        final Number[] tmpResults = new Number[tmpColDim];
+
+        final DivideAndConquer tmpConquerer = new DivideAndConquer() {
+
+            @Override
+            public void conquer(final int first, final int limit) {
+
+                final AggregatorFunction<N> tmpAggr = myFactory.aggregator().newInstance(aggregator);
+
+                for (int j = first; j < limit; j++) {
+                    tmpAggr.reset();
+                    for (int i = j * tmpRowDim, lim = i + tmpRowDim; i < lim; i++) {
+                        tmpAggr.invoke(tmpData[i]);
+                    }
+                    tmpResults[j] = tmpAggr.get();
+                }
+            }
+        };
+
+        tmpConquerer.invoke(0, tmpColDim, AggregateAll.THRESHOLD);
+
+        for (int j = 0; j < tmpColDim; j++) {
+            receiver.set(j, tmpResults[j]);
+        }
+    }
+
+    /**
+     * Works on blocks of rows, moving along the (column-major) data, rather than aggregating one
+     * (non-contiguous) row at the time.
+     */
+    public void reduceRows(final Aggregator aggregator, final Mutate1D receiver) {
+
+        final int tmpRowDim = (int) Math.min(myRowDim, receiver.count());
+        final int tmpColDim = myColDim;
+        final int tmpStructure = myRowDim;
+        final N[] tmpData = data;
+
+        final Number[] tmpResults = new Number[tmpRowDim];
+
+        final DivideAndConquer tmpConquerer = new DivideAndConquer() {
+
+            @Override
+            public void conquer(final int first, final int limit) {
+
+                final AggregatorSet<N> tmpSet = myFactory.aggregator();
+
+                final List<AggregatorFunction<N>> tmpAggrs = new ArrayList<>(limit - first);
+                for (int i = first; i < limit; i++) {
+                    tmpAggrs.add(tmpSet.newInstance(aggregator));
+                }
+
+                for (int j = 0; j < tmpColDim; j++) {
+                    final int tmpOffset = j * tmpStructure;
+                    for (int i = first; i < limit; i++) {
+                        tmpAggrs.get(i - first).invoke(tmpData[tmpOffset + i]);
+                    }
+                }
+
+                for (int i = first; i < limit; i++) {
+                    tmpResults[i] = tmpAggrs.get(i - first).get();
+                }
+            }
+        };
+
+        tmpConquerer.invoke(0, tmpRowDim, AggregateAll.THRESHOLD);
+
+        for (int i = 0; i < tmpRowDim; i++) {
+            receiver.set(i, tmpResults[i]);
+        }
+    }
+
     public final ElementsConsumer<N> regionByColumns(final int... columns) {
         return new ElementsConsumer.ColumnsRegion<>(this, multiplyBoth, columns);
     }
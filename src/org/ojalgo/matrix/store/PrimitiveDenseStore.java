@@ -24,6 +24,7 @@ package org.ojalgo.matrix.store;
 import static org.ojalgo.constant.PrimitiveMath.*;
 import static org.ojalgo.function.PrimitiveFunction.*;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 
@@ -33,6 +34,7 @@ import org.ojalgo.array.BasicArray;
 import org.ojalgo.array.ComplexArray;
 import org.ojalgo.array.DenseArray;
 import org.ojalgo.array.Primitive64Array;
+import org.ojalgo.array.PrimitiveSpliterator;
 import org.ojalgo.array.blas.AXPY;
 import org.ojalgo.concurrent.DivideAndConquer;
 import org.ojalgo.function.BinaryFunction;
@@ -528,33 +530,38 @@ public final class PrimitiveDenseStore extends Primitive64Array implements Physi
         final int tmpRowDim = myRowDim;
         final int tmpColDim = myColDim;
 
-        final AggregatorFunction<Double> mainAggr = aggregator.getFunction(PrimitiveAggregator.getSet());
+        if (tmpColDim > AggregateAll.THRESHOLD) {
 
-        if (mainAggr.isMergeable() && (tmpColDim > AggregateAll.THRESHOLD)) {
+            final AggregatorSet<Double> tmpSet = PrimitiveAggregator.getSet();
+            final AggregatorFunction<Double> mainAggr = tmpSet.newInstance(aggregator);
 
             final DivideAndConquer tmpConquerer = new DivideAndConquer() {
 
                 @Override
                 public void conquer(final int first, final int limit) {
 
-                    final AggregatorFunction<Double> tmpPartAggr = aggregator.getFunction(PrimitiveAggregator.getSet());
+                    final AggregatorFunction<Double> tmpPartAggr = tmpSet.newInstance(aggregator);
 
                     PrimitiveDenseStore.this.visit(tmpRowDim * first, tmpRowDim * limit, 1, tmpPartAggr);
 
                     synchronized (mainAggr) {
-                        mainAggr.merge(tmpPartAggr.get());
+                        mainAggr.merge(tmpPartAggr);
                     }
                 }
             };
 
             tmpConquerer.invoke(0, tmpColDim, AggregateAll.THRESHOLD);
 
+            return mainAggr.get();
+
         } else {
 
+            final AggregatorFunction<Double> mainAggr = aggregator.getFunction(PrimitiveAggregator.getSet());
+
             PrimitiveDenseStore.this.visit(0, this.size(), 1, mainAggr);
-        }
 
-        return mainAggr.get();
+            return mainAggr.get();
+        }
     }
 
     public void applyCholesky(final int iterationPoint, final BasicArray<Double> multipliers) {
@@ -634,6 +641,13 @@ public final class PrimitiveDenseStore extends Primitive64Array implements Physi
         AXPY.invoke(data, (aColY * myRowDim) + aFirstRow, aSclrA, data, (aColX * myRowDim) + aFirstRow, 0, myRowDim - aFirstRow);
     }
 
+    /**
+     * @return A primitive spliterator over the elements of the column, the index is the row
+     */
+    public PrimitiveSpliterator columnSpliterator(final long col) {
+        return PrimitiveSpliterator.of(data, myRowDim * (int) col, 1, myRowDim);
+    }
+
     public Array1D<ComplexNumber> computeInPlaceSchur(final PhysicalStore<Double> transformationCollector, final boolean eigenvalue) {
 
         // final PrimitiveDenseStore tmpThisCopy = this.copy();
@@ -1035,6 +1049,83 @@ public final class PrimitiveDenseStore extends Primitive64Array implements Physi
         return FACTORY;
     }
 
+    public void reduceColumns(final Aggregator aggregator, final Mutate1D receiver) {
+
+        final int tmpRowDim = myRowDim;
+        final int tmpColDim = (int) Math.min(myColDim, receiver.count());
+        final double[] tmpData = data;
+
+        final double[] tmpResults = new double[tmpColDim];
+
+        final DivideAndConquer tmpConquerer = new DivideAndConquer() {
+
+            @Override
+            public void conquer(final int first, final int limit) {
+
+                final AggregatorFunction<Double> tmpAggr = PrimitiveAggregator.getSet().newInstance(aggregator);
+
+                for (int j = first; j < limit; j++) {
+                    tmpAggr.reset();
+                    for (int i = j * tmpRowDim, lim = i + tmpRowDim; i < lim; i++) {
+                        tmpAggr.invoke(tmpData[i]);
+                    }
+                    tmpResults[j] = tmpAggr.doubleValue();
+                }
+            }
+        };
+
+        tmpConquerer.invoke(0, tmpColDim, AggregateAll.THRESHOLD);
+
+        for (int j = 0; j < tmpColDim; j++) {
+            receiver.set(j, tmpResults[j]);
+        }
+    }
+
+    /**
+     * Works on blocks of rows, moving along the (column-major) data, rather than aggregating one
+     * (non-contiguous) row at the time.
+     */
+    public void reduceRows(final Aggregator aggregator, final Mutate1D receiver) {
+
+        final int tmpRowDim = (int) Math.min(myRowDim, receiver.count());
+        final int tmpColDim = myColDim;
+        final int tmpStructure = myRowDim;
+        final double[] tmpData = data;
+
+        final double[] tmpResults = new double[tmpRowDim];
+
+        final DivideAndConquer tmpConquerer = new DivideAndConquer() {
+
+            @Override
+            public void conquer(final int first, final int limit) {
+
+                final AggregatorSet<Double> tmpSet = PrimitiveAggregator.getSet();
+
+                final List<AggregatorFunction<Double>> tmpAggrs = new ArrayList<>(limit - first);
+                for (int i = first; i < limit; i++) {
+                    tmpAggrs.add(tmpSet.newInstance(aggregator));
+                }
+
+                for (int j = 0; j < tmpColDim; j++) {
+                    final int tmpOffset = j * tmpStructure;
+                    for (int i = first; i < limit; i++) {
+                        tmpAggrs.get(i - first).invoke(tmpData[tmpOffset + i]);
+                    }
+                }
+
+                for (int i = first; i < limit; i++) {
+                    tmpResults[i] = tmpAggrs.get(i - first).doubleValue();
+                }
+            }
+        };
+
+        tmpConquerer.invoke(0, tmpRowDim, AggregateAll.THRESHOLD);
+
+        for (int i = 0; i < tmpRowDim; i++) {
+            receiver.set(i, tmpResults[i]);
+        }
+    }
+
     public final ElementsConsumer<Double> regionByColumns(final int... columns) {
         return new ElementsConsumer.ColumnsRegion<>(this, multiplyBoth, columns);
     }
@@ -1059,6 +1150,13 @@ public final class PrimitiveDenseStore extends Primitive64Array implements Physi
         RotateRight.invoke(data, myRowDim, low, high, cos, sin);
     }
 
+    /**
+     * @return A primitive spliterator over the elements of the row, the index is the column
+     */
+    public PrimitiveSpliterator rowSpliterator(final long row) {
+        return PrimitiveSpliterator.of(data, (int) row, myRowDim, myColDim);
+    }
+
     public void set(final long row, final long col, final double value) {
         myUtility.set(row, col, value);
     }
@@ -0,0 +1,484 @@
+/*
+ * Copyright 1997-2018 Optimatika
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.ojalgo.matrix.store;
+
+import static org.ojalgo.constant.PrimitiveMath.*;
+
+import org.ojalgo.array.DenseArray;
+import org.ojalgo.array.Primitive64Array;
+import org.ojalgo.concurrent.DivideAndConquer;
+import org.ojalgo.structure.Access2D;
+import org.ojalgo.structure.Mutate2D;
+
+/**
+ * A dense double matrix store for matrices with more than 2<sup>31</sup> elements – the number of rows and
+ * columns must each fit in an int, but not their product. The elements are stored column by column in a
+ * sequence of segments (panels of whole columns), each of which is an ordinary {@link DenseArray}. Use
+ * {@link Primitive64Array#FACTORY} (the default) for heap segments, or
+ * {@link org.ojalgo.array.BufferArray#DIRECT64} for off-heap segments.
+ * <p>
+ * The general {@link MatrixStore} operations work, element by element, but the ones implemented here
+ * ({@link #multiply(MatrixStore)}, {@link #copyTransposed()}, {@link #decomposeCholesky()} and
+ * {@link #solveCholesky(Access2D)}) work column-wise within the segments, and in parallel. With heap segments
+ * the columns are accessed in place; with off-heap segments (ranges of) columns are copied to/from work
+ * arrays.
+ *
+ * @author apete
+ */
+public final class SegmentedDenseStore extends FactoryStore<Double> implements Mutate2D {
+
+    /**
+     * Where to find the elements of one column: element (row) r is at data[offset + r]
+     */
+    static final class Column {
+
+        final double[] data;
+        final int offset;
+
+        Column(final double[] data, final int offset) {
+            super();
+            this.data = data;
+            this.offset = offset;
+        }
+
+    }
+
+    /**
+     * The (max) number of elements in a segment: 2^24 doubles (128MB)
+     */
+    static final int SEGMENT_SIZE = 1 << 24;
+
+    /**
+     * Number of columns processed together (per thread) when multiplying
+     */
+    static final int TILE_COLUMNS = 32;
+
+    /**
+     * Number of rows processed together when multiplying
+     */
+    static final int TILE_ROWS = 2048;
+
+    /**
+     * Row range size when parallelising the Cholesky column updates
+     */
+    static final int THRESHOLD = 4096;
+
+    /**
+     * @return A new (heap) store with the same elements as the source
+     */
+    public static SegmentedDenseStore copy(final Access2D<?> source) {
+
+        final SegmentedDenseStore retVal = SegmentedDenseStore.make(source.countRows(), source.countColumns());
+
+        final double[] tmpBuffer = new double[retVal.getRowDim()];
+        for (int j = 0; j < retVal.getColDim(); j++) {
+            final Column tmpColumn = retVal.column(j, 0, retVal.getRowDim(), tmpBuffer);
+            for (int i = 0; i < retVal.getRowDim(); i++) {
+                tmpColumn.data[tmpColumn.offset + i] = source.doubleValue(i, j);
+            }
+            retVal.store(j, 0, retVal.getRowDim(), tmpColumn);
+        }
+
+        return retVal;
+    }
+
+    public static SegmentedDenseStore make(final long rows, final long columns) {
+        return new SegmentedDenseStore(Math.toIntExact(rows), Math.toIntExact(columns), Primitive64Array.FACTORY);
+    }
+
+    public static SegmentedDenseStore make(final long rows, final long columns, final DenseArray.Factory<Double> segments) {
+        return new SegmentedDenseStore(Math.toIntExact(rows), Math.toIntExact(columns), segments);
+    }
+
+    private final int myColumnsPerSegment;
+    /**
+     * The heap arrays of the segments, or null if the segments are not (all) on heap
+     */
+    private final double[][] myHeap;
+    private final DenseArray.Factory<Double> mySegmentFactory;
+    private final DenseArray<Double>[] mySegments;
+
+    SegmentedDenseStore(final int rows, final int columns, final DenseArray.Factory<Double> segments) {
+        this(rows, columns, segments, Math.max(1, SEGMENT_SIZE / Math.max(1, rows)));
+    }
+
+    @SuppressWarnings("unchecked")
+    SegmentedDenseStore(final int rows, final int columns, final DenseArray.Factory<Double> segments, final int columnsPerSegment) {
+
+        super(PrimitiveDenseStore.FACTORY, rows, columns);
+
+        myColumnsPerSegment = columnsPerSegment;
+        mySegmentFactory = segments;
+
+        final int tmpNumberOfSegments = (columns + myColumnsPerSegment - 1) / myColumnsPerSegment;
+        mySegments = (DenseArray<Double>[]) new DenseArray<?>[tmpNumberOfSegments];
+
+        double[][] tmpHeap = new double[tmpNumberOfSegments][];
+        for (int s = 0; s < tmpNumberOfSegments; s++) {
+            final int tmpColumns = Math.min(myColumnsPerSegment, columns - (s * myColumnsPerSegment));
+            mySegments[s] = segments.makeZero((long) rows * tmpColumns);
+            if ((tmpHeap != null) && (mySegments[s] instanceof Primitive64Array)) {
+                tmpHeap[s] = ((Primitive64Array) mySegments[s]).data;
+            } else {
+                tmpHeap = null;
+            }
+        }
+        myHeap = tmpHeap;
+    }
+
+    public void add(final long index, final double addend) {
+        this.add(index % this.getRowDim(), index / this.getRowDim(), addend);
+    }
+
+    public void add(final long index, final Number addend) {
+        this.add(index, addend.doubleValue());
+    }
+
+    public void add(final long row, final long col, final double addend) {
+        mySegments[this.segment(col)].add(this.index(row, col), addend);
+    }
+
+    public void add(final long row, final long col, final Number addend) {
+        this.add(row, col, addend.doubleValue());
+    }
+
+    /**
+     * @return A new store (with the same kind of segments) that is the transpose of this
+     */
+    public SegmentedDenseStore copyTransposed() {
+
+        final int tmpRows = this.getRowDim();
+        final int tmpColumns = this.getColDim();
+
+        final SegmentedDenseStore retVal = new SegmentedDenseStore(tmpColumns, tmpRows, mySegmentFactory);
+
+        final int tmpTile = 256;
+
+        final DivideAndConquer tmpConquerer = new DivideAndConquer() {
+
+            @Override
+            protected void conquer(final int first, final int limit) {
+
+                final double[][] tmpSourceBuffers = new double[tmpTile][tmpTile];
+                final Column[] tmpSources = new Column[tmpTile];
+                final double[] tmpTargetBuffer = new double[tmpTile];
+
+                for (int c0 = first * tmpTile; c0 < Math.min(limit * tmpTile, tmpColumns); c0 += tmpTile) {
+                    final int c1 = Math.min(c0 + tmpTile, tmpColumns);
+
+                    for (int r0 = 0; r0 < tmpRows; r0 += tmpTile) {
+                        final int r1 = Math.min(r0 + tmpTile, tmpRows);
+
+                        for (int c = c0; c < c1; c++) {
+                            tmpSources[c - c0] = SegmentedDenseStore.this.column(c, r0, r1, tmpSourceBuffers[c - c0]);
+                        }
+
+                        for (int r = r0; r < r1; r++) {
+                            final Column tmpTarget = retVal.column(r, c0, c1, tmpTargetBuffer);
+                            for (int c = c0; c < c1; c++) {
+                                final Column tmpSource = tmpSources[c - c0];
+                                tmpTarget.data[tmpTarget.offset + c] = tmpSource.data[tmpSource.offset + r];
+                            }
+                            retVal.store(r, c0, c1, tmpTarget);
+                        }
+                    }
+                }
+            }
+
+        };
+
+        tmpConquerer.invoke(0, (tmpColumns + tmpTile - 1) / tmpTile, 1);
+
+        return retVal;
+    }
+
+    public long count() {
+        return (long) this.getRowDim() * this.getColDim();
+    }
+
+    /**
+     * In-place Cholesky decomposition, A = L L<sup>T</sup>, of this (symmetric positive definite) matrix. Only
+     * the lower triangle is read. On success the lower triangle (including the diagonal) is overwritten with
+     * L and the strictly upper triangle with zeros. If the matrix is not positive definite the contents are
+     * undefined.
+     *
+     * @return true if successful
+     */
+    public boolean decomposeCholesky() {
+
+        final int tmpDim = this.getRowDim();
+        if (this.getColDim() != tmpDim) {
+            throw new IllegalStateException("The matrix must be square!");
+        }
+
+        final double[] tmpBufferJ = new double[tmpDim];
+
+        for (int j = 0; j < tmpDim; j++) {
+
+            final int tmpJ = j;
+            final Column tmpColumnJ = this.column(j, j, tmpDim, tmpBufferJ);
+
+            // cj[j:] -= sum_k L(j,k) * ck[j:]
+
+            final DivideAndConquer tmpConquerer = new DivideAndConquer() {
+
+                @Override
+                protected void conquer(final int first, final int limit) {
+                    final double[] tmpBufferK = myHeap != null ? null : new double[tmpDim];
+                    for (int k = 0; k < tmpJ; k++) {
+                        final double tmpLJK = SegmentedDenseStore.this.doubleValue(tmpJ, k);
+                        if (tmpLJK != ZERO) {
+                            final Column tmpColumnK = SegmentedDenseStore.this.column(k, first, limit, tmpBufferK);
+                            for (int r = first; r < limit; r++) {
+                                tmpColumnJ.data[tmpColumnJ.offset + r] -= tmpLJK * tmpColumnK.data[tmpColumnK.offset + r];
+                            }
+                        }
+                    }
+                }
+
+            };
+
+            tmpConquerer.invoke(j, tmpDim, THRESHOLD);
+
+            final double tmpDiagonal = tmpColumnJ.data[tmpColumnJ.offset + j];
+            if (!(tmpDiagonal > ZERO)) {
+                return false;
+            }
+
+            final double tmpSqrt = Math.sqrt(tmpDiagonal);
+            tmpColumnJ.data[tmpColumnJ.offset + j] = tmpSqrt;
+            for (int r = j + 1; r < tmpDim; r++) {
+                tmpColumnJ.data[tmpColumnJ.offset + r] /= tmpSqrt;
+            }
+
+            this.store(j, j, tmpDim, tmpColumnJ);
+
+            final Column tmpUpper = this.column(j, 0, j, tmpBufferJ);
+            for (int r = 0; r < j; r++) {
+                tmpUpper.data[tmpUpper.offset + r] = ZERO;
+            }
+            this.store(j, 0, j, tmpUpper);
+        }
+
+        return true;
+    }
+
+    public double doubleValue(final long row, final long col) {
+        return mySegments[this.segment(col)].doubleValue(this.index(row, col));
+    }
+
+    public Double get(final long row, final long col) {
+        return this.doubleValue(row, col);
+    }
+
+    /**
+     * @return this * right, with the same kind of segments as this
+     */
+    @Override
+    public SegmentedDenseStore multiply(final MatrixStore<Double> right) {
+
+        final int tmpRows = this.getRowDim();
+        final int tmpComplexity = this.getColDim();
+        final int tmpColumns = Math.toIntExact(right.countColumns());
+
+        if (right.countRows() != tmpComplexity) {
+            throw new IllegalArgumentException("The matrices are not compatible for multiplication!");
+        }
+
+        final SegmentedDenseStore retVal = new SegmentedDenseStore(tmpRows, tmpColumns, mySegmentFactory);
+
+        final DivideAndConquer tmpConquerer = new DivideAndConquer() {
+
+            @Override
+            protected void conquer(final int first, final int limit) {
+
+                final double[] tmpBuffer = myHeap != null ? null : new double[TILE_ROWS];
+
+                for (int j0 = first; j0 < limit; j0 += TILE_COLUMNS) {
+                    final int j1 = Math.min(j0 + TILE_COLUMNS, limit);
+
+                    final double[][] tmpFactors = new double[j1 - j0][tmpComplexity];
+                    for (int j = j0; j < j1; j++) {
+                        for (int k = 0; k < tmpComplexity; k++) {
+                            tmpFactors[j - j0][k] = right.doubleValue(k, j);
+                        }
+                    }
+
+                    final double[][] tmpProduct = new double[j1 - j0][tmpRows];
+
+                    // Tiles of rows so that the target columns stay in cache
+                    for (int i0 = 0; i0 < tmpRows; i0 += TILE_ROWS) {
+                        final int i1 = Math.min(i0 + TILE_ROWS, tmpRows);
+
+                        for (int k = 0; k < tmpComplexity; k++) {
+                            final Column tmpColumnK = SegmentedDenseStore.this.column(k, i0, i1, tmpBuffer);
+                            for (int j = j0; j < j1; j++) {
+                                final double tmpFactor = tmpFactors[j - j0][k];
+                                if (tmpFactor != ZERO) {
+                                    final double[] tmpTarget = tmpProduct[j - j0];
+                                    for (int i = i0; i < i1; i++) {
+                                        tmpTarget[i] += tmpFactor * tmpColumnK.data[tmpColumnK.offset + i];
+                                    }
+                                }
+                            }
+                        }
+                    }
+
+                    for (int j = j0; j < j1; j++) {
+                        retVal.store(j, 0, tmpRows, new Column(tmpProduct[j - j0], 0));
+                    }
+                }
+            }
+
+        };
+
+        tmpConquerer.invoke(0, tmpColumns, 1);
+
+        return retVal;
+    }
+
+    public void set(final long index, final double value) {
+        this.set(index % this.getRowDim(), index / this.getRowDim(), value);
+    }
+
+    public void set(final long index, final Number value) {
+        this.set(index, value.doubleValue());
+    }
+
+    public void set(final long row, final long col, final double value) {
+        mySegments[this.segment(col)].set(this.index(row, col), value);
+    }
+
+    public void set(final long row, final long col, final Number value) {
+        this.set(row, col, value.doubleValue());
+    }
+
+    /**
+     * Solve A X = B using the Cholesky decomposition, L L<sup>T</sup>, of A – {@link #decomposeCholesky()}
+     * must have been called successfully first.
+     *
+     * @param rhs B
+     * @return X
+     */
+    public PrimitiveDenseStore solveCholesky(final Access2D<?> rhs) {
+
+        final int tmpDim = this.getRowDim();
+        final int tmpCount = Math.toIntExact(rhs.countColumns());
+
+        final PrimitiveDenseStore retVal = PrimitiveDenseStore.FACTORY.makeZero(tmpDim, tmpCount);
+        final double[] tmpSolution = retVal.data;
+
+        for (int j = 0; j < tmpCount; j++) {
+            for (int i = 0; i < tmpDim; i++) {
+                tmpSolution[i + (j * tmpDim)] = rhs.doubleValue(i, j);
+            }
+        }
+
+        final DivideAndConquer tmpConquerer = new DivideAndConquer() {
+
+            @Override
+            protected void conquer(final int first, final int limit) {
+
+                final double[] tmpBuffer = myHeap != null ? null : new double[tmpDim];
+
+                // Forward substitution: L Y = B
+                for (int k = 0; k < tmpDim; k++) {
+                    final Column tmpColumnK = SegmentedDenseStore.this.column(k, k, tmpDim, tmpBuffer);
+                    final double tmpDiagonal = tmpColumnK.data[tmpColumnK.offset + k];
+                    for (int j = first; j < limit; j++) {
+                        final int tmpBase = j * tmpDim;
+                        final double tmpValue = tmpSolution[tmpBase + k] /= tmpDiagonal;
+                        if (tmpValue != ZERO) {
+                            for (int i = k + 1; i < tmpDim; i++) {
+                                tmpSolution[tmpBase + i] -= tmpValue * tmpColumnK.data[tmpColumnK.offset + i];
+                            }
+                        }
+                    }
+                }
+
+                // Backward substitution: L<sup>T</sup> X = Y
+                for (int k = tmpDim - 1; k >= 0; k--) {
+                    final Column tmpColumnK = SegmentedDenseStore.this.column(k, k, tmpDim, tmpBuffer);
+                    final double tmpDiagonal = tmpColumnK.data[tmpColumnK.offset + k];
+                    for (int j = first; j < limit; j++) {
+                        final int tmpBase = j * tmpDim;
+                        double tmpValue = tmpSolution[tmpBase + k];
+                        for (int i = k + 1; i < tmpDim; i++) {
+                            tmpValue -= tmpColumnK.data[tmpColumnK.offset + i] * tmpSolution[tmpBase + i];
+                        }
+                        tmpSolution[tmpBase + k] = tmpValue / tmpDiagonal;
+                    }
+                }
+            }
+
+        };
+
+        tmpConquerer.invoke(0, tmpCount, 1);
+
+        return retVal;
+    }
+
+    /**
+     * @return Rows [first, limit) of column col – in place if on heap, otherwise copied to the beginning of
+     *         the buffer (that then must have room for at least limit - first elements)
+     */
+    Column column(final int col, final int first, final int limit, final double[] buffer) {
+
+        final int tmpSegment = col / myColumnsPerSegment;
+        final int tmpOffset = (col % myColumnsPerSegment) * this.getRowDim();
+
+        if (myHeap != null) {
+            return new Column(myHeap[tmpSegment], tmpOffset);
+        } else {
+            final DenseArray<Double> tmpArray = mySegments[tmpSegment];
+            for (int r = first; r < limit; r++) {
+                buffer[r - first] = tmpArray.doubleValue(tmpOffset + r);
+            }
+            return new Column(buffer, -first);
+        }
+    }
+
+    /**
+     * Write rows [first, limit) of the column back – unless it already is the live (heap) column.
+     */
+    void store(final int col, final int first, final int limit, final Column column) {
+
+        final int tmpSegment = col / myColumnsPerSegment;
+        final int tmpOffset = (col % myColumnsPerSegment) * this.getRowDim();
+
+        if ((myHeap == null) || (column.data != myHeap[tmpSegment])) {
+            final DenseArray<Double> tmpArray = mySegments[tmpSegment];
+            for (int r = first; r < limit; r++) {
+                tmpArray.set(tmpOffset + r, column.data[column.offset + r]);
+            }
+        }
+    }
+
+    private long index(final long row, final long col) {
+        return ((col % myColumnsPerSegment) * this.getRowDim()) + row;
+    }
+
+    private int segment(final long col) {
+        return (int) (col / myColumnsPerSegment);
+    }
+
+}
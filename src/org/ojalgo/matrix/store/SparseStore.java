@@ -23,15 +23,23 @@ package org.ojalgo.matrix.store;
 
 import static org.ojalgo.constant.PrimitiveMath.*;
 
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
 
+import org.ojalgo.array.PrimitiveSpliterator;
 import org.ojalgo.array.SparseArray;
 import org.ojalgo.array.SparseArray.NonzeroView;
+import org.ojalgo.concurrent.DivideAndConquer;
 import org.ojalgo.function.BinaryFunction;
 import org.ojalgo.function.NullaryFunction;
 import org.ojalgo.function.UnaryFunction;
 import org.ojalgo.function.VoidFunction;
 import org.ojalgo.function.aggregator.Aggregator;
+import org.ojalgo.function.aggregator.AggregatorFunction;
+import org.ojalgo.function.aggregator.AggregatorSet;
+import org.ojalgo.matrix.store.operation.AggregateAll;
 import org.ojalgo.matrix.store.operation.MultiplyBoth;
 import org.ojalgo.scalar.ComplexNumber;
 import org.ojalgo.scalar.Quaternion;
@@ -96,9 +104,28 @@ public final class SparseStore<N extends Number> extends FactoryStore<N> impleme
 
             target.reset();
 
-            right.nonzeros().stream(false).forEach(element -> {
-                left.doColumnAXPY(element.row(), element.column(), element.doubleValue(), target);
-            });
+            final long tmpRowDim = right.countRows();
+            final int tmpColDim = (int) right.countColumns();
+
+            if ((target instanceof PhysicalStore) && (tmpColDim > MultiplyBoth.THRESHOLD)) {
+                // Each column of right only updates the corresponding column of (dense) target
+
+                final DivideAndConquer tmpConquerer = new DivideAndConquer() {
+
+                    @Override
+                    public void conquer(final int first, final int limit) {
+                        right.myElements.visitPrimitiveNonzerosInRange(tmpRowDim * first, tmpRowDim * limit,
+                                (index, value) -> left.doColumnAXPY(Structure2D.row(index, tmpRowDim), Structure2D.column(index, tmpRowDim), value, target));
+                    }
+                };
+
+                tmpConquerer.invoke(0, tmpColDim, MultiplyBoth.THRESHOLD);
+
+            } else {
+
+                right.nonzeroSpliterator().forEachRemaining(
+                        (index, value) -> left.doColumnAXPY(Structure2D.row(index, tmpRowDim), Structure2D.column(index, tmpRowDim), value, target));
+            }
 
         } else {
 
@@ -125,7 +152,7 @@ public final class SparseStore<N extends Number> extends FactoryStore<N> impleme
         if (tmpType.equals(Double.class)) {
             myMultiplyer = (ElementsConsumer.FillByMultiplying<N>) MultiplyBoth.getPrimitive(rowsCount, columnsCount);
         } else if (tmpType.equals(ComplexNumber.class)) {
-            myMultiplyer = (ElementsConsumer.FillByMultiplying<N>) MultiplyBoth.getGeneric(rowsCount, columnsCount);
+            myMultiplyer = (ElementsConsumer.FillByMultiplying<N>) MultiplyBoth.getGeneric(rowsCount, columnsCount, ComplexNumber.FACTORY);
         } else {
             myMultiplyer = null;
         }
@@ -141,6 +168,49 @@ public final class SparseStore<N extends Number> extends FactoryStore<N> impleme
         this.updateNonZeros(row, col);
     }
 
+    /**
+     * Only visits the nonzero elements (and zero once, if there are any zeros) rather than every element.
+     * Large matrices are aggregated in parallel, in blocks of columns.
+     */
+    public N aggregateAll(final Aggregator aggregator) {
+
+        if (aggregator == Aggregator.AVERAGE) {
+            return this.physical().function().divide().invoke(this.aggregateAll(Aggregator.SUM), this.physical().scalar().cast(this.count()));
+        }
+
+        final long tmpRowDim = this.countRows();
+        final int tmpColDim = (int) this.countColumns();
+
+        final AggregatorSet<N> tmpSet = this.physical().aggregator();
+        final AggregatorFunction<N> mainAggr = tmpSet.newInstance(aggregator);
+
+        if (tmpColDim > AggregateAll.THRESHOLD) {
+
+            final DivideAndConquer tmpConquerer = new DivideAndConquer() {
+
+                @Override
+                public void conquer(final int first, final int limit) {
+
+                    final AggregatorFunction<N> tmpPartAggr = tmpSet.newInstance(aggregator);
+
+                    myElements.visitRange(tmpRowDim * first, tmpRowDim * limit, tmpPartAggr);
+
+                    synchronized (mainAggr) {
+                        mainAggr.merge(tmpPartAggr);
+                    }
+                }
+            };
+
+            tmpConquerer.invoke(0, tmpColDim, AggregateAll.THRESHOLD);
+
+        } else {
+
+            myElements.visitRange(0L, this.count(), mainAggr);
+        }
+
+        return mainAggr.get();
+    }
+
     public double doubleValue(final long row, final long col) {
         return myElements.doubleValue(Structure2D.index(myFirsts.length, row, col));
     }
@@ -397,6 +467,15 @@ public final class SparseStore<N extends Number> extends FactoryStore<N> impleme
         return super.multiplyBoth(leftAndRight);
     }
 
+    /**
+     * Primitive, and balanced, alternative to {@link #nonzeros()}. The index is the (column-major) linear
+     * index – use {@link Structure2D#row(long, long)} and {@link Structure2D#column(long, long)} to get the
+     * row and column.
+     */
+    public PrimitiveSpliterator nonzeroSpliterator() {
+        return myElements.nonzeroSpliterator();
+    }
+
     public ElementView2D<N, ?> nonzeros() {
         return new Access2D.ElementView<>(myElements.nonzeros(), this.countRows());
     }
@@ -452,7 +531,38 @@ public final class SparseStore<N extends Number> extends FactoryStore<N> impleme
                 this.nonzeros().forEach(element -> receiver.add(element.column(), element.get()));
             }
         } else {
-            super.reduceColumns(aggregator, receiver);
+
+            final long tmpRowDim = this.countRows();
+            final int tmpColDim = (int) Math.min(this.countColumns(), receiver.count());
+
+            // visitRange supplies only one implicit zero, so AVERAGE is calculated as SUM / number of rows
+            final boolean tmpAverage = aggregator == Aggregator.AVERAGE;
+            final Aggregator tmpAggregator = tmpAverage ? Aggregator.SUM : aggregator;
+            final BinaryFunction<N> tmpDivide = this.physical().function().divide();
+            final N tmpCount = this.physical().scalar().cast(tmpRowDim);
+
+            final Number[] tmpResults = new Number[tmpColDim];
+
+            final DivideAndConquer tmpConquerer = new DivideAndConquer() {
+
+                @Override
+                public void conquer(final int first, final int limit) {
+
+                    final AggregatorFunction<N> tmpAggr = SparseStore.this.physical().aggregator().newInstance(tmpAggregator);
+
+                    for (int j = first; j < limit; j++) {
+                        tmpAggr.reset();
+                        myElements.visitRange(tmpRowDim * j, tmpRowDim * (j + 1), tmpAggr);
+                        tmpResults[j] = tmpAverage ? tmpDivide.invoke(tmpAggr.get(), tmpCount) : tmpAggr.get();
+                    }
+                }
+            };
+
+            tmpConquerer.invoke(0, tmpColDim, AggregateAll.THRESHOLD);
+
+            for (int j = 0; j < tmpColDim; j++) {
+                receiver.set(j, tmpResults[j]);
+            }
         }
     }
 
@@ -464,7 +574,55 @@ public final class SparseStore<N extends Number> extends FactoryStore<N> impleme
                 this.nonzeros().forEach(element -> receiver.add(element.row(), element.get()));
             }
         } else {
-            super.reduceColumns(aggregator, receiver);
+
+            // One pass over the nonzeros, rather than one pass per row
+
+            final int tmpRowDim = (int) Math.min(this.countRows(), receiver.count());
+            final long tmpColDim = this.countColumns();
+
+            // Only one implicit zero is supplied per row, so AVERAGE is calculated as SUM / number of columns
+            final boolean tmpAverage = aggregator == Aggregator.AVERAGE;
+            final Aggregator tmpAggregator = tmpAverage ? Aggregator.SUM : aggregator;
+            final BinaryFunction<N> tmpDivide = this.physical().function().divide();
+            final N tmpCount = this.physical().scalar().cast(tmpColDim);
+
+            final AggregatorSet<N> tmpSet = this.physical().aggregator();
+
+            final List<AggregatorFunction<N>> tmpAggrs = new ArrayList<>(Collections.nCopies(tmpRowDim, null));
+            final int[] tmpCounts = new int[tmpRowDim];
+
+            for (ElementView2D<N, ?> element : this.nonzeros()) {
+                final int tmpRow = (int) element.row();
+                if (tmpRow < tmpRowDim) {
+                    AggregatorFunction<N> tmpAggr = tmpAggrs.get(tmpRow);
+                    if (tmpAggr == null) {
+                        tmpAggr = tmpSet.newInstance(tmpAggregator);
+                        tmpAggrs.set(tmpRow, tmpAggr);
+                    }
+                    if (this.isPrimitive()) {
+                        tmpAggr.invoke(element.doubleValue());
+                    } else {
+                        tmpAggr.invoke(element.get());
+                    }
+                    tmpCounts[tmpRow]++;
+                }
+            }
+
+            final AggregatorFunction<N> tmpZeroAggr = tmpSet.newInstance(tmpAggregator);
+            tmpZeroAggr.invoke(ZERO);
+            final N tmpZeroOnly = tmpZeroAggr.get();
+
+            for (int i = 0; i < tmpRowDim; i++) {
+                final AggregatorFunction<N> tmpAggr = tmpAggrs.get(i);
+                if (tmpAggr == null) {
+                    receiver.set(i, tmpZeroOnly);
+                } else {
+                    if (tmpCounts[i] < tmpColDim) {
+                        tmpAggr.invoke(ZERO);
+                    }
+                    receiver.set(i, tmpAverage ? tmpDivide.invoke(tmpAggr.get(), tmpCount) : tmpAggr.get());
+                }
+            }
         }
     }
 
@@ -0,0 +1,225 @@
+/*
+ * Copyright 1997-2018 Optimatika
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.ojalgo.matrix.store;
+
+import java.util.Arrays;
+
+import org.ojalgo.ProgrammingError;
+
+/**
+ * Thread-local, size-bucketed pools of scratch {@code double[]} and {@link PrimitiveDenseStore} instances.
+ * Decompositions and solvers borrow their temporary work arrays/stores from here, and give them back when
+ * done, so that repeatedly solving same-sized problems on the same thread does not allocate new scratch
+ * memory every time.
+ * <p>
+ * Borrowed instances are always zero-filled. Anything borrowed must not be used after it has been given
+ * back, and must never be given back while still referenced – results that are handed over to the caller
+ * should not come from here. Not giving something back is harmless; it is simply garbage collected.
+ * </p>
+ * <p>
+ * Each thread keeps at most {@link #SIZES} different sizes, and at most {@link #INSTANCES} instances of
+ * each size. Arrays/stores with more than {@link #LIMIT} elements are never pooled.
+ * </p>
+ *
+ * @author apete
+ */
+public final class Workspace {
+
+    static final class Bucket<T> {
+
+        int count = 0;
+        final T[] instances;
+        final long key;
+
+        Bucket(final long key, final T[] instances) {
+            super();
+            this.key = key;
+            this.instances = instances;
+        }
+
+        boolean contains(final T instance) {
+            for (int i = 0; i < count; i++) {
+                if (instances[i] == instance) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        T poll() {
+            if (count > 0) {
+                final T retVal = instances[--count];
+                instances[count] = null;
+                return retVal;
+            } else {
+                return null;
+            }
+        }
+
+        void push(final T instance) {
+            if ((count < instances.length) && !this.contains(instance)) {
+                instances[count++] = instance;
+            }
+        }
+
+    }
+
+    /**
+     * The maximum number of pooled instances per size (per thread)
+     */
+    public static int INSTANCES = 4;
+    /**
+     * The maximum number of elements of a pooled array/store
+     */
+    public static int LIMIT = 1 << 20;
+    /**
+     * The maximum number of different sizes pooled (per thread)
+     */
+    public static int SIZES = 16;
+
+    private static final ThreadLocal<Workspace> LOCAL = ThreadLocal.withInitial(Workspace::new);
+
+    /**
+     * @return A zero-filled array of exactly the requested length
+     */
+    public static double[] borrowArray(final int length) {
+
+        if (length > LIMIT) {
+            return new double[length];
+        }
+
+        final Workspace tmpWorkspace = LOCAL.get();
+
+        final Bucket<double[]> tmpBucket = tmpWorkspace.find(tmpWorkspace.myArrays, length);
+        final double[] retVal = tmpBucket != null ? tmpBucket.poll() : null;
+
+        if (retVal != null) {
+            Arrays.fill(retVal, 0.0);
+            return retVal;
+        } else {
+            return new double[length];
+        }
+    }
+
+    /**
+     * @return A zero-filled store of exactly the requested shape
+     */
+    public static PrimitiveDenseStore borrowStore(final long numberOfRows, final long numberOfColumns) {
+
+        final long tmpCount = numberOfRows * numberOfColumns;
+
+        if (tmpCount > LIMIT) {
+            return PrimitiveDenseStore.FACTORY.makeZero(numberOfRows, numberOfColumns);
+        }
+
+        final Workspace tmpWorkspace = LOCAL.get();
+
+        final Bucket<PrimitiveDenseStore> tmpBucket = tmpWorkspace.find(tmpWorkspace.myStores, Workspace.key(numberOfRows, numberOfColumns));
+        final PrimitiveDenseStore retVal = tmpBucket != null ? tmpBucket.poll() : null;
+
+        if (retVal != null) {
+            Arrays.fill(retVal.data, 0.0);
+            return retVal;
+        } else {
+            return PrimitiveDenseStore.FACTORY.makeZero(numberOfRows, numberOfColumns);
+        }
+    }
+
+    /**
+     * Removes everything pooled by the current thread
+     */
+    public static void clear() {
+        LOCAL.remove();
+    }
+
+    public static void giveBack(final double[] array) {
+
+        ProgrammingError.throwIfNull(array);
+
+        if (array.length <= LIMIT) {
+            final Workspace tmpWorkspace = LOCAL.get();
+            Bucket<double[]> tmpBucket = tmpWorkspace.find(tmpWorkspace.myArrays, array.length);
+            if (tmpBucket == null) {
+                tmpBucket = tmpWorkspace.add(tmpWorkspace.myArrays, new Bucket<>(array.length, new double[INSTANCES][]));
+            }
+            tmpBucket.push(array);
+        }
+    }
+
+    public static void giveBack(final PrimitiveDenseStore store) {
+
+        ProgrammingError.throwIfNull(store);
+
+        if (store.count() <= LIMIT) {
+            final Workspace tmpWorkspace = LOCAL.get();
+            final long tmpKey = Workspace.key(store.countRows(), store.countColumns());
+            Bucket<PrimitiveDenseStore> tmpBucket = tmpWorkspace.find(tmpWorkspace.myStores, tmpKey);
+            if (tmpBucket == null) {
+                tmpBucket = tmpWorkspace.add(tmpWorkspace.myStores, new Bucket<>(tmpKey, new PrimitiveDenseStore[INSTANCES]));
+            }
+            tmpBucket.push(store);
+        }
+    }
+
+    static long key(final long numberOfRows, final long numberOfColumns) {
+        return (numberOfRows << 32) | numberOfColumns;
+    }
+
+    private final Bucket<double[]>[] myArrays;
+    private final Bucket<PrimitiveDenseStore>[] myStores;
+
+    @SuppressWarnings("unchecked")
+    private Workspace() {
+
+        super();
+
+        myArrays = (Bucket<double[]>[]) new Bucket<?>[SIZES];
+        myStores = (Bucket<PrimitiveDenseStore>[]) new Bucket<?>[SIZES];
+    }
+
+    /**
+     * Adds the bucket to the front. When there are too many sizes the least recently used bucket is dropped.
+     */
+    private <T> Bucket<T> add(final Bucket<T>[] buckets, final Bucket<T> bucket) {
+        System.arraycopy(buckets, 0, buckets, 1, buckets.length - 1);
+        buckets[0] = bucket;
+        return bucket;
+    }
+
+    /**
+     * Finds the bucket for the key, and moves it to the front.
+     */
+    private <T> Bucket<T> find(final Bucket<T>[] buckets, final long key) {
+
+        for (int i = 0; (i < buckets.length) && (buckets[i] != null); i++) {
+            final Bucket<T> tmpBucket = buckets[i];
+            if (tmpBucket.key == key) {
+                System.arraycopy(buckets, 0, buckets, 1, i);
+                buckets[0] = tmpBucket;
+                return tmpBucket;
+            }
+        }
+
+        return null;
+    }
+
+}
@@ -53,18 +53,28 @@ public final class HouseholderLeft extends MatrixOperation {
         final int tmpFirstNonZero = householder.first;
         final N tmpBeta = householder.beta;
 
-        Scalar<N> tmpScale;
+        final N[] tmpConjugated = scalar.newArrayInstance(structure);
+        for (int i = tmpFirstNonZero; i < structure; i++) {
+            tmpConjugated[i] = tmpHouseholderVector[i].conjugate().get();
+        }
+
+        final Scalar.Accumulator<N> tmpAccumulator = scalar.newAccumulator();
+
+        N tmpNegatedScale;
         int tmpIndex;
         for (int j = first; j < limit; j++) {
-            tmpScale = scalar.zero();
+            tmpAccumulator.reset();
             tmpIndex = tmpFirstNonZero + (j * structure);
             for (int i = tmpFirstNonZero; i < structure; i++) {
-                tmpScale = tmpScale.add(tmpHouseholderVector[i].conjugate().multiply(data[tmpIndex++]));
+                tmpAccumulator.addProduct(tmpConjugated[i], data[tmpIndex++]);
             }
-            tmpScale = tmpScale.multiply(tmpBeta);
+            tmpNegatedScale = tmpAccumulator.get().multiply(tmpBeta).negate().get();
             tmpIndex = tmpFirstNonZero + (j * structure);
             for (int i = tmpFirstNonZero; i < structure; i++) {
-                data[tmpIndex] = data[tmpIndex].subtract(tmpScale.multiply(tmpHouseholderVector[i])).get();
+                tmpAccumulator.reset();
+                tmpAccumulator.add(data[tmpIndex]);
+                tmpAccumulator.addProduct(tmpNegatedScale, tmpHouseholderVector[i]);
+                data[tmpIndex] = tmpAccumulator.get();
                 tmpIndex++;
             }
         }
@@ -56,19 +56,30 @@ public final class HouseholderRight extends MatrixOperation {
 
         final int tmpRowDim = data.length / tmpColDim;
 
-        Scalar<N> tmpScale;
+        final N[] tmpConjugated = scalar.newArrayInstance(tmpColDim);
+        for (int j = tmpFirstNonZero; j < tmpColDim; j++) {
+            tmpConjugated[j] = tmpHouseholderVector[j].conjugate().get();
+        }
+
+        final Scalar.Accumulator<N> tmpAccumulator = scalar.newAccumulator();
+
+        // conj(v)conj(d) = conj(dv) and conj(conj(d) - sv) = d - conj(v)conj(s)
+        N tmpNegatedScale;
         int tmpIndex;
         for (int i = first; i < limit; i++) {
-            tmpScale = scalar.zero();
+            tmpAccumulator.reset();
             tmpIndex = i + (tmpFirstNonZero * tmpRowDim);
             for (int j = tmpFirstNonZero; j < tmpColDim; j++) {
-                tmpScale = tmpScale.add(tmpHouseholderVector[j].conjugate().multiply(data[tmpIndex].conjugate()));
+                tmpAccumulator.addProduct(data[tmpIndex], tmpHouseholderVector[j]);
                 tmpIndex += tmpRowDim;
             }
-            tmpScale = tmpScale.multiply(tmpBeta);
+            tmpNegatedScale = tmpAccumulator.get().conjugate().multiply(tmpBeta).conjugate().negate().get();
             tmpIndex = i + (tmpFirstNonZero * tmpRowDim);
             for (int j = tmpFirstNonZero; j < tmpColDim; j++) {
-                data[tmpIndex] = data[tmpIndex].conjugate().subtract(tmpScale.multiply(tmpHouseholderVector[j])).conjugate().get();
+                tmpAccumulator.reset();
+                tmpAccumulator.add(data[tmpIndex]);
+                tmpAccumulator.addProduct(tmpConjugated[j], tmpNegatedScale);
+                data[tmpIndex] = tmpAccumulator.get();
                 tmpIndex += tmpRowDim;
             }
         }
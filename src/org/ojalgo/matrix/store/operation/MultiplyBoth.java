@@ -21,9 +21,6 @@
  */
 package org.ojalgo.matrix.store.operation;
 
-import java.lang.reflect.Array;
-
-import org.ojalgo.ProgrammingError;
 import org.ojalgo.array.blas.AXPY;
 import org.ojalgo.concurrent.DivideAndConquer;
 import org.ojalgo.constant.PrimitiveMath;
@@ -556,7 +553,7 @@ public final class MultiplyBoth extends MatrixOperation {
         tmpConquerer.invoke(0, ((int) left.count()) / complexity, THRESHOLD);
     };
 
-    public static <N extends Number & Scalar<N>> GenericMultiplyBoth<N> getGeneric(final long rows, final long columns) {
+    public static <N extends Number & Scalar<N>> GenericMultiplyBoth<N> getGeneric(final long rows, final long columns, final Scalar.Factory<N> scalar) {
 
         if (rows > THRESHOLD) {
 
@@ -566,7 +563,7 @@ public final class MultiplyBoth extends MatrixOperation {
 
                     @Override
                     public void conquer(final int first, final int limit) {
-                        MultiplyBoth.invokeGeneric(product, first, limit, left, complexity, right);
+                        MultiplyBoth.invokeGeneric(product, first, limit, left, complexity, right, scalar);
                     }
                 };
 
@@ -575,7 +572,8 @@ public final class MultiplyBoth extends MatrixOperation {
 
         } else {
 
-            return (product, left, complexity, right) -> MultiplyBoth.invokeGeneric(product, 0, ((int) left.count()) / complexity, left, complexity, right);
+            return (product, left, complexity, right) -> MultiplyBoth.invokeGeneric(product, 0, ((int) left.count()) / complexity, left, complexity, right,
+                    scalar);
         }
     }
 
@@ -633,24 +631,13 @@ public final class MultiplyBoth extends MatrixOperation {
     }
 
     static <N extends Number & Scalar<N>> void invokeGeneric(final ElementsConsumer<N> product, final int firstRow, final int rowLimit, final Access1D<N> left,
-            final int complexity, final Access1D<N> right) {
-
-        @SuppressWarnings("unchecked")
-        final Class<N> componenetType = (Class<N>) left.get(0L).getClass();
-        final N zero;
-        try {
-            zero = componenetType.newInstance();
-        } catch (InstantiationException | IllegalAccessException exception) {
-            exception.printStackTrace();
-            throw new ProgrammingError(exception);
-        }
+            final int complexity, final Access1D<N> right, final Scalar.Factory<N> scalar) {
 
         final int tmpRowDim = (int) (left.count() / complexity);
         final int tmpColDim = (int) (right.count() / complexity);
 
-        @SuppressWarnings("unchecked")
-        final N[] tmpLeftRow = (N[]) Array.newInstance(componenetType, complexity);
-        N tmpVal;
+        final N[] tmpLeftRow = scalar.newArrayInstance(complexity);
+        final Scalar.Accumulator<N> tmpVal = scalar.newAccumulator();
 
         int tmpFirst = 0;
         int tmpLimit = complexity;
@@ -670,11 +657,11 @@ public final class MultiplyBoth extends MatrixOperation {
                 tmpFirst = MatrixStore.firstInColumn(right, j, tmpFirstInRow);
                 tmpLimit = MatrixStore.limitOfColumn(right, j, tmpLimitOfRow);
 
-                tmpVal = zero;
+                tmpVal.reset();
                 for (int c = tmpFirst; c < tmpLimit; c++) {
-                    tmpVal = tmpVal.add(tmpLeftRow[c].multiply(right.get(c + tmpColBase))).get();
+                    tmpVal.addProduct(tmpLeftRow[c], right.get(c + tmpColBase));
                 }
-                product.set(i, j, tmpVal);
+                product.set(i, j, tmpVal.get());
             }
         }
     }
@@ -60,14 +60,14 @@ public final class MultiplyHermitianAndVector extends MatrixOperation {
 
         final int structure = rightVector.length;
 
-        Scalar<N> tmpVal;
+        final Scalar.Accumulator<N> tmpVal = scalar.newAccumulator();
         for (int i = firstRow; i < rowLimit; i++) {
-            tmpVal = scalar.zero();
+            tmpVal.reset();
             for (int c = firstColumn; c < i; c++) {
-                tmpVal = tmpVal.add(hermitianMatrix[i + (c * structure)].multiply(rightVector[c]));
+                tmpVal.addProduct(hermitianMatrix[i + (c * structure)], rightVector[c]);
             }
             for (int c = i; c < structure; c++) {
-                tmpVal = tmpVal.add(hermitianMatrix[c + (i * structure)].conjugate().multiply(rightVector[c]));
+                tmpVal.addProduct(hermitianMatrix[c + (i * structure)].conjugate().get(), rightVector[c]);
             }
             productMatrix[i] = tmpVal.get();
         }
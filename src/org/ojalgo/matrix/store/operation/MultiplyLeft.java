@@ -557,8 +557,6 @@ public final class MultiplyLeft extends MatrixOperation {
 
             return (product, left, complexity, right, scalar) -> {
 
-                Arrays.fill(product, scalar.zero().get());
-
                 final DivideAndConquer tmpConquerer = new DivideAndConquer() {
 
                     @Override
@@ -572,12 +570,7 @@ public final class MultiplyLeft extends MatrixOperation {
 
         } else {
 
-            return (product, left, complexity, right, scalar) -> {
-
-                Arrays.fill(product, scalar.zero().get());
-
-                MultiplyLeft.invoke(product, 0, right.length / complexity, left, complexity, right, scalar);
-            };
+            return (product, left, complexity, right, scalar) -> MultiplyLeft.invoke(product, 0, right.length / complexity, left, complexity, right, scalar);
         }
     }
 
@@ -635,18 +628,25 @@ public final class MultiplyLeft extends MatrixOperation {
 
         final int structure = ((int) left.count()) / complexity;
 
-        final N[] leftColumn = scalar.newArrayInstance(structure);
-        for (int c = 0; c < complexity; c++) {
+        final Scalar.Accumulator<N> accumulator = scalar.newAccumulator();
 
-            final int firstInLeftColumn = MatrixStore.firstInColumn(left, c, 0);
-            final int limitOfLeftColumn = MatrixStore.limitOfColumn(left, c, structure);
+        final N[] leftRow = scalar.newArrayInstance(complexity);
+        for (int i = 0; i < structure; i++) {
 
-            for (int i = firstInLeftColumn; i < limitOfLeftColumn; i++) {
-                leftColumn[i] = left.get(Structure2D.index(structure, i, c));
+            final int firstInLeftRow = MatrixStore.firstInRow(left, i, 0);
+            final int limitOfLeftRow = MatrixStore.limitOfRow(left, i, complexity);
+
+            for (int c = firstInLeftRow; c < limitOfLeftRow; c++) {
+                leftRow[c] = left.get(Structure2D.index(structure, i, c));
             }
 
             for (int j = firstColumn; j < columnLimit; j++) {
-                AXPY.invoke(product, j * structure, right[c + (j * complexity)], leftColumn, 0, firstInLeftColumn, limitOfLeftColumn);
+                final int rightBase = j * complexity;
+                accumulator.reset();
+                for (int c = firstInLeftRow; c < limitOfLeftRow; c++) {
+                    accumulator.addProduct(leftRow[c], right[c + rightBase]);
+                }
+                product[i + (j * structure)] = accumulator.get();
             }
         }
     }
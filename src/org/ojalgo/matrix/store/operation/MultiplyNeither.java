@@ -556,8 +556,6 @@ public final class MultiplyNeither extends MatrixOperation {
 
             return (product, left, complexity, right, scalar) -> {
 
-                Arrays.fill(product, scalar.zero().get());
-
                 final DivideAndConquer tmpConquerer = new DivideAndConquer() {
 
                     @Override
@@ -571,12 +569,8 @@ public final class MultiplyNeither extends MatrixOperation {
 
         } else {
 
-            return (product, left, complexity, right, scalar) -> {
-
-                Arrays.fill(product, scalar.zero().get());
-
-                MultiplyNeither.invoke(product, 0, right.length / complexity, left, complexity, right, scalar);
-            };
+            return (product, left, complexity, right, scalar) -> MultiplyNeither.invoke(product, 0, right.length / complexity, left, complexity, right,
+                    scalar);
         }
     }
 
@@ -627,12 +621,21 @@ public final class MultiplyNeither extends MatrixOperation {
 
         final int structure = left.length / complexity;
 
-        final N[] leftColumn = scalar.newArrayInstance(structure);
-        for (int c = 0; c < complexity; c++) {
-            System.arraycopy(left, c * structure, leftColumn, 0, structure);
+        final Scalar.Accumulator<N> accumulator = scalar.newAccumulator();
+
+        final N[] leftRow = scalar.newArrayInstance(complexity);
+        for (int i = 0; i < structure; i++) {
+            for (int c = 0; c < complexity; c++) {
+                leftRow[c] = left[i + (c * structure)];
+            }
 
             for (int j = firstColumn; j < columnLimit; j++) {
-                AXPY.invoke(product, j * structure, right[c + (j * complexity)], leftColumn, 0, 0, structure);
+                final int rightBase = j * complexity;
+                accumulator.reset();
+                for (int c = 0; c < complexity; c++) {
+                    accumulator.addProduct(leftRow[c], right[c + rightBase]);
+                }
+                product[i + (j * structure)] = accumulator.get();
             }
         }
     }
@@ -559,8 +559,6 @@ public final class MultiplyRight extends MatrixOperation {
 
             return (product, left, complexity, right, scalar) -> {
 
-                Arrays.fill(product, scalar.zero().get());
-
                 final DivideAndConquer tmpConquerer = new DivideAndConquer() {
 
                     @Override
@@ -574,12 +572,7 @@ public final class MultiplyRight extends MatrixOperation {
 
         } else {
 
-            return (product, left, complexity, right, scalar) -> {
-
-                Arrays.fill(product, scalar.zero().get());
-
-                MultiplyRight.invoke(product, 0, (int) (right.count() / complexity), left, complexity, right, scalar);
-            };
+            return (product, left, complexity, right, scalar) -> MultiplyRight.invoke(product, 0, (int) (right.count() / complexity), left, complexity, right, scalar);
         }
     }
 
@@ -634,15 +627,24 @@ public final class MultiplyRight extends MatrixOperation {
 
         final int structure = left.length / complexity;
 
-        final N[] leftColumn = scalar.newArrayInstance(structure);
-        for (int c = 0; c < complexity; c++) {
-            System.arraycopy(left, c * structure, leftColumn, 0, structure);
+        final Scalar.Accumulator<N> accumulator = scalar.newAccumulator();
 
-            final int firstInRightRow = MatrixStore.firstInRow(right, c, firstColumn);
-            final int limitOfRightRow = MatrixStore.limitOfRow(right, c, columnLimit);
+        final N[] rightColumn = scalar.newArrayInstance(complexity);
+        for (int j = firstColumn; j < columnLimit; j++) {
 
-            for (int j = firstInRightRow; j < limitOfRightRow; j++) {
-                AXPY.invoke(product, j * structure, right.get(Structure2D.index(complexity, c, j)), leftColumn, 0, 0, structure);
+            final int firstInRightColumn = MatrixStore.firstInColumn(right, j, 0);
+            final int limitOfRightColumn = MatrixStore.limitOfColumn(right, j, complexity);
+
+            for (int c = firstInRightColumn; c < limitOfRightColumn; c++) {
+                rightColumn[c] = right.get(Structure2D.index(complexity, c, j));
+            }
+
+            for (int i = 0; i < structure; i++) {
+                accumulator.reset();
+                for (int c = firstInRightColumn; c < limitOfRightColumn; c++) {
+                    accumulator.addProduct(left[i + (c * structure)], rightColumn[c]);
+                }
+                product[i + (j * structure)] = accumulator.get();
             }
         }
     }
@@ -69,6 +69,7 @@ public final class SubstituteBackwards extends MatrixOperation {
 
         final int tmpDiagDim = (int) Math.min(body.countRows(), body.countColumns());
         final N[] tmpBodyRow = scalar.newArrayInstance(tmpDiagDim);
+        final Scalar.Accumulator<N> tmpSum = scalar.newAccumulator();
         Scalar<N> tmpVal;
         int tmpColBaseIndex;
 
@@ -84,11 +85,11 @@ public final class SubstituteBackwards extends MatrixOperation {
 
                 tmpColBaseIndex = s * structure;
 
-                tmpVal = scalar.zero();
+                tmpSum.reset();
                 for (int j = i + 1; j < tmpDiagDim; j++) {
-                    tmpVal = tmpVal.add(tmpBodyRow[j].multiply(data[j + tmpColBaseIndex]));
+                    tmpSum.addProduct(tmpBodyRow[j], data[j + tmpColBaseIndex]);
                 }
-                tmpVal = data[i + tmpColBaseIndex].subtract(tmpVal);
+                tmpVal = data[i + tmpColBaseIndex].subtract(tmpSum.get());
                 if (!unitDiagonal) {
                     tmpVal = tmpVal.divide(tmpBodyRow[i]);
                 }
@@ -72,6 +72,7 @@ public final class SubstituteForwards extends MatrixOperation {
 
         final int tmpDiagDim = (int) Math.min(body.countRows(), body.countColumns());
         final N[] tmpBodyRow = scalar.newArrayInstance(tmpDiagDim);
+        final Scalar.Accumulator<N> tmpSum = scalar.newAccumulator();
         Scalar<N> tmpVal;
         int tmpColBaseIndex;
 
@@ -84,14 +85,14 @@ public final class SubstituteForwards extends MatrixOperation {
             for (int s = first; s < limit; s++) {
                 tmpColBaseIndex = s * structure;
 
-                tmpVal = scalar.zero();
+                tmpSum.reset();
                 for (int j = identity ? s : 0; j < i; j++) {
-                    tmpVal = tmpVal.add(tmpBodyRow[j].multiply(data[j + tmpColBaseIndex]));
+                    tmpSum.addProduct(tmpBodyRow[j], data[j + tmpColBaseIndex]);
                 }
                 if (identity) {
-                    tmpVal = i == s ? scalar.one().subtract(tmpVal) : tmpVal.negate();
+                    tmpVal = i == s ? scalar.one().subtract(tmpSum.get()) : tmpSum.get().negate();
                 } else {
-                    tmpVal = data[i + tmpColBaseIndex].subtract(tmpVal);
+                    tmpVal = data[i + tmpColBaseIndex].subtract(tmpSum.get());
                 }
 
                 if (!unitDiagonal) {
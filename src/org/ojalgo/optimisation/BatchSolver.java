@@ -0,0 +1,132 @@
+/*
+ * Copyright 1997-2018 Optimatika
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.ojalgo.optimisation;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ForkJoinPool;
+
+import org.ojalgo.OjAlgoUtils;
+import org.ojalgo.ProgrammingError;
+
+/**
+ * Solves many independent models concurrently using a bounded worker pool. The pool is shared with the
+ * {@linkplain org.ojalgo.optimisation.integer.IntegerSolver} – the branch-and-bound node tasks of any
+ * integer model solved here are executed by the same workers – so the number of threads stays fixed
+ * regardless of how many, or what kind of, models are submitted.
+ * <p>
+ * Each model is solved using its own {@linkplain ExpressionsBasedModel#options}, including time and
+ * iteration limits. The time limits are measured from when solving actually starts, not from when the
+ * model was submitted.
+ * </p>
+ * <p>
+ * A model must not be modified, or submitted again, before its future has completed.
+ * </p>
+ *
+ * @author apete
+ */
+public final class BatchSolver {
+
+    private static final BatchSolver INSTANCE = new BatchSolver(OjAlgoUtils.ENVIRONMENT.threads);
+
+    /**
+     * @return A shared instance with parallelism equal to the number of hardware threads
+     */
+    public static BatchSolver getInstance() {
+        return INSTANCE;
+    }
+
+    private final ForkJoinPool myPool;
+
+    /**
+     * @param parallelism The (maximum) number of models solved at the same time
+     */
+    public BatchSolver(final int parallelism) {
+        this(new ForkJoinPool(parallelism));
+    }
+
+    /**
+     * @param pool The pool to solve the models with – could be {@linkplain ForkJoinPool#commonPool()}
+     */
+    public BatchSolver(final ForkJoinPool pool) {
+
+        super();
+
+        ProgrammingError.throwIfNull(pool);
+
+        myPool = pool;
+    }
+
+    public int getParallelism() {
+        return myPool.getParallelism();
+    }
+
+    public CompletableFuture<Optimisation.Result> maximise(final ExpressionsBasedModel model) {
+        return CompletableFuture.supplyAsync(model::maximise, myPool);
+    }
+
+    /**
+     * @return One future per model, in iteration order
+     */
+    public List<CompletableFuture<Optimisation.Result>> maximise(final Collection<ExpressionsBasedModel> models) {
+
+        final List<CompletableFuture<Optimisation.Result>> retVal = new ArrayList<>(models.size());
+
+        for (final ExpressionsBasedModel model : models) {
+            retVal.add(this.maximise(model));
+        }
+
+        return retVal;
+    }
+
+    public CompletableFuture<Optimisation.Result> minimise(final ExpressionsBasedModel model) {
+        return CompletableFuture.supplyAsync(model::minimise, myPool);
+    }
+
+    /**
+     * @return One future per model, in iteration order
+     */
+    public List<CompletableFuture<Optimisation.Result>> minimise(final Collection<ExpressionsBasedModel> models) {
+
+        final List<CompletableFuture<Optimisation.Result>> retVal = new ArrayList<>(models.size());
+
+        for (final ExpressionsBasedModel model : models) {
+            retVal.add(this.minimise(model));
+        }
+
+        return retVal;
+    }
+
+    /**
+     * Solve a prepared model (that may be updated and solved repeatedly) in the pool.
+     */
+    public CompletableFuture<Optimisation.Result> solve(final ExpressionsBasedModel.Intermediate prepared) {
+        return CompletableFuture.supplyAsync(() -> prepared.solve(null), myPool);
+    }
+
+    ForkJoinPool getPool() {
+        return myPool;
+    }
+
+}
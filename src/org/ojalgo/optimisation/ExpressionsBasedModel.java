@@ -188,7 +188,9 @@ public final class ExpressionsBasedModel extends AbstractModel<GenericSolver> {
 
         private boolean myInPlaceUpdatesOK = true;
         private transient ExpressionsBasedModel.Integration<?> myIntegration = null;
+        private transient Optimisation.Result myLatestResult = null;
         private final ExpressionsBasedModel myModel;
+        private boolean myPendingUpdates = false;
         private transient Optimisation.Solver mySolver = null;
 
         @Override
@@ -216,6 +218,8 @@ public final class ExpressionsBasedModel extends AbstractModel<GenericSolver> {
             }
 
             myIntegration = null;
+            myLatestResult = null;
+            myPendingUpdates = false;
         }
 
         public ExpressionsBasedModel getModel() {
@@ -232,7 +236,7 @@ public final class ExpressionsBasedModel extends AbstractModel<GenericSolver> {
 
         public Optimisation.Result solve(final Optimisation.Result candidate) {
 
-            if (mySolver == null) {
+            if ((mySolver == null) || myPendingUpdates) {
                 myModel.presolve();
             }
 
@@ -264,17 +268,39 @@ public final class ExpressionsBasedModel extends AbstractModel<GenericSolver> {
                 }
             }
 
+            final boolean warmStart = this.applyPendingUpdates() && (myLatestResult != null);
+
             final ExpressionsBasedModel.Integration<?> integration = this.getIntegration();
             final Optimisation.Solver solver = this.getSolver();
 
-            Optimisation.Result retVal = candidate != null ? candidate : myModel.getVariableValues();
+            Optimisation.Result retVal;
+            if (candidate != null) {
+                retVal = candidate;
+            } else if (warmStart) {
+                // The previous solution, that may no longer be feasible
+                retVal = new Optimisation.Result(State.APPROXIMATE, myLatestResult);
+            } else {
+                retVal = myModel.getVariableValues();
+            }
             retVal = integration.toSolverState(retVal, myModel);
             retVal = solver.solve(retVal);
             retVal = integration.toModelState(retVal, myModel);
 
+            myLatestResult = retVal;
+
             return retVal;
         }
 
+        /**
+         * Call this after changing the limits of a constraint expression, or its contribution weight. If
+         * possible the existing solver is updated in-place, and warm-started, the next time
+         * {@link #solve(Optimisation.Result)} is called. Otherwise the solver is re-generated. Changing the
+         * factors of an expression (its structure) requires {@link #dispose()} instead.
+         */
+        public void update(final Expression expression) {
+            this.flagForUpdate();
+        }
+
         public void update(final int index) {
             this.update(myModel.getVariable(index));
         }
@@ -283,6 +309,12 @@ public final class ExpressionsBasedModel extends AbstractModel<GenericSolver> {
             this.update(myModel.getVariable(index));
         }
 
+        /**
+         * Call this after changing the limits (or contribution weight) of a variable. Fixing a variable is
+         * handled immediately, any other change is synchronised with the solver the next time
+         * {@link #solve(Optimisation.Result)} is called – in-place if possible, otherwise by re-generating the
+         * solver.
+         */
         public void update(final Variable variable) {
 
             if (myInPlaceUpdatesOK && (mySolver != null) && (mySolver instanceof UpdatableSolver) && variable.isFixed()) {
@@ -299,8 +331,12 @@ public final class ExpressionsBasedModel extends AbstractModel<GenericSolver> {
                 }
             }
 
-            // Solver will be re-generated
-            mySolver = null;
+            if (variable.isFixed()) {
+                // Solver will be re-generated
+                mySolver = null;
+            } else {
+                this.flagForUpdate();
+            }
         }
 
         public boolean validate(final Access1D<BigDecimal> solution, final Printer appender) {
@@ -311,6 +347,35 @@ public final class ExpressionsBasedModel extends AbstractModel<GenericSolver> {
             return myModel.validate(solution);
         }
 
+        /**
+         * @return true if the existing solver was updated in-place
+         */
+        private boolean applyPendingUpdates() {
+
+            boolean retVal = false;
+
+            if (myPendingUpdates && (mySolver != null)) {
+                retVal = ((UpdatableSolver) mySolver).update(myModel);
+                if (!retVal) {
+                    // Solver will be re-generated
+                    mySolver = null;
+                }
+            }
+
+            myPendingUpdates = false;
+
+            return retVal;
+        }
+
+        private void flagForUpdate() {
+            if (myInPlaceUpdatesOK && (mySolver instanceof UpdatableSolver)) {
+                myPendingUpdates = true;
+            } else {
+                // Solver will be re-generated
+                mySolver = null;
+            }
+        }
+
         ExpressionsBasedModel.Integration<?> getIntegration() {
             if (myIntegration == null) {
                 myIntegration = myModel.getIntegration();
@@ -23,13 +23,17 @@ package org.ojalgo.optimisation;
 
 import java.math.BigDecimal;
 import java.math.RoundingMode;
+import java.util.LinkedHashSet;
 import java.util.Optional;
+import java.util.Set;
 
 import org.ojalgo.ProgrammingError;
 import org.ojalgo.array.Array1D;
 import org.ojalgo.array.BigArray;
 import org.ojalgo.netio.BasicLogger;
 import org.ojalgo.optimisation.integer.IntegerSolver;
+import org.ojalgo.optimisation.integer.PrimalHeuristic;
+import org.ojalgo.optimisation.integer.PrimalHeuristics;
 import org.ojalgo.structure.Access1D;
 import org.ojalgo.type.CalendarDateUnit;
 import org.ojalgo.type.TypeUtils;
@@ -190,6 +194,11 @@ public interface Optimisation {
          */
         public Class<? extends Optimisation.Solver> logger_solver = null;
 
+        /**
+         * Which rule the {@linkplain IntegerSolver} should use to select the variable to branch on.
+         */
+        public IntegerSolver.BranchingRule mip_branching = IntegerSolver.BranchingRule.SIGNIFICANCE;
+
         /**
          * The branch-and-bound nodes/subproblems come in pairs, and each node has a displacement (the
          * fractional amount removed by the new bound). Every pair's total displacement is always exactly 1.0.
@@ -211,6 +220,34 @@ public interface Optimisation {
          */
         public double mip_gap = 1.0E-4;
 
+        /**
+         * The primal heuristics the {@linkplain IntegerSolver} should use to find good integer solutions early.
+         * They're run in parallel with the branch-and-bound tree search - first at the root node and then
+         * periodically (see {@linkplain #mip_heuristics_frequency}). Empty by default – add (some of) the
+         * {@linkplain PrimalHeuristics} to turn them on.
+         *
+         * @see PrimalHeuristics
+         */
+        public Set<PrimalHeuristic> mip_heuristics = new LinkedHashSet<>();
+
+        /**
+         * The primal heuristics are run at the root node, and then at every n:th evaluated node. If this
+         * value is 0 (or less) they're only run at the root node.
+         */
+        public int mip_heuristics_frequency = 256;
+
+        /**
+         * With {@linkplain IntegerSolver.BranchingRule#RELIABILITY} branching a variable's pseudo-costs are
+         * considered reliable when there are at least this many observations in both directions.
+         */
+        public int mip_reliability = 4;
+
+        /**
+         * With {@linkplain IntegerSolver.BranchingRule#RELIABILITY} branching at most this many (unreliable)
+         * variables are evaluated using strong branching at each node.
+         */
+        public int mip_strong_branching = 8;
+
         /**
          * For display only!
          */
@@ -222,6 +259,13 @@ public interface Optimisation {
          */
         public NumberContext solution = new NumberContext(12, 14, RoundingMode.HALF_DOWN);
 
+        /**
+         * Should the solver use sparse (rather than dense) matrix storage and factorisations? If null, the
+         * default, the solver decides based on the size and density of the problem. Currently only used by
+         * the {@linkplain org.ojalgo.optimisation.convex.ConvexSolver}.
+         */
+        public Boolean sparse = null;
+
         /**
          * The maximmum number of millis allowed for the solve() command. Executions will be aborted
          * regardless of if a solution has been found or not.
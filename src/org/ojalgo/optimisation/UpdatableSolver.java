@@ -21,8 +21,29 @@
  */
 package org.ojalgo.optimisation;
 
+import java.util.List;
+
 public interface UpdatableSolver extends Optimisation.Solver {
 
+    /**
+     * Identity, not equality, comparison of the elements. Useful when deciding if a solver was built from
+     * the same model entities, in the same order, as a model now has – if so
+     * {@link #update(ExpressionsBasedModel)} may be possible.
+     *
+     * @return true if both lists contain the same instances in the same order
+     */
+    static boolean isSame(final List<?> list1, final List<?> list2) {
+        if (list1.size() != list2.size()) {
+            return false;
+        }
+        for (int i = 0, limit = list1.size(); i < limit; i++) {
+            if (list1.get(i) != list2.get(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
     /**
      * @param index The, solver specific, variable index
      * @param value The value to fix that variable to
@@ -32,4 +53,18 @@ public interface UpdatableSolver extends Optimisation.Solver {
         return false;
     }
 
+    /**
+     * Update the solver, in-place, to reflect changes made to the model it was built from. Changed
+     * constraint limits, variable limits and (linear) objective function weights may be handled this way.
+     * The next solve should then warm-start from the solver's current state (basis or active set). Anything
+     * that alters the structure of the problem is not expected to be handled.
+     *
+     * @param model The model this solver was built from
+     * @return true if the solver was updated and can be re-used, false if it needs to be rebuilt (in which
+     *         case its state is undefined)
+     */
+    default boolean update(final ExpressionsBasedModel model) {
+        return false;
+    }
+
 }
@@ -33,8 +33,10 @@ import org.ojalgo.function.aggregator.Aggregator;
 import org.ojalgo.matrix.store.MatrixStore;
 import org.ojalgo.matrix.store.PhysicalStore;
 import org.ojalgo.matrix.store.PrimitiveDenseStore;
+import org.ojalgo.matrix.store.SparseStore;
 import org.ojalgo.structure.Access1D;
 import org.ojalgo.structure.Access2D.Collectable;
+import org.ojalgo.structure.ElementView2D;
 import org.ojalgo.type.IndexSelector;
 import org.ojalgo.type.context.NumberContext;
 
@@ -45,6 +47,7 @@ abstract class ActiveSetSolver extends ConstrainedSolver {
     private final IndexSelector myActivator;
     private int myConstraintToInclude = -1;
     private boolean myInitWithLP = false;
+    private boolean myRegularisedQ = false;
     private MatrixStore<Double> myInvQC;
     private final PrimitiveDenseStore myIterationX;
     private final PrimitiveDenseStore mySlackI;
@@ -178,6 +181,10 @@ abstract class ActiveSetSolver extends ConstrainedSolver {
 
         super.initialise(kickStarter);
 
+        // The solver may be re-used, after in-place updates, to solve again
+        myConstraintToInclude = -1;
+        myInitWithLP = false;
+
         boolean feasible = false;
         final boolean usableKickStarter = (kickStarter != null) && kickStarter.getState().isApproximate();
 
@@ -533,17 +540,12 @@ abstract class ActiveSetSolver extends ConstrainedSolver {
 
                 this.performIteration();
 
-            } else if (!this.isSolvableQ()) {
+            } else if (this.isSparse() ? !myRegularisedQ : !this.isSolvableQ()) {
                 // Subproblem NOT solved successfully
                 // 0 active inequalities
-                // Q not SPD
-
-                final double largestInQ = this.getIterationQ().aggregateAll(Aggregator.LARGEST);
-                final double largestInC = this.getMatrixC().aggregateAll(Aggregator.LARGEST);
-                final double largest = PrimitiveFunction.MAX.invoke(largestInQ, largestInC);
+                // Q not SPD (with a sparse Q there is no separate factorisation to ask, regularise it once)
 
-                this.getIterationQ().modifyDiagonal(ADD.second(largest * RELATIVELY_SMALL));
-                this.computeQ(this.getIterationQ());
+                this.regulariseQ();
 
                 this.getSolutionL().modifyAll((Unary) arg -> {
                     if (Double.isFinite(arg)) {
@@ -601,6 +603,35 @@ abstract class ActiveSetSolver extends ConstrainedSolver {
         }
     }
 
+    /**
+     * Adds a small multiple of the largest element (in [Q] or [C]) to the diagonal of [Q], in place. A
+     * sparse [Q] remains sparse.
+     */
+    void regulariseQ() {
+
+        final MatrixStore<Double> mtrxQ = this.getMatrixQ();
+
+        double largestInQ = ZERO;
+        if (mtrxQ instanceof SparseStore) {
+            for (final ElementView2D<Double, ?> nz : ((SparseStore<Double>) mtrxQ).nonzeros()) {
+                largestInQ = PrimitiveFunction.MAX.invoke(largestInQ, PrimitiveFunction.ABS.invoke(nz.doubleValue()));
+            }
+        } else {
+            largestInQ = mtrxQ.aggregateAll(Aggregator.LARGEST);
+        }
+        final double largestInC = this.getMatrixC().aggregateAll(Aggregator.LARGEST);
+        final double largest = PrimitiveFunction.MAX.invoke(largestInQ, largestInC);
+
+        if (mtrxQ instanceof SparseStore) {
+            ((SparseStore<Double>) mtrxQ).modifyDiagonal(ADD.second(largest * RELATIVELY_SMALL));
+        } else {
+            this.getIterationQ().modifyDiagonal(ADD.second(largest * RELATIVELY_SMALL));
+            this.computeQ(this.getIterationQ());
+        }
+
+        myRegularisedQ = true;
+    }
+
     void resetActivator() {
 
         myActivator.excludeAll();
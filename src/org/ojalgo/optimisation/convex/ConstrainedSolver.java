@@ -23,10 +23,13 @@ package org.ojalgo.optimisation.convex;
 
 import org.ojalgo.matrix.store.MatrixStore;
 import org.ojalgo.matrix.store.PhysicalStore;
+import org.ojalgo.matrix.store.RowsSupplier;
 import org.ojalgo.structure.Access2D.Collectable;
 
 abstract class ConstrainedSolver extends ConvexSolver {
 
+    private static final int[] NONE = new int[0];
+
     protected ConstrainedSolver(final ConvexSolver.Builder matrices, final Options solverOptions) {
         super(matrices, solverOptions);
     }
@@ -45,6 +48,16 @@ abstract class ConstrainedSolver extends ConvexSolver {
         return iterC.logical().below(iterB);
     }
 
+    @Override
+    protected boolean initialise(final Result kickStarter) {
+        if (this.isSparse()) {
+            // The sparse KKT system is factorised as a whole - never [Q] on its own
+            return true;
+        } else {
+            return super.initialise(kickStarter);
+        }
+    }
+
     @Override
     protected boolean validate() {
 
@@ -81,7 +94,30 @@ abstract class ConstrainedSolver extends ConvexSolver {
     abstract MatrixStore<Double> getIterationC();
 
     final PhysicalStore<Double> getIterationQ() {
-        return this.getMatrixQ();
+        return this.getMatrixQDense();
+    }
+
+    /**
+     * Same as {@link #solveFullKKT(PhysicalStore)} but without creating any dense matrices. The iteration
+     * constraints are all the equality constraints and the included inequality constraints.
+     */
+    boolean solveSparseKKT(final int[] included, final PhysicalStore<Double> preallocated) {
+
+        final SparseKKT sparseKKT = this.getSparseKKT();
+
+        final RowsSupplier<Double> mtrxAI = this.hasInequalityConstraints() ? this.getMatrixAI() : null;
+
+        if (sparseKKT.compute(this.getMatrixQ(), this.getMatrixAE(), mtrxAI, included != null ? included : NONE)) {
+            final MatrixStore<Double> rhs = this.getIterationC().logical().below(this.getIterationB()).get();
+            if (sparseKKT.solve(rhs, preallocated)) {
+                return true;
+            }
+        }
+
+        if (this.isDebug()) {
+            options.logger_appender.println("Sparse KKT system unsolvable!");
+        }
+        return false;
     }
 
 }
@@ -24,6 +24,8 @@ package org.ojalgo.optimisation.convex;
 import static org.ojalgo.constant.PrimitiveMath.*;
 import static org.ojalgo.function.PrimitiveFunction.*;
 
+import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
 import java.util.stream.Collectors;
@@ -37,6 +39,7 @@ import org.ojalgo.matrix.PrimitiveMatrix;
 import org.ojalgo.matrix.decomposition.Cholesky;
 import org.ojalgo.matrix.decomposition.Eigenvalue;
 import org.ojalgo.matrix.decomposition.LU;
+import org.ojalgo.matrix.store.ElementsConsumer;
 import org.ojalgo.matrix.store.MatrixStore;
 import org.ojalgo.matrix.store.PhysicalStore;
 import org.ojalgo.matrix.store.PhysicalStore.Factory;
@@ -99,7 +102,7 @@ public abstract class ConvexSolver extends GenericSolver implements UpdatableSol
         private MatrixStore<Double> myBE = null;
         private MatrixStore<Double> myBI = null;
         private MatrixStore<Double> myC = null;
-        private PhysicalStore<Double> myQ = null;
+        private MatrixStore<Double> myQ = null;
 
         public Builder() {
             super();
@@ -128,8 +131,8 @@ public abstract class ConvexSolver extends GenericSolver implements UpdatableSol
             }
 
             if (matrices.hasObjective()) {
-                if (matrices.getQ() != null) {
-                    this.objective(matrices.getQ(), matrices.getC());
+                if (matrices.getStoredQ() != null) {
+                    this.objective(matrices.getStoredQ(), matrices.getC());
                 } else {
                     this.objective(matrices.getC());
                 }
@@ -183,8 +186,8 @@ public abstract class ConvexSolver extends GenericSolver implements UpdatableSol
                 retVal = (int) this.getAE().countColumns();
             } else if (this.getAI() != null) {
                 retVal = (int) this.getAI().countColumns();
-            } else if (this.getQ() != null) {
-                retVal = (int) this.getQ().countRows();
+            } else if (myQ != null) {
+                retVal = (int) myQ.countRows();
             } else if (this.getC() != null) {
                 retVal = (int) this.getC().countRows();
             } else {
@@ -246,8 +249,25 @@ public abstract class ConvexSolver extends GenericSolver implements UpdatableSol
 
         /**
          * Quadratic objective: [Q]
+         *
+         * @deprecated v48 Use {@link #getStoredQ()} instead. If [Q] is stored sparse (see {@link #isSparse()})
+         *             this returns a dense copy – modifying that does not modify the builder.
          */
+        @Deprecated
         public PhysicalStore<Double> getQ() {
+            if ((myQ == null) || (myQ instanceof PhysicalStore)) {
+                return (PhysicalStore<Double>) myQ;
+            } else {
+                return PrimitiveDenseStore.FACTORY.copy(myQ);
+            }
+        }
+
+        /**
+         * Quadratic objective: [Q], as it is stored – sparse or dense.
+         *
+         * @see #isSparse()
+         */
+        public MatrixStore<Double> getStoredQ() {
             return myQ;
         }
 
@@ -263,6 +283,13 @@ public abstract class ConvexSolver extends GenericSolver implements UpdatableSol
             return (myQ != null) || (myC != null);
         }
 
+        /**
+         * @return true if [Q] is stored sparse, and the solver should use sparse KKT factorisations.
+         */
+        public boolean isSparse() {
+            return myQ instanceof SparseStore;
+        }
+
         public ConvexSolver.Builder inequalities(final Access2D<Double> mtrxAI, final MatrixStore<Double> mtrxBI) {
 
             ProgrammingError.throwIfNull(mtrxAI, mtrxBI);
@@ -314,8 +341,8 @@ public abstract class ConvexSolver extends GenericSolver implements UpdatableSol
 
             ProgrammingError.throwIfNull(mtrxQ);
 
-            if (mtrxQ instanceof PhysicalStore) {
-                myQ = (PhysicalStore<Double>) mtrxQ;
+            if ((mtrxQ instanceof PhysicalStore) || (mtrxQ instanceof SparseStore)) {
+                myQ = mtrxQ;
             } else {
                 myQ = mtrxQ.copy();
             }
@@ -345,7 +372,7 @@ public abstract class ConvexSolver extends GenericSolver implements UpdatableSol
 
             retVal.append("\n[BE] = " + (myBE != null ? PrimitiveMatrix.FACTORY.copy(this.getBE()) : "?"));
 
-            retVal.append("\n[Q] = " + (myQ != null ? PrimitiveMatrix.FACTORY.copy(this.getQ()) : "?"));
+            retVal.append("\n[Q] = " + (myQ != null ? PrimitiveMatrix.FACTORY.copy(myQ) : "?"));
 
             retVal.append("\n[C] = " + (myC != null ? PrimitiveMatrix.FACTORY.copy(this.getC()) : "?"));
 
@@ -380,7 +407,7 @@ public abstract class ConvexSolver extends GenericSolver implements UpdatableSol
 
             if (this.hasObjective()) {
 
-                if ((this.getQ() != null) && ((this.getQ().countRows() != this.countVariables()) || (this.getQ().countColumns() != this.countVariables()))) {
+                if ((myQ != null) && ((myQ.countRows() != this.countVariables()) || (myQ.countColumns() != this.countVariables()))) {
                     throw new ProgrammingError("Q has the wrong number of rows and/or columns!");
                 }
 
@@ -419,7 +446,11 @@ public abstract class ConvexSolver extends GenericSolver implements UpdatableSol
             this.validate();
 
             if (this.hasInequalityConstraints()) {
-                return new IterativeASS(this, options);
+                if (this.isSparse()) {
+                    return new SparseASS(this, options);
+                } else {
+                    return new IterativeASS(this, options);
+                }
             } else if (this.hasEqualityConstraints()) {
                 return new QPESolver(this, options);
             } else {
@@ -429,15 +460,134 @@ public abstract class ConvexSolver extends GenericSolver implements UpdatableSol
 
     }
 
+    /**
+     * The model entities, and their order, that a solver was built from. Two instances that are structurally
+     * equal map the same entities to the same rows/columns of [AE], [AI] and [Q]. Then [BE], [BI] and [C]
+     * can be updated in-place rather than rebuilding the solver.
+     */
+    static final class ModelEntities {
+
+        final List<Expression> eqExpr;
+        final Set<IntIndex> fixedVariables;
+        final List<Variable> freeVariables;
+        final List<Expression> loExpr;
+        final List<Variable> loVar;
+        final boolean maximisation;
+        final Expression objective;
+        final List<Expression> upExpr;
+        final List<Variable> upVar;
+
+        ModelEntities(final ExpressionsBasedModel model) {
+
+            super();
+
+            freeVariables = new ArrayList<>(model.getFreeVariables());
+            fixedVariables = new HashSet<>(model.getFixedVariables());
+
+            eqExpr = model.constraints().filter((final Expression c) -> c.isEqualityConstraint() && !c.isAnyQuadraticFactorNonZero())
+                    .collect(Collectors.toList());
+
+            objective = model.objective().compensate(fixedVariables);
+            maximisation = model.isMaximisation();
+
+            upExpr = model.constraints().filter((e) -> e.isUpperConstraint() && !e.isAnyQuadraticFactorNonZero()).collect(Collectors.toList());
+            upVar = model.bounds().filter((final Variable c4) -> c4.isUpperConstraint()).collect(Collectors.toList());
+            loExpr = model.constraints().filter((final Expression c1) -> c1.isLowerConstraint() && !c1.isAnyQuadraticFactorNonZero())
+                    .collect(Collectors.toList());
+            loVar = model.bounds().filter((final Variable c3) -> c3.isLowerConstraint()).collect(Collectors.toList());
+        }
+
+        boolean isStructurallyEqual(final ModelEntities other) {
+
+            if ((maximisation != other.maximisation) || !fixedVariables.equals(other.fixedVariables) || !UpdatableSolver.isSame(freeVariables, other.freeVariables)
+                    || !UpdatableSolver.isSame(eqExpr, other.eqExpr) || !UpdatableSolver.isSame(upExpr, other.upExpr) || !UpdatableSolver.isSame(upVar, other.upVar)
+                    || !UpdatableSolver.isSame(loExpr, other.loExpr) || !UpdatableSolver.isSame(loVar, other.loVar)) {
+                return false;
+            }
+
+            final Set<IntRowColumn> quadraticKeys = objective.getQuadraticKeySet();
+            if (quadraticKeys.size() != other.objective.getQuadraticKeySet().size()) {
+                return false;
+            }
+            for (final IntRowColumn key : quadraticKeys) {
+                if (objective.getAdjustedQuadraticFactor(key) != other.objective.getAdjustedQuadraticFactor(key)) {
+                    return false;
+                }
+            }
+
+            return true;
+        }
+
+        /**
+         * Write (new) [BE], [C] and [BI] to the builder. [AE], [Q] and [AI] are kept as they are.
+         */
+        void update(final ExpressionsBasedModel model, final ConvexSolver.Builder builder) {
+
+            final int numbVars = freeVariables.size();
+
+            if (builder.hasEqualityConstraints()) {
+                final PhysicalStore<Double> mtrxBE = FACTORY.makeZero(eqExpr.size(), 1);
+                for (int i = 0; i < eqExpr.size(); i++) {
+                    mtrxBE.set(i, 0, eqExpr.get(i).compensate(fixedVariables).getAdjustedUpperLimit());
+                }
+                builder.equalities(builder.getAE(), mtrxBE);
+            }
+
+            final PhysicalStore<Double> mtrxC = FACTORY.makeZero(numbVars, 1);
+            for (final IntIndex tmpKey : objective.getLinearKeySet()) {
+                final int tmpIndex = model.indexOfFreeVariable(tmpKey.index);
+                if (tmpIndex >= 0) {
+                    final double tmpFactor = objective.getAdjustedLinearFactor(tmpKey);
+                    mtrxC.set(tmpIndex, 0, maximisation ? tmpFactor : -tmpFactor);
+                }
+            }
+            if (builder.getStoredQ() != null) {
+                builder.objective(builder.getStoredQ(), mtrxC);
+            } else {
+                builder.objective(mtrxC);
+            }
+
+            if (builder.hasInequalityConstraints()) {
+
+                final int numbUpExpr = upExpr.size();
+                final int numbUpVar = upVar.size();
+                final int numbLoExpr = loExpr.size();
+                final int numbLoVar = loVar.size();
+
+                final PhysicalStore<Double> mtrxBI = FACTORY.makeZero(numbUpExpr + numbUpVar + numbLoExpr + numbLoVar, 1);
+
+                for (int i = 0; i < numbUpExpr; i++) {
+                    mtrxBI.set(i, 0, upExpr.get(i).compensate(fixedVariables).getAdjustedUpperLimit());
+                }
+                for (int i = 0; i < numbUpVar; i++) {
+                    mtrxBI.set(numbUpExpr + i, 0, upVar.get(i).getAdjustedUpperLimit());
+                }
+                for (int i = 0; i < numbLoExpr; i++) {
+                    mtrxBI.set(numbUpExpr + numbUpVar + i, 0, -loExpr.get(i).compensate(fixedVariables).getAdjustedLowerLimit());
+                }
+                for (int i = 0; i < numbLoVar; i++) {
+                    mtrxBI.set(numbUpExpr + numbUpVar + numbLoExpr + i, 0, -loVar.get(i).getAdjustedLowerLimit());
+                }
+
+                builder.inequalities(builder.getAI(), mtrxBI);
+            }
+        }
+
+    }
+
     public static final class ModelIntegration extends ExpressionsBasedModel.Integration<ConvexSolver> {
 
         public ConvexSolver build(final ExpressionsBasedModel model) {
 
+            final ConvexSolver.ModelEntities tmpEntities = new ConvexSolver.ModelEntities(model);
+
             final ConvexSolver.Builder tmpBuilder = ConvexSolver.getBuilder();
 
-            ConvexSolver.copy(model, tmpBuilder);
+            ConvexSolver.copy(model, tmpEntities, tmpBuilder);
 
-            return tmpBuilder.build(model.options);
+            final ConvexSolver retVal = tmpBuilder.build(model.options);
+            retVal.myEntities = tmpEntities;
+            return retVal;
         }
 
         public boolean isCapable(final ExpressionsBasedModel model) {
@@ -453,19 +603,24 @@ public abstract class ConvexSolver extends GenericSolver implements UpdatableSol
 
     static final Factory<Double, PrimitiveDenseStore> FACTORY = PrimitiveDenseStore.FACTORY;
 
+    static final int SPARSE_THRESHOLD = 128;
+
     public static void copy(final ExpressionsBasedModel sourceModel, final ConvexSolver.Builder destinationBuilder) {
+        ConvexSolver.copy(sourceModel, new ModelEntities(sourceModel), destinationBuilder);
+    }
+
+    static void copy(final ExpressionsBasedModel sourceModel, final ModelEntities sourceEntities, final ConvexSolver.Builder destinationBuilder) {
 
         destinationBuilder.reset();
 
-        final List<Variable> freeVariables = sourceModel.getFreeVariables();
-        final Set<IntIndex> fixedVariables = sourceModel.getFixedVariables();
+        final List<Variable> freeVariables = sourceEntities.freeVariables;
+        final Set<IntIndex> fixedVariables = sourceEntities.fixedVariables;
 
         final int numbVars = freeVariables.size();
 
         // AE & BE
 
-        final List<Expression> tmpEqExpr = sourceModel.constraints()
-                .filter((final Expression c) -> c.isEqualityConstraint() && !c.isAnyQuadraticFactorNonZero()).collect(Collectors.toList());
+        final List<Expression> tmpEqExpr = sourceEntities.eqExpr;
         final int numbEqExpr = tmpEqExpr.size();
 
         if (numbEqExpr > 0) {
@@ -491,11 +646,22 @@ public abstract class ConvexSolver extends GenericSolver implements UpdatableSol
 
         // Q & C
 
-        final Expression tmpObjExpr = sourceModel.objective().compensate(fixedVariables);
+        final Expression tmpObjExpr = sourceEntities.objective;
 
-        PhysicalStore<Double> mtrxQ = null;
+        MatrixStore<Double> mtrxQ = null;
         if (tmpObjExpr.isAnyQuadraticFactorNonZero()) {
-            mtrxQ = FACTORY.makeZero(numbVars, numbVars);
+
+            final ElementsConsumer<Double> tmpReceiverQ;
+            final Boolean sparse = sourceModel.options.sparse;
+            if ((sparse != null) ? sparse.booleanValue() : ConvexSolver.isSparse(numbVars, tmpObjExpr.getQuadraticKeySet().size())) {
+                final SparseStore<Double> tmpSparseQ = SparseStore.PRIMITIVE.make(numbVars, numbVars);
+                mtrxQ = tmpSparseQ;
+                tmpReceiverQ = tmpSparseQ;
+            } else {
+                final PhysicalStore<Double> tmpDenseQ = FACTORY.makeZero(numbVars, numbVars);
+                mtrxQ = tmpDenseQ;
+                tmpReceiverQ = tmpDenseQ;
+            }
 
             final BinaryFunction<Double> tmpBaseFunc = sourceModel.isMaximisation() ? SUBTRACT : ADD;
             UnaryFunction<Double> tmpModifier;
@@ -504,8 +670,8 @@ public abstract class ConvexSolver extends GenericSolver implements UpdatableSol
                 final int tmpColumn = sourceModel.indexOfFreeVariable(tmpKey.column);
                 if ((tmpRow >= 0) && (tmpColumn >= 0)) {
                     tmpModifier = tmpBaseFunc.second(tmpObjExpr.getAdjustedQuadraticFactor(tmpKey));
-                    mtrxQ.modifyOne(tmpRow, tmpColumn, tmpModifier);
-                    mtrxQ.modifyOne(tmpColumn, tmpRow, tmpModifier);
+                    tmpReceiverQ.modifyOne(tmpRow, tmpColumn, tmpModifier);
+                    tmpReceiverQ.modifyOne(tmpColumn, tmpRow, tmpModifier);
                 }
             }
         }
@@ -534,18 +700,16 @@ public abstract class ConvexSolver extends GenericSolver implements UpdatableSol
 
         // AI & BI
 
-        final List<Expression> tmpUpExpr = sourceModel.constraints().filter((e) -> e.isUpperConstraint() && !e.isAnyQuadraticFactorNonZero())
-                .collect(Collectors.toList());
+        final List<Expression> tmpUpExpr = sourceEntities.upExpr;
         final int numbUpExpr = tmpUpExpr.size();
 
-        final List<Variable> tmpUpVar = sourceModel.bounds().filter((final Variable c4) -> c4.isUpperConstraint()).collect(Collectors.toList());
+        final List<Variable> tmpUpVar = sourceEntities.upVar;
         final int numbUpVar = tmpUpVar.size();
 
-        final List<Expression> tmpLoExpr = sourceModel.constraints()
-                .filter((final Expression c1) -> c1.isLowerConstraint() && !c1.isAnyQuadraticFactorNonZero()).collect(Collectors.toList());
+        final List<Expression> tmpLoExpr = sourceEntities.loExpr;
         final int numbLoExpr = tmpLoExpr.size();
 
-        final List<Variable> tmpLoVar = sourceModel.bounds().filter((final Variable c3) -> c3.isLowerConstraint()).collect(Collectors.toList());
+        final List<Variable> tmpLoVar = sourceEntities.loVar;
         final int numbLoVar = tmpLoVar.size();
 
         if ((numbUpExpr + numbUpVar + numbLoExpr + numbLoVar) > 0) {
@@ -603,6 +767,13 @@ public abstract class ConvexSolver extends GenericSolver implements UpdatableSol
         }
     }
 
+    /**
+     * Large problems with few quadratic terms are better handled with sparse storage and factorisations.
+     */
+    static boolean isSparse(final int numberOfVariables, final int numberOfQuadraticTerms) {
+        return (numberOfVariables >= SPARSE_THRESHOLD) && ((numberOfQuadraticTerms * 10L) <= ((long) numberOfVariables * numberOfVariables));
+    }
+
     public static Builder getBuilder() {
         return new Builder();
     }
@@ -611,10 +782,12 @@ public abstract class ConvexSolver extends GenericSolver implements UpdatableSol
         return ConvexSolver.getBuilder().objective(Q, C);
     }
 
+    private ModelEntities myEntities = null;
     private final ConvexSolver.Builder myMatrices;
     private final PrimitiveDenseStore mySolutionX;
     private final LU<Double> mySolverGeneral;
     private final Cholesky<Double> mySolverQ;
+    private SparseKKT mySparseKKT = null;
 
     @SuppressWarnings("unused")
     private ConvexSolver(final Options solverOptions) {
@@ -671,6 +844,31 @@ public abstract class ConvexSolver extends GenericSolver implements UpdatableSol
         return myMatrices.toString();
     }
 
+    /**
+     * Constraint and variable limits, as well as linear objective function weights, are updated in-place.
+     * [Q], [AE] and [AI] are unchanged. The active set solvers warm-start from the solution they are given
+     * with the next {@link #solve(Optimisation.Result)}.
+     */
+    @Override
+    public boolean update(final ExpressionsBasedModel model) {
+
+        if (myEntities == null) {
+            return false;
+        }
+
+        final ModelEntities entities = new ModelEntities(model);
+
+        if (!myEntities.isStructurallyEqual(entities)) {
+            return false;
+        }
+
+        entities.update(model, myMatrices);
+
+        myEntities = entities;
+
+        return true;
+    }
+
     protected boolean computeGeneral(final Collectable<Double, ? super PhysicalStore<Double>> matrix) {
         return mySolverGeneral.compute(matrix);
     }
@@ -746,8 +944,25 @@ public abstract class ConvexSolver extends GenericSolver implements UpdatableSol
         return myMatrices.getC();
     }
 
-    protected PhysicalStore<Double> getMatrixQ() {
-        return myMatrices.getQ();
+    /**
+     * [Q] as stored - may be sparse.
+     */
+    protected MatrixStore<Double> getMatrixQ() {
+        return myMatrices.getStoredQ();
+    }
+
+    /**
+     * [Q] as a dense (modifiable) store. Only available if [Q] is not stored sparse.
+     */
+    protected PhysicalStore<Double> getMatrixQDense() {
+        if (this.isSparse()) {
+            throw new ProgrammingError("Q is stored sparse!");
+        }
+        return (PhysicalStore<Double>) myMatrices.getStoredQ();
+    }
+
+    protected boolean isSparse() {
+        return myMatrices.isSparse();
     }
 
     protected int getRankGeneral() {
@@ -857,7 +1072,17 @@ public abstract class ConvexSolver extends GenericSolver implements UpdatableSol
             throw new IllegalArgumentException("Q must be symmetric!");
         }
 
-        if (!mySolverQ.isSPD()) {
+        if (this.isSparse()) {
+            // The same sparse LDL as is used to solve the KKT systems - never a dense copy of [Q]
+
+            if (!this.getSparseKKT().isPositiveSemidefinite(mtrxQ)) {
+                if (this.isDebug()) {
+                    this.log("Q not positive semidefinite!");
+                }
+                throw new IllegalArgumentException("Q must be positive semidefinite!");
+            }
+
+        } else if (!(mySolverQ.compute(mtrxQ) && mySolverQ.isSPD())) {
             // Not symmetric positive definite. Check if at least positive semidefinite.
 
             final Eigenvalue<Double> decompEvD = Eigenvalue.PRIMITIVE.make(mtrxQ, true);
@@ -883,6 +1108,17 @@ public abstract class ConvexSolver extends GenericSolver implements UpdatableSol
         return true;
     }
 
+    /**
+     * The sparse (LDL) KKT solver, created on first use. The same instance is used to validate [Q] and to
+     * solve – a factorisation of [Q] on its own is only done once.
+     */
+    final SparseKKT getSparseKKT() {
+        if (mySparseKKT == null) {
+            mySparseKKT = new SparseKKT();
+        }
+        return mySparseKKT;
+    }
+
     void supplySlackI(final PhysicalStore<Double> slack) {
 
         final RowsSupplier<Double> mtrxAI = myMatrices.getAI();
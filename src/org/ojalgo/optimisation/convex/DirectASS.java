@@ -29,6 +29,7 @@ import org.ojalgo.constant.PrimitiveMath;
 import org.ojalgo.matrix.store.ElementsSupplier;
 import org.ojalgo.matrix.store.MatrixStore;
 import org.ojalgo.matrix.store.PrimitiveDenseStore;
+import org.ojalgo.matrix.store.Workspace;
 import org.ojalgo.netio.BasicLogger;
 import org.ojalgo.optimisation.Optimisation;
 
@@ -69,7 +70,7 @@ final class DirectASS extends ActiveSetSolver {
         final int numbVars = this.countVariables();
 
         final PrimitiveDenseStore iterX = this.getIterationX();
-        final PrimitiveDenseStore iterL = PrimitiveDenseStore.FACTORY.makeZero(numbConstr, 1L);
+        final PrimitiveDenseStore iterL = Workspace.borrowStore(numbConstr, 1L);
         final PrimitiveDenseStore soluL = this.getSolutionL();
 
         if ((numbConstr < numbVars) && (solved = this.isSolvableQ())) {
@@ -116,13 +117,15 @@ final class DirectASS extends ActiveSetSolver {
         if (!solved) {
             // The above failed, try solving the full KKT system instaed
 
-            final PrimitiveDenseStore tmpXL = PrimitiveDenseStore.FACTORY.makeZero(numbVars + numbConstr, 1L);
+            final PrimitiveDenseStore tmpXL = Workspace.borrowStore(numbVars + numbConstr, 1L);
 
             if (solved = this.solveFullKKT(tmpXL)) {
 
                 iterX.fillMatching(tmpXL.logical().limits(numbVars, 1).get());
                 iterL.fillMatching(tmpXL.logical().offsets(numbVars, 0).get());
             }
+
+            Workspace.giveBack(tmpXL);
         }
 
         soluL.fillAll(0.0);
@@ -135,6 +138,8 @@ final class DirectASS extends ActiveSetSolver {
             }
         }
 
+        Workspace.giveBack(iterL);
+
         this.handleIterationResults(solved, iterX, incl, excl);
     }
 
@@ -31,6 +31,7 @@ import org.ojalgo.matrix.store.ElementsSupplier;
 import org.ojalgo.matrix.store.MatrixStore;
 import org.ojalgo.matrix.store.PhysicalStore;
 import org.ojalgo.matrix.store.PrimitiveDenseStore;
+import org.ojalgo.matrix.store.Workspace;
 import org.ojalgo.matrix.task.iterative.ConjugateGradientSolver;
 import org.ojalgo.matrix.task.iterative.Equation;
 import org.ojalgo.matrix.task.iterative.MutableSolver;
@@ -239,7 +240,7 @@ final class IterativeASS extends ActiveSetSolver {
         if (!solved) {
             // The above failed, try solving the full KKT system instaed
 
-            final PrimitiveDenseStore tmpXL = PrimitiveDenseStore.FACTORY.makeZero(this.countVariables() + this.countIterationConstraints(), 1L);
+            final PrimitiveDenseStore tmpXL = Workspace.borrowStore(this.countVariables() + this.countIterationConstraints(), 1L);
 
             if (solved = this.solveFullKKT(tmpXL)) {
 
@@ -254,6 +255,8 @@ final class IterativeASS extends ActiveSetSolver {
                             tmpXL.doubleValue(this.countVariables() + this.countEqualityConstraints() + i));
                 }
             }
+
+            Workspace.giveBack(tmpXL);
         }
 
         this.handleIterationResults(solved, iterX, incl, excl);
@@ -27,6 +27,7 @@ import org.ojalgo.function.PrimitiveFunction;
 import org.ojalgo.matrix.store.MatrixStore;
 import org.ojalgo.matrix.store.PhysicalStore;
 import org.ojalgo.matrix.store.PrimitiveDenseStore;
+import org.ojalgo.matrix.store.Workspace;
 import org.ojalgo.optimisation.Optimisation;
 
 /**
@@ -91,7 +92,6 @@ final class QPESolver extends ConstrainedSolver {
     @Override
     protected void performIteration() {
 
-        this.getIterationQ();
         final MatrixStore<Double> tmpIterC = this.getIterationC();
         final MatrixStore<Double> tmpIterA = this.getIterationA();
         final MatrixStore<Double> tmpIterB = this.getIterationB();
@@ -99,9 +99,21 @@ final class QPESolver extends ConstrainedSolver {
         boolean solved = false;
 
         final PrimitiveDenseStore tmpIterX = myIterationX;
-        final PrimitiveDenseStore tmpIterL = FACTORY.makeZero(tmpIterA.countRows(), 1L);
+        final PrimitiveDenseStore tmpIterL = Workspace.borrowStore(tmpIterA.countRows(), 1L);
 
-        if ((tmpIterA.countRows() < tmpIterA.countColumns()) && (solved = this.isSolvableQ())) {
+        if (this.isSparse()) {
+            // Sparse [Q] - factorise the full KKT system without ever forming a dense matrix
+
+            final PrimitiveDenseStore tmpXL = Workspace.borrowStore(this.countVariables() + this.countIterationConstraints(), 1L);
+
+            if (solved = this.solveSparseKKT(null, tmpXL)) {
+                tmpIterX.fillMatching(tmpXL.logical().limits(this.countVariables(), 1).get());
+                tmpIterL.fillMatching(tmpXL.logical().offsets(this.countVariables(), 0).get());
+            }
+
+            Workspace.giveBack(tmpXL);
+
+        } else if ((tmpIterA.countRows() < tmpIterA.countColumns()) && (solved = this.isSolvableQ())) {
             // Q is SPD
             // Actual/normal optimisation problem
 
@@ -122,15 +134,17 @@ final class QPESolver extends ConstrainedSolver {
 
         }
 
-        if (!solved) {
+        if (!solved && !this.isSparse()) {
             // The above failed, try solving the full KKT system instaed
 
-            final PrimitiveDenseStore tmpXL = FACTORY.makeZero(this.countVariables() + this.countIterationConstraints(), 1L);
+            final PrimitiveDenseStore tmpXL = Workspace.borrowStore(this.countVariables() + this.countIterationConstraints(), 1L);
 
             if (solved = this.solveFullKKT(tmpXL)) {
                 tmpIterX.fillMatching(tmpXL.logical().limits(this.countVariables(), 1).get());
                 tmpIterL.fillMatching(tmpXL.logical().offsets(this.countVariables(), 0).get());
             }
+
+            Workspace.giveBack(tmpXL);
         }
 
         if (solved) {
@@ -158,6 +172,8 @@ final class QPESolver extends ConstrainedSolver {
             }
         }
 
+        Workspace.giveBack(tmpIterL);
+
         this.incrementIterationsCount();
     }
 
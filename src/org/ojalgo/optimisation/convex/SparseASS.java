@@ -0,0 +1,91 @@
+/*
+ * Copyright 1997-2018 Optimatika
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.ojalgo.optimisation.convex;
+
+import org.ojalgo.matrix.store.PrimitiveDenseStore;
+import org.ojalgo.matrix.store.Workspace;
+import org.ojalgo.optimisation.Optimisation;
+
+/**
+ * Solves optimisation problems of the form:
+ * <p>
+ * min 1/2 [X]<sup>T</sup>[Q][X] - [C]<sup>T</sup>[X]<br>
+ * when [AE][X] == [BE]<br>
+ * and [AI][X] &lt;= [BI]
+ * </p>
+ * Where [AE] and [BE] are optinal.
+ * <p>
+ * Same active set strategy as {@link DirectASS} and {@link IterativeASS}, but each equality constrained
+ * subproblem is solved by a sparse LDL<sup>T</sup> factorisation of the full KKT system (rather than
+ * Cholesky factorising a dense [Q] and then working with the Schur complement). Used when [Q] is sparse.
+ *
+ * @author apete
+ */
+final class SparseASS extends ActiveSetSolver {
+
+    SparseASS(final ConvexSolver.Builder matrices, final Optimisation.Options solverOptions) {
+        super(matrices, solverOptions);
+    }
+
+    @Override
+    protected void performIteration() {
+
+        if (this.isDebug()) {
+            this.log("\nPerformIteration {}", 1 + this.countIterations());
+            this.log(this.toActivatorString());
+        }
+
+        this.setConstraintToInclude(-1);
+        final int[] incl = this.getIncluded();
+        final int[] excl = this.getExcluded();
+
+        final int numbEqus = this.countEqualityConstraints();
+        final int numbVars = this.countVariables();
+
+        final PrimitiveDenseStore iterX = this.getIterationX();
+        final PrimitiveDenseStore soluL = this.getSolutionL();
+
+        final PrimitiveDenseStore tmpXL = Workspace.borrowStore(numbVars + numbEqus + incl.length, 1L);
+
+        // No dense fallback - that would mean densifying [Q]. If this fails the iteration results handling
+        // will deactivate constraints or regularise [Q].
+        final boolean solved = this.solveSparseKKT(incl, tmpXL);
+
+        soluL.fillAll(0.0);
+        if (solved) {
+
+            iterX.fillMatching(tmpXL.logical().limits(numbVars, 1).get());
+
+            for (int i = 0; i < numbEqus; i++) {
+                soluL.set(i, tmpXL.doubleValue(numbVars + i));
+            }
+            for (int i = 0; i < incl.length; i++) {
+                soluL.set(numbEqus + incl[i], tmpXL.doubleValue(numbVars + numbEqus + i));
+            }
+        }
+
+        Workspace.giveBack(tmpXL);
+
+        this.handleIterationResults(solved, iterX, incl, excl);
+    }
+
+}
@@ -0,0 +1,498 @@
+/*
+ * Copyright 1997-2018 Optimatika
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.ojalgo.optimisation.convex;
+
+import static org.ojalgo.constant.PrimitiveMath.*;
+
+import java.util.Arrays;
+
+import org.ojalgo.array.SparseArray;
+import org.ojalgo.array.SparseArray.NonzeroView;
+import org.ojalgo.function.PrimitiveFunction;
+import org.ojalgo.matrix.store.MatrixStore;
+import org.ojalgo.matrix.store.PhysicalStore;
+import org.ojalgo.matrix.store.RowsSupplier;
+import org.ojalgo.matrix.store.SparseStore;
+import org.ojalgo.matrix.store.Workspace;
+import org.ojalgo.structure.Access1D;
+import org.ojalgo.structure.ElementView2D;
+
+/**
+ * Assembles and solves the KKT system
+ * <p>
+ * [Q A<sup>T</sup>][X] = [C]<br>
+ * [A 0&nbsp;&nbsp;][L] = [B]
+ * </p>
+ * without ever creating a dense matrix. [A] is made up of all the equality constraints and the currently
+ * included (active) inequality constraints. Only the upper triangle is stored (compressed sparse columns),
+ * with the variables ordered before the constraints.
+ * <p>
+ * The matrix is symmetrically scaled (to unit row/column max norm) and then factorised as LDL<sup>T</sup>
+ * using an up-looking algorithm driven by the elimination tree. To guarantee that factorisation exists,
+ * without any pivoting, the system is regularised to become quasi-definite: [Q + &delta;I A<sup>T</sup>; A
+ * -&delta;I]. The effect of the regularisation (and of any loss of precision) is removed with a few steps of
+ * iterative refinement against the original matrix. If that does not reach a small (componentwise) backward
+ * error the system is considered unsolvable.
+ *
+ * @author apete
+ */
+final class SparseKKT {
+
+    private static final int[] NONE = new int[0];
+    private static final double REGULARISATION = 1E-12;
+    private static final int REFINEMENT_STEPS = 10;
+    private static final double TOLERANCE = PrimitiveFunction.SQRT.invoke(MACHINE_EPSILON);
+
+    private int[] myColumnPointers = new int[0];
+    private boolean myComputedQ = false;
+    private int myCount = 0;
+    private double[] myD = new double[0];
+    private int myDim = 0;
+    private int[] myFlag = new int[0];
+    private int[] myLi = new int[0];
+    private int[] myLnz = new int[0];
+    private int[] myLp = new int[0];
+    private double[] myLx = new double[0];
+    private int myNumberOfVariables = 0;
+    private int[] myParent = new int[0];
+    private int[] myPattern = new int[0];
+    private int[] myRowIndices = new int[0];
+    private double[] myScale = new double[0];
+    private int[] myTripletColumns = new int[16];
+    private int[] myTripletRows = new int[16];
+    private double[] myTripletValues = new double[16];
+    private double[] myValues = new double[0];
+    private double[] myY = new double[0];
+
+    SparseKKT() {
+        super();
+    }
+
+    private void add(final int row, final int col, final double value) {
+
+        if (value == ZERO) {
+            return;
+        }
+
+        if (myCount == myTripletValues.length) {
+            final int newLength = myCount * 2;
+            myTripletRows = Arrays.copyOf(myTripletRows, newLength);
+            myTripletColumns = Arrays.copyOf(myTripletColumns, newLength);
+            myTripletValues = Arrays.copyOf(myTripletValues, newLength);
+        }
+
+        myTripletRows[myCount] = row;
+        myTripletColumns[myCount] = col;
+        myTripletValues[myCount] = value;
+        myCount++;
+    }
+
+    private void addConstraint(final int constraintColumn, final SparseArray<Double> body) {
+        for (final NonzeroView<Double> nz : body.nonzeros()) {
+            this.add((int) nz.index(), constraintColumn, nz.doubleValue());
+        }
+    }
+
+    /**
+     * Converts the triplets to compressed sparse columns, and calculates the scaling factors.
+     */
+    private void compress() {
+
+        final int dim = myDim;
+
+        if (myColumnPointers.length < (dim + 1)) {
+            myColumnPointers = new int[dim + 1];
+        } else {
+            Arrays.fill(myColumnPointers, 0);
+        }
+        if (myRowIndices.length < myCount) {
+            myRowIndices = new int[myCount];
+            myValues = new double[myCount];
+        }
+
+        for (int t = 0; t < myCount; t++) {
+            myColumnPointers[myTripletColumns[t] + 1]++;
+        }
+        for (int j = 0; j < dim; j++) {
+            myColumnPointers[j + 1] += myColumnPointers[j];
+        }
+
+        final int[] next = myFlag;
+        System.arraycopy(myColumnPointers, 0, next, 0, dim);
+
+        final double[] largest = myScale;
+        Arrays.fill(largest, 0, dim, ZERO);
+
+        for (int t = 0; t < myCount; t++) {
+            final int row = myTripletRows[t];
+            final int col = myTripletColumns[t];
+            final double value = myTripletValues[t];
+            final int p = next[col]++;
+            myRowIndices[p] = row;
+            myValues[p] = value;
+            final double magnitude = PrimitiveFunction.ABS.invoke(value);
+            largest[row] = PrimitiveFunction.MAX.invoke(largest[row], magnitude);
+            largest[col] = PrimitiveFunction.MAX.invoke(largest[col], magnitude);
+        }
+
+        for (int i = 0; i < dim; i++) {
+            myScale[i] = largest[i] > ZERO ? ONE / PrimitiveFunction.SQRT.invoke(largest[i]) : ONE;
+        }
+    }
+
+    private boolean factorise() {
+
+        final int dim = myDim;
+
+        final int[] parent = myParent;
+        final int[] flag = myFlag;
+        final int[] lnz = myLnz;
+        final int[] lp = myLp;
+
+        // Symbolic: elimination tree and column counts
+
+        for (int k = 0; k < dim; k++) {
+            parent[k] = -1;
+            flag[k] = k;
+            lnz[k] = 0;
+            for (int p = myColumnPointers[k], limit = myColumnPointers[k + 1]; p < limit; p++) {
+                for (int i = myRowIndices[p]; (i < k) && (flag[i] != k); i = parent[i]) {
+                    if (parent[i] == -1) {
+                        parent[i] = k;
+                    }
+                    lnz[i]++;
+                    flag[i] = k;
+                }
+            }
+        }
+
+        lp[0] = 0;
+        for (int k = 0; k < dim; k++) {
+            lp[k + 1] = lp[k] + lnz[k];
+        }
+        if (myLx.length < lp[dim]) {
+            myLi = new int[lp[dim]];
+            myLx = new double[lp[dim]];
+        }
+
+        // Numeric: one row of L at the time
+
+        final int[] li = myLi;
+        final double[] lx = myLx;
+        final double[] d = myD;
+        final double[] y = myY;
+        final int[] pattern = myPattern;
+        final double[] scale = myScale;
+
+        for (int k = 0; k < dim; k++) {
+
+            y[k] = ZERO;
+            int top = dim;
+            flag[k] = k;
+            lnz[k] = 0;
+
+            for (int p = myColumnPointers[k], limit = myColumnPointers[k + 1]; p < limit; p++) {
+                int i = myRowIndices[p];
+                y[i] += scale[i] * myValues[p] * scale[k];
+                int len = 0;
+                for (; flag[i] != k; i = parent[i]) {
+                    pattern[len++] = i;
+                    flag[i] = k;
+                }
+                while (len > 0) {
+                    pattern[--top] = pattern[--len];
+                }
+            }
+
+            d[k] = y[k] + (k < myNumberOfVariables ? REGULARISATION : -REGULARISATION);
+            y[k] = ZERO;
+
+            for (; top < dim; top++) {
+                final int i = pattern[top];
+                final double yi = y[i];
+                y[i] = ZERO;
+                final int p2 = lp[i] + lnz[i];
+                for (int p = lp[i]; p < p2; p++) {
+                    y[li[p]] -= lx[p] * yi;
+                }
+                final double lki = yi / d[i];
+                d[k] -= lki * yi;
+                li[p2] = k;
+                lx[p2] = lki;
+                lnz[i]++;
+            }
+
+            if ((d[k] == ZERO) || !Double.isFinite(d[k])) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * y = [K]x and z = |[K]||x|
+     */
+    private void multiply(final double[] x, final double[] y, final double[] z) {
+
+        Arrays.fill(y, 0, myDim, ZERO);
+        Arrays.fill(z, 0, myDim, ZERO);
+
+        for (int j = 0; j < myDim; j++) {
+            for (int p = myColumnPointers[j], limit = myColumnPointers[j + 1]; p < limit; p++) {
+                final int i = myRowIndices[p];
+                final double value = myValues[p];
+                y[i] += value * x[j];
+                z[i] += PrimitiveFunction.ABS.invoke(value * x[j]);
+                if (i != j) {
+                    y[j] += value * x[i];
+                    z[j] += PrimitiveFunction.ABS.invoke(value * x[i]);
+                }
+            }
+        }
+    }
+
+    private void resize(final int dim) {
+        if (myParent.length < dim) {
+            myParent = new int[dim];
+            myFlag = new int[dim];
+            myLnz = new int[dim];
+            myLp = new int[dim + 1];
+            myD = new double[dim];
+            myY = new double[dim];
+            myPattern = new int[dim];
+            myScale = new double[dim];
+        }
+    }
+
+    /**
+     * x = [K]<sup>-1</sup>x using the (scaled and regularised) factorisation
+     */
+    private void substitute(final double[] x) {
+
+        final int dim = myDim;
+        final double[] scale = myScale;
+
+        for (int j = 0; j < dim; j++) {
+            x[j] *= scale[j];
+        }
+        for (int j = 0; j < dim; j++) {
+            final double xj = x[j];
+            for (int p = myLp[j], limit = myLp[j + 1]; p < limit; p++) {
+                x[myLi[p]] -= myLx[p] * xj;
+            }
+        }
+        for (int j = 0; j < dim; j++) {
+            x[j] /= myD[j];
+        }
+        for (int j = dim - 1; j >= 0; j--) {
+            double xj = x[j];
+            for (int p = myLp[j], limit = myLp[j + 1]; p < limit; p++) {
+                xj -= myLx[p] * x[myLi[p]];
+            }
+            x[j] = xj;
+        }
+        // Unscale only when done - the back substitution needs the scaled values of the later rows
+        for (int j = 0; j < dim; j++) {
+            x[j] *= scale[j];
+        }
+    }
+
+    /**
+     * Assemble and factorise the KKT matrix.
+     *
+     * @param mtrxQ The quadratic objective, sparse or dense
+     * @param mtrxAE The equality constraints, may be null
+     * @param mtrxAI The inequality constraints, may be null if nothing is included
+     * @param included The indices of the inequality constraints to include
+     * @return true if the factorisation succeeded
+     */
+    boolean compute(final MatrixStore<Double> mtrxQ, final MatrixStore<Double> mtrxAE, final RowsSupplier<Double> mtrxAI, final int[] included) {
+
+        final int numbVars = (int) mtrxQ.countRows();
+        final int numbEqus = mtrxAE != null ? (int) mtrxAE.countRows() : 0;
+
+        myNumberOfVariables = numbVars;
+        myDim = numbVars + numbEqus + included.length;
+        myCount = 0;
+        myComputedQ = false;
+
+        this.resize(myDim);
+
+        if (mtrxQ instanceof SparseStore) {
+            for (final ElementView2D<Double, ?> nz : ((SparseStore<Double>) mtrxQ).nonzeros()) {
+                final int row = (int) nz.row();
+                final int col = (int) nz.column();
+                if (row <= col) {
+                    this.add(row, col, nz.doubleValue());
+                }
+            }
+        } else {
+            for (int col = 0; col < numbVars; col++) {
+                for (int row = 0; row <= col; row++) {
+                    this.add(row, col, mtrxQ.doubleValue(row, col));
+                }
+            }
+        }
+
+        if (numbEqus > 0) {
+            if (mtrxAE instanceof SparseStore) {
+                for (final ElementView2D<Double, ?> nz : ((SparseStore<Double>) mtrxAE).nonzeros()) {
+                    this.add((int) nz.column(), numbVars + (int) nz.row(), nz.doubleValue());
+                }
+            } else {
+                for (int i = 0; i < numbEqus; i++) {
+                    for (int j = 0; j < numbVars; j++) {
+                        this.add(j, numbVars + i, mtrxAE.doubleValue(i, j));
+                    }
+                }
+            }
+        }
+
+        for (int i = 0; i < included.length; i++) {
+            this.addConstraint(numbVars + numbEqus + i, mtrxAI.getRow(included[i]));
+        }
+
+        this.compress();
+
+        return this.factorise();
+    }
+
+    /**
+     * Factorise [Q] on its own, without any constraints. Does nothing if that already is the most recent
+     * factorisation – an instance is only ever used with one [Q].
+     *
+     * @param mtrxQ The quadratic objective, sparse or dense
+     * @return true if the factorisation succeeded
+     */
+    boolean computeQ(final MatrixStore<Double> mtrxQ) {
+        if (!myComputedQ) {
+            myComputedQ = this.compute(mtrxQ, null, null, NONE);
+        }
+        return myComputedQ;
+    }
+
+    /**
+     * Factorise [Q] on its own, without any constraints, and check the signs of the pivots. [Q] is scaled
+     * and regularised the same way as the full KKT system, so a singular positive semidefinite [Q] still
+     * gets (small) positive pivots. A pivot that is negative beyond what rounding errors explain means [Q]
+     * is indefinite.
+     *
+     * @param mtrxQ The quadratic objective, sparse or dense
+     * @return true if [Q] is (numerically) positive semidefinite
+     */
+    boolean isPositiveSemidefinite(final MatrixStore<Double> mtrxQ) {
+
+        if (!this.computeQ(mtrxQ)) {
+            return false;
+        }
+
+        for (int k = 0; k < myDim; k++) {
+            if (myD[k] < -TOLERANCE) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * Solve using the most recently computed factorisation, with iterative refinement.
+     *
+     * @param rhs [C] above [B]
+     * @param solution [X] above [L]
+     * @return true if the (unregularised) system was solved to within tolerance
+     */
+    boolean solve(final Access1D<?> rhs, final PhysicalStore<Double> solution) {
+
+        final int dim = myDim;
+
+        final double[] x = Workspace.borrowArray(dim);
+        final double[] b = Workspace.borrowArray(dim);
+        final double[] r = Workspace.borrowArray(dim);
+        final double[] z = Workspace.borrowArray(dim);
+
+        for (int i = 0; i < dim; i++) {
+            b[i] = rhs.doubleValue(i);
+        }
+
+        System.arraycopy(b, 0, x, 0, dim);
+        this.substitute(x);
+
+        double error = POSITIVE_INFINITY;
+        double previous = POSITIVE_INFINITY;
+
+        for (int s = 0; s <= REFINEMENT_STEPS; s++) {
+
+            this.multiply(x, r, z);
+
+            double largestX = ZERO;
+            for (int i = 0; i < dim; i++) {
+                largestX = PrimitiveFunction.MAX.invoke(largestX, PrimitiveFunction.ABS.invoke(x[i]));
+            }
+
+            // Componentwise (Oettli-Prager) backward error, but normwise for rows where that is degenerate –
+            // a row like an active bound (single nonzero and zero rhs) can otherwise only be met exactly.
+            error = ZERO;
+            for (int i = 0; i < dim; i++) {
+                r[i] = b[i] - r[i];
+                final double normwise = largestX / (myScale[i] * myScale[i]);
+                double denominator = z[i] + PrimitiveFunction.ABS.invoke(b[i]);
+                if (denominator <= (normwise * TOLERANCE)) {
+                    denominator += normwise;
+                }
+                if (denominator > ZERO) {
+                    error = PrimitiveFunction.MAX.invoke(error, PrimitiveFunction.ABS.invoke(r[i]) / denominator);
+                } else if (r[i] != ZERO) {
+                    error = POSITIVE_INFINITY;
+                }
+            }
+
+            if ((error <= MACHINE_EPSILON) || !(error < (previous * HALF)) || (s == REFINEMENT_STEPS)) {
+                // Converged, stagnated or diverged
+                break;
+            }
+            previous = error;
+
+            this.substitute(r);
+            for (int i = 0; i < dim; i++) {
+                x[i] += r[i];
+            }
+        }
+
+        final boolean retVal = error <= TOLERANCE;
+
+        if (retVal) {
+            for (int i = 0; i < dim; i++) {
+                solution.set(i, x[i]);
+            }
+        }
+
+        Workspace.giveBack(z);
+        Workspace.giveBack(r);
+        Workspace.giveBack(b);
+        Workspace.giveBack(x);
+
+        return retVal;
+    }
+
+}
@@ -50,6 +50,16 @@ final class UnconstrainedSolver extends ConvexSolver {
         return this.getMatrixC();
     }
 
+    @Override
+    protected boolean initialise(final Result kickStarter) {
+        if (this.isSparse()) {
+            // [Q] is factorised sparse (LDL) when solving - never a dense Cholesky
+            return true;
+        } else {
+            return super.initialise(kickStarter);
+        }
+    }
+
     @Override
     protected boolean needsAnotherIteration() {
         return this.countIterations() < 1;
@@ -60,7 +70,14 @@ final class UnconstrainedSolver extends ConvexSolver {
 
         boolean solved = false;
 
-        if (solved = this.isSolvableQ()) {
+        if (this.isSparse()) {
+            // Reuses the factorisation from validating [Q], if that was done
+
+            final SparseKKT sparseKKT = this.getSparseKKT();
+
+            solved = sparseKKT.computeQ(this.getMatrixQ()) && sparseKKT.solve(this.getMatrixC(), this.getSolutionX());
+
+        } else if (solved = this.isSolvableQ()) {
             // Q is SPD
 
             this.getSolutionQ(this.getMatrixC(), this.getSolutionX());
@@ -25,11 +25,14 @@ import static org.ojalgo.constant.PrimitiveMath.*;
 import static org.ojalgo.function.PrimitiveFunction.*;
 
 import java.math.BigDecimal;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Queue;
 import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
 import java.util.concurrent.RecursiveTask;
 import java.util.concurrent.atomic.AtomicInteger;
 
@@ -50,6 +53,38 @@ import org.ojalgo.type.TypeUtils;
 
 public final class IntegerSolver extends GenericSolver {
 
+    /**
+     * How to choose which (non-integer) variable to branch on.
+     *
+     * @see org.ojalgo.optimisation.Optimisation.Options#mip_branching
+     */
+    public static enum BranchingRule {
+
+        /**
+         * Pseudo-cost branching. For each integer variable the solver keeps track of the average objective
+         * function degradation, per unit of displacement, observed when branching down and up on that
+         * variable. The variable with the largest product of estimated down and up degradations is chosen.
+         */
+        PSEUDO_COST,
+
+        /**
+         * Reliability branching. Same as {@link #PSEUDO_COST} but variables with fewer than
+         * {@linkplain org.ojalgo.optimisation.Optimisation.Options#mip_reliability} observations (in either
+         * direction) are evaluated using strong branching - both child node problems are actually solved. At
+         * most {@linkplain org.ojalgo.optimisation.Optimisation.Options#mip_strong_branching} variables are
+         * evaluated that way per node.
+         */
+        RELIABILITY,
+
+        /**
+         * Largest fractionality, scaled by the variable's significance (derived from the objective function
+         * gradient and the differences between the integer solutions found). Very cheap, but often requires
+         * many more nodes.
+         */
+        SIGNIFICANCE;
+
+    }
+
     public static final class ModelIntegration extends ExpressionsBasedModel.Integration<IntegerSolver> {
 
         public IntegerSolver build(final ExpressionsBasedModel model) {
@@ -135,6 +170,47 @@ public final class IntegerSolver extends GenericSolver {
 
     }
 
+    final class PrimalHeuristicTask extends RecursiveAction {
+
+        private final PrimalHeuristic myHeuristic;
+        private final Optimisation.Result myIncumbent;
+        private final Optimisation.Result myNodeSolution;
+
+        PrimalHeuristicTask(final PrimalHeuristic heuristic, final Optimisation.Result nodeSolution, final Optimisation.Result incumbent) {
+
+            super();
+
+            myHeuristic = heuristic;
+            myNodeSolution = nodeSolution;
+            myIncumbent = incumbent;
+        }
+
+        @Override
+        protected void compute() {
+
+            if (!IntegerSolver.this.isIterationAllowed()) {
+                return;
+            }
+
+            try {
+
+                final Optimisation.Result candidate = myHeuristic.search(IntegerSolver.this.getIntegerModel(), IntegerSolver.this.getIntegerIndices(),
+                        myNodeSolution, myIncumbent);
+
+                if (candidate != null) {
+                    IntegerSolver.this.markHeuristic(myHeuristic, candidate);
+                }
+
+            } catch (final RuntimeException cause) {
+                // A failing heuristic must not stop the tree search
+                if (IntegerSolver.this.isDebug()) {
+                    IntegerSolver.this.log("Primal heuristic {} failed: {}", myHeuristic, cause);
+                }
+            }
+        }
+
+    }
+
     static final class NodeStatistics {
 
         private final AtomicInteger myAbandoned = new AtomicInteger();
@@ -230,6 +306,19 @@ public final class IntegerSolver extends GenericSolver {
         return new IntegerSolver(model, model.options);
     }
 
+    /**
+     * When already executing in a {@link ForkJoinPool} (for instance when solved by a
+     * {@link org.ojalgo.optimisation.BatchSolver}) the node tasks are executed in that same pool, otherwise
+     * in the common pool.
+     */
+    static boolean invoke(final ForkJoinTask<Boolean> task) {
+        if (ForkJoinTask.inForkJoinPool()) {
+            return task.invoke().booleanValue();
+        } else {
+            return ForkJoinPool.commonPool().invoke(task).booleanValue();
+        }
+    }
+
     static void flush(PrinterBuffer buffer, BasicLogger.Printer receiver) {
         if ((buffer != null) && (receiver != null)) {
             buffer.flush(receiver);
@@ -238,6 +327,7 @@ public final class IntegerSolver extends GenericSolver {
 
     private volatile Optimisation.Result myBestResultSoFar = null;
     private final Queue<NodeKey> myDeferredNodes = new ConcurrentLinkedQueue<>();
+    private final Queue<ForkJoinTask<?>> myHeuristicTasks = new ConcurrentLinkedQueue<>();
     private final MultiaryFunction.TwiceDifferentiable<Double> myFunction;
     /**
      * One entry per integer variable, the entry is the global index of that integer variable
@@ -248,6 +338,7 @@ public final class IntegerSolver extends GenericSolver {
     private final AtomicInteger myIntegerSolutionsCount = new AtomicInteger();
     private final boolean myMinimisation;
     private final NodeStatistics myNodeStatistics = new NodeStatistics();
+    private final PseudoCosts myPseudoCosts;
 
     protected IntegerSolver(final ExpressionsBasedModel model, final Options solverOptions) {
 
@@ -264,6 +355,8 @@ public final class IntegerSolver extends GenericSolver {
             myIntegerIndices[i] = myIntegerModel.indexOf(integerVariables.get(i));
         }
 
+        myPseudoCosts = new PseudoCosts(myIntegerIndices.length);
+
         myIntegerSignificances = new double[myIntegerIndices.length];
         Arrays.fill(myIntegerSignificances, ONE);
         final MatrixStore<Double> gradient = this.getGradient(Access1D.asPrimitive1D(model.getVariableValues()));
@@ -288,15 +381,20 @@ public final class IntegerSolver extends GenericSolver {
 
         final BranchAndBoundNodeTask rootNodeTask = new BranchAndBoundNodeTask();
 
-        boolean normalExit = ForkJoinPool.commonPool().invoke(rootNodeTask).booleanValue();
+        boolean normalExit = IntegerSolver.invoke(rootNodeTask);
         while (normalExit && (myDeferredNodes.size() > 0)) {
             NodeKey nodeKey = myDeferredNodes.poll();
             if (this.isGoodEnoughToContinueBranching(nodeKey.objective)) {
-                normalExit &= ForkJoinPool.commonPool().invoke(new BranchAndBoundNodeTask(nodeKey)).booleanValue();
+                normalExit &= IntegerSolver.invoke(new BranchAndBoundNodeTask(nodeKey));
             }
         }
         myDeferredNodes.clear();
 
+        ForkJoinTask<?> heuristicTask;
+        while ((heuristicTask = myHeuristicTasks.poll()) != null) {
+            heuristicTask.join();
+        }
+
         final Optimisation.Result bestSolutionFound = this.getBestResultSoFar();
 
         if (bestSolutionFound.getState().isFeasible()) {
@@ -367,9 +465,14 @@ public final class IntegerSolver extends GenericSolver {
                 return false;
             }
 
-            final int branchIntegerIndex = this.identifyNonIntegerVariable(nodeResult, nodeKey);
             final double tmpSolutionValue = this.evaluateFunction(nodeResult);
 
+            if (nodeKey.index >= 0) {
+                myPseudoCosts.update(nodeKey.index, nodeKey.upper, ABS.invoke(tmpSolutionValue - nodeKey.objective), nodeKey.displacement);
+            }
+
+            final int branchIntegerIndex = this.identifyBranchingVariable(nodeResult, nodeKey, nodeModel, tmpSolutionValue);
+
             if (branchIntegerIndex == -1) {
                 if (this.isDebug()) {
                     nodePrinter.println("Integer solution! Store it among the others, and stop this branch!");
@@ -399,6 +502,10 @@ public final class IntegerSolver extends GenericSolver {
 
                 if (this.isGoodEnoughToContinueBranching(tmpSolutionValue)) {
 
+                    if ((nodeKey.index < 0) || ((options.mip_heuristics_frequency > 0) && ((this.countIterations() % options.mip_heuristics_frequency) == 0))) {
+                        this.forkHeuristics(nodeResult);
+                    }
+
                     if (this.isDebug()) {
                         nodePrinter.println("Still hope, branching on {} @ {} >>> {}", branchIntegerIndex, variableValue,
                                 nodeModel.getVariable(this.getGlobalIndex(branchIntegerIndex)));
@@ -556,6 +663,24 @@ public final class IntegerSolver extends GenericSolver {
         }
     }
 
+    /**
+     * Verifies the candidate solution (supplied by a primal heuristic) and, if it's feasible, records it as an
+     * integer solution.
+     */
+    protected void markHeuristic(final PrimalHeuristic heuristic, final Optimisation.Result candidate) {
+
+        final Optimisation.Result verified = PrimalHeuristics.verify(this.getIntegerModel(), this.getIntegerIndices(), candidate);
+
+        if (verified != null) {
+
+            if (this.isProgress()) {
+                this.log("Primal heuristic {} found integer solution", heuristic);
+            }
+
+            this.markInteger(null, null, new Optimisation.Result(Optimisation.State.FEASIBLE, this.evaluateFunction(verified), verified));
+        }
+    }
+
     protected synchronized void markInteger(final NodeKey key, final ExpressionsBasedModel model, final Optimisation.Result result) {
 
         if (this.isProgress()) {
@@ -643,6 +768,21 @@ public final class IntegerSolver extends GenericSolver {
         return 0;
     }
 
+    /**
+     * Forks off one task per configured primal heuristic. The tasks run in parallel with the tree search, and
+     * are joined before the solver returns.
+     */
+    void forkHeuristics(final Optimisation.Result nodeSolution) {
+
+        final Optimisation.Result incumbent = myBestResultSoFar;
+
+        for (final PrimalHeuristic heuristic : options.mip_heuristics) {
+            final PrimalHeuristicTask task = new PrimalHeuristicTask(heuristic, nodeSolution, incumbent);
+            myHeuristicTasks.offer(task);
+            task.fork();
+        }
+    }
+
     int getGlobalIndex(final int integerIndex) {
         return myIntegerIndices[integerIndex];
     }
@@ -655,6 +795,23 @@ public final class IntegerSolver extends GenericSolver {
         return myIntegerSignificances[index];
     }
 
+    /**
+     * Delegates to {@link #identifyNonIntegerVariable(Optimisation.Result, NodeKey)} or
+     * {@link #identifyPseudoCostVariable(Optimisation.Result, NodeKey, ExpressionsBasedModel.Intermediate, double)}
+     * depending on the {@linkplain org.ojalgo.optimisation.Optimisation.Options#mip_branching} option.
+     */
+    int identifyBranchingVariable(final Optimisation.Result nodeResult, final NodeKey nodeKey, final ExpressionsBasedModel.Intermediate nodeModel,
+            final double nodeValue) {
+        switch (options.mip_branching) {
+        case PSEUDO_COST:
+            return this.identifyPseudoCostVariable(nodeResult, nodeKey, null, nodeValue);
+        case RELIABILITY:
+            return this.identifyPseudoCostVariable(nodeResult, nodeKey, nodeModel, nodeValue);
+        default:
+            return this.identifyNonIntegerVariable(nodeResult, nodeKey);
+        }
+    }
+
     /**
      * Should return the index of the (best) integer variable to branch on. Returning a negative index means
      * an integer solution has been found (no further branching). Does NOT return a global variable index -
@@ -700,4 +857,95 @@ public final class IntegerSolver extends GenericSolver {
         return retVal;
     }
 
+    /**
+     * Same contract as {@link #identifyNonIntegerVariable(Optimisation.Result, NodeKey)} but chooses the
+     * variable with the best pseudo-cost score. If a node model is supplied variables with unreliable
+     * pseudo-costs are evaluated using strong branching (reliability branching).
+     */
+    int identifyPseudoCostVariable(final Optimisation.Result nodeResult, final NodeKey nodeKey, final ExpressionsBasedModel.Intermediate nodeModel,
+            final double nodeValue) {
+
+        int retVal = -1;
+        double bestScore = NEGATIVE_INFINITY;
+
+        final List<Integer> unreliable = new ArrayList<>();
+
+        for (int i = 0, limit = myIntegerIndices.length; i < limit; i++) {
+
+            final double value = nodeResult.doubleValue(myIntegerIndices[i]);
+
+            if (!options.feasibility.isZero(nodeKey.getFraction(i, value))) {
+
+                if ((nodeModel != null) && (myPseudoCosts.countReliability(i) < options.mip_reliability)) {
+
+                    unreliable.add(i);
+
+                } else {
+
+                    final double score = myPseudoCosts.score(i, value - FLOOR.invoke(value));
+
+                    if (score > bestScore) {
+                        retVal = i;
+                        bestScore = score;
+                    }
+                }
+            }
+        }
+
+        if (unreliable.size() > 0) {
+
+            // Most fractional first
+            unreliable.sort((i1, i2) -> Double.compare(nodeKey.getFraction(i2, nodeResult.doubleValue(myIntegerIndices[i2])),
+                    nodeKey.getFraction(i1, nodeResult.doubleValue(myIntegerIndices[i1]))));
+
+            for (int c = 0, limit = unreliable.size(); c < limit; c++) {
+
+                final int i = unreliable.get(c);
+                final double value = nodeResult.doubleValue(myIntegerIndices[i]);
+
+                final double score;
+                if (c < options.mip_strong_branching) {
+                    score = this.strongBranch(nodeModel, i, value, nodeValue);
+                } else {
+                    score = myPseudoCosts.score(i, value - FLOOR.invoke(value));
+                }
+
+                if (score > bestScore) {
+                    retVal = i;
+                    bestScore = score;
+                }
+            }
+        }
+
+        return retVal;
+    }
+
+    /**
+     * Solves both child node problems (on copies of the node model), records the observed degradations as
+     * pseudo-costs, and returns the product score. An infeasible child is scored as an infinite degradation.
+     */
+    double strongBranch(final ExpressionsBasedModel.Intermediate nodeModel, final int integerIndex, final double value, final double nodeValue) {
+
+        final int globalIndex = myIntegerIndices[integerIndex];
+
+        final double floor = FLOOR.invoke(value);
+        final double ceil = floor + ONE;
+
+        final ExpressionsBasedModel downModel = nodeModel.getModel().relax(false);
+        downModel.getVariable(globalIndex).upper(BigDecimal.valueOf((long) floor));
+        final Optimisation.Result downResult = downModel.prepare().solve(null);
+
+        final ExpressionsBasedModel upModel = nodeModel.getModel().relax(false);
+        upModel.getVariable(globalIndex).lower(BigDecimal.valueOf((long) ceil));
+        final Optimisation.Result upResult = upModel.prepare().solve(null);
+
+        final double downGain = downResult.getState().isFeasible() ? ABS.invoke(this.evaluateFunction(downResult) - nodeValue) : POSITIVE_INFINITY;
+        final double upGain = upResult.getState().isFeasible() ? ABS.invoke(this.evaluateFunction(upResult) - nodeValue) : POSITIVE_INFINITY;
+
+        myPseudoCosts.update(integerIndex, false, downGain, value - floor);
+        myPseudoCosts.update(integerIndex, true, upGain, ceil - value);
+
+        return PseudoCosts.score(downGain, upGain);
+    }
+
 }
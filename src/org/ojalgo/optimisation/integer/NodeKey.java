@@ -65,13 +65,18 @@ final class NodeKey implements Comparable<NodeKey> {
      * Parent node sequence number.
      */
     final long parent;
+    /**
+     * true if this node was created by raising the lower bound of the branched on variable (the upper
+     * branch), false if its upper bound was lowered.
+     */
+    final boolean upper;
     /**
      * Node sequennce number to keep track of in which order the nodes were created.
      */
     final long sequence = GENERATOR.getAndIncrement();
 
     private NodeKey(final int[] lowerBounds, final int[] upperBounds, final long parentSequenceNumber, final int integerIndexBranchedOn,
-            final double branchVariableDisplacement, final double parentObjectiveFunctionValue, boolean signChanged) {
+            final double branchVariableDisplacement, final double parentObjectiveFunctionValue, boolean signChanged, final boolean upperBranch) {
 
         super();
 
@@ -82,6 +87,7 @@ final class NodeKey implements Comparable<NodeKey> {
         index = integerIndexBranchedOn;
         displacement = branchVariableDisplacement;
         objective = parentObjectiveFunctionValue;
+        upper = upperBranch;
 
         mySignChanged = signChanged;
     }
@@ -118,6 +124,7 @@ final class NodeKey implements Comparable<NodeKey> {
         index = -1;
         displacement = PrimitiveMath.NaN;
         objective = PrimitiveMath.NaN;
+        upper = false;
 
         mySignChanged = false;
     }
@@ -266,7 +273,7 @@ final class NodeKey implements Comparable<NodeKey> {
 
         final boolean changed = (oldVal > 0) && (newVal <= 0);
 
-        return new NodeKey(tmpLBs, tmpUBs, sequence, branchIntegerIndex, value - tmpFloor, objective, changed);
+        return new NodeKey(tmpLBs, tmpUBs, sequence, branchIntegerIndex, value - tmpFloor, objective, changed, false);
     }
 
     NodeKey createUpperBranch(final int branchIntegerIndex, final double value, final double objective) {
@@ -290,7 +297,7 @@ final class NodeKey implements Comparable<NodeKey> {
 
         final boolean changed = (oldVal < 0) && (newVal >= 0);
 
-        return new NodeKey(tmpLBs, tmpUBs, sequence, branchIntegerIndex, tmpCeil - value, objective, changed);
+        return new NodeKey(tmpLBs, tmpUBs, sequence, branchIntegerIndex, tmpCeil - value, objective, changed, true);
     }
 
     void enforceBounds(final ExpressionsBasedModel model, final int integerIndex, final int[] integerToGlobalTranslator) {
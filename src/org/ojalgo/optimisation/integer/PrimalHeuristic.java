@@ -0,0 +1,54 @@
+/*
+ * Copyright 1997-2018 Optimatika
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.ojalgo.optimisation.integer;
+
+import org.ojalgo.optimisation.ExpressionsBasedModel;
+import org.ojalgo.optimisation.Optimisation;
+
+/**
+ * A primal heuristic tries to find (good) integer feasible solutions without exploring the branch-and-bound
+ * tree. The {@linkplain IntegerSolver} runs the heuristics configured in
+ * {@linkplain org.ojalgo.optimisation.Optimisation.Options#mip_heuristics} at the root node, and then
+ * periodically at other nodes, in parallel with the tree search. Any solution found becomes a new incumbent
+ * (if it's better than the current one) and helps prune the tree.
+ * <p>
+ * Implementations must not modify the integer model. Copy it (relax it), and make whatever changes are
+ * necessary to the copy. Implementations may be called concurrently from several threads.
+ *
+ * @see PrimalHeuristics
+ * @author apete
+ */
+@FunctionalInterface
+public interface PrimalHeuristic {
+
+    /**
+     * @param integerModel The (simplified) integer model. Must not be modified!
+     * @param integerIndices One entry per integer variable, the entry is the global index of that integer
+     *        variable
+     * @param nodeSolution The solution to the relaxed node problem (not integer)
+     * @param incumbent The currently best integer solution, or null if no integer solution has been found
+     * @return A candidate solution (all model variables, integer variables at integer values) or null if
+     *         nothing was found. The solver verifies the candidate before accepting it.
+     */
+    Optimisation.Result search(ExpressionsBasedModel integerModel, int[] integerIndices, Optimisation.Result nodeSolution, Optimisation.Result incumbent);
+
+}
@@ -0,0 +1,382 @@
+/*
+ * Copyright 1997-2018 Optimatika
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.ojalgo.optimisation.integer;
+
+import static org.ojalgo.constant.PrimitiveMath.*;
+import static org.ojalgo.function.PrimitiveFunction.*;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.List;
+
+import org.ojalgo.array.Primitive64Array;
+import org.ojalgo.function.PrimitiveFunction;
+import org.ojalgo.optimisation.Expression;
+import org.ojalgo.optimisation.ExpressionsBasedModel;
+import org.ojalgo.optimisation.Optimisation;
+import org.ojalgo.optimisation.Variable;
+import org.ojalgo.structure.Access1D;
+
+/**
+ * A collection of {@link PrimalHeuristic} implementations for the {@link IntegerSolver}.
+ *
+ * @author apete
+ */
+public abstract class PrimalHeuristics {
+
+    /**
+     * Dives from the node solution towards an integer solution by repeatedly rounding the integer variable
+     * that is closest to being integer, adding the corresponding bound, and re-solving the relaxation. If an
+     * incumbent exists variables are instead rounded in the direction of the incumbent, and the variable
+     * closest to its incumbent value is chosen (guided diving).
+     */
+    public static final PrimalHeuristic DIVING = new PrimalHeuristic() {
+
+        public Optimisation.Result search(final ExpressionsBasedModel integerModel, final int[] integerIndices, final Optimisation.Result nodeSolution,
+                final Optimisation.Result incumbent) {
+
+            final ExpressionsBasedModel diveModel = integerModel.relax(false);
+            final ExpressionsBasedModel.Intermediate prepared = diveModel.prepare();
+
+            Optimisation.Result current = nodeSolution;
+
+            // Each step tightens a bound, but the same variable may need to be rounded more than once
+            for (int depth = 0, limit = 1 + (2 * integerIndices.length); depth < limit; depth++) {
+
+                int diveIndex = -1;
+                double diveValue = ZERO;
+                double smallest = POSITIVE_INFINITY;
+
+                for (int i = 0; i < integerIndices.length; i++) {
+
+                    final double value = current.doubleValue(integerIndices[i]);
+                    final double fraction = PrimitiveFunction.ABS.invoke(value - RINT.invoke(value));
+
+                    if (!integerModel.options.feasibility.isZero(fraction)) {
+
+                        final double target = incumbent != null ? incumbent.doubleValue(integerIndices[i]) : RINT.invoke(value);
+                        final double distance = PrimitiveFunction.ABS.invoke(target - value);
+
+                        if (distance < smallest) {
+                            smallest = distance;
+                            diveIndex = integerIndices[i];
+                            diveValue = target < value ? FLOOR.invoke(value) : CEIL.invoke(value);
+                        }
+                    }
+                }
+
+                if (diveIndex < 0) {
+                    return PrimalHeuristics.verify(integerModel, integerIndices, current);
+                }
+
+                final Variable diveVariable = diveModel.getVariable(diveIndex);
+                if (diveValue < current.doubleValue(diveIndex)) {
+                    diveVariable.upper(BigDecimal.valueOf((long) diveValue));
+                } else {
+                    diveVariable.lower(BigDecimal.valueOf((long) diveValue));
+                }
+                prepared.update(diveVariable);
+
+                current = prepared.solve(null);
+
+                if (!current.getState().isFeasible()) {
+                    return null;
+                }
+            }
+
+            return null;
+        }
+
+    };
+
+    /**
+     * Alternates between rounding the relaxed solution and solving an LP that minimises the (L1) distance to
+     * that rounding. When the two coincide an integer solution has been found. Cycling is broken by flipping
+     * the roundings of the variables furthest away from their rounded values. The continuous variables of
+     * the final solution are determined by fixing the integer variables and re-solving with the original
+     * objective.
+     */
+    public static final PrimalHeuristic FEASIBILITY_PUMP = new PrimalHeuristic() {
+
+        public Optimisation.Result search(final ExpressionsBasedModel integerModel, final int[] integerIndices, final Optimisation.Result nodeSolution,
+                final Optimisation.Result incumbent) {
+
+            final double[] rounded = new double[integerIndices.length];
+            final double[] previous = new double[integerIndices.length];
+            Arrays.fill(previous, NaN);
+
+            Optimisation.Result current = nodeSolution;
+
+            for (int iteration = 0; iteration < PUMP_ITERATIONS; iteration++) {
+
+                boolean integral = true;
+                for (int i = 0; i < integerIndices.length; i++) {
+                    final double value = current.doubleValue(integerIndices[i]);
+                    rounded[i] = PrimalHeuristics.clamp(integerModel.getVariable(integerIndices[i]), RINT.invoke(value));
+                    integral &= integerModel.options.feasibility.isZero(value - rounded[i]);
+                }
+
+                if (integral) {
+                    return PrimalHeuristics.fixAndSolve(integerModel, integerIndices, rounded);
+                }
+
+                if (Arrays.equals(rounded, previous)) {
+                    PrimalHeuristics.flip(integerModel, integerIndices, current, rounded);
+                }
+                System.arraycopy(rounded, 0, previous, 0, rounded.length);
+
+                current = PrimalHeuristics.project(integerModel, integerIndices, rounded);
+
+                if ((current == null) || !current.getState().isFeasible()) {
+                    return null;
+                }
+            }
+
+            return null;
+        }
+
+    };
+
+    /**
+     * Relaxation Induced Neighbourhood Search: Integer variables that have the same value in the incumbent
+     * and in the node solution are fixed at that value, and the remaining (much smaller) sub-MIP is solved
+     * with a limited number of nodes. Requires an incumbent.
+     */
+    public static final PrimalHeuristic RINS = new PrimalHeuristic() {
+
+        public Optimisation.Result search(final ExpressionsBasedModel integerModel, final int[] integerIndices, final Optimisation.Result nodeSolution,
+                final Optimisation.Result incumbent) {
+
+            if (incumbent == null) {
+                return null;
+            }
+
+            final ExpressionsBasedModel subModel = integerModel.copy();
+
+            int nbFixed = 0;
+            for (int i = 0; i < integerIndices.length; i++) {
+                final double incumbentValue = incumbent.doubleValue(integerIndices[i]);
+                if (integerModel.options.feasibility.isZero(nodeSolution.doubleValue(integerIndices[i]) - incumbentValue)) {
+                    subModel.getVariable(integerIndices[i]).level(BigDecimal.valueOf((long) RINT.invoke(incumbentValue)));
+                    nbFixed++;
+                }
+            }
+
+            if ((nbFixed == integerIndices.length) || (nbFixed < (RINS_FIXING_RATE * integerIndices.length))) {
+                return null;
+            }
+
+            final Optimisation.Options subOptions = new Optimisation.Options();
+            subOptions.iterations_abort = RINS_NODES;
+            subOptions.mip_gap = integerModel.options.mip_gap;
+            subOptions.mip_heuristics.clear();
+
+            final IntegerSolver subSolver = new IntegerSolver(subModel, subOptions);
+            // The incumbent must have its objective function value, or nothing will ever be found to be better
+            final double incumbentValue = subSolver.evaluateFunction(incumbent);
+            final Optimisation.Result subResult = subSolver.solve(new Optimisation.Result(Optimisation.State.FEASIBLE, incumbentValue, incumbent));
+
+            return subResult.getState().isFeasible() ? subResult : null;
+        }
+
+    };
+
+    /**
+     * Rounds each integer variable to its nearest integer value (then tries all down and all up) and checks
+     * if that is feasible. Does not re-solve anything - very cheap.
+     */
+    public static final PrimalHeuristic SIMPLE_ROUNDING = new PrimalHeuristic() {
+
+        public Optimisation.Result search(final ExpressionsBasedModel integerModel, final int[] integerIndices, final Optimisation.Result nodeSolution,
+                final Optimisation.Result incumbent) {
+
+            for (final PrimitiveFunction.Unary rounding : ROUNDINGS) {
+
+                final Primitive64Array candidate = Primitive64Array.make((int) nodeSolution.count());
+                candidate.fillMatching(nodeSolution);
+
+                for (int i = 0; i < integerIndices.length; i++) {
+                    final int globalIndex = integerIndices[i];
+                    candidate.set(globalIndex,
+                            PrimalHeuristics.clamp(integerModel.getVariable(globalIndex), rounding.invoke(nodeSolution.doubleValue(globalIndex))));
+                }
+
+                final Optimisation.Result retVal = PrimalHeuristics.verify(integerModel, integerIndices, candidate);
+                if (retVal != null) {
+                    return retVal;
+                }
+            }
+
+            return null;
+        }
+
+    };
+
+    static final int PUMP_ITERATIONS = 32;
+    static final int RINS_NODES = 256;
+    /**
+     * RINS is only attempted if at least this fraction of the integer variables could be fixed.
+     */
+    static final double RINS_FIXING_RATE = HALF;
+
+    private static final PrimitiveFunction.Unary[] ROUNDINGS = new PrimitiveFunction.Unary[] { RINT, FLOOR, CEIL };
+
+    /**
+     * @return The value moved inside the variable's lower/upper limits
+     */
+    static double clamp(final Variable variable, final double value) {
+        double retVal = value;
+        if (variable.isUpperLimitSet()) {
+            retVal = MIN.invoke(retVal, variable.getUpperLimit().doubleValue());
+        }
+        if (variable.isLowerLimitSet()) {
+            retVal = MAX.invoke(retVal, variable.getLowerLimit().doubleValue());
+        }
+        return retVal;
+    }
+
+    /**
+     * Fixes the integer variables to the supplied values, and solves the remaining (continuous) problem with
+     * the original objective.
+     *
+     * @return A verified integer solution, or null
+     */
+    static Optimisation.Result fixAndSolve(final ExpressionsBasedModel integerModel, final int[] integerIndices, final double[] integerValues) {
+
+        final ExpressionsBasedModel fixedModel = integerModel.relax(false);
+
+        for (int i = 0; i < integerIndices.length; i++) {
+            fixedModel.getVariable(integerIndices[i]).level(BigDecimal.valueOf((long) integerValues[i]));
+        }
+
+        final Optimisation.Result result = fixedModel.prepare().solve(null);
+
+        if (result.getState().isFeasible()) {
+            return PrimalHeuristics.verify(integerModel, integerIndices, result);
+        } else {
+            return null;
+        }
+    }
+
+    /**
+     * Flips the roundings of the (approximately 10%, at least 1) variables that are furthest away from their
+     * rounded values.
+     */
+    static void flip(final ExpressionsBasedModel integerModel, final int[] integerIndices, final Access1D<?> current, final double[] rounded) {
+
+        final int nbFlips = Math.max(1, integerIndices.length / 10);
+
+        final double[] distances = new double[integerIndices.length];
+        for (int i = 0; i < integerIndices.length; i++) {
+            distances[i] = PrimitiveFunction.ABS.invoke(current.doubleValue(integerIndices[i]) - rounded[i]);
+        }
+
+        for (int f = 0; f < nbFlips; f++) {
+
+            int largest = -1;
+            for (int i = 0; i < distances.length; i++) {
+                if ((distances[i] > ZERO) && ((largest < 0) || (distances[i] > distances[largest]))) {
+                    largest = i;
+                }
+            }
+
+            if (largest < 0) {
+                return;
+            }
+
+            final double value = current.doubleValue(integerIndices[largest]);
+            final double flipped = value > rounded[largest] ? rounded[largest] + ONE : rounded[largest] - ONE;
+            rounded[largest] = PrimalHeuristics.clamp(integerModel.getVariable(integerIndices[largest]), flipped);
+            distances[largest] = ZERO;
+        }
+    }
+
+    /**
+     * Solves the LP that minimises the L1 distance, measured over the integer variables, to the supplied
+     * (rounded) point. Variables at a bound contribute directly to the objective, others need an auxiliary
+     * variable.
+     */
+    static Optimisation.Result project(final ExpressionsBasedModel integerModel, final int[] integerIndices, final double[] rounded) {
+
+        final ExpressionsBasedModel distanceModel = integerModel.copy();
+        distanceModel.relax(true);
+
+        for (final Variable variable : distanceModel.getVariables()) {
+            variable.weight(null);
+        }
+        for (final Expression expression : distanceModel.getExpressions()) {
+            expression.weight(null);
+        }
+
+        for (int i = 0; i < integerIndices.length; i++) {
+
+            final Variable variable = distanceModel.getVariable(integerIndices[i]);
+            final BigDecimal value = BigDecimal.valueOf((long) rounded[i]);
+
+            if (variable.isLowerLimitSet() && (variable.getLowerLimit().compareTo(value) == 0)) {
+                variable.weight(ONE);
+            } else if (variable.isUpperLimitSet() && (variable.getUpperLimit().compareTo(value) == 0)) {
+                variable.weight(NEG);
+            } else {
+                final Variable distance = distanceModel.addVariable("PUMP" + i).lower(ZERO).weight(ONE);
+                distanceModel.addExpression("PUMP" + i + "L").set(distance, ONE).set(variable, NEG).lower(value.negate());
+                distanceModel.addExpression("PUMP" + i + "U").set(distance, ONE).set(variable, ONE).lower(value);
+            }
+        }
+
+        distanceModel.setMinimisation();
+
+        final Optimisation.Result result = distanceModel.prepare().solve(null);
+
+        final Primitive64Array solution = Primitive64Array.make(integerModel.countVariables());
+        for (int j = 0, limit = integerModel.countVariables(); j < limit; j++) {
+            solution.set(j, result.doubleValue(j));
+        }
+
+        return new Optimisation.Result(result.getState(), solution);
+    }
+
+    /**
+     * Rounds the integer variables (they should already be very close to integer) and then validates the
+     * candidate against the integer model.
+     *
+     * @return The candidate as a feasible result, or null if it's not feasible
+     */
+    static Optimisation.Result verify(final ExpressionsBasedModel integerModel, final int[] integerIndices, final Access1D<?> candidate) {
+
+        final Primitive64Array solution = Primitive64Array.make((int) candidate.count());
+        solution.fillMatching(candidate);
+
+        for (int i = 0; i < integerIndices.length; i++) {
+            solution.set(integerIndices[i], RINT.invoke(solution.doubleValue(integerIndices[i])));
+        }
+
+        final Optimisation.Result retVal = new Optimisation.Result(Optimisation.State.FEASIBLE, solution);
+
+        return integerModel.validate(retVal) ? retVal : null;
+    }
+
+    private PrimalHeuristics() {
+        super();
+    }
+
+}
@@ -0,0 +1,160 @@
+/*
+ * Copyright 1997-2018 Optimatika
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.ojalgo.optimisation.integer;
+
+import static org.ojalgo.constant.PrimitiveMath.*;
+
+import org.ojalgo.function.PrimitiveFunction;
+
+/**
+ * Keeps track of the observed objective function degradation, per unit of displacement, when branching down
+ * or up on each of the integer variables. Updated concurrently by the branch-and-bound node tasks.
+ *
+ * @author apete
+ */
+final class PseudoCosts {
+
+    /**
+     * Used in the product score so that a zero estimate in one direction does not zero out the other.
+     */
+    private static final double EPSILON = 1E-6;
+
+    private final int[] myDownCount;
+    private final double[] myDownSum;
+    private final int[] myUpCount;
+    private final double[] myUpSum;
+
+    PseudoCosts(final int numberOfIntegerVariables) {
+
+        super();
+
+        myDownCount = new int[numberOfIntegerVariables];
+        myDownSum = new double[numberOfIntegerVariables];
+        myUpCount = new int[numberOfIntegerVariables];
+        myUpSum = new double[numberOfIntegerVariables];
+    }
+
+    static double score(final double downGain, final double upGain) {
+        return PrimitiveFunction.MAX.invoke(downGain, EPSILON) * PrimitiveFunction.MAX.invoke(upGain, EPSILON);
+    }
+
+    @Override
+    public String toString() {
+
+        final StringBuilder retVal = new StringBuilder();
+
+        retVal.append('[');
+        for (int i = 0; i < myDownCount.length; i++) {
+            if (i > 0) {
+                retVal.append(',');
+                retVal.append(' ');
+            }
+            retVal.append(i);
+            retVal.append('=');
+            retVal.append(this.getDown(i));
+            retVal.append('/');
+            retVal.append(this.getUp(i));
+        }
+        retVal.append(']');
+
+        return retVal.toString();
+    }
+
+    /**
+     * @return The smallest number of observations in either direction
+     */
+    synchronized int countReliability(final int index) {
+        return Math.min(myDownCount[index], myUpCount[index]);
+    }
+
+    /**
+     * @return The average down degradation per unit of displacement. If there are no observations for this
+     *         variable the average over all variables is used instead.
+     */
+    synchronized double getDown(final int index) {
+        if (myDownCount[index] > 0) {
+            return myDownSum[index] / myDownCount[index];
+        } else {
+            return PseudoCosts.average(myDownSum, myDownCount);
+        }
+    }
+
+    /**
+     * @return The average up degradation per unit of displacement. If there are no observations for this
+     *         variable the average over all variables is used instead.
+     */
+    synchronized double getUp(final int index) {
+        if (myUpCount[index] > 0) {
+            return myUpSum[index] / myUpCount[index];
+        } else {
+            return PseudoCosts.average(myUpSum, myUpCount);
+        }
+    }
+
+    /**
+     * @param index Integer variable index
+     * @param fraction The fractional part of the variable's value (the distance to the floor)
+     * @return The product score of the estimated down and up degradations
+     */
+    double score(final int index, final double fraction) {
+        return PseudoCosts.score(this.getDown(index) * fraction, this.getUp(index) * (ONE - fraction));
+    }
+
+    /**
+     * @param index Integer variable index
+     * @param up true if the observation is from an upper branch (the variable's lower bound was raised)
+     * @param degradation The absolute change in objective function value
+     * @param displacement How much the variable was displaced by the new bound
+     */
+    synchronized void update(final int index, final boolean up, final double degradation, final double displacement) {
+
+        if (!Double.isFinite(degradation) || !(displacement > ZERO)) {
+            return;
+        }
+
+        final double unitDegradation = degradation / displacement;
+
+        if (up) {
+            myUpSum[index] += unitDegradation;
+            myUpCount[index]++;
+        } else {
+            myDownSum[index] += unitDegradation;
+            myDownCount[index]++;
+        }
+    }
+
+    private static double average(final double[] sums, final int[] counts) {
+
+        double sum = ZERO;
+        int count = 0;
+
+        for (int i = 0; i < counts.length; i++) {
+            if (counts[i] > 0) {
+                sum += sums[i] / counts[i];
+                count++;
+            }
+        }
+
+        return count > 0 ? sum / count : ONE;
+    }
+
+}
@@ -111,9 +111,11 @@ public abstract class LinearSolver extends GenericSolver implements UpdatableSol
 
         public LinearSolver build(final ExpressionsBasedModel model) {
 
-            final SimplexTableau tableau = SimplexSolver.build(model);
+            final SimplexSolver.ModelEntities entities = new SimplexSolver.ModelEntities(model);
 
-            return new SimplexSolver(tableau, model.options);
+            final SimplexTableau tableau = SimplexSolver.build(model, entities);
+
+            return new SimplexSolver(tableau, model, entities);
         }
 
         public boolean isCapable(final ExpressionsBasedModel model) {
@@ -24,7 +24,9 @@ package org.ojalgo.optimisation.linear;
 import static org.ojalgo.constant.PrimitiveMath.*;
 import static org.ojalgo.function.PrimitiveFunction.*;
 
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
 import java.util.stream.Collectors;
@@ -45,6 +47,7 @@ import org.ojalgo.matrix.store.RowsSupplier;
 import org.ojalgo.optimisation.Expression;
 import org.ojalgo.optimisation.ExpressionsBasedModel;
 import org.ojalgo.optimisation.Optimisation;
+import org.ojalgo.optimisation.UpdatableSolver;
 import org.ojalgo.optimisation.Variable;
 import org.ojalgo.optimisation.convex.ConvexSolver;
 import org.ojalgo.optimisation.linear.SimplexTableau.IterationPoint;
@@ -86,6 +89,118 @@ public final class SimplexSolver extends LinearSolver {
 
     }
 
+    /**
+     * The model entities, and their order, that a tableau was built from. Two instances that are
+     * structurally equal map the same entities to the same tableau rows and columns. Then limits and
+     * objective weights can be updated in-place rather than rebuilding the tableau.
+     */
+    static final class ModelEntities {
+
+        final List<Expression> exprsEq;
+        final List<Expression> exprsLo;
+        final List<Expression> exprsUp;
+        final Set<IntIndex> fixVariables;
+        final List<Variable> negVariables;
+        final List<Variable> posVariables;
+        final List<Variable> varsNegLo;
+        final List<Variable> varsNegUp;
+        final List<Variable> varsPosLo;
+        final List<Variable> varsPosUp;
+
+        ModelEntities(final ExpressionsBasedModel model) {
+
+            super();
+
+            posVariables = new ArrayList<>(model.getPositiveVariables());
+            negVariables = new ArrayList<>(model.getNegativeVariables());
+            fixVariables = new HashSet<>(model.getFixedVariables());
+
+            exprsEq = model.constraints().filter(c -> c.isEqualityConstraint() && !c.isAnyQuadraticFactorNonZero()).collect(Collectors.toList());
+            exprsLo = model.constraints().filter(c -> c.isLowerConstraint() && !c.isAnyQuadraticFactorNonZero()).collect(Collectors.toList());
+            exprsUp = model.constraints().filter(c -> c.isUpperConstraint() && !c.isAnyQuadraticFactorNonZero()).collect(Collectors.toList());
+
+            varsPosLo = model.bounds().filter(v -> v.isPositive() && v.isLowerConstraint() && (v.getLowerLimit().signum() > 0)).collect(Collectors.toList());
+            varsPosUp = model.bounds().filter(v -> v.isPositive() && v.isUpperConstraint() && (v.getUpperLimit().signum() > 0)).collect(Collectors.toList());
+
+            varsNegLo = model.bounds().filter(v -> v.isNegative() && v.isLowerConstraint() && (v.getLowerLimit().signum() < 0)).collect(Collectors.toList());
+            varsNegUp = model.bounds().filter(v -> v.isNegative() && v.isUpperConstraint() && (v.getUpperLimit().signum() < 0)).collect(Collectors.toList());
+        }
+
+        int countConstraints() {
+            return exprsEq.size() + exprsLo.size() + exprsUp.size() + varsPosLo.size() + varsPosUp.size() + varsNegLo.size() + varsNegUp.size();
+        }
+
+        /**
+         * @return The constraint right hand sides, in tableau row order, before any negative values are
+         *         flipped.
+         */
+        double[] getConstraintsRHS() {
+
+            final double[] retVal = new double[this.countConstraints()];
+
+            int i = 0;
+            for (final Expression expr : exprsEq) {
+                retVal[i++] = expr.compensate(fixVariables).getAdjustedLowerLimit();
+            }
+            for (final Expression expr : exprsLo) {
+                retVal[i++] = expr.compensate(fixVariables).getAdjustedLowerLimit();
+            }
+            for (final Expression expr : exprsUp) {
+                retVal[i++] = expr.compensate(fixVariables).getAdjustedUpperLimit();
+            }
+            for (final Variable var : varsPosLo) {
+                retVal[i++] = var.getAdjustedLowerLimit();
+            }
+            for (final Variable var : varsPosUp) {
+                retVal[i++] = var.getAdjustedUpperLimit();
+            }
+            for (final Variable var : varsNegLo) {
+                retVal[i++] = -var.getAdjustedLowerLimit();
+            }
+            for (final Variable var : varsNegUp) {
+                retVal[i++] = -var.getAdjustedUpperLimit();
+            }
+
+            return retVal;
+        }
+
+        /**
+         * @return The objective function weights, in tableau column order (problem variables only).
+         */
+        double[] getObjective(final ExpressionsBasedModel model) {
+
+            final double[] retVal = new double[posVariables.size() + negVariables.size()];
+
+            final Expression objective = model.objective().compensate(fixVariables);
+
+            for (final IntIndex key : objective.getLinearKeySet()) {
+
+                final double factor = model.isMaximisation() ? -objective.getAdjustedLinearFactor(key) : objective.getAdjustedLinearFactor(key);
+
+                final int posInd = model.indexOfPositiveVariable(key.index);
+                if (posInd >= 0) {
+                    retVal[posInd] = factor;
+                }
+
+                final int negInd = model.indexOfNegativeVariable(key.index);
+                if (negInd >= 0) {
+                    retVal[posVariables.size() + negInd] = -factor;
+                }
+            }
+
+            return retVal;
+        }
+
+        boolean isStructurallyEqual(final ModelEntities other) {
+            return fixVariables.equals(other.fixVariables) && UpdatableSolver.isSame(posVariables, other.posVariables)
+                    && UpdatableSolver.isSame(negVariables, other.negVariables) && UpdatableSolver.isSame(exprsEq, other.exprsEq)
+                    && UpdatableSolver.isSame(exprsLo, other.exprsLo) && UpdatableSolver.isSame(exprsUp, other.exprsUp)
+                    && UpdatableSolver.isSame(varsPosLo, other.varsPosLo) && UpdatableSolver.isSame(varsPosUp, other.varsPosUp)
+                    && UpdatableSolver.isSame(varsNegLo, other.varsNegLo) && UpdatableSolver.isSame(varsNegUp, other.varsNegUp);
+        }
+
+    }
+
     static SimplexTableau build(final ConvexSolver.Builder convex) {
 
         final int numbVars = convex.countVariables();
@@ -139,29 +254,24 @@ public final class SimplexSolver extends LinearSolver {
     }
 
     static SimplexTableau build(final ExpressionsBasedModel model) {
+        return SimplexSolver.build(model, new ModelEntities(model));
+    }
 
-        final List<Variable> tmpPosVariables = model.getPositiveVariables();
-        final List<Variable> tmpNegVariables = model.getNegativeVariables();
-        final Set<IntIndex> tmpFixVariables = model.getFixedVariables();
+    static SimplexTableau build(final ExpressionsBasedModel model, final ModelEntities entities) {
 
-        final Expression tmpObjFunc = model.objective().compensate(tmpFixVariables);
+        final List<Variable> tmpPosVariables = entities.posVariables;
+        final List<Variable> tmpNegVariables = entities.negVariables;
+        final Set<IntIndex> tmpFixVariables = entities.fixVariables;
 
-        final List<Expression> tmpExprsEq = model.constraints().filter(c -> c.isEqualityConstraint() && !c.isAnyQuadraticFactorNonZero())
-                .collect(Collectors.toList());
-        final List<Expression> tmpExprsLo = model.constraints().filter(c -> c.isLowerConstraint() && !c.isAnyQuadraticFactorNonZero())
-                .collect(Collectors.toList());
-        final List<Expression> tmpExprsUp = model.constraints().filter(c -> c.isUpperConstraint() && !c.isAnyQuadraticFactorNonZero())
-                .collect(Collectors.toList());
+        final List<Expression> tmpExprsEq = entities.exprsEq;
+        final List<Expression> tmpExprsLo = entities.exprsLo;
+        final List<Expression> tmpExprsUp = entities.exprsUp;
 
-        final List<Variable> tmpVarsPosLo = model.bounds().filter(v -> v.isPositive() && v.isLowerConstraint() && (v.getLowerLimit().signum() > 0))
-                .collect(Collectors.toList());
-        final List<Variable> tmpVarsPosUp = model.bounds().filter(v -> v.isPositive() && v.isUpperConstraint() && (v.getUpperLimit().signum() > 0))
-                .collect(Collectors.toList());
+        final List<Variable> tmpVarsPosLo = entities.varsPosLo;
+        final List<Variable> tmpVarsPosUp = entities.varsPosUp;
 
-        final List<Variable> tmpVarsNegLo = model.bounds().filter(v -> v.isNegative() && v.isLowerConstraint() && (v.getLowerLimit().signum() < 0))
-                .collect(Collectors.toList());
-        final List<Variable> tmpVarsNegUp = model.bounds().filter(v -> v.isNegative() && v.isUpperConstraint() && (v.getUpperLimit().signum() < 0))
-                .collect(Collectors.toList());
+        final List<Variable> tmpVarsNegLo = entities.varsNegLo;
+        final List<Variable> tmpVarsNegUp = entities.varsNegUp;
 
         final int tmpConstraiCount = tmpExprsEq.size() + tmpExprsLo.size() + tmpExprsUp.size() + tmpVarsPosLo.size() + tmpVarsPosUp.size() + tmpVarsNegLo.size()
                 + tmpVarsNegUp.size();
@@ -174,18 +284,10 @@ public final class SimplexSolver extends LinearSolver {
         final int tmpNegVarsBaseIndex = tmpPosVarsBaseIndex + tmpPosVariables.size();
         final int tmpSlaVarsBaseIndex = tmpNegVarsBaseIndex + tmpNegVariables.size();
 
-        for (final IntIndex tmpKey : tmpObjFunc.getLinearKeySet()) {
-
-            final double tmpFactor = model.isMaximisation() ? -tmpObjFunc.getAdjustedLinearFactor(tmpKey) : tmpObjFunc.getAdjustedLinearFactor(tmpKey);
-
-            final int tmpPosInd = model.indexOfPositiveVariable(tmpKey.index);
-            if (tmpPosInd >= 0) {
-                retVal.objective().set(tmpPosInd, tmpFactor);
-            }
-
-            final int tmpNegInd = model.indexOfNegativeVariable(tmpKey.index);
-            if (tmpNegInd >= 0) {
-                retVal.objective().set(tmpNegVarsBaseIndex + tmpNegInd, -tmpFactor);
+        final double[] tmpObjective = entities.getObjective(model);
+        for (int j = 0; j < tmpObjective.length; j++) {
+            if (tmpObjective[j] != ZERO) {
+                retVal.objective().set(tmpPosVarsBaseIndex + j, tmpObjective[j]);
             }
         }
 
@@ -447,10 +549,12 @@ public final class SimplexSolver extends LinearSolver {
         }
     }
 
+    private ModelEntities myEntities = null;
+    private double[] myEntitiesObjective = null;
+    private double[] myEntitiesRHS = null;
+    private LongToNumberMap<Double> myFixedVariables = null;
     private final IterationPoint myPoint;
-
     private final SimplexTableau myTableau;
-    private LongToNumberMap<Double> myFixedVariables = null;
 
     SimplexSolver(final SimplexTableau tableau, final Optimisation.Options solverOptions) {
 
@@ -465,6 +569,15 @@ public final class SimplexSolver extends LinearSolver {
         }
     }
 
+    SimplexSolver(final SimplexTableau tableau, final ExpressionsBasedModel model, final ModelEntities entities) {
+
+        this(tableau, model.options);
+
+        myEntities = entities;
+        myEntitiesRHS = entities.getConstraintsRHS();
+        myEntitiesObjective = entities.getObjective(model);
+    }
+
     public boolean fixVariable(final int index, final double value) {
 
         if (value < ZERO) {
@@ -484,6 +597,67 @@ public final class SimplexSolver extends LinearSolver {
         return retVal;
     }
 
+    /**
+     * Constraint and variable limits, as well as objective function weights, are updated in the existing
+     * tableau, and the next {@link #solve(Optimisation.Result)} continues from the current basis. That is
+     * only possible if the model structure is unchanged and the current basis remains primal feasible.
+     * There is no dual simplex implementation to recover from an infeasible basis – then this method
+     * returns false and the solver should be rebuilt.
+     */
+    @Override
+    public boolean update(final ExpressionsBasedModel model) {
+
+        if ((myEntities == null) || (myFixedVariables != null) || model.isAnyObjectiveQuadratic()) {
+            return false;
+        }
+
+        final ModelEntities entities = new ModelEntities(model);
+
+        if (!myEntities.isStructurallyEqual(entities)) {
+            return false;
+        }
+
+        final double[] rhs = entities.getConstraintsRHS();
+        for (int i = 0; i < rhs.length; i++) {
+            if ((rhs[i] < ZERO) != (myEntitiesRHS[i] < ZERO)) {
+                // A negative RHS flips the sign of the entire row
+                return false;
+            }
+        }
+
+        final double[] objective = entities.getObjective(model);
+
+        for (int i = 0; i < rhs.length; i++) {
+            if (rhs[i] != myEntitiesRHS[i]) {
+                myTableau.shiftConstraintsRHS(i, PrimitiveFunction.ABS.invoke(rhs[i]) - PrimitiveFunction.ABS.invoke(myEntitiesRHS[i]));
+            }
+        }
+        for (int j = 0; j < objective.length; j++) {
+            if (objective[j] != myEntitiesObjective[j]) {
+                myTableau.shiftObjective(j, objective[j] - myEntitiesObjective[j]);
+            }
+        }
+
+        myEntities = entities;
+        myEntitiesRHS = rhs;
+        myEntitiesObjective = objective;
+
+        final int colRHS = myTableau.countConstraints() + myTableau.countVariables();
+
+        for (int i = 0, limit = myTableau.countConstraints(); i < limit; i++) {
+            final double value = myTableau.doubleValue(i, colRHS);
+            if (myPoint.isPhase2() && (myTableau.getBasisColumnIndex(i) < 0)) {
+                if (!options.feasibility.isZero(value)) {
+                    return false;
+                }
+            } else if ((value < ZERO) && !options.feasibility.isZero(value)) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
     public Result solve(final Result kickStarter) {
 
         if (this.isDebug() && this.isTableauPrintable()) {
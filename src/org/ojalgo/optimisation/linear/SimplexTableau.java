@@ -246,6 +246,40 @@ abstract class SimplexTableau implements AlgorithmStore, Access2D<Double> {
             this.update(iterationPoint);
         }
 
+        @Override
+        protected void shiftConstraintsRHS(final int index, final double delta) {
+
+            final int numbConstr = this.countConstraints();
+            final int colArtificial = this.countVariables() + index;
+            final int colRHS = this.countVariablesTotally();
+
+            for (int i = 0, limit = numbConstr + 2; i < limit; i++) {
+                final double factor = myTransposed.doubleValue(colArtificial, i);
+                if (factor != ZERO) {
+                    myTransposed.add(colRHS, i, factor * delta);
+                }
+            }
+            myTransposed.add(colRHS, numbConstr + 1, -delta);
+        }
+
+        @Override
+        protected void shiftObjective(final int index, final double delta) {
+
+            final int rowObjective = this.countConstraints();
+
+            myTransposed.add(index, rowObjective, delta);
+
+            final int rowBasis = this.getBasisRowIndex(index);
+            if (rowBasis >= 0) {
+                for (int j = 0; j < myStructure; j++) {
+                    final double value = myTransposed.doubleValue(j, rowBasis);
+                    if (value != ZERO) {
+                        myTransposed.add(j, rowObjective, -delta * value);
+                    }
+                }
+            }
+        }
+
         @Override
         protected Array1D<Double> sliceConstraintsRHS() {
             return myTransposed.sliceRow(this.countVariablesTotally()).sliceRange(0, this.countConstraints());
@@ -676,6 +710,33 @@ abstract class SimplexTableau implements AlgorithmStore, Access2D<Double> {
             this.update(iterationPoint);
         }
 
+        @Override
+        protected void shiftConstraintsRHS(final int index, final double delta) {
+
+            final int colArtificial = this.countVariables() + index;
+
+            for (int i = 0; i < myRows.length; i++) {
+                final double factor = myRows[i].doubleValue(colArtificial);
+                if (factor != ZERO) {
+                    myRHS.add(i, factor * delta);
+                }
+            }
+            myValue += myObjectiveWeights.doubleValue(colArtificial) * delta;
+            myInfeasibility += (myPhase1Weights.doubleValue(colArtificial) - ONE) * delta;
+        }
+
+        @Override
+        protected void shiftObjective(final int index, final double delta) {
+
+            myObjectiveWeights.add(index, delta);
+
+            final int rowBasis = this.getBasisRowIndex(index);
+            if (rowBasis >= 0) {
+                myRows[rowBasis].axpy(-delta, myObjectiveWeights);
+                myValue -= delta * myRHS.doubleValue(rowBasis);
+            }
+        }
+
         @Override
         protected Array1D<Double> sliceConstraintsRHS() {
             return myRHS;
@@ -1005,6 +1066,24 @@ abstract class SimplexTableau implements AlgorithmStore, Access2D<Double> {
 
     protected abstract void pivot(IterationPoint iterationPoint);
 
+    /**
+     * Change the right hand side of one of the (original) constraints, and propagate that change through
+     * the current basis. The basis itself is unchanged, but may no longer be primal feasible.
+     *
+     * @param index The constraint (row) index
+     * @param delta The amount to add to that constraint's RHS
+     */
+    protected abstract void shiftConstraintsRHS(int index, double delta);
+
+    /**
+     * Change one of the (original) objective function weights, and propagate that change through the
+     * current basis. The basis itself is unchanged, but may no longer be optimal.
+     *
+     * @param index The variable (column) index
+     * @param delta The amount to add to that variable's objective weight
+     */
+    protected abstract void shiftObjective(int index, double delta);
+
     protected abstract Array1D<Double> sliceConstraintsRHS();
 
     /**
@@ -23,6 +23,8 @@ package org.ojalgo.random;
 
 import static org.ojalgo.constant.PrimitiveMath.*;
 
+import java.util.Random;
+
 abstract class AbstractContinuous extends RandomNumber implements ContinuousDistribution {
 
     AbstractContinuous() {
@@ -38,8 +40,8 @@ abstract class AbstractContinuous extends RandomNumber implements ContinuousDist
     }
 
     @Override
-    protected double generate() {
-        return this.getQuantile(this.random().nextDouble());
+    protected double generate(final Random random) {
+        return this.getQuantile(random.nextDouble());
     }
 
 }
@@ -23,6 +23,8 @@ package org.ojalgo.random;
 
 import static org.ojalgo.constant.PrimitiveMath.*;
 
+import java.util.Random;
+
 /**
  * @author apete
  */
@@ -68,7 +70,7 @@ public class Deterministic extends RandomNumber {
     }
 
     @Override
-    protected double generate() {
+    protected double generate(final Random random) {
         return myValue;
     }
 
@@ -23,6 +23,8 @@ package org.ojalgo.random;
 
 import static org.ojalgo.constant.PrimitiveMath.*;
 
+import java.util.Random;
+
 import org.ojalgo.function.PrimitiveFunction;
 
 /**
@@ -59,12 +61,12 @@ public class Erlang extends RandomNumber {
     }
 
     @Override
-    protected double generate() {
+    protected double generate(final Random random) {
 
         double tmpVal = ZERO;
 
         for (int i = 0; i < myCount; i++) {
-            tmpVal -= PrimitiveFunction.LOG.invoke(this.random().nextDouble());
+            tmpVal -= PrimitiveFunction.LOG.invoke(random.nextDouble());
         }
 
         return tmpVal / myRate;
@@ -23,6 +23,8 @@ package org.ojalgo.random;
 
 import static org.ojalgo.constant.PrimitiveMath.*;
 
+import java.util.Random;
+
 import org.ojalgo.function.PrimitiveFunction;
 
 /**
@@ -82,8 +84,8 @@ public class Exponential extends AbstractContinuous {
     }
 
     @Override
-    protected double generate() {
-        return -PrimitiveFunction.LOG.invoke(this.random().nextDouble()) / myRate;
+    protected double generate(final Random random) {
+        return Ziggurat.exponential(random) / myRate;
     }
 
 }
@@ -24,7 +24,7 @@ package org.ojalgo.random;
 import static org.ojalgo.constant.PrimitiveMath.*;
 import static org.ojalgo.function.PrimitiveFunction.*;
 
-import org.ojalgo.scalar.PrimitiveScalar;
+import java.util.Random;
 
 /**
  * Distribution of the sum of aCount random variables with an exponential distribution with parameter aLambda.
@@ -35,6 +35,41 @@ public class Gamma extends RandomNumber {
 
     private static final long serialVersionUID = 6544837857838057678L;
 
+    /**
+     * Rate 1
+     */
+    static double generate(final double shape, final Random random) {
+
+        if (shape < ONE) {
+            return Gamma.generate(shape + ONE, random) * POW.invoke(ONE - random.nextDouble(), ONE / shape);
+        }
+
+        final double tmpD = shape - (ONE / THREE);
+        final double tmpC = ONE / SQRT.invoke(NINE * tmpD);
+
+        for (;;) {
+
+            double tmpZ;
+            double tmpV;
+            do {
+                tmpZ = Ziggurat.normal(random);
+                tmpV = ONE + (tmpC * tmpZ);
+            } while (tmpV <= ZERO);
+
+            tmpV = tmpV * tmpV * tmpV;
+
+            final double tmpU = random.nextDouble();
+            final double tmpZ2 = tmpZ * tmpZ;
+
+            if (tmpU < (ONE - (0.0331 * tmpZ2 * tmpZ2))) {
+                return tmpD * tmpV;
+            }
+            if (LOG.invoke(tmpU) < ((HALF * tmpZ2) + (tmpD * ((ONE - tmpV) + LOG.invoke(tmpV))))) {
+                return tmpD * tmpV;
+            }
+        }
+    }
+
     private final double myShape;
     private final double myRate;
 
@@ -60,42 +95,14 @@ public class Gamma extends RandomNumber {
     }
 
     /**
-     * A Convenient Way of Generating Gamma Random Variables Using Generalized Exponential Distribution
+     * Marsaglia G, Tsang W W (2000): A Simple Method for Generating Gamma Variables. For shape &lt; 1 a
+     * sample with shape + 1 is scaled by U<sup>1/shape</sup>.
      *
-     * @see org.ojalgo.random.RandomNumber#generate()
+     * @see org.ojalgo.random.RandomNumber#generate(Random)
      */
     @Override
-    protected double generate() {
-
-        final int tmpInteger = (int) myShape;
-        final double tmpFraction = myShape - tmpInteger;
-
-        double tmpIntegralPart = ZERO;
-        for (int i = 0; i < tmpInteger; i++) {
-            tmpIntegralPart -= LOG.invoke(this.random().nextDouble());
-        }
-
-        double tmpFractionalPart = ZERO;
-        if (!PrimitiveScalar.isSmall(ONE, tmpFraction)) {
-
-            final double tmpFractionMinusOne = tmpFraction - ONE;
-
-            double tmpNegHalfFraction;
-            double tmpNumer;
-            double tmpDenom;
-
-            do {
-
-                tmpFractionalPart = -TWO * LOG.invoke(ONE - POW.invoke(this.random().nextDouble(), ONE / tmpFraction));
-                tmpNegHalfFraction = -tmpFractionalPart / TWO;
-
-                tmpNumer = POW.invoke(tmpFractionalPart, tmpFractionMinusOne) * EXP.invoke(tmpNegHalfFraction);
-                tmpDenom = POW.invoke(TWO, tmpFractionMinusOne) * POW.invoke(-EXPM1.invoke(tmpNegHalfFraction), tmpFractionMinusOne);
-
-            } while (this.random().nextDouble() > (tmpNumer / tmpDenom));
-        }
-
-        return (tmpIntegralPart + tmpFractionalPart) / myRate;
+    protected double generate(final Random random) {
+        return Gamma.generate(myShape, random) / myRate;
     }
 
 }
@@ -0,0 +1,120 @@
+/*
+ * Copyright 1997-2018 Optimatika
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.ojalgo.random;
+
+import java.util.SplittableRandom;
+
+/**
+ * Halton low-discrepancy sequence – the radical inverse of the point index in the first d prime bases. In
+ * higher dimensions the plain sequence has strongly correlated coordinates; the scrambled version applies a
+ * random permutation to the digits of each base (zero is kept fixed), which breaks these correlations.
+ *
+ * @author apete
+ */
+public final class Halton extends QuasiRandom {
+
+    static int[] primes(final int count) {
+
+        final int[] retVal = new int[count];
+
+        int tmpCount = 0;
+        for (int candidate = 2; tmpCount < count; candidate++) {
+            boolean tmpPrime = true;
+            for (int i = 0; tmpPrime && (i < tmpCount) && ((retVal[i] * retVal[i]) <= candidate); i++) {
+                tmpPrime = (candidate % retVal[i]) != 0;
+            }
+            if (tmpPrime) {
+                retVal[tmpCount++] = candidate;
+            }
+        }
+
+        return retVal;
+    }
+
+    private final int[] myBases;
+    private final int[][] myPermutations;
+
+    /**
+     * The plain (unscrambled) Halton sequence
+     */
+    public Halton(final int dimension) {
+
+        super(dimension);
+
+        myBases = Halton.primes(dimension);
+        myPermutations = new int[dimension][];
+
+        for (int d = 0; d < dimension; d++) {
+            final int tmpBase = myBases[d];
+            myPermutations[d] = new int[tmpBase];
+            for (int digit = 0; digit < tmpBase; digit++) {
+                myPermutations[d][digit] = digit;
+            }
+        }
+    }
+
+    /**
+     * A scrambled Halton sequence – the same seed always gives the same sequence.
+     */
+    public Halton(final int dimension, final long seed) {
+
+        this(dimension);
+
+        final SplittableRandom tmpRandom = new SplittableRandom(seed);
+
+        for (int d = 0; d < dimension; d++) {
+            final int[] tmpPermutation = myPermutations[d];
+            // Fisher-Yates on the non-zero digits
+            for (int i = tmpPermutation.length - 1; i > 1; i--) {
+                final int j = 1 + tmpRandom.nextInt(i);
+                final int tmpDigit = tmpPermutation[i];
+                tmpPermutation[i] = tmpPermutation[j];
+                tmpPermutation[j] = tmpDigit;
+            }
+        }
+    }
+
+    @Override
+    protected void generate(final long index, final double[] destination) {
+
+        for (int d = 0, limit = this.getDimension(); d < limit; d++) {
+
+            final int tmpBase = myBases[d];
+            final int[] tmpPermutation = myPermutations[d];
+
+            final double tmpInverseBase = 1.0 / tmpBase;
+
+            double tmpValue = 0.0;
+            double tmpFactor = tmpInverseBase;
+            long tmpRemaining = index;
+
+            while (tmpRemaining > 0L) {
+                tmpValue += tmpPermutation[(int) (tmpRemaining % tmpBase)] * tmpFactor;
+                tmpRemaining /= tmpBase;
+                tmpFactor *= tmpInverseBase;
+            }
+
+            destination[d] = tmpValue;
+        }
+    }
+
+}
@@ -23,6 +23,8 @@ package org.ojalgo.random;
 
 import static org.ojalgo.constant.PrimitiveMath.*;
 
+import java.util.Random;
+
 import org.ojalgo.array.Array1D;
 import org.ojalgo.function.PrimitiveFunction;
 import org.ojalgo.structure.Access1D;
@@ -123,8 +125,8 @@ public class LogNormal extends AbstractContinuous {
     }
 
     @Override
-    protected double generate() {
-        return PrimitiveFunction.EXP.invoke(myNormal.generate());
+    protected double generate(final Random random) {
+        return PrimitiveFunction.EXP.invoke(myNormal.generate(random));
     }
 
 }
@@ -0,0 +1,295 @@
+/*
+ * Copyright 1997-2018 Optimatika
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.ojalgo.random;
+
+import static org.ojalgo.constant.PrimitiveMath.*;
+
+import java.util.function.DoubleConsumer;
+
+/**
+ * A constant memory alternative to {@link SampleSet}. Samples are not stored, instead mean, variance,
+ * skewness and kurtosis are accumulated using Welford's (numerically stable) online algorithm, and the
+ * quantiles (median, quartiles...) are approximated using a {@link QuantileSketch}. Instances accumulated
+ * separately (in different threads) can be merged.
+ * <p>
+ * The getters have the same names, and definitions, as those of {@link SampleSet} – the quantiles are
+ * approximations.
+ * </p>
+ * <p>
+ * Not thread safe. Use with parallel streams like this: <code>stream.collect(OnlineStatistics::new,
+ * OnlineStatistics::add, OnlineStatistics::merge)</code>
+ * </p>
+ *
+ * @author apete
+ */
+public final class OnlineStatistics implements DoubleConsumer {
+
+    private long myCount = 0L;
+    private double myLargest = ZERO;
+    private double myM2 = ZERO;
+    private double myM3 = ZERO;
+    private double myM4 = ZERO;
+    private double myMaximum = NEGATIVE_INFINITY;
+    private double myMean = ZERO;
+    private double myMinimum = POSITIVE_INFINITY;
+    private final QuantileSketch myQuantiles;
+    private double mySmallest = POSITIVE_INFINITY;
+
+    public OnlineStatistics() {
+        this(new QuantileSketch());
+    }
+
+    /**
+     * @param k The {@link QuantileSketch} size/accuracy parameter
+     */
+    public OnlineStatistics(final int k) {
+        this(new QuantileSketch(k));
+    }
+
+    private OnlineStatistics(final QuantileSketch quantiles) {
+
+        super();
+
+        myQuantiles = quantiles;
+    }
+
+    public void accept(final double value) {
+        this.add(value);
+    }
+
+    public void add(final double value) {
+
+        final double tmpPrevCount = myCount;
+
+        myCount++;
+
+        final double tmpCount = myCount;
+
+        final double tmpDelta = value - myMean;
+        final double tmpDeltaN = tmpDelta / tmpCount;
+        final double tmpDeltaN2 = tmpDeltaN * tmpDeltaN;
+        final double tmpTerm1 = tmpDelta * tmpDeltaN * tmpPrevCount;
+
+        myMean += tmpDeltaN;
+        myM4 += (tmpTerm1 * tmpDeltaN2 * (((tmpCount * tmpCount) - (THREE * tmpCount)) + THREE)) + (SIX * tmpDeltaN2 * myM2) - (FOUR * tmpDeltaN * myM3);
+        myM3 += (tmpTerm1 * tmpDeltaN * (tmpCount - TWO)) - (THREE * tmpDeltaN * myM2);
+        myM2 += tmpTerm1;
+
+        myMinimum = Math.min(myMinimum, value);
+        myMaximum = Math.max(myMaximum, value);
+
+        final double tmpAbs = Math.abs(value);
+        mySmallest = Math.min(mySmallest, tmpAbs);
+        myLargest = Math.max(myLargest, tmpAbs);
+
+        myQuantiles.add(value);
+    }
+
+    public void add(final double[] values) {
+        for (int i = 0; i < values.length; i++) {
+            this.add(values[i]);
+        }
+    }
+
+    public long count() {
+        return myCount;
+    }
+
+    /**
+     * Approximate
+     */
+    public double getInterquartileRange() {
+        return this.getQuartile3() - this.getQuartile1();
+    }
+
+    /**
+     * Excess kurtosis (0.0 for the normal distribution)
+     */
+    public double getKurtosis() {
+        return ((myCount * myM4) / (myM2 * myM2)) - THREE;
+    }
+
+    /**
+     * max(abs(value))
+     */
+    public double getLargest() {
+        return myLargest;
+    }
+
+    /**
+     * max(value)
+     */
+    public double getMaximum() {
+        return myMaximum;
+    }
+
+    public double getMean() {
+        return myCount > 0L ? myMean : NaN;
+    }
+
+    /**
+     * Approximate
+     */
+    public double getMedian() {
+        return this.getQuartile2();
+    }
+
+    /**
+     * min(value)
+     */
+    public double getMinimum() {
+        return myMinimum;
+    }
+
+    /**
+     * Approximate
+     *
+     * @see QuantileSketch#getQuantile(double)
+     */
+    public double getQuantile(final double probability) {
+        return myQuantiles.getQuantile(probability);
+    }
+
+    /**
+     * Approximate
+     */
+    public double getQuartile1() {
+        return myQuantiles.getQuantile(QUARTER);
+    }
+
+    /**
+     * Approximate
+     */
+    public double getQuartile2() {
+        return myQuantiles.getQuantile(HALF);
+    }
+
+    /**
+     * Approximate
+     */
+    public double getQuartile3() {
+        return myQuantiles.getQuantile(THREE * QUARTER);
+    }
+
+    public double getSkewness() {
+        return (Math.sqrt(myCount) * myM3) / Math.pow(myM2, 1.5);
+    }
+
+    /**
+     * min(abs(value))
+     */
+    public double getSmallest() {
+        return mySmallest;
+    }
+
+    public double getStandardDeviation() {
+        return Math.sqrt(this.getVariance());
+    }
+
+    /**
+     * The sum of the squared deviations (from the mean)
+     */
+    public double getSumOfSquares() {
+        return myM2;
+    }
+
+    /**
+     * The sample variance – same definition as {@link SampleSet#getVariance()}
+     */
+    public double getVariance() {
+        return myCount > 1L ? myM2 / (myCount - 1L) : ZERO;
+    }
+
+    /**
+     * Merge the statistics of another (disjoint) set of samples into this. The other instance is not
+     * modified.
+     */
+    public void merge(final OnlineStatistics other) {
+
+        if (other.myCount == 0L) {
+            return;
+        }
+        if (myCount == 0L) {
+            myMean = other.myMean;
+            myM2 = other.myM2;
+            myM3 = other.myM3;
+            myM4 = other.myM4;
+        } else {
+
+            final double tmpCountA = myCount;
+            final double tmpCountB = other.myCount;
+            final double tmpCount = tmpCountA + tmpCountB;
+
+            final double tmpDelta = other.myMean - myMean;
+            final double tmpDelta2 = tmpDelta * tmpDelta;
+            final double tmpDelta3 = tmpDelta2 * tmpDelta;
+            final double tmpDelta4 = tmpDelta2 * tmpDelta2;
+
+            final double tmpM2 = myM2 + other.myM2 + ((tmpDelta2 * tmpCountA * tmpCountB) / tmpCount);
+
+            final double tmpM3 = myM3 + other.myM3 + ((tmpDelta3 * tmpCountA * tmpCountB * (tmpCountA - tmpCountB)) / (tmpCount * tmpCount))
+                    + ((THREE * tmpDelta * ((tmpCountA * other.myM2) - (tmpCountB * myM2))) / tmpCount);
+
+            final double tmpM4 = myM4 + other.myM4
+                    + ((tmpDelta4 * tmpCountA * tmpCountB * (((tmpCountA * tmpCountA) - (tmpCountA * tmpCountB)) + (tmpCountB * tmpCountB)))
+                            / (tmpCount * tmpCount * tmpCount))
+                    + ((SIX * tmpDelta2 * ((tmpCountA * tmpCountA * other.myM2) + (tmpCountB * tmpCountB * myM2))) / (tmpCount * tmpCount))
+                    + ((FOUR * tmpDelta * ((tmpCountA * other.myM3) - (tmpCountB * myM3))) / tmpCount);
+
+            myMean += (tmpDelta * tmpCountB) / tmpCount;
+            myM2 = tmpM2;
+            myM3 = tmpM3;
+            myM4 = tmpM4;
+        }
+
+        myCount += other.myCount;
+
+        myMinimum = Math.min(myMinimum, other.myMinimum);
+        myMaximum = Math.max(myMaximum, other.myMaximum);
+        mySmallest = Math.min(mySmallest, other.mySmallest);
+        myLargest = Math.max(myLargest, other.myLargest);
+
+        myQuantiles.merge(other.myQuantiles);
+    }
+
+    public void reset() {
+
+        myCount = 0L;
+        myLargest = ZERO;
+        myM2 = ZERO;
+        myM3 = ZERO;
+        myM4 = ZERO;
+        myMaximum = NEGATIVE_INFINITY;
+        myMean = ZERO;
+        myMinimum = POSITIVE_INFINITY;
+        mySmallest = POSITIVE_INFINITY;
+
+        myQuantiles.reset();
+    }
+
+    @Override
+    public String toString() {
+        return "Online statistics Count=" + myCount + ", Mean=" + this.getMean() + ", Var=" + this.getVariance() + ", StdDev="
+                + this.getStandardDeviation() + ", Min=" + myMinimum + ", Max=" + myMaximum;
+    }
+
+}
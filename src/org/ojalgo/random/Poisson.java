@@ -23,6 +23,8 @@ package org.ojalgo.random;
 
 import static org.ojalgo.constant.PrimitiveMath.*;
 
+import java.util.Random;
+
 import org.ojalgo.function.PrimitiveFunction;
 import org.ojalgo.function.special.CombinatorialFunctions;
 
@@ -67,7 +69,7 @@ public class Poisson extends AbstractDiscrete {
     }
 
     @Override
-    protected double generate() {
+    protected double generate(final Random random) {
 
         int retVal = -1;
         double tmpVal = ZERO;
@@ -76,7 +78,7 @@ public class Poisson extends AbstractDiscrete {
 
             retVal++;
 
-            tmpVal -= PrimitiveFunction.LOG.invoke(this.random().nextDouble()) / myLambda;
+            tmpVal -= PrimitiveFunction.LOG.invoke(random.nextDouble()) / myLambda;
         }
 
         return retVal;
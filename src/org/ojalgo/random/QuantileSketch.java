@@ -0,0 +1,334 @@
+/*
+ * Copyright 1997-2018 Optimatika
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.ojalgo.random;
+
+import static org.ojalgo.constant.PrimitiveMath.*;
+
+import java.util.Arrays;
+
+import org.ojalgo.ProgrammingError;
+
+/**
+ * A KLL (Karnin, Lang, Liberty) quantile sketch. Approximates the quantiles of a stream of values, of any
+ * length, using a small constant amount of memory (roughly 3k values). Sketches of separate streams can be
+ * merged – accumulate one sketch per thread and merge them at the end.
+ * <p>
+ * With the default k = 200 the rank error is typically less than 1%.
+ * </p>
+ * <p>
+ * Not thread safe.
+ * </p>
+ *
+ * @author apete
+ */
+public final class QuantileSketch {
+
+    private static final int DEFAULT_K = 200;
+    private static final double SHRINK = TWO / THREE;
+
+    private int[] myCapacities;
+    private int myCapacity;
+    private long myCompactions = 0L;
+    private long myCount = 0L;
+    private final int myK;
+    private double[][] myLevels = new double[1][8];
+    private double myMaximum = NEGATIVE_INFINITY;
+    private double myMinimum = POSITIVE_INFINITY;
+    private int mySize = 0;
+    private int[] mySizes = new int[1];
+    private transient double[] mySortedValues = null;
+    private transient long[] mySortedWeights = null;
+
+    public QuantileSketch() {
+        this(DEFAULT_K);
+    }
+
+    /**
+     * @param k Size/accuracy parameter – larger k gives better accuracy at the expense of memory
+     */
+    public QuantileSketch(final int k) {
+
+        super();
+
+        if (k < 8) {
+            throw new ProgrammingError("k must be at least 8!");
+        }
+
+        myK = k;
+
+        this.updateCapacities();
+    }
+
+    public void add(final double value) {
+
+        if (Double.isNaN(value)) {
+            return;
+        }
+
+        this.append(0, value);
+
+        myCount++;
+        myMinimum = Math.min(myMinimum, value);
+        myMaximum = Math.max(myMaximum, value);
+
+        if (mySize >= myCapacity) {
+            this.compress();
+        }
+
+        mySortedValues = null;
+    }
+
+    public long count() {
+        return myCount;
+    }
+
+    /**
+     * @return Exact max(value)
+     */
+    public double getMaximum() {
+        return myMaximum;
+    }
+
+    /**
+     * @return Exact min(value)
+     */
+    public double getMinimum() {
+        return myMinimum;
+    }
+
+    /**
+     * @param probability [0,1]
+     * @return The (approximate) value with that fraction of the values less than or equal to it. NaN if no
+     *         values have been added.
+     */
+    public double getQuantile(final double probability) {
+
+        if (myCount == 0L) {
+            return NaN;
+        } else if (probability <= ZERO) {
+            return myMinimum;
+        } else if (probability >= ONE) {
+            return myMaximum;
+        }
+
+        this.sort();
+
+        final double tmpTargetRank = probability * myCount;
+
+        long tmpCumulative = 0L;
+        for (int i = 0; i < mySortedValues.length; i++) {
+            tmpCumulative += mySortedWeights[i];
+            if (tmpCumulative >= tmpTargetRank) {
+                return mySortedValues[i];
+            }
+        }
+
+        return myMaximum;
+    }
+
+    /**
+     * @return The (approximate) fraction of the values that are less than or equal to the given value – the
+     *         empirical cumulative distribution function.
+     */
+    public double getRank(final double value) {
+
+        if (myCount == 0L) {
+            return NaN;
+        }
+
+        this.sort();
+
+        long tmpCumulative = 0L;
+        for (int i = 0; (i < mySortedValues.length) && (mySortedValues[i] <= value); i++) {
+            tmpCumulative += mySortedWeights[i];
+        }
+
+        return (double) tmpCumulative / myCount;
+    }
+
+    /**
+     * Merge another sketch into this one. The other sketch is not modified.
+     */
+    public void merge(final QuantileSketch other) {
+
+        for (int h = 0; h < other.mySizes.length; h++) {
+            final double[] tmpLevel = other.myLevels[h];
+            for (int i = 0, limit = other.mySizes[h]; i < limit; i++) {
+                this.append(h, tmpLevel[i]);
+            }
+        }
+
+        myCount += other.myCount;
+        myMinimum = Math.min(myMinimum, other.myMinimum);
+        myMaximum = Math.max(myMaximum, other.myMaximum);
+
+        this.compress();
+
+        mySortedValues = null;
+    }
+
+    public void reset() {
+
+        myCompactions = 0L;
+        myCount = 0L;
+        myLevels = new double[1][8];
+        myMaximum = NEGATIVE_INFINITY;
+        myMinimum = POSITIVE_INFINITY;
+        mySize = 0;
+        mySizes = new int[1];
+
+        mySortedValues = null;
+        mySortedWeights = null;
+
+        this.updateCapacities();
+    }
+
+    /**
+     * @return The number of values actually retained/stored
+     */
+    public int size() {
+        return mySize;
+    }
+
+    private void append(final int level, final double value) {
+
+        if (level >= myLevels.length) {
+            final int tmpExisting = myLevels.length;
+            myLevels = Arrays.copyOf(myLevels, level + 1);
+            mySizes = Arrays.copyOf(mySizes, level + 1);
+            for (int h = tmpExisting; h <= level; h++) {
+                myLevels[h] = new double[8];
+            }
+            this.updateCapacities();
+        }
+
+        double[] tmpLevel = myLevels[level];
+        final int tmpSize = mySizes[level];
+
+        if (tmpSize == tmpLevel.length) {
+            tmpLevel = myLevels[level] = Arrays.copyOf(tmpLevel, tmpSize * 2);
+        }
+
+        tmpLevel[tmpSize] = value;
+        mySizes[level] = tmpSize + 1;
+        mySize++;
+    }
+
+    /**
+     * Sort the level and promote every other value (with doubled weight) to the level above. If the number
+     * of values is odd the largest one stays.
+     */
+    private void compact(final int level) {
+
+        final double[] tmpLevel = myLevels[level];
+        final int tmpSize = mySizes[level];
+
+        Arrays.sort(tmpLevel, 0, tmpSize);
+
+        final int tmpEven = tmpSize & ~1;
+        final int tmpOffset = (int) (myCompactions++ & 1L);
+
+        for (int i = tmpOffset; i < tmpEven; i += 2) {
+            this.append(level + 1, tmpLevel[i]);
+        }
+
+        if (tmpEven < tmpSize) {
+            tmpLevel[0] = tmpLevel[tmpSize - 1];
+            mySizes[level] = 1;
+        } else {
+            mySizes[level] = 0;
+        }
+
+        mySize -= tmpEven;
+    }
+
+    /**
+     * While the total size exceeds the total capacity, compact the lowest level that is at (or above) its
+     * capacity.
+     */
+    private void compress() {
+        while (mySize >= myCapacity) {
+            for (int h = 0; h < mySizes.length; h++) {
+                if (mySizes[h] >= myCapacities[h]) {
+                    this.compact(h);
+                    break;
+                }
+            }
+        }
+    }
+
+    private void sort() {
+
+        if (mySortedValues != null) {
+            return;
+        }
+
+        final int tmpSize = mySize;
+
+        final long[] tmpKeys = new long[tmpSize];
+        final double[] tmpValues = new double[tmpSize];
+        final long[] tmpWeights = new long[tmpSize];
+
+        // Sort (value,weight) pairs by sorting indices on value
+        final Integer[] tmpOrder = new Integer[tmpSize];
+
+        int tmpIndex = 0;
+        for (int h = 0; h < mySizes.length; h++) {
+            final double[] tmpLevel = myLevels[h];
+            for (int i = 0, limit = mySizes[h]; i < limit; i++) {
+                tmpValues[tmpIndex] = tmpLevel[i];
+                tmpKeys[tmpIndex] = 1L << h;
+                tmpOrder[tmpIndex] = tmpIndex;
+                tmpIndex++;
+            }
+        }
+
+        Arrays.sort(tmpOrder, (i1, i2) -> Double.compare(tmpValues[i1], tmpValues[i2]));
+
+        final double[] tmpSortedValues = new double[tmpSize];
+        for (int i = 0; i < tmpSize; i++) {
+            tmpSortedValues[i] = tmpValues[tmpOrder[i]];
+            tmpWeights[i] = tmpKeys[tmpOrder[i]];
+        }
+
+        mySortedValues = tmpSortedValues;
+        mySortedWeights = tmpWeights;
+    }
+
+    /**
+     * The top level has capacity k, and each level below has 2/3 of the capacity of the one above.
+     */
+    private void updateCapacities() {
+
+        final int tmpNumberOfLevels = mySizes.length;
+
+        myCapacities = new int[tmpNumberOfLevels];
+        myCapacity = 0;
+
+        for (int h = 0; h < tmpNumberOfLevels; h++) {
+            final int tmpDepth = tmpNumberOfLevels - 1 - h;
+            myCapacities[h] = Math.max(2, (int) Math.ceil(myK * Math.pow(SHRINK, tmpDepth)));
+            myCapacity += myCapacities[h];
+        }
+    }
+
+}
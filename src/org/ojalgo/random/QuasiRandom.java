@@ -0,0 +1,115 @@
+/*
+ * Copyright 1997-2018 Optimatika
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.ojalgo.random;
+
+import org.ojalgo.ProgrammingError;
+
+/**
+ * A low-discrepancy (quasi-random) sequence of points in the unit hypercube (0,1)<sup>d</sup>. Used instead
+ * of pseudo-random numbers the error of Monte Carlo estimates typically decrease as O(1/n) rather than
+ * O(1/&radic;n). Map the points to other distributions using the inverse CDF –
+ * {@link #next(ContinuousDistribution, double[])}.
+ * <p>
+ * Each coordinate of each point is strictly between 0.0 and 1.0. The first point of the sequence (the
+ * origin) is always skipped. Instances are not thread safe, use {@link #skip(long)} on separate instances to
+ * partition a sequence.
+ * </p>
+ *
+ * @author apete
+ */
+public abstract class QuasiRandom {
+
+    private final int myDimension;
+    private long myIndex = 0L;
+
+    protected QuasiRandom(final int dimension) {
+
+        super();
+
+        if (dimension <= 0) {
+            throw new ProgrammingError("The dimension must be positive!");
+        }
+
+        myDimension = dimension;
+    }
+
+    public final int getDimension() {
+        return myDimension;
+    }
+
+    /**
+     * @return The number of points generated (or skipped) so far
+     */
+    public final long getIndex() {
+        return myIndex;
+    }
+
+    /**
+     * Generates the next point, and maps every coordinate to the distribution using its
+     * {@link ContinuousDistribution#getQuantile(double)}.
+     */
+    public final void next(final ContinuousDistribution distribution, final double[] destination) {
+        this.next(destination);
+        for (int d = 0; d < myDimension; d++) {
+            destination[d] = distribution.getQuantile(destination[d]);
+        }
+    }
+
+    /**
+     * Generates the next point, and maps each coordinate to its own distribution (one per dimension).
+     */
+    public final void next(final ContinuousDistribution[] distributions, final double[] destination) {
+        this.next(destination);
+        for (int d = 0; d < myDimension; d++) {
+            destination[d] = distributions[d].getQuantile(destination[d]);
+        }
+    }
+
+    /**
+     * @param destination Array of length (at least) {@link #getDimension()} that will be filled with the
+     *        coordinates of the next point
+     */
+    public final void next(final double[] destination) {
+        this.generate(++myIndex, destination);
+    }
+
+    /**
+     * Restart the sequence from its beginning
+     */
+    public void reset() {
+        myIndex = 0L;
+    }
+
+    /**
+     * Skip ahead – O(1) regardless of how many points are skipped.
+     */
+    public void skip(final long numberOfPoints) {
+        myIndex += numberOfPoints;
+    }
+
+    /**
+     * Generate point number index (index &gt;= 1). Called in order, each index exactly once, unless the
+     * sequence was reset or skipped.
+     */
+    protected abstract void generate(long index, double[] destination);
+
+}
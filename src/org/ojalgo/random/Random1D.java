@@ -21,30 +21,65 @@
  */
 package org.ojalgo.random;
 
+import static org.ojalgo.constant.PrimitiveMath.*;
+
 import java.util.Random;
 
 import org.ojalgo.array.Array1D;
 import org.ojalgo.matrix.decomposition.Cholesky;
+import org.ojalgo.matrix.decomposition.Eigenvalue;
 import org.ojalgo.matrix.store.MatrixStore;
+import org.ojalgo.matrix.store.PhysicalStore;
 import org.ojalgo.matrix.store.PrimitiveDenseStore;
 import org.ojalgo.structure.Access2D;
 
 public class Random1D {
 
+    /**
+     * A matrix L such that L*L<sup>T</sup> equals the correlations (or covariances). Primarily the Cholesky
+     * factor, but if the matrix is only positive semidefinite (or numerically slightly indefinite) the
+     * eigenvalue decomposition is used instead, with any negative eigenvalues set to zero.
+     */
+    static MatrixStore<Double> root(final Access2D<?> correlations) {
+
+        final MatrixStore<Double> tmpCorrelations = MatrixStore.PRIMITIVE.makeWrapper(correlations).get();
+
+        final Cholesky<Double> tmpCholesky = Cholesky.PRIMITIVE.make(tmpCorrelations);
+        if (tmpCholesky.decompose(tmpCorrelations) && tmpCholesky.isSPD()) {
+            return tmpCholesky.getL();
+        }
+
+        final Eigenvalue<Double> tmpEvD = Eigenvalue.PRIMITIVE.make(tmpCorrelations, true);
+        tmpEvD.decompose(tmpCorrelations);
+
+        final MatrixStore<Double> tmpV = tmpEvD.getV();
+        final MatrixStore<Double> tmpD = tmpEvD.getD();
+
+        final PrimitiveDenseStore retVal = PrimitiveDenseStore.FACTORY.copy(tmpV);
+        for (int j = 0, limit = (int) retVal.countColumns(); j < limit; j++) {
+            final double tmpEigenvalue = tmpD.doubleValue(j, j);
+            final double tmpScale = tmpEigenvalue > ZERO ? Math.sqrt(tmpEigenvalue) : ZERO;
+            for (int i = 0; i < limit; i++) {
+                retVal.set(i, j, retVal.doubleValue(i, j) * tmpScale);
+            }
+        }
+
+        return retVal;
+    }
+
     public final int length;
 
     private final MatrixStore<Double> myCholeskiedCorrelations;
     private final Random myRandom = new Random();
 
+    /**
+     * The correlations matrix is factorised once, here.
+     */
     public Random1D(final Access2D<?> correlations) {
 
         super();
 
-        final Cholesky<Double> tmpCholesky = Cholesky.PRIMITIVE.make();
-        tmpCholesky.decompose(MatrixStore.PRIMITIVE.makeWrapper(correlations));
-        myCholeskiedCorrelations = tmpCholesky.getL();
-
-        tmpCholesky.reset();
+        myCholeskiedCorrelations = Random1D.root(correlations);
 
         length = (int) myCholeskiedCorrelations.countRows();
     }
@@ -102,6 +137,37 @@ public class Random1D {
         }
     }
 
+    /**
+     * Fill the destination with (correlated) standard normal random numbers – one vector per column. The
+     * whole block is correlated with one matrix multiplication.
+     *
+     * @param random The generator to use (rather than this instance's own)
+     * @param destination A matrix with {@link #length} rows, and any number of columns
+     */
+    public void nextGaussian(final Random random, final PhysicalStore<Double> destination) {
+
+        final int tmpColumns = (int) destination.countColumns();
+
+        if (myCholeskiedCorrelations != null) {
+
+            final PrimitiveDenseStore tmpUncorrelated = PrimitiveDenseStore.FACTORY.makeZero(length, tmpColumns);
+            final double[] tmpData = tmpUncorrelated.data;
+            for (int i = 0; i < tmpData.length; i++) {
+                tmpData[i] = Ziggurat.normal(random);
+            }
+
+            destination.fillByMultiplying(myCholeskiedCorrelations, tmpUncorrelated);
+
+        } else {
+
+            for (int j = 0; j < tmpColumns; j++) {
+                for (int i = 0; i < length; i++) {
+                    destination.set(i, j, Ziggurat.normal(random));
+                }
+            }
+        }
+    }
+
     public void setSeed(final long seed) {
         myRandom.setSeed(seed);
     }
@@ -25,8 +25,11 @@ import static org.ojalgo.constant.PrimitiveMath.*;
 
 import java.util.Random;
 
+import org.ojalgo.array.Primitive64Array;
+import org.ojalgo.concurrent.DivideAndConquer;
 import org.ojalgo.function.NullaryFunction;
 import org.ojalgo.function.PrimitiveFunction;
+import org.ojalgo.structure.Mutate1D;
 
 /**
  * RandomNumber
@@ -35,9 +38,14 @@ import org.ojalgo.function.PrimitiveFunction;
  */
 public abstract class RandomNumber extends Number implements Distribution, NullaryFunction<Double> {
 
+    /**
+     * Bulk generation of more samples than this is done in parallel, in blocks of this size.
+     */
+    static final int BLOCK_SIZE = 8192;
+
     private static final long serialVersionUID = -5871398825698010936L;
 
-    private final Random myRandom = new Random();
+    private Random myRandom = new Random();
 
     protected RandomNumber() {
         super();
@@ -48,6 +56,78 @@ public abstract class RandomNumber extends Number implements Distribution, Nulla
         return this.generate();
     }
 
+    /**
+     * Fill the entire array with samples.
+     */
+    public void fill(final double[] target) {
+        this.fill(target, 0, target.length);
+    }
+
+    /**
+     * Fill a range of the array with samples. Large ranges are filled in parallel, in blocks, each block using
+     * its own {@link Xoshiro256} generator seeded from this instance's generator – the result is reproducible
+     * (given the seed) regardless of the number of threads.
+     *
+     * @param first The first index to fill
+     * @param limit The first index NOT to fill
+     */
+    public void fill(final double[] target, final int first, final int limit) {
+
+        final int tmpCount = limit - first;
+
+        if (tmpCount > BLOCK_SIZE) {
+
+            final int tmpNumberOfBlocks = ((tmpCount - 1) / BLOCK_SIZE) + 1;
+
+            final long[] tmpSeeds = new long[tmpNumberOfBlocks];
+            for (int b = 0; b < tmpNumberOfBlocks; b++) {
+                tmpSeeds[b] = myRandom.nextLong();
+            }
+
+            final DivideAndConquer tmpConquerer = new DivideAndConquer() {
+
+                @Override
+                protected void conquer(final int firstBlock, final int limitBlock) {
+                    for (int b = firstBlock; b < limitBlock; b++) {
+
+                        final Random tmpRandom = new Xoshiro256(tmpSeeds[b]);
+
+                        final int tmpFirst = first + (b * BLOCK_SIZE);
+                        final int tmpLimit = Math.min(tmpFirst + BLOCK_SIZE, limit);
+
+                        for (int i = tmpFirst; i < tmpLimit; i++) {
+                            target[i] = RandomNumber.this.generate(tmpRandom);
+                        }
+                    }
+                }
+
+            };
+
+            tmpConquerer.invoke(0, tmpNumberOfBlocks, 1);
+
+        } else {
+
+            for (int i = first; i < limit; i++) {
+                target[i] = this.generate();
+            }
+        }
+    }
+
+    /**
+     * Fill all elements of the target with samples. Primitive arrays and stores (like
+     * {@link org.ojalgo.matrix.store.PrimitiveDenseStore}) are filled directly in the underlying double[].
+     */
+    public void fill(final Mutate1D target) {
+        if (target instanceof Primitive64Array) {
+            this.fill(((Primitive64Array) target).data, 0, (int) target.count());
+        } else {
+            final long tmpLimit = target.count();
+            for (long i = 0L; i < tmpLimit; i++) {
+                target.set(i, this.generate());
+            }
+        }
+    }
+
     @Override
     public final float floatValue() {
         return (float) this.generate();
@@ -92,6 +172,15 @@ public abstract class RandomNumber extends Number implements Distribution, Nulla
         return SampleSet.make(this, numberOfSamples);
     }
 
+    /**
+     * Replace the (pseudo) random number generator used by this instance. The default is
+     * {@link java.util.Random}. {@link Xoshiro256} is faster and of higher statistical quality, but not
+     * thread safe.
+     */
+    public void setRandom(final Random random) {
+        myRandom = random;
+    }
+
     public void setSeed(final long seed) {
         myRandom.setSeed(seed);
     }
@@ -107,7 +196,18 @@ public abstract class RandomNumber extends Number implements Distribution, Nulla
         }
     }
 
-    protected abstract double generate();
+    /**
+     * Generates a sample using this instance's own generator.
+     */
+    protected final double generate() {
+        return this.generate(myRandom);
+    }
+
+    /**
+     * Generates a sample using only the supplied generator (not this instance's own) – that is what allows
+     * bulk generation to be done in parallel.
+     */
+    protected abstract double generate(final Random random);
 
     protected final Random random() {
         return myRandom;
@@ -40,11 +40,8 @@ public final class SampleSet implements Access1D<Double> {
     public static SampleSet make(final RandomNumber randomNumber, final int size) {
 
         final Primitive64Array retVal = Primitive64Array.make(size);
-        final double[] tmpData = retVal.data;
 
-        for (int i = 0; i < size; i++) {
-            tmpData[i] = randomNumber.doubleValue();
-        }
+        randomNumber.fill(retVal.data);
 
         return new SampleSet(retVal);
     }
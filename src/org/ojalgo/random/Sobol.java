@@ -0,0 +1,247 @@
+/*
+ * Copyright 1997-2018 Optimatika
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.ojalgo.random;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import org.ojalgo.ProgrammingError;
+
+/**
+ * Sobol low-discrepancy sequence, generated in Gray code order (Antonov &amp; Saleev). The first dimension is
+ * the van der Corput sequence. The following dimensions use primitive polynomials (over GF(2)) in order of
+ * degree, with the initial direction numbers of Joe &amp; Kuo (new-joe-kuo-6.21201) for dimensions 2 to
+ * {@value #TABULATED}. Beyond that the initial direction numbers are chosen (pseudo) randomly – still a valid
+ * Sobol sequence, but without the optimised 2-dimensional projections.
+ * <p>
+ * 32 bit resolution – at most 2<sup>32</sup>-1 points.
+ * </p>
+ *
+ * @author apete
+ */
+public final class Sobol extends QuasiRandom {
+
+    static final int BITS = 32;
+
+    /**
+     * The number of dimensions with tabulated initial direction numbers
+     */
+    static final int TABULATED = 21;
+
+    /**
+     * Joe &amp; Kuo: { a, m<sub>1</sub>, ..., m<sub>s</sub> } for dimensions 2 to 21
+     */
+    static final int[][] INITIAL = new int[][] { { 0, 1 }, { 1, 1, 3 }, { 1, 1, 3, 1 }, { 2, 1, 1, 1 }, { 1, 1, 1, 3, 3 }, { 4, 1, 3, 5, 13 },
+            { 2, 1, 1, 5, 5, 17 }, { 4, 1, 1, 5, 5, 5 }, { 7, 1, 1, 7, 11, 19 }, { 11, 1, 1, 5, 1, 1 }, { 13, 1, 1, 1, 3, 11 }, { 14, 1, 3, 5, 5, 31 },
+            { 1, 1, 3, 3, 9, 7, 49 }, { 13, 1, 1, 1, 15, 21, 21 }, { 16, 1, 3, 1, 13, 27, 49 }, { 19, 1, 1, 1, 15, 7, 5 }, { 22, 1, 3, 1, 15, 13, 25 },
+            { 25, 1, 1, 5, 5, 19, 61 }, { 1, 1, 3, 7, 11, 23, 15, 103 }, { 4, 1, 3, 7, 13, 13, 15, 69 } };
+
+    private static final double SCALE = 1.0 / (1L << BITS);
+
+    /**
+     * Direction numbers for the requested number of dimensions – BITS (int) values per dimension.
+     */
+    static int[][] directions(final int dimension) {
+
+        final int[][] retVal = new int[dimension][BITS];
+
+        for (int k = 0; k < BITS; k++) {
+            retVal[0][k] = 1 << (BITS - 1 - k);
+        }
+
+        final List<long[]> tmpPolynomials = Sobol.primitivePolynomials(dimension - 1);
+        final SplittableRandom tmpRandom = new SplittableRandom(BITS);
+
+        for (int d = 1; d < dimension; d++) {
+
+            final int tmpDegree = (int) tmpPolynomials.get(d - 1)[0];
+            final int tmpCoefficients = (int) tmpPolynomials.get(d - 1)[1];
+
+            final int[] tmpInitial = new int[tmpDegree];
+            if (d < TABULATED) {
+                System.arraycopy(INITIAL[d - 1], 1, tmpInitial, 0, tmpDegree);
+            } else {
+                for (int k = 0; k < tmpDegree; k++) {
+                    tmpInitial[k] = (tmpRandom.nextInt(1 << k) << 1) | 1; // odd and less than 2^(k+1)
+                }
+            }
+
+            final int[] tmpDirections = retVal[d];
+
+            for (int k = 0; k < Math.min(tmpDegree, BITS); k++) {
+                tmpDirections[k] = tmpInitial[k] << (BITS - 1 - k);
+            }
+            for (int k = tmpDegree; k < BITS; k++) {
+                int tmpDirection = tmpDirections[k - tmpDegree] ^ (tmpDirections[k - tmpDegree] >>> tmpDegree);
+                for (int i = 1; i < tmpDegree; i++) {
+                    if (((tmpCoefficients >>> (tmpDegree - 1 - i)) & 1) != 0) {
+                        tmpDirection ^= tmpDirections[k - i];
+                    }
+                }
+                tmpDirections[k] = tmpDirection;
+            }
+        }
+
+        return retVal;
+    }
+
+    /**
+     * The first primitive polynomials over GF(2), in order of degree and then of the (interior) coefficients
+     * "a" – the same order as Joe &amp; Kuo.
+     *
+     * @return { degree, a } pairs
+     */
+    static List<long[]> primitivePolynomials(final int count) {
+
+        final List<long[]> retVal = new ArrayList<>(count);
+
+        for (int tmpDegree = 1; retVal.size() < count; tmpDegree++) {
+
+            final long tmpOrder = (1L << tmpDegree) - 1L;
+            final List<Long> tmpFactors = Sobol.primeFactors(tmpOrder);
+
+            for (long a = 0L; (a < (1L << (tmpDegree - 1))) && (retVal.size() < count); a++) {
+
+                final long tmpPolynomial = (1L << tmpDegree) | (a << 1) | 1L;
+
+                boolean tmpPrimitive = Sobol.power(tmpOrder, tmpPolynomial, tmpDegree) == 1L;
+                for (int f = 0; tmpPrimitive && (f < tmpFactors.size()); f++) {
+                    tmpPrimitive = Sobol.power(tmpOrder / tmpFactors.get(f), tmpPolynomial, tmpDegree) != 1L;
+                }
+
+                if (tmpPrimitive) {
+                    retVal.add(new long[] { tmpDegree, a });
+                }
+            }
+        }
+
+        return retVal;
+    }
+
+    /**
+     * (a * b) mod polynomial, over GF(2)
+     */
+    private static long multiply(final long a, final long b, final long polynomial, final int degree) {
+
+        long retVal = 0L;
+        long tmpA = a;
+
+        for (long tmpB = b; tmpB != 0L; tmpB >>>= 1) {
+            if ((tmpB & 1L) != 0L) {
+                retVal ^= tmpA;
+            }
+            tmpA <<= 1;
+            if (((tmpA >>> degree) & 1L) != 0L) {
+                tmpA ^= polynomial;
+            }
+        }
+
+        return retVal;
+    }
+
+    /**
+     * x<sup>exponent</sup> mod polynomial, over GF(2)
+     */
+    private static long power(final long exponent, final long polynomial, final int degree) {
+
+        long retVal = 1L;
+        long tmpBase = degree == 1 ? 1L : 2L; // x mod (x+1) = 1
+
+        for (long tmpExponent = exponent; tmpExponent != 0L; tmpExponent >>>= 1) {
+            if ((tmpExponent & 1L) != 0L) {
+                retVal = Sobol.multiply(retVal, tmpBase, polynomial, degree);
+            }
+            tmpBase = Sobol.multiply(tmpBase, tmpBase, polynomial, degree);
+        }
+
+        return retVal;
+    }
+
+    private static List<Long> primeFactors(final long number) {
+
+        final List<Long> retVal = new ArrayList<>();
+
+        long tmpRemaining = number;
+        for (long f = 2L; (f * f) <= tmpRemaining; f++) {
+            if ((tmpRemaining % f) == 0L) {
+                retVal.add(f);
+                while ((tmpRemaining % f) == 0L) {
+                    tmpRemaining /= f;
+                }
+            }
+        }
+        if (tmpRemaining > 1L) {
+            retVal.add(tmpRemaining);
+        }
+
+        return retVal;
+    }
+
+    private final int[] myCurrent;
+    private final int[][] myDirections;
+    private long myLastIndex = 0L;
+
+    public Sobol(final int dimension) {
+
+        super(dimension);
+
+        myDirections = Sobol.directions(dimension);
+        myCurrent = new int[dimension];
+    }
+
+    @Override
+    protected void generate(final long index, final double[] destination) {
+
+        if ((index >>> BITS) != 0L) {
+            throw new ProgrammingError("The Sobol sequence is exhausted!");
+        }
+
+        final int tmpDimension = this.getDimension();
+
+        if (index == (myLastIndex + 1L)) {
+            // Gray code order: the next point differs in one direction number only
+            final int tmpBit = Long.numberOfTrailingZeros(index);
+            for (int d = 0; d < tmpDimension; d++) {
+                myCurrent[d] ^= myDirections[d][tmpBit];
+            }
+        } else {
+            final long tmpGray = index ^ (index >>> 1);
+            for (int d = 0; d < tmpDimension; d++) {
+                int tmpValue = 0;
+                for (int k = 0; k < BITS; k++) {
+                    if (((tmpGray >>> k) & 1L) != 0L) {
+                        tmpValue ^= myDirections[d][k];
+                    }
+                }
+                myCurrent[d] = tmpValue;
+            }
+        }
+
+        myLastIndex = index;
+
+        for (int d = 0; d < tmpDimension; d++) {
+            destination[d] = (myCurrent[d] & 0xFFFFFFFFL) * SCALE;
+        }
+    }
+
+}
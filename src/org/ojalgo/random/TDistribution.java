@@ -23,6 +23,8 @@ package org.ojalgo.random;
 
 import static org.ojalgo.constant.PrimitiveMath.*;
 
+import java.util.Random;
+
 import org.ojalgo.function.special.GammaFunction;
 
 public class TDistribution extends AbstractContinuous {
@@ -51,8 +53,8 @@ public class TDistribution extends AbstractContinuous {
         }
 
         @Override
-        protected double generate() {
-            return myCauchy.generate();
+        protected double generate(final Random random) {
+            return myCauchy.generate(random);
         }
 
     }
@@ -134,8 +136,8 @@ public class TDistribution extends AbstractContinuous {
         }
 
         @Override
-        protected double generate() {
-            return myNormal.generate();
+        protected double generate(final Random random) {
+            return myNormal.generate(random);
         }
 
     }
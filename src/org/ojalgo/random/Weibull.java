@@ -23,6 +23,8 @@ package org.ojalgo.random;
 
 import static org.ojalgo.constant.PrimitiveMath.*;
 
+import java.util.Random;
+
 import org.ojalgo.function.PrimitiveFunction;
 import org.ojalgo.function.special.GammaFunction;
 
@@ -64,8 +66,8 @@ public class Weibull extends RandomNumber {
     }
 
     @Override
-    protected double generate() {
-        return PrimitiveFunction.POW.invoke(-PrimitiveFunction.LOG.invoke(this.random().nextDouble()), ONE / myShape) / myRate;
+    protected double generate(final Random random) {
+        return PrimitiveFunction.POW.invoke(-PrimitiveFunction.LOG.invoke(random.nextDouble()), ONE / myShape) / myRate;
     }
 
 }
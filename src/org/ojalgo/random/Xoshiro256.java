@@ -0,0 +1,118 @@
+/*
+ * Copyright 1997-2018 Optimatika
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.ojalgo.random;
+
+import java.util.Random;
+
+/**
+ * The xoshiro256** pseudo random number generator by David Blackman and Sebastiano Vigna. It has a period of
+ * 2<sup>256</sup>-1, passes all known statistical tests and is much faster than {@link java.util.Random}.
+ * Unlike {@link java.util.Random} it is NOT thread safe – use one instance per thread.
+ *
+ * @see <a href="http://xoshiro.di.unimi.it">http://xoshiro.di.unimi.it</a>
+ * @author apete
+ */
+public final class Xoshiro256 extends Random {
+
+    private static final long serialVersionUID = 5308125311880935513L;
+
+    private static long rotateLeft(final long value, final int distance) {
+        return (value << distance) | (value >>> (64 - distance));
+    }
+
+    private static long splitMix64(final long value) {
+        long retVal = value;
+        retVal = (retVal ^ (retVal >>> 30)) * 0xBF58476D1CE4E5B9L;
+        retVal = (retVal ^ (retVal >>> 27)) * 0x94D049BB133111EBL;
+        return retVal ^ (retVal >>> 31);
+    }
+
+    private long myState0;
+    private long myState1;
+    private long myState2;
+    private long myState3;
+
+    public Xoshiro256() {
+        super();
+    }
+
+    public Xoshiro256(final long seed) {
+        super(seed);
+    }
+
+    @Override
+    public double nextDouble() {
+        return (this.nextLong() >>> 11) * 0x1.0p-53;
+    }
+
+    @Override
+    public float nextFloat() {
+        return (this.nextLong() >>> 40) * 0x1.0p-24f;
+    }
+
+    @Override
+    public int nextInt() {
+        return (int) (this.nextLong() >>> 32);
+    }
+
+    @Override
+    public long nextLong() {
+
+        final long retVal = Xoshiro256.rotateLeft(myState1 * 5L, 7) * 9L;
+
+        final long tmpShifted = myState1 << 17;
+
+        myState2 ^= myState0;
+        myState3 ^= myState1;
+        myState1 ^= myState2;
+        myState0 ^= myState3;
+
+        myState2 ^= tmpShifted;
+
+        myState3 = Xoshiro256.rotateLeft(myState3, 45);
+
+        return retVal;
+    }
+
+    /**
+     * The 256 bits of state are initialised from the seed using the SplitMix64 generator (as recommended by
+     * the authors).
+     */
+    @Override
+    public synchronized void setSeed(final long seed) {
+
+        super.setSeed(seed);
+
+        long tmpSeed = seed;
+
+        myState0 = Xoshiro256.splitMix64(tmpSeed += 0x9E3779B97F4A7C15L);
+        myState1 = Xoshiro256.splitMix64(tmpSeed += 0x9E3779B97F4A7C15L);
+        myState2 = Xoshiro256.splitMix64(tmpSeed += 0x9E3779B97F4A7C15L);
+        myState3 = Xoshiro256.splitMix64(tmpSeed += 0x9E3779B97F4A7C15L);
+    }
+
+    @Override
+    protected int next(final int bits) {
+        return (int) (this.nextLong() >>> (64 - bits));
+    }
+
+}
@@ -0,0 +1,147 @@
+/*
+ * Copyright 1997-2018 Optimatika
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.ojalgo.random;
+
+import static org.ojalgo.constant.PrimitiveMath.*;
+
+import java.util.Random;
+
+/**
+ * The Ziggurat method of Marsaglia and Tsang (2000) for sampling the standard normal and the (unit rate)
+ * exponential distributions. The vast majority of samples only require one 64-bit random number, one table
+ * lookup and one multiplication. The layer index and the sample value are taken from different bits of the
+ * same random number.
+ *
+ * @author apete
+ */
+abstract class Ziggurat {
+
+    private static final double EXP_R = 7.69711747013104972;
+    private static final double[] EXP_RATIO = new double[256];
+    private static final double EXP_V = 3.949659822581572E-3;
+    private static final double[] EXP_X = new double[257];
+    private static final double[] EXP_Y = new double[257];
+
+    private static final double NORM_R = 3.442619855899;
+    private static final double[] NORM_RATIO = new double[128];
+    private static final double NORM_V = 9.91256303526217E-3;
+    private static final double[] NORM_X = new double[129];
+    private static final double[] NORM_Y = new double[129];
+
+    static {
+
+        NORM_X[0] = NORM_V / Math.exp(-HALF * NORM_R * NORM_R);
+        NORM_X[1] = NORM_R;
+        for (int i = 1; i < 127; i++) {
+            NORM_X[i + 1] = Math.sqrt(-TWO * Math.log((NORM_V / NORM_X[i]) + Math.exp(-HALF * NORM_X[i] * NORM_X[i])));
+        }
+        NORM_X[128] = ZERO;
+        for (int i = 0; i < 129; i++) {
+            NORM_Y[i] = Math.exp(-HALF * NORM_X[i] * NORM_X[i]);
+        }
+        for (int i = 0; i < 128; i++) {
+            NORM_RATIO[i] = NORM_X[i + 1] / NORM_X[i];
+        }
+
+        EXP_X[0] = EXP_V / Math.exp(-EXP_R);
+        EXP_X[1] = EXP_R;
+        for (int i = 1; i < 255; i++) {
+            EXP_X[i + 1] = -Math.log((EXP_V / EXP_X[i]) + Math.exp(-EXP_X[i]));
+        }
+        EXP_X[256] = ZERO;
+        for (int i = 0; i < 257; i++) {
+            EXP_Y[i] = Math.exp(-EXP_X[i]);
+        }
+        for (int i = 0; i < 256; i++) {
+            EXP_RATIO[i] = EXP_X[i + 1] / EXP_X[i];
+        }
+    }
+
+    /**
+     * @return A sample from the exponential distribution with rate 1
+     */
+    static double exponential(final Random random) {
+
+        double tmpOffset = ZERO;
+
+        for (;;) {
+
+            final long tmpBits = random.nextLong();
+
+            final int i = (int) (tmpBits & 0xFF);
+            final double u = (tmpBits >>> 11) * 0x1.0p-53; // [0,1)
+
+            final double x = u * EXP_X[i];
+
+            if (u < EXP_RATIO[i]) {
+                return tmpOffset + x;
+            }
+
+            if (i == 0) {
+                // Tail, the exponential distribution is memoryless
+                tmpOffset += EXP_R;
+            } else if ((EXP_Y[i] + (random.nextDouble() * (EXP_Y[i + 1] - EXP_Y[i]))) < Math.exp(-x)) {
+                return tmpOffset + x;
+            }
+        }
+    }
+
+    /**
+     * @return A sample from the standard normal distribution
+     */
+    static double normal(final Random random) {
+
+        for (;;) {
+
+            final long tmpBits = random.nextLong();
+
+            final int i = (int) (tmpBits & 0x7F);
+            final double u = (tmpBits >> 11) * 0x1.0p-52; // [-1,1)
+
+            final double x = u * NORM_X[i];
+
+            if (Math.abs(u) < NORM_RATIO[i]) {
+                return x;
+            }
+
+            if (i == 0) {
+
+                double tmpTailX;
+                double tmpTailY;
+                do {
+                    tmpTailX = -Math.log(ONE - random.nextDouble()) / NORM_R;
+                    tmpTailY = -Math.log(ONE - random.nextDouble());
+                } while ((tmpTailY + tmpTailY) < (tmpTailX * tmpTailX));
+
+                return u < ZERO ? -(NORM_R + tmpTailX) : NORM_R + tmpTailX;
+
+            } else if ((NORM_Y[i] + (random.nextDouble() * (NORM_Y[i + 1] - NORM_Y[i]))) < Math.exp(-HALF * x * x)) {
+                return x;
+            }
+        }
+    }
+
+    private Ziggurat() {
+        super();
+    }
+
+}
@@ -26,15 +26,79 @@ import static org.ojalgo.constant.PrimitiveMath.*;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
+import java.util.SplittableRandom;
 import java.util.TreeSet;
 
+import org.ojalgo.ProgrammingError;
 import org.ojalgo.array.Array2D;
+import org.ojalgo.concurrent.DivideAndConquer;
 import org.ojalgo.random.ContinuousDistribution;
 import org.ojalgo.random.Distribution;
+import org.ojalgo.random.Normal;
+import org.ojalgo.random.QuasiRandom;
 import org.ojalgo.type.keyvalue.ComparableToDouble;
 
 abstract class AbstractProcess<D extends Distribution> implements RandomProcess<D> {
 
+    @FunctionalInterface
+    interface RealisationConsumer {
+
+        /**
+         * @param partition The partition index (a partition is always handled by one thread)
+         * @param realisation The realisation (row) index
+         * @param values The simulated values, one per step. The array is reused – copy what you need.
+         */
+        void accept(int partition, int realisation, double[] values);
+
+    }
+
+    /**
+     * The (maximum) number of partitions the realisations are divided into when simulating with a seed. The
+     * partitioning only depends on the number of realisations, not on the number of threads, and that's what
+     * makes the results reproducible.
+     */
+    static final int PARTITIONS = 64;
+
+    private static final Normal STANDARD_NORMAL = new Normal();
+
+    /**
+     * Standard normal inverse CDF
+     */
+    static double gaussianQuantile(final double probability) {
+        return STANDARD_NORMAL.getQuantile(probability);
+    }
+
+    /**
+     * Standard normal using the polar method (java.util.SplittableRandom has no nextGaussian() in Java 8)
+     */
+    static double nextGaussian(final SplittableRandom random) {
+
+        double tmpX, tmpY, tmpSquaredRadius;
+
+        do {
+            tmpX = (TWO * random.nextDouble()) - ONE;
+            tmpY = (TWO * random.nextDouble()) - ONE;
+            tmpSquaredRadius = (tmpX * tmpX) + (tmpY * tmpY);
+        } while ((tmpSquaredRadius >= ONE) || (tmpSquaredRadius == ZERO));
+
+        return tmpX * Math.sqrt((-TWO * Math.log(tmpSquaredRadius)) / tmpSquaredRadius);
+    }
+
+    /**
+     * One independent stream per partition, split off a generator initialised with the seed.
+     */
+    static SplittableRandom[] streams(final long seed, final int numberOfPartitions) {
+
+        final SplittableRandom tmpMaster = new SplittableRandom(seed);
+
+        final SplittableRandom[] retVal = new SplittableRandom[numberOfPartitions];
+        for (int p = 0; p < numberOfPartitions; p++) {
+            retVal[p] = tmpMaster.split();
+        }
+
+        return retVal;
+    }
+
     private final TreeSet<ComparableToDouble<Double>> myObservations = new TreeSet<>();
 
     protected AbstractProcess() {
@@ -122,6 +186,113 @@ abstract class AbstractProcess<D extends Distribution> implements RandomProcess<
         return new RandomProcess.SimulationResults(tmpInitialValue, tmpRealisationValues);
     }
 
+    /**
+     * Simulates in parallel (if possible) using independent random number streams derived from the seed. The
+     * same seed, and the same number of realisations, always gives the same results.
+     *
+     * @see #simulate(int, int, double)
+     */
+    public final RandomProcess.SimulationResults simulate(final int numberOfRealisations, final int numberOfSteps, final double stepSize,
+            final long seed) {
+
+        final double tmpInitialValue = this.getValue();
+
+        final Array2D<Double> tmpRealisationValues = Array2D.PRIMITIVE64.makeZero(numberOfRealisations, numberOfSteps);
+
+        this.simulate(numberOfRealisations, numberOfSteps, stepSize, seed, (partition, realisation, values) -> {
+            for (int s = 0; s < numberOfSteps; s++) {
+                tmpRealisationValues.set(realisation, s, values[s]);
+            }
+        });
+
+        return new RandomProcess.SimulationResults(tmpInitialValue, tmpRealisationValues);
+    }
+
+    /**
+     * Quasi-Monte Carlo simulation. Each realisation consumes one point of the low-discrepancy sequence, and
+     * each step one of its dimensions. For processes with Gaussian increments the points are mapped to
+     * standard normal variates using the inverse CDF, and the paths are constructed with a Brownian bridge –
+     * the first dimensions determine the end points and coarse shape of the paths. Otherwise each dimension
+     * is mapped to the increment of one step (in order).
+     *
+     * @param sequence A sequence with (at least) numberOfSteps dimensions, e.g.
+     *        {@link org.ojalgo.random.Sobol}. The points are taken from its current position onwards.
+     * @see #simulate(int, int, double)
+     */
+    public final RandomProcess.SimulationResults simulate(final int numberOfRealisations, final int numberOfSteps, final double stepSize,
+            final QuasiRandom sequence) {
+
+        if (sequence.getDimension() < numberOfSteps) {
+            throw new ProgrammingError("The sequence must have (at least) as many dimensions as there are steps!");
+        }
+
+        final List<ComparableToDouble<Double>> tmpInitialState = new ArrayList<>(this.getObservations());
+        final double tmpInitialValue = this.getValue();
+
+        final Array2D<Double> tmpRealisationValues = Array2D.PRIMITIVE64.makeZero(numberOfRealisations, numberOfSteps);
+
+        final boolean tmpGaussian = this.isGaussian();
+        final BrownianBridge tmpBridge = tmpGaussian ? new BrownianBridge(numberOfSteps) : null;
+
+        final double[] tmpPoint = new double[sequence.getDimension()];
+        final double[] tmpPath = new double[numberOfSteps + 1];
+        final double[] tmpIncrements = new double[numberOfSteps];
+
+        for (int r = 0; r < numberOfRealisations; r++) {
+
+            if (tmpGaussian) {
+                sequence.next(STANDARD_NORMAL, tmpPoint);
+                tmpBridge.build(tmpPoint, tmpPath, tmpIncrements);
+            } else {
+                sequence.next(tmpPoint);
+                for (int s = 0; s < numberOfSteps; s++) {
+                    tmpIncrements[s] = this.getNormalisedRandomIncrement(tmpPoint[s]);
+                }
+            }
+
+            double tmpCurrentValue = tmpInitialValue;
+            if (this instanceof MarkovianProcess) {
+                for (int s = 0; s < numberOfSteps; s++) {
+                    tmpCurrentValue = ((MarkovianProcess<?>) this).transition(tmpCurrentValue, stepSize, tmpIncrements[s]);
+                    tmpRealisationValues.set(r, s, tmpCurrentValue);
+                }
+            } else {
+                for (int s = 0; s < numberOfSteps; s++) {
+                    tmpCurrentValue = this.step(tmpCurrentValue, stepSize, tmpIncrements[s]);
+                    tmpRealisationValues.set(r, s, tmpCurrentValue);
+                }
+                this.setObservations(tmpInitialState);
+            }
+        }
+
+        return new RandomProcess.SimulationResults(tmpInitialValue, tmpRealisationValues);
+    }
+
+    /**
+     * Same as {@link #simulate(int, int, double, long)} but only the per step statistics are accumulated –
+     * the realisations are not stored. Use this when the number of realisations is very large.
+     */
+    public final RandomProcess.SimulationStatistics simulateStatistics(final int numberOfRealisations, final int numberOfSteps, final double stepSize,
+            final long seed) {
+
+        final double tmpInitialValue = this.getValue();
+
+        final int tmpPartitions = Math.max(1, Math.min(PARTITIONS, numberOfRealisations));
+        final RandomProcess.SimulationStatistics[] tmpPartials = new RandomProcess.SimulationStatistics[tmpPartitions];
+        for (int p = 0; p < tmpPartitions; p++) {
+            tmpPartials[p] = new RandomProcess.SimulationStatistics(tmpInitialValue, numberOfSteps);
+        }
+
+        this.simulate(numberOfRealisations, numberOfSteps, stepSize, seed, (partition, realisation, values) -> tmpPartials[partition].add(values));
+
+        final RandomProcess.SimulationStatistics retVal = new RandomProcess.SimulationStatistics(tmpInitialValue, numberOfSteps);
+        for (int p = 0; p < tmpPartitions; p++) {
+            retVal.merge(tmpPartials[p]);
+        }
+
+        return retVal;
+    }
+
     protected abstract double getNormalisedRandomIncrement();
 
     protected final void setObservations(final Collection<? extends ComparableToDouble<Double>> c) {
@@ -133,6 +304,17 @@ abstract class AbstractProcess<D extends Distribution> implements RandomProcess<
 
     abstract double getExpected(double stepSize);
 
+    /**
+     * The inverse CDF of the normalised random increment
+     */
+    abstract double getNormalisedRandomIncrement(double probability);
+
+    /**
+     * Same as {@link #getNormalisedRandomIncrement()} but drawn from the supplied stream rather than the
+     * shared generator.
+     */
+    abstract double getNormalisedRandomIncrement(SplittableRandom random);
+
     abstract double getLowerConfidenceQuantile(double stepSize, final double confidence);
 
     final TreeSet<ComparableToDouble<Double>> getObservations() {
@@ -145,8 +327,82 @@ abstract class AbstractProcess<D extends Distribution> implements RandomProcess<
 
     abstract double getVariance(double stepSize);
 
+    /**
+     * @return true if the normalised random increments are independent standard normal variates
+     */
+    boolean isGaussian() {
+        return false;
+    }
+
     final double step(final double stepSize) {
         return this.step(this.getValue(), stepSize, this.getNormalisedRandomIncrement());
     }
 
+    private void simulate(final int numberOfRealisations, final int numberOfSteps, final double stepSize, final long seed,
+            final RealisationConsumer consumer) {
+
+        final int tmpPartitions = Math.max(1, Math.min(PARTITIONS, numberOfRealisations));
+        final SplittableRandom[] tmpStreams = AbstractProcess.streams(seed, tmpPartitions);
+
+        final double tmpInitialValue = this.getValue();
+
+        if (this instanceof MarkovianProcess) {
+
+            final MarkovianProcess<?> tmpMarkovian = (MarkovianProcess<?>) this;
+
+            final DivideAndConquer tmpConquerer = new DivideAndConquer() {
+
+                @Override
+                protected void conquer(final int first, final int limit) {
+
+                    final double[] tmpValues = new double[numberOfSteps];
+
+                    for (int p = first; p < limit; p++) {
+
+                        final SplittableRandom tmpStream = tmpStreams[p];
+
+                        final int tmpFirst = (int) ((p * (long) numberOfRealisations) / tmpPartitions);
+                        final int tmpLimit = (int) (((p + 1L) * numberOfRealisations) / tmpPartitions);
+
+                        for (int r = tmpFirst; r < tmpLimit; r++) {
+                            double tmpCurrentValue = tmpInitialValue;
+                            for (int s = 0; s < numberOfSteps; s++) {
+                                tmpCurrentValue = tmpMarkovian.transition(tmpCurrentValue, stepSize, tmpMarkovian.getNormalisedRandomIncrement(tmpStream));
+                                tmpValues[s] = tmpCurrentValue;
+                            }
+                            consumer.accept(p, r, tmpValues);
+                        }
+                    }
+                }
+
+            };
+
+            tmpConquerer.invoke(0, tmpPartitions, 1);
+
+        } else {
+
+            final List<ComparableToDouble<Double>> tmpInitialState = new ArrayList<>(myObservations);
+
+            final double[] tmpValues = new double[numberOfSteps];
+
+            for (int p = 0; p < tmpPartitions; p++) {
+
+                final SplittableRandom tmpStream = tmpStreams[p];
+
+                final int tmpFirst = (int) ((p * (long) numberOfRealisations) / tmpPartitions);
+                final int tmpLimit = (int) (((p + 1L) * numberOfRealisations) / tmpPartitions);
+
+                for (int r = tmpFirst; r < tmpLimit; r++) {
+                    double tmpCurrentValue = tmpInitialValue;
+                    for (int s = 0; s < numberOfSteps; s++) {
+                        tmpCurrentValue = this.step(tmpCurrentValue, stepSize, this.getNormalisedRandomIncrement(tmpStream));
+                        tmpValues[s] = tmpCurrentValue;
+                    }
+                    this.setObservations(tmpInitialState);
+                    consumer.accept(p, r, tmpValues);
+                }
+            }
+        }
+    }
+
 }
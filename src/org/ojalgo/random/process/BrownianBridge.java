@@ -0,0 +1,117 @@
+/*
+ * Copyright 1997-2018 Optimatika
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.ojalgo.random.process;
+
+/**
+ * Brownian bridge path construction. The first normal variate determines the end point of the path, the
+ * second the mid point, and so on – each subsequent variate fills in the middle of the widest remaining
+ * interval. Used with a low-discrepancy sequence this concentrates most of the path's variance in the first
+ * (best distributed) dimensions.
+ *
+ * @author apete
+ */
+final class BrownianBridge {
+
+    private final int[] myBridgeIndex;
+    private final int[] myLeftIndex;
+    private final double[] myLeftWeight;
+    private final int[] myRightIndex;
+    private final double[] myRightWeight;
+    private final double[] myStandardDeviation;
+    private final int mySteps;
+
+    /**
+     * @param numberOfSteps Number of (unit) time steps – the path is defined at times 1, 2, ... numberOfSteps
+     */
+    BrownianBridge(final int numberOfSteps) {
+
+        super();
+
+        mySteps = numberOfSteps;
+
+        myBridgeIndex = new int[numberOfSteps];
+        myLeftIndex = new int[numberOfSteps];
+        myRightIndex = new int[numberOfSteps];
+        myLeftWeight = new double[numberOfSteps];
+        myRightWeight = new double[numberOfSteps];
+        myStandardDeviation = new double[numberOfSteps];
+
+        // Time 0 (the starting point) is index 0, the path values at times 1..n are indices 1..n
+        myBridgeIndex[0] = numberOfSteps;
+        myStandardDeviation[0] = Math.sqrt(numberOfSteps);
+
+        // Breadth first, so that the intervals are halved level by level
+        final int[] tmpLeft = new int[2 * numberOfSteps];
+        final int[] tmpRight = new int[2 * numberOfSteps];
+        int tmpHead = 0;
+        int tmpTail = 0;
+        tmpLeft[tmpTail] = 0;
+        tmpRight[tmpTail++] = numberOfSteps;
+
+        int tmpCount = 1;
+        while (tmpHead < tmpTail) {
+
+            final int tmpL = tmpLeft[tmpHead];
+            final int tmpR = tmpRight[tmpHead++];
+
+            if ((tmpR - tmpL) > 1) {
+
+                final int tmpB = tmpL + ((tmpR - tmpL) / 2);
+
+                myBridgeIndex[tmpCount] = tmpB;
+                myLeftIndex[tmpCount] = tmpL;
+                myRightIndex[tmpCount] = tmpR;
+                myLeftWeight[tmpCount] = (double) (tmpR - tmpB) / (tmpR - tmpL);
+                myRightWeight[tmpCount] = (double) (tmpB - tmpL) / (tmpR - tmpL);
+                myStandardDeviation[tmpCount] = Math.sqrt(((double) (tmpB - tmpL) * (tmpR - tmpB)) / (tmpR - tmpL));
+                tmpCount++;
+
+                tmpLeft[tmpTail] = tmpL;
+                tmpRight[tmpTail++] = tmpB;
+                tmpLeft[tmpTail] = tmpB;
+                tmpRight[tmpTail++] = tmpR;
+            }
+        }
+    }
+
+    /**
+     * @param normals numberOfSteps independent standard normal variates, in order of importance
+     * @param path Work array of length numberOfSteps + 1
+     * @param increments Will be filled with the numberOfSteps path increments – independent standard normal
+     *        variates
+     */
+    void build(final double[] normals, final double[] path, final double[] increments) {
+
+        path[0] = 0.0;
+        path[mySteps] = myStandardDeviation[0] * normals[0];
+
+        for (int i = 1; i < mySteps; i++) {
+            path[myBridgeIndex[i]] = (myLeftWeight[i] * path[myLeftIndex[i]]) + (myRightWeight[i] * path[myRightIndex[i]])
+                    + (myStandardDeviation[i] * normals[i]);
+        }
+
+        for (int s = 0; s < mySteps; s++) {
+            increments[s] = path[s + 1] - path[s];
+        }
+    }
+
+}
@@ -26,11 +26,18 @@ import static org.ojalgo.function.PrimitiveFunction.*;
 
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Set;
 import java.util.TreeSet;
 
+import org.ojalgo.ProgrammingError;
+import org.ojalgo.concurrent.DivideAndConquer;
 import org.ojalgo.constant.PrimitiveMath;
 import org.ojalgo.function.PrimitiveFunction;
+import org.ojalgo.matrix.decomposition.Cholesky;
 import org.ojalgo.matrix.decomposition.Eigenvalue;
 import org.ojalgo.matrix.decomposition.MatrixDecomposition;
 import org.ojalgo.matrix.decomposition.SingularValue;
@@ -38,6 +45,7 @@ import org.ojalgo.matrix.store.MatrixStore;
 import org.ojalgo.matrix.store.PhysicalStore;
 import org.ojalgo.matrix.store.PhysicalStore.Factory;
 import org.ojalgo.matrix.store.PrimitiveDenseStore;
+import org.ojalgo.random.Normal;
 import org.ojalgo.random.Normal1D;
 import org.ojalgo.type.keyvalue.ComparableToDouble;
 
@@ -51,6 +59,12 @@ import org.ojalgo.type.keyvalue.ComparableToDouble;
  * as the underlying implementation, of {@linkplain GaussianProcess}. Prior to calling
  * {@linkplain #getDistribution(Comparable...)} you must call {@linkplain #addObservation(Comparable, double)}
  * one or more times.
+ * <p>
+ * The (Cholesky) factorisation of the observations' covariance matrix is cached, and updated incrementally
+ * as observations are added. With more than {@value #DEFAULT_SPARSE_THRESHOLD} observations (configurable
+ * with {@link #setSparseApproximation(int, int, double)}) a sparse inducing point approximation is used
+ * instead.
+ * </p>
  *
  * @author apete
  */
@@ -72,8 +86,145 @@ public final class GaussianField<K extends Comparable<? super K>> {
 
     }
 
+    /**
+     * Inducing point approximation, the "Deterministic Training Conditional" (Seeger et al. 2003). With n
+     * observations and m inducing points (a subset of the observations) building it is O(nm<sup>2</sup>), and
+     * each evaluation point is then O(m<sup>2</sup>).
+     */
+    final class Sparse {
+
+        /**
+         * A = noise * Kuu + Kuf * Kfu
+         */
+        private final MatrixDecomposition.Solver<Double> myA;
+        private final List<K> myInducing;
+        private final MatrixDecomposition.Solver<Double> myKuu;
+        private final List<ComparableToDouble<K>> myObservations;
+        /**
+         * A<sup>-1</sup> * Kuf * (observations - mean)
+         */
+        private final MatrixStore<Double> myWeights;
+
+        Sparse(final List<ComparableToDouble<K>> observations) {
+
+            super();
+
+            myObservations = observations;
+
+            final int tmpN = observations.size();
+            final int tmpM = Math.min(myInducingPoints, tmpN);
+
+            myInducing = new ArrayList<>(tmpM);
+            for (int u = 0; u < tmpM; u++) {
+                myInducing.add(observations.get((int) ((u * (long) tmpN) / tmpM)).key);
+            }
+
+            final PrimitiveDenseStore tmpKuu = FACTORY.makeZero(tmpM, tmpM);
+            for (int j = 0; j < tmpM; j++) {
+                for (int i = 0; i < tmpM; i++) {
+                    tmpKuu.set(i, j, myCovarianceFunction.invoke(myInducing.get(i), myInducing.get(j)));
+                }
+            }
+
+            final PrimitiveDenseStore tmpKfu = FACTORY.makeZero(tmpN, tmpM);
+            final PrimitiveDenseStore tmpResiduals = FACTORY.makeZero(tmpN, 1);
+            for (int i = 0; i < tmpN; i++) {
+                final ComparableToDouble<K> tmpObservation = observations.get(i);
+                for (int j = 0; j < tmpM; j++) {
+                    tmpKfu.set(i, j, myCovarianceFunction.invoke(tmpObservation.key, myInducing.get(j)));
+                }
+                tmpResiduals.set(i, 0, tmpObservation.value - myMeanFunction.invoke(tmpObservation.key));
+            }
+
+            final MatrixStore<Double> tmpKuf = tmpKfu.logical().transpose().get();
+
+            final PrimitiveDenseStore tmpA = FACTORY.makeZero(tmpM, tmpM);
+            tmpA.fillByMultiplying(tmpKuf, tmpKfu);
+            tmpA.modifyMatching(ADD, tmpKuu.multiply(myNoiseVariance));
+
+            myKuu = GaussianField.solver(tmpKuu);
+            myA = GaussianField.solver(tmpA);
+
+            myWeights = myA.getSolution(tmpKuf.multiply(tmpResiduals));
+        }
+
+        /**
+         * @param variancesOnly If true only the diagonal of the covariances matrix is calculated (as a
+         *        column vector)
+         */
+        void evaluate(final K[] args, final PrimitiveDenseStore locations, final PrimitiveDenseStore covariances, final boolean variancesOnly) {
+
+            final int tmpP = args.length;
+            final int tmpM = myInducing.size();
+
+            final PrimitiveDenseStore tmpKus = FACTORY.makeZero(tmpM, tmpP);
+            for (int j = 0; j < tmpP; j++) {
+                for (int u = 0; u < tmpM; u++) {
+                    tmpKus.set(u, j, myCovarianceFunction.invoke(myInducing.get(u), args[j]));
+                }
+            }
+
+            final MatrixStore<Double> tmpKsu = tmpKus.logical().transpose().get();
+
+            locations.fillByMultiplying(tmpKsu, myWeights);
+            for (int j = 0; j < tmpP; j++) {
+                locations.add(j, 0, myMeanFunction.invoke(args[j]));
+            }
+
+            final MatrixStore<Double> tmpKuuInvKus = myKuu.getSolution(tmpKus);
+            final MatrixStore<Double> tmpAInvKus = myA.getSolution(tmpKus);
+
+            if (variancesOnly) {
+                for (int j = 0; j < tmpP; j++) {
+                    double tmpVariance = myCovarianceFunction.invoke(args[j], args[j]);
+                    for (int u = 0; u < tmpM; u++) {
+                        final double tmpK = tmpKus.doubleValue(u, j);
+                        tmpVariance += tmpK * ((myNoiseVariance * tmpAInvKus.doubleValue(u, j)) - tmpKuuInvKus.doubleValue(u, j));
+                    }
+                    covariances.set(j, 0, tmpVariance);
+                }
+            } else {
+                covariances.fillMatching(GaussianField.this.getC11(args), SUBTRACT, tmpKsu.multiply(tmpKuuInvKus));
+                covariances.modifyMatching(ADD, tmpKsu.multiply(tmpAInvKus).multiply(myNoiseVariance));
+            }
+        }
+
+        boolean isValid(final Collection<ComparableToDouble<K>> observations) {
+
+            if (observations.size() != myObservations.size()) {
+                return false;
+            }
+
+            final Iterator<ComparableToDouble<K>> tmpIterator = myObservations.iterator();
+            for (final ComparableToDouble<K> tmpObservation : observations) {
+                if (tmpObservation != tmpIterator.next()) {
+                    return false;
+                }
+            }
+
+            return true;
+        }
+
+    }
+
+    /**
+     * The number of observations above which the sparse approximation is used, by default.
+     */
+    public static final int DEFAULT_SPARSE_THRESHOLD = 5_000;
+
+    /**
+     * The number of inducing points used by the sparse approximation, by default.
+     */
+    static final int DEFAULT_INDUCING_POINTS = 500;
+
     private static final Factory<Double, PrimitiveDenseStore> FACTORY = PrimitiveDenseStore.FACTORY;
 
+    /**
+     * Relative limit for the pivots of the incremental Cholesky factorisation – if it gets smaller the
+     * original (SVD based) implementation is used instead.
+     */
+    private static final double PIVOT_LIMIT = 1E-12;
+
     private static <K extends Comparable<? super K>> Mean<K> mean() {
         return new Mean<K>() {
 
@@ -87,10 +238,45 @@ public final class GaussianField<K extends Comparable<? super K>> {
         };
     }
 
+    private static double dot(final double[] vector1, final double[] vector2, final int length) {
+        double retVal = ZERO;
+        for (int i = 0; i < length; i++) {
+            retVal += vector1[i] * vector2[i];
+        }
+        return retVal;
+    }
+
+    private static MatrixDecomposition.Solver<Double> solver(final MatrixStore<Double> matrix) {
+
+        final Cholesky<Double> tmpCholesky = Cholesky.PRIMITIVE.make(matrix);
+        if (tmpCholesky.decompose(matrix) && tmpCholesky.isSolvable()) {
+            return tmpCholesky;
+        }
+
+        final SingularValue<Double> retVal = SingularValue.PRIMITIVE.make(matrix);
+        retVal.decompose(matrix);
+        return retVal;
+    }
+
+    /**
+     * C22<sup>-1</sup> * (observations - mean), in factorisation order
+     */
+    private transient double[] myAlpha = null;
+    /**
+     * Rows of the lower triangular Cholesky factor of C22, in factorisation order
+     */
+    private final List<double[]> myCholeskyRows = new ArrayList<>();
     private final Covariance<K> myCovarianceFunction;
+    /**
+     * The observations, in the order they were added to the factorisation
+     */
+    private final List<ComparableToDouble<K>> myFactorised = new ArrayList<>();
+    private int myInducingPoints = DEFAULT_INDUCING_POINTS;
     private final Mean<K> myMeanFunction;
-
+    private double myNoiseVariance = ZERO;
     private final TreeSet<ComparableToDouble<K>> myObservations;
+    private transient Sparse mySparse = null;
+    private int mySparseThreshold = DEFAULT_SPARSE_THRESHOLD;
 
     @SuppressWarnings("unchecked")
     public GaussianField(final Covariance<K> covarFunc) {
@@ -124,26 +310,55 @@ public final class GaussianField<K extends Comparable<? super K>> {
         myObservations.add(new ComparableToDouble<>(key, value));
     }
 
+    /**
+     * Calibrates the mean and covariance functions, and then discards the cached factorisations.
+     */
     public void calibrate() {
+
         myMeanFunction.calibrate(myObservations);
         myCovarianceFunction.calibrate(myObservations, myMeanFunction);
+
+        this.reset();
     }
 
     public Normal1D getDistribution(final boolean cleanCovariances, final K... evaluationPoint) {
 
-        final MatrixStore<Double> tmpRegCoef = this.getRegressionCoefficients(evaluationPoint);
+        final int tmpLength = evaluationPoint.length;
+
+        final PrimitiveDenseStore tmpLocations = FACTORY.makeZero(tmpLength, 1);
+        final PrimitiveDenseStore tmpCovariances = FACTORY.makeZero(tmpLength, tmpLength);
+
+        if (myObservations.size() > mySparseThreshold) {
 
-        final MatrixStore<Double> tmpM1 = this.getM1(evaluationPoint);
-        final MatrixStore<Double> tmpM2differenses = this.getM2differenses();
+            this.getSparse().evaluate(evaluationPoint, tmpLocations, tmpCovariances, false);
 
-        final PrimitiveDenseStore tmpLocations = FACTORY.makeZero(tmpM1.countRows(), tmpM1.countColumns());
-        tmpLocations.fillMatching(tmpM1, ADD, tmpRegCoef.multiply(tmpM2differenses));
+        } else if (this.factorise()) {
 
-        final MatrixStore<Double> tmpC11 = this.getC11(evaluationPoint);
-        final MatrixStore<Double> tmpC21 = this.getC21(evaluationPoint);
+            final double[] tmpAlpha = this.getAlpha();
+            final int tmpSize = myFactorised.size();
 
-        final PrimitiveDenseStore tmpCovariances = FACTORY.makeZero(tmpC11.countRows(), tmpC11.countColumns());
-        tmpCovariances.fillMatching(tmpC11, SUBTRACT, tmpRegCoef.multiply(tmpC21));
+            final double[][] tmpSolved = new double[tmpLength][];
+            for (int j = 0; j < tmpLength; j++) {
+                final double[] tmpCovariancesWithObservations = this.getCovariancesWithObservations(evaluationPoint[j]);
+                tmpLocations.set(j, 0, myMeanFunction.invoke(evaluationPoint[j]) + GaussianField.dot(tmpCovariancesWithObservations, tmpAlpha, tmpSize));
+                tmpSolved[j] = this.solveL(tmpCovariancesWithObservations);
+            }
+
+            for (int j = 0; j < tmpLength; j++) {
+                for (int i = 0; i < tmpLength; i++) {
+                    final double tmpCovariance = myCovarianceFunction.invoke(evaluationPoint[i], evaluationPoint[j]);
+                    tmpCovariances.set(i, j, tmpCovariance - GaussianField.dot(tmpSolved[i], tmpSolved[j], tmpSize));
+                }
+            }
+
+        } else {
+
+            final MatrixStore<Double> tmpRegCoef = this.getRegressionCoefficients(evaluationPoint);
+
+            tmpLocations.fillMatching(this.getM1(evaluationPoint), ADD, tmpRegCoef.multiply(this.getM2differenses()));
+
+            tmpCovariances.fillMatching(this.getC11(evaluationPoint), SUBTRACT, tmpRegCoef.multiply(this.getC21(evaluationPoint)));
+        }
 
         if (cleanCovariances) {
 
@@ -156,8 +371,8 @@ public final class GaussianField<K extends Comparable<? super K>> {
             final double tmpLargest = tmpD.doubleValue(0, 0);
             final double tmpLimit = PrimitiveFunction.MAX.invoke(PrimitiveMath.MACHINE_EPSILON * tmpLargest, 1E-12);
 
-            final int tmpLength = (int) Math.min(tmpD.countRows(), tmpD.countColumns());
-            for (int ij = 0; ij < tmpLength; ij++) {
+            final int tmpDimension = (int) Math.min(tmpD.countRows(), tmpD.countColumns());
+            for (int ij = 0; ij < tmpDimension; ij++) {
                 if (tmpD.doubleValue(ij, ij) < tmpLimit) {
                     tmpD.set(ij, ij, tmpLimit);
                 }
@@ -173,6 +388,86 @@ public final class GaussianField<K extends Comparable<? super K>> {
         return this.getDistribution(false, evaluationPoint);
     }
 
+    /**
+     * The (marginal) distributions at many points. Much faster than {@link #getDistribution(Comparable...)}
+     * when there are many evaluation points, and you don't need the covariances between them. The points are
+     * evaluated in parallel, and the mean and covariance functions are then invoked concurrently.
+     */
+    public Normal[] getMarginalDistributions(final K... evaluationPoint) {
+
+        final int tmpLength = evaluationPoint.length;
+
+        final Normal[] retVal = new Normal[tmpLength];
+
+        if (myObservations.size() > mySparseThreshold) {
+
+            final PrimitiveDenseStore tmpLocations = FACTORY.makeZero(tmpLength, 1);
+            final PrimitiveDenseStore tmpVariances = FACTORY.makeZero(tmpLength, 1);
+
+            this.getSparse().evaluate(evaluationPoint, tmpLocations, tmpVariances, true);
+
+            for (int j = 0; j < tmpLength; j++) {
+                retVal[j] = new Normal(tmpLocations.doubleValue(j), PrimitiveFunction.SQRT.invoke(Math.max(tmpVariances.doubleValue(j), ZERO)));
+            }
+
+        } else if (this.factorise()) {
+
+            final double[] tmpAlpha = this.getAlpha();
+            final int tmpSize = myFactorised.size();
+
+            final DivideAndConquer tmpConquerer = new DivideAndConquer() {
+
+                @Override
+                protected void conquer(final int first, final int limit) {
+                    for (int j = first; j < limit; j++) {
+
+                        final K tmpPoint = evaluationPoint[j];
+
+                        final double[] tmpCovariancesWithObservations = GaussianField.this.getCovariancesWithObservations(tmpPoint);
+                        final double[] tmpSolved = GaussianField.this.solveL(tmpCovariancesWithObservations);
+
+                        final double tmpLocation = myMeanFunction.invoke(tmpPoint) + GaussianField.dot(tmpCovariancesWithObservations, tmpAlpha, tmpSize);
+                        final double tmpVariance = myCovarianceFunction.invoke(tmpPoint, tmpPoint) - GaussianField.dot(tmpSolved, tmpSolved, tmpSize);
+
+                        retVal[j] = new Normal(tmpLocation, PrimitiveFunction.SQRT.invoke(Math.max(tmpVariance, ZERO)));
+                    }
+                }
+
+            };
+
+            tmpConquerer.invoke(0, tmpLength, 16);
+
+        } else {
+
+            for (int j = 0; j < tmpLength; j++) {
+                final Normal1D tmpDistribution = this.getDistribution(false, evaluationPoint[j]);
+                retVal[j] = new Normal(tmpDistribution.getExpected().doubleValue(0), tmpDistribution.getStandardDeviation().doubleValue(0));
+            }
+        }
+
+        return retVal;
+    }
+
+    /**
+     * @param threshold The sparse approximation is used when there are more observations than this
+     * @param numberOfInducingPoints The number of inducing points (selected evenly from the sorted
+     *        observations)
+     * @param noiseVariance The observation noise variance of the approximation. Use 0.0 if any noise is
+     *        already modelled by the covariance function.
+     */
+    public void setSparseApproximation(final int threshold, final int numberOfInducingPoints, final double noiseVariance) {
+
+        if ((numberOfInducingPoints <= 0) || (noiseVariance < ZERO)) {
+            throw new ProgrammingError("The number of inducing points must be positive, and the noise variance non-negative!");
+        }
+
+        mySparseThreshold = threshold;
+        myInducingPoints = numberOfInducingPoints;
+        myNoiseVariance = noiseVariance;
+
+        mySparse = null;
+    }
+
     MatrixStore<Double> getC11(final K[] args) {
 
         final int tmpLength = args.length;
@@ -301,4 +596,137 @@ public final class GaussianField<K extends Comparable<? super K>> {
         return this.getC22().getSolution(this.getC21(args)).logical().transpose().get();
     }
 
+    /**
+     * Brings the cached Cholesky factorisation in sync with the observations. The longest prefix (in
+     * factorisation order) of still existing observations is kept – a leading principal submatrix has the
+     * leading block of the Cholesky factor – and any other observations are appended one at a time. Adding
+     * observations, or removing the most recently added ones, is O(n<sup>2</sup>) per observation.
+     *
+     * @return false if the (incremental) factorisation failed, and the original implementation must be used
+     */
+    private boolean factorise() {
+
+        final Set<ComparableToDouble<K>> tmpCurrent = Collections.newSetFromMap(new IdentityHashMap<>());
+        tmpCurrent.addAll(myObservations);
+
+        int tmpKeep = 0;
+        while ((tmpKeep < myFactorised.size()) && tmpCurrent.contains(myFactorised.get(tmpKeep))) {
+            tmpKeep++;
+        }
+
+        if ((tmpKeep == myFactorised.size()) && (tmpKeep == tmpCurrent.size())) {
+            return true;
+        }
+
+        for (int i = myFactorised.size() - 1; i >= tmpKeep; i--) {
+            myFactorised.remove(i);
+            myCholeskyRows.remove(i);
+        }
+        myAlpha = null;
+
+        tmpCurrent.removeAll(myFactorised);
+
+        for (final ComparableToDouble<K> tmpObservation : myObservations) {
+            if (tmpCurrent.contains(tmpObservation)) {
+
+                final double[] tmpRow = this.solveL(this.getCovariancesWithObservations(tmpObservation.key));
+                final int tmpSize = myFactorised.size();
+
+                final double tmpDiagonal = myCovarianceFunction.invoke(tmpObservation.key, tmpObservation.key);
+                final double tmpPivot = tmpDiagonal - GaussianField.dot(tmpRow, tmpRow, tmpSize);
+
+                if (!(tmpPivot > (PIVOT_LIMIT * Math.abs(tmpDiagonal)))) {
+                    this.reset();
+                    return false;
+                }
+
+                final double[] tmpFullRow = new double[tmpSize + 1];
+                System.arraycopy(tmpRow, 0, tmpFullRow, 0, tmpSize);
+                tmpFullRow[tmpSize] = PrimitiveFunction.SQRT.invoke(tmpPivot);
+
+                myFactorised.add(tmpObservation);
+                myCholeskyRows.add(tmpFullRow);
+            }
+        }
+
+        return true;
+    }
+
+    private double[] getAlpha() {
+
+        if (myAlpha == null) {
+
+            final int tmpSize = myFactorised.size();
+
+            final double[] tmpResiduals = new double[tmpSize];
+            for (int i = 0; i < tmpSize; i++) {
+                final ComparableToDouble<K> tmpObservation = myFactorised.get(i);
+                tmpResiduals[i] = tmpObservation.value - myMeanFunction.invoke(tmpObservation.key);
+            }
+
+            // L * L^T * alpha = residuals
+            final double[] tmpAlpha = this.solveL(tmpResiduals);
+            for (int i = tmpSize - 1; i >= 0; i--) {
+                double tmpVal = tmpAlpha[i];
+                for (int j = i + 1; j < tmpSize; j++) {
+                    tmpVal -= myCholeskyRows.get(j)[i] * tmpAlpha[j];
+                }
+                tmpAlpha[i] = tmpVal / myCholeskyRows.get(i)[i];
+            }
+
+            myAlpha = tmpAlpha;
+        }
+
+        return myAlpha;
+    }
+
+    /**
+     * @return The covariances between the key and the (factorised) observations, in factorisation order
+     */
+    private double[] getCovariancesWithObservations(final K key) {
+
+        final int tmpSize = myFactorised.size();
+
+        final double[] retVal = new double[tmpSize];
+        for (int i = 0; i < tmpSize; i++) {
+            retVal[i] = myCovarianceFunction.invoke(myFactorised.get(i).key, key);
+        }
+
+        return retVal;
+    }
+
+    private Sparse getSparse() {
+
+        final Sparse tmpSparse = mySparse;
+
+        if ((tmpSparse != null) && tmpSparse.isValid(myObservations)) {
+            return tmpSparse;
+        }
+
+        return mySparse = new Sparse(this.getObservations());
+    }
+
+    private void reset() {
+        myFactorised.clear();
+        myCholeskyRows.clear();
+        myAlpha = null;
+        mySparse = null;
+    }
+
+    /**
+     * Forward substitution, solves L * x = rhs for (the first {@link #myFactorised}.size() elements of) x.
+     */
+    private double[] solveL(final double[] rhs) {
+
+        final int tmpSize = myFactorised.size();
+
+        final double[] retVal = new double[tmpSize];
+        for (int i = 0; i < tmpSize; i++) {
+            final double[] tmpRow = myCholeskyRows.get(i);
+            retVal[i] = (rhs[i] - GaussianField.dot(tmpRow, retVal, i)) / tmpRow[i];
+        }
+
+        return retVal;
+    }
+
 }
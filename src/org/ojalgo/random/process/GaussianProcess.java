@@ -21,6 +21,8 @@
  */
 package org.ojalgo.random.process;
 
+import java.util.SplittableRandom;
+
 import org.ojalgo.matrix.store.MatrixStore;
 import org.ojalgo.random.Normal;
 import org.ojalgo.random.Normal1D;
@@ -109,6 +111,16 @@ public final class GaussianProcess extends AbstractProcess<Normal> {
         return this.getDistribution(stepSize).getLowerConfidenceQuantile(confidence);
     }
 
+    @Override
+    double getNormalisedRandomIncrement(final double probability) {
+        return AbstractProcess.gaussianQuantile(probability);
+    }
+
+    @Override
+    double getNormalisedRandomIncrement(final SplittableRandom random) {
+        return AbstractProcess.nextGaussian(random);
+    }
+
     @Override
     double getStandardDeviation(final double stepSize) {
         return this.getDistribution(stepSize).getStandardDeviation();
@@ -124,4 +136,9 @@ public final class GaussianProcess extends AbstractProcess<Normal> {
         return this.getDistribution(stepSize).getVariance();
     }
 
+    @Override
+    boolean isGaussian() {
+        return true;
+    }
+
 }
@@ -23,6 +23,8 @@ package org.ojalgo.random.process;
 
 import static org.ojalgo.constant.PrimitiveMath.*;
 
+import java.util.SplittableRandom;
+
 import org.ojalgo.array.Array1D;
 import org.ojalgo.function.PrimitiveFunction;
 import org.ojalgo.function.special.ErrorFunction;
@@ -36,7 +38,7 @@ import org.ojalgo.structure.Access1D;
  *
  * @author apete
  */
-public final class GeometricBrownianMotion extends AbstractProcess<LogNormal> {
+public final class GeometricBrownianMotion extends MarkovianProcess<LogNormal> {
 
     private static final WienerProcess GENERATOR = new WienerProcess();
 
@@ -151,17 +153,6 @@ public final class GeometricBrownianMotion extends AbstractProcess<LogNormal> {
         return GENERATOR.getNormalisedRandomIncrement();
     }
 
-    @Override
-    protected double step(final double currentValue, final double stepSize, final double normalisedRandomIncrement) {
-
-        final double tmpDetPart = (myLocalDrift - ((myDiffusionFunction * myDiffusionFunction) / TWO)) * stepSize;
-        final double tmpRandPart = myDiffusionFunction * PrimitiveFunction.SQRT.invoke(stepSize) * normalisedRandomIncrement;
-
-        final double retVal = currentValue * PrimitiveFunction.EXP.invoke(tmpDetPart + tmpRandPart);
-        this.setValue(retVal);
-        return retVal;
-    }
-
     /**
      * Expected future value
      */
@@ -182,6 +173,16 @@ public final class GeometricBrownianMotion extends AbstractProcess<LogNormal> {
         return PrimitiveFunction.EXP.invoke(tmpLocation - (tmpScale * SQRT_TWO * ErrorFunction.erfi(confidence)));
     }
 
+    @Override
+    double getNormalisedRandomIncrement(final double probability) {
+        return GENERATOR.getNormalisedRandomIncrement(probability);
+    }
+
+    @Override
+    double getNormalisedRandomIncrement(final SplittableRandom random) {
+        return GENERATOR.getNormalisedRandomIncrement(random);
+    }
+
     @Override
     double getStandardDeviation(final double stepSize) {
         return PrimitiveFunction.SQRT.invoke(this.getVariance(stepSize));
@@ -205,4 +206,18 @@ public final class GeometricBrownianMotion extends AbstractProcess<LogNormal> {
                 * PrimitiveFunction.EXPM1.invoke(this.getDistributionVariance(stepSize));
     }
 
+    @Override
+    boolean isGaussian() {
+        return true;
+    }
+
+    @Override
+    double transition(final double currentValue, final double stepSize, final double normalisedRandomIncrement) {
+
+        final double tmpDetPart = (myLocalDrift - ((myDiffusionFunction * myDiffusionFunction) / TWO)) * stepSize;
+        final double tmpRandPart = myDiffusionFunction * PrimitiveFunction.SQRT.invoke(stepSize) * normalisedRandomIncrement;
+
+        return currentValue * PrimitiveFunction.EXP.invoke(tmpDetPart + tmpRandPart);
+    }
+
 }
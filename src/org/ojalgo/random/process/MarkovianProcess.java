@@ -0,0 +1,51 @@
+/*
+ * Copyright 1997-2018 Optimatika
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.ojalgo.random.process;
+
+import org.ojalgo.random.Distribution;
+
+/**
+ * A process where the next value only depends on the current value (not on any other part of the history).
+ * Such processes can calculate transitions without modifying themselves, and that's what allows their
+ * realisations to be simulated in parallel.
+ *
+ * @author apete
+ */
+abstract class MarkovianProcess<D extends Distribution> extends AbstractProcess<D> {
+
+    MarkovianProcess() {
+        super();
+    }
+
+    @Override
+    protected final double step(final double currentValue, final double stepSize, final double normalisedRandomIncrement) {
+        final double retVal = this.transition(currentValue, stepSize, normalisedRandomIncrement);
+        this.setValue(retVal);
+        return retVal;
+    }
+
+    /**
+     * The same as {@link #step(double, double, double)} but without side effects.
+     */
+    abstract double transition(double currentValue, double stepSize, double normalisedRandomIncrement);
+
+}
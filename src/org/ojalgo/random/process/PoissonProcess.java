@@ -23,6 +23,8 @@ package org.ojalgo.random.process;
 
 import static org.ojalgo.constant.PrimitiveMath.*;
 
+import java.util.SplittableRandom;
+
 import org.ojalgo.ProgrammingError;
 import org.ojalgo.function.PrimitiveFunction;
 import org.ojalgo.random.Exponential;
@@ -37,7 +39,7 @@ import org.ojalgo.random.Poisson;
  *
  * @author apete
  */
-public final class PoissonProcess extends AbstractProcess<Poisson> {
+public final class PoissonProcess extends MarkovianProcess<Poisson> {
 
     private static final Poisson GENERATOR = new Poisson();
 
@@ -65,13 +67,6 @@ public final class PoissonProcess extends AbstractProcess<Poisson> {
         return GENERATOR.doubleValue();
     }
 
-    @Override
-    protected double step(final double currentValue, final double stepSize, final double normalisedRandomIncrement) {
-        final double retVal = currentValue + ((myRate * stepSize) * normalisedRandomIncrement);
-        this.setValue(retVal);
-        return retVal;
-    }
-
     @Override
     double getExpected(final double stepSize) {
         return myRate * stepSize;
@@ -83,6 +78,44 @@ public final class PoissonProcess extends AbstractProcess<Poisson> {
         return 0;
     }
 
+    /**
+     * Poisson(1) inverse CDF
+     */
+    @Override
+    double getNormalisedRandomIncrement(final double probability) {
+
+        int retVal = 0;
+        double tmpProbability = PrimitiveFunction.EXP.invoke(-ONE);
+        double tmpCumulative = tmpProbability;
+
+        while ((tmpCumulative < probability) && (tmpProbability > ZERO)) {
+            retVal++;
+            tmpProbability /= retVal;
+            tmpCumulative += tmpProbability;
+        }
+
+        return retVal;
+    }
+
+    /**
+     * Poisson(1), same algorithm as {@link Poisson}
+     */
+    @Override
+    double getNormalisedRandomIncrement(final SplittableRandom random) {
+
+        int retVal = -1;
+        double tmpVal = ZERO;
+
+        while (tmpVal <= ONE) {
+
+            retVal++;
+
+            tmpVal -= PrimitiveFunction.LOG.invoke(random.nextDouble());
+        }
+
+        return retVal;
+    }
+
     @Override
     double getStandardDeviation(final double stepSize) {
         return PrimitiveFunction.SQRT.invoke(myRate * stepSize);
@@ -99,4 +132,9 @@ public final class PoissonProcess extends AbstractProcess<Poisson> {
         return myRate * stepSize;
     }
 
+    @Override
+    double transition(final double currentValue, final double stepSize, final double normalisedRandomIncrement) {
+        return currentValue + ((myRate * stepSize) * normalisedRandomIncrement);
+    }
+
 }
@@ -22,19 +22,41 @@
 package org.ojalgo.random.process;
 
 import java.util.List;
+import java.util.SplittableRandom;
 
 import org.ojalgo.array.Array1D;
+import org.ojalgo.array.Array2D;
 import org.ojalgo.array.Primitive64Array;
+import org.ojalgo.concurrent.DivideAndConquer;
+import org.ojalgo.matrix.store.PrimitiveDenseStore;
 import org.ojalgo.random.ContinuousDistribution;
 import org.ojalgo.random.Random1D;
+import org.ojalgo.random.Xoshiro256;
 import org.ojalgo.random.process.RandomProcess.SimulationResults;
 import org.ojalgo.structure.Access1D;
 import org.ojalgo.structure.Access2D;
 
-abstract class Process1D<D extends ContinuousDistribution, P extends AbstractProcess<D>> {
+abstract class Process1D<D extends ContinuousDistribution, P extends MarkovianProcess<D>> {
+
+    @FunctionalInterface
+    interface RealisationConsumer {
+
+        /**
+         * @param partition The partition index (a partition is always handled by one thread)
+         * @param realisation The realisation index
+         * @param values The simulated values – processes in rows and steps in columns. Reused – copy what you
+         *        need.
+         */
+        void accept(int partition, int realisation, PrimitiveDenseStore values);
+
+    }
+
+    private static int partitions(final int numberOfRealisations) {
+        return Math.max(1, Math.min(AbstractProcess.PARTITIONS, numberOfRealisations));
+    }
 
     private final Random1D myGenerator;
-    private final AbstractProcess<? extends D>[] myProcesses;
+    private final MarkovianProcess<? extends D>[] myProcesses;
 
     @SuppressWarnings("unchecked")
     protected Process1D(final Access2D<?> correlations, final List<? extends P> processes) {
@@ -42,7 +64,7 @@ abstract class Process1D<D extends ContinuousDistribution, P extends AbstractPro
         super();
 
         myGenerator = new Random1D(correlations);
-        myProcesses = processes.toArray(new AbstractProcess[processes.size()]);
+        myProcesses = processes.toArray(new MarkovianProcess[processes.size()]);
     }
 
     @SuppressWarnings("unchecked")
@@ -52,7 +74,7 @@ abstract class Process1D<D extends ContinuousDistribution, P extends AbstractPro
 
         final int tmpSize = processes.size();
         myGenerator = new Random1D(tmpSize);
-        myProcesses = processes.toArray(new AbstractProcess[tmpSize]);
+        myProcesses = processes.toArray(new MarkovianProcess[tmpSize]);
     }
 
     public double getValue(final int index) {
@@ -81,6 +103,79 @@ abstract class Process1D<D extends ContinuousDistribution, P extends AbstractPro
         }
     }
 
+    /**
+     * Simulates all the processes with correlated increments. The correlations were factorised once, when
+     * this instance was created. The increments for all steps of a realisation are generated with one matrix
+     * multiplication, and the realisations are partitioned and simulated in parallel. The same seed always
+     * gives the same results.
+     *
+     * @return One {@link RandomProcess.SimulationResults} per process
+     */
+    @SuppressWarnings("unchecked")
+    public RandomProcess.SimulationResults[] simulate(final int numberOfRealisations, final int numberOfSteps, final double stepSize, final long seed) {
+
+        final int tmpNumberOfProcesses = myProcesses.length;
+
+        final RandomProcess.SimulationResults[] retVal = new RandomProcess.SimulationResults[tmpNumberOfProcesses];
+        final Array2D<Double>[] tmpRealisationValues = (Array2D<Double>[]) new Array2D<?>[tmpNumberOfProcesses];
+
+        for (int p = 0; p < tmpNumberOfProcesses; p++) {
+            tmpRealisationValues[p] = Array2D.PRIMITIVE64.makeZero(numberOfRealisations, numberOfSteps);
+            retVal[p] = new RandomProcess.SimulationResults(myProcesses[p].getValue(), tmpRealisationValues[p]);
+        }
+
+        this.simulate(numberOfRealisations, numberOfSteps, stepSize, seed, (partition, realisation, values) -> {
+            for (int p = 0; p < tmpNumberOfProcesses; p++) {
+                final Array2D<Double> tmpDestination = tmpRealisationValues[p];
+                for (int s = 0; s < numberOfSteps; s++) {
+                    tmpDestination.set(realisation, s, values.doubleValue(p, s));
+                }
+            }
+        });
+
+        return retVal;
+    }
+
+    /**
+     * Same as {@link #simulate(int, int, double, long)} but only the per step statistics are accumulated.
+     *
+     * @return One {@link RandomProcess.SimulationStatistics} per process
+     */
+    public RandomProcess.SimulationStatistics[] simulateStatistics(final int numberOfRealisations, final int numberOfSteps, final double stepSize,
+            final long seed) {
+
+        final int tmpNumberOfProcesses = myProcesses.length;
+        final int tmpPartitions = Process1D.partitions(numberOfRealisations);
+
+        final RandomProcess.SimulationStatistics[][] tmpPartials = new RandomProcess.SimulationStatistics[tmpPartitions][tmpNumberOfProcesses];
+        final double[][] tmpBuffers = new double[tmpPartitions][numberOfSteps];
+        for (int i = 0; i < tmpPartitions; i++) {
+            for (int p = 0; p < tmpNumberOfProcesses; p++) {
+                tmpPartials[i][p] = new RandomProcess.SimulationStatistics(myProcesses[p].getValue(), numberOfSteps);
+            }
+        }
+
+        this.simulate(numberOfRealisations, numberOfSteps, stepSize, seed, (partition, realisation, values) -> {
+            final double[] tmpBuffer = tmpBuffers[partition];
+            for (int p = 0; p < tmpNumberOfProcesses; p++) {
+                for (int s = 0; s < numberOfSteps; s++) {
+                    tmpBuffer[s] = values.doubleValue(p, s);
+                }
+                tmpPartials[partition][p].add(tmpBuffer);
+            }
+        });
+
+        final RandomProcess.SimulationStatistics[] retVal = new RandomProcess.SimulationStatistics[tmpNumberOfProcesses];
+        for (int p = 0; p < tmpNumberOfProcesses; p++) {
+            retVal[p] = new RandomProcess.SimulationStatistics(myProcesses[p].getValue(), numberOfSteps);
+            for (int i = 0; i < tmpPartitions; i++) {
+                retVal[p].merge(tmpPartials[i][p]);
+            }
+        }
+
+        return retVal;
+    }
+
     public int size() {
         return myProcesses.length;
     }
@@ -132,4 +227,54 @@ abstract class Process1D<D extends ContinuousDistribution, P extends AbstractPro
         return myProcesses[index].step(stepSize);
     }
 
+    private void simulate(final int numberOfRealisations, final int numberOfSteps, final double stepSize, final long seed,
+            final RealisationConsumer consumer) {
+
+        final int tmpNumberOfProcesses = myProcesses.length;
+
+        final double[] tmpInitialValues = new double[tmpNumberOfProcesses];
+        for (int p = 0; p < tmpNumberOfProcesses; p++) {
+            tmpInitialValues[p] = myProcesses[p].getValue();
+        }
+
+        final int tmpPartitions = Process1D.partitions(numberOfRealisations);
+        final SplittableRandom[] tmpStreams = AbstractProcess.streams(seed, tmpPartitions);
+
+        final DivideAndConquer tmpConquerer = new DivideAndConquer() {
+
+            @Override
+            protected void conquer(final int first, final int limit) {
+
+                final PrimitiveDenseStore tmpValues = PrimitiveDenseStore.FACTORY.makeZero(tmpNumberOfProcesses, numberOfSteps);
+
+                for (int i = first; i < limit; i++) {
+
+                    final Xoshiro256 tmpRandom = new Xoshiro256(tmpStreams[i].nextLong());
+
+                    final int tmpFirst = (int) ((i * (long) numberOfRealisations) / tmpPartitions);
+                    final int tmpLimit = (int) (((i + 1L) * numberOfRealisations) / tmpPartitions);
+
+                    for (int r = tmpFirst; r < tmpLimit; r++) {
+
+                        myGenerator.nextGaussian(tmpRandom, tmpValues);
+
+                        for (int p = 0; p < tmpNumberOfProcesses; p++) {
+                            final MarkovianProcess<?> tmpProcess = myProcesses[p];
+                            double tmpCurrentValue = tmpInitialValues[p];
+                            for (int s = 0; s < numberOfSteps; s++) {
+                                tmpCurrentValue = tmpProcess.transition(tmpCurrentValue, stepSize, tmpValues.doubleValue(p, s));
+                                tmpValues.set(p, s, tmpCurrentValue);
+                            }
+                        }
+
+                        consumer.accept(i, r, tmpValues);
+                    }
+                }
+            }
+
+        };
+
+        tmpConquerer.invoke(0, tmpPartitions, 1);
+    }
+
 }
@@ -21,6 +21,8 @@
  */
 package org.ojalgo.random.process;
 
+import java.util.Arrays;
+
 import org.ojalgo.array.Array1D;
 import org.ojalgo.array.Array2D;
 import org.ojalgo.random.Distribution;
@@ -107,6 +109,120 @@ public interface RandomProcess<D extends Distribution> {
 
     }
 
+    /**
+     * Per simulation step (per sample set) statistics accumulated while simulating, without storing the
+     * individual scenarios/realisations. Memory usage is proportional to the number of steps only.
+     */
+    public static final class SimulationStatistics {
+
+        private long myCount = 0L;
+        private final double myInitialValue;
+        private final double[] myMaximum;
+        private final double[] myMean;
+        private final double[] myMinimum;
+        private final double[] mySumOfSquaredDeviations;
+
+        SimulationStatistics(final double initialValue, final int numberOfSteps) {
+
+            super();
+
+            myInitialValue = initialValue;
+
+            myMean = new double[numberOfSteps];
+            mySumOfSquaredDeviations = new double[numberOfSteps];
+            myMinimum = new double[numberOfSteps];
+            myMaximum = new double[numberOfSteps];
+
+            Arrays.fill(myMinimum, Double.POSITIVE_INFINITY);
+            Arrays.fill(myMaximum, Double.NEGATIVE_INFINITY);
+        }
+
+        public int countSampleSets() {
+            return myMean.length;
+        }
+
+        public long countScenarios() {
+            return myCount;
+        }
+
+        public double getInitialValue() {
+            return myInitialValue;
+        }
+
+        public double getMaximum(final int index) {
+            return myMaximum[index];
+        }
+
+        public double getMean(final int index) {
+            return myMean[index];
+        }
+
+        public double getMinimum(final int index) {
+            return myMinimum[index];
+        }
+
+        public double getStandardDeviation(final int index) {
+            return Math.sqrt(this.getVariance(index));
+        }
+
+        /**
+         * @return The sample variance - same definition as {@link SampleSet#getVariance()}
+         */
+        public double getVariance(final int index) {
+            return mySumOfSquaredDeviations[index] / (myCount - 1L);
+        }
+
+        /**
+         * Welford's online update with one more realisation
+         */
+        void add(final double[] realisation) {
+
+            myCount++;
+
+            for (int s = 0; s < myMean.length; s++) {
+
+                final double tmpValue = realisation[s];
+
+                final double tmpDelta = tmpValue - myMean[s];
+                myMean[s] += tmpDelta / myCount;
+                mySumOfSquaredDeviations[s] += tmpDelta * (tmpValue - myMean[s]);
+
+                if (tmpValue < myMinimum[s]) {
+                    myMinimum[s] = tmpValue;
+                }
+                if (tmpValue > myMaximum[s]) {
+                    myMaximum[s] = tmpValue;
+                }
+            }
+        }
+
+        /**
+         * Combines the statistics of disjoint sets of realisations (Chan et al.)
+         */
+        void merge(final SimulationStatistics other) {
+
+            if (other.myCount == 0L) {
+                return;
+            }
+
+            final double tmpCount = myCount + other.myCount;
+
+            for (int s = 0; s < myMean.length; s++) {
+
+                final double tmpDelta = other.myMean[s] - myMean[s];
+
+                myMean[s] += (tmpDelta * other.myCount) / tmpCount;
+                mySumOfSquaredDeviations[s] += other.mySumOfSquaredDeviations[s] + (((tmpDelta * tmpDelta) * myCount * other.myCount) / tmpCount);
+
+                myMinimum[s] = Math.min(myMinimum[s], other.myMinimum[s]);
+                myMaximum[s] = Math.max(myMaximum[s], other.myMaximum[s]);
+            }
+
+            myCount += other.myCount;
+        }
+
+    }
+
     /**
      * @param evaluationPoint How far into the future?
      * @return The distribution for the process value at that future time.
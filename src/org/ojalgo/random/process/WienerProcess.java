@@ -23,11 +23,13 @@ package org.ojalgo.random.process;
 
 import static org.ojalgo.constant.PrimitiveMath.*;
 
+import java.util.SplittableRandom;
+
 import org.ojalgo.function.PrimitiveFunction;
 import org.ojalgo.function.special.ErrorFunction;
 import org.ojalgo.random.Normal;
 
-public final class WienerProcess extends AbstractProcess<Normal> {
+public final class WienerProcess extends MarkovianProcess<Normal> {
 
     private static final Normal GENERATOR = new Normal();
 
@@ -55,13 +57,6 @@ public final class WienerProcess extends AbstractProcess<Normal> {
         return GENERATOR.doubleValue();
     }
 
-    @Override
-    protected double step(final double currentValue, final double stepSize, final double normalisedRandomIncrement) {
-        final double retVal = currentValue + (PrimitiveFunction.SQRT.invoke(stepSize) * normalisedRandomIncrement);
-        this.setValue(retVal);
-        return retVal;
-    }
-
     @Override
     double getExpected(final double stepSize) {
         return this.getValue();
@@ -72,6 +67,16 @@ public final class WienerProcess extends AbstractProcess<Normal> {
         return this.getValue() - (PrimitiveFunction.SQRT.invoke(stepSize) * SQRT_TWO * ErrorFunction.erfi(confidence));
     }
 
+    @Override
+    double getNormalisedRandomIncrement(final double probability) {
+        return AbstractProcess.gaussianQuantile(probability);
+    }
+
+    @Override
+    double getNormalisedRandomIncrement(final SplittableRandom random) {
+        return AbstractProcess.nextGaussian(random);
+    }
+
     @Override
     double getStandardDeviation(final double stepSize) {
         return PrimitiveFunction.SQRT.invoke(stepSize);
@@ -87,4 +92,14 @@ public final class WienerProcess extends AbstractProcess<Normal> {
         return stepSize;
     }
 
+    @Override
+    boolean isGaussian() {
+        return true;
+    }
+
+    @Override
+    double transition(final double currentValue, final double stepSize, final double normalisedRandomIncrement) {
+        return currentValue + (PrimitiveFunction.SQRT.invoke(stepSize) * normalisedRandomIncrement);
+    }
+
 }
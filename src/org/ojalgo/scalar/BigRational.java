@@ -0,0 +1,503 @@
+/*
+ * Copyright 1997-2018 Optimatika
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.ojalgo.scalar;
+
+import static org.ojalgo.function.PrimitiveFunction.*;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.math.MathContext;
+
+import org.ojalgo.type.TypeUtils;
+import org.ojalgo.type.context.NumberContext;
+import org.ojalgo.type.context.NumberContext.Enforceable;
+
+/**
+ * An exact rational number of arbitrary size. As long as numerator and denominator are small enough all
+ * arithmetic is done with primitive long values (no allocation apart from the result instance). Only when an
+ * operation would overflow is it redone using {@link BigInteger}, and a result that fits in longs again is
+ * demoted back. Contrary to {@link RationalNumber} the results are never approximated – they are always
+ * exact – but there is no NaN or infinity; dividing by zero throws an {@link ArithmeticException}.
+ *
+ * @author apete
+ */
+public final class BigRational extends Number implements Scalar<BigRational>, Enforceable<BigRational> {
+
+    public static final Scalar.Factory<BigRational> FACTORY = new Scalar.Factory<BigRational>() {
+
+        public BigRational cast(final double value) {
+            return BigRational.valueOf(value);
+        }
+
+        public BigRational cast(final Number number) {
+            return BigRational.valueOf(number);
+        }
+
+        public BigRational convert(final double value) {
+            return BigRational.valueOf(value);
+        }
+
+        public BigRational convert(final Number number) {
+            return BigRational.valueOf(number);
+        }
+
+        public BigRational one() {
+            return ONE;
+        }
+
+        public BigRational zero() {
+            return ZERO;
+        }
+
+    };
+
+    public static final BigRational ONE = new BigRational(1L, 1L);
+    public static final BigRational TWO = new BigRational(2L, 1L);
+    public static final BigRational ZERO = new BigRational(0L, 1L);
+
+    private static final String DIVIDE = " / ";
+    private static final String LEFT = "(";
+    private static final BigInteger LONG_MAX = BigInteger.valueOf(Long.MAX_VALUE);
+    private static final BigInteger LONG_MIN = BigInteger.valueOf(Long.MIN_VALUE);
+    private static final BigRational MINUS_ONE = new BigRational(-1L, 1L);
+    private static final String RIGHT = ")";
+    /**
+     * Below this (absolute) size sums of products of two numerators/denominators can not overflow
+     */
+    private static final long SAFE_LIMIT = Math.round(Math.sqrt(Long.MAX_VALUE / 2L));
+    /**
+     * Below this size the conversion to double is exact (correctly rounded)
+     */
+    private static final long SAFE_DOUBLE = 1L << 53;
+
+    public static BigRational of(final BigInteger numerator, final BigInteger denominator) {
+
+        if (denominator.signum() == 0) {
+            throw new ArithmeticException("Division by zero!");
+        } else if (numerator.signum() == 0) {
+            return ZERO;
+        }
+
+        BigInteger tmpNumer = numerator;
+        BigInteger tmpDenom = denominator;
+
+        final BigInteger tmpGCD = tmpNumer.gcd(tmpDenom);
+        if (!BigInteger.ONE.equals(tmpGCD)) {
+            tmpNumer = tmpNumer.divide(tmpGCD);
+            tmpDenom = tmpDenom.divide(tmpGCD);
+        }
+
+        if (tmpDenom.signum() < 0) {
+            tmpNumer = tmpNumer.negate();
+            tmpDenom = tmpDenom.negate();
+        }
+
+        if (BigRational.fits(tmpNumer) && BigRational.fits(tmpDenom)) {
+            return new BigRational(tmpNumer.longValue(), tmpDenom.longValue());
+        } else {
+            return new BigRational(tmpNumer, tmpDenom);
+        }
+    }
+
+    public static BigRational of(final long numerator, final long denominator) {
+
+        if (denominator == 0L) {
+            throw new ArithmeticException("Division by zero!");
+        } else if (numerator == 0L) {
+            return ZERO;
+        } else if ((numerator == Long.MIN_VALUE) || (denominator == Long.MIN_VALUE)) {
+            return BigRational.of(BigInteger.valueOf(numerator), BigInteger.valueOf(denominator));
+        }
+
+        long tmpNumer = numerator;
+        long tmpDenom = denominator;
+
+        final long tmpGCD = BigRational.gcd(tmpNumer, tmpDenom);
+        if (tmpGCD != 1L) {
+            tmpNumer /= tmpGCD;
+            tmpDenom /= tmpGCD;
+        }
+
+        if (tmpDenom < 0L) {
+            tmpNumer = -tmpNumer;
+            tmpDenom = -tmpDenom;
+        }
+
+        return new BigRational(tmpNumer, tmpDenom);
+    }
+
+    /**
+     * @return The exact value of the double – any finite double is a rational number with a power of 2
+     *         denominator.
+     */
+    public static BigRational valueOf(final double value) {
+
+        if (Double.isNaN(value) || Double.isInfinite(value)) {
+            throw new ArithmeticException("Not a finite number: " + value);
+        } else if (value == 0.0) {
+            return ZERO;
+        }
+
+        final long tmpBits = Double.doubleToLongBits(value);
+        final int tmpExponentBits = (int) ((tmpBits >> 52) & 0x7ffL);
+        final long tmpMantissa = (tmpExponentBits == 0) ? (tmpBits & 0xfffffffffffffL) << 1 : (tmpBits & 0xfffffffffffffL) | 0x10000000000000L;
+        final int tmpExponent = tmpExponentBits - 1075;
+
+        final BigInteger tmpNumer = BigInteger.valueOf(tmpBits < 0L ? -tmpMantissa : tmpMantissa);
+
+        if (tmpExponent >= 0) {
+            return BigRational.of(tmpNumer.shiftLeft(tmpExponent), BigInteger.ONE);
+        } else {
+            return BigRational.of(tmpNumer, BigInteger.ONE.shiftLeft(-tmpExponent));
+        }
+    }
+
+    public static BigRational valueOf(final long value) {
+        return BigRational.of(value, 1L);
+    }
+
+    /**
+     * Exact conversion of any of the standard (primitive wrapper and big) number types, as well as ojAlgo's
+     * {@link RationalNumber}. Other types are converted via their {@link Number#doubleValue()}.
+     */
+    public static BigRational valueOf(final Number number) {
+
+        if (number == null) {
+
+            return ZERO;
+
+        } else if (number instanceof BigRational) {
+
+            return (BigRational) number;
+
+        } else if (number instanceof RationalNumber) {
+
+            final RationalNumber tmpRational = (RationalNumber) number;
+            return BigRational.of(tmpRational.getNumerator(), tmpRational.getDenominator());
+
+        } else if ((number instanceof Long) || (number instanceof Integer) || (number instanceof Short) || (number instanceof Byte)) {
+
+            return BigRational.valueOf(number.longValue());
+
+        } else if (number instanceof BigInteger) {
+
+            return BigRational.of((BigInteger) number, BigInteger.ONE);
+
+        } else if ((number instanceof BigDecimal) || (number instanceof BigScalar)) {
+
+            final BigDecimal tmpDecimal = TypeUtils.toBigDecimal(number);
+            final int tmpScale = tmpDecimal.scale();
+
+            if (tmpScale < 0) {
+                return BigRational.of(tmpDecimal.unscaledValue().multiply(BigInteger.TEN.pow(-tmpScale)), BigInteger.ONE);
+            } else {
+                return BigRational.of(tmpDecimal.unscaledValue(), BigInteger.TEN.pow(tmpScale));
+            }
+
+        } else {
+
+            return BigRational.valueOf(number.doubleValue());
+        }
+    }
+
+    private static boolean fits(final BigInteger value) {
+        return (value.compareTo(LONG_MIN) > 0) && (value.compareTo(LONG_MAX) <= 0);
+    }
+
+    /**
+     * Greatest common divisor of two (non Long.MIN_VALUE) values, always positive.
+     */
+    private static long gcd(final long a, final long b) {
+
+        long tmpMax = Math.abs(a);
+        long tmpMin = Math.abs(b);
+
+        while (tmpMin != 0L) {
+            final long tmpRemainder = tmpMax % tmpMin;
+            tmpMax = tmpMin;
+            tmpMin = tmpRemainder;
+        }
+
+        return tmpMax;
+    }
+
+    private final BigInteger myBigDenominator;
+    private final BigInteger myBigNumerator;
+    private transient BigDecimal myDecimal = null;
+    private final long myDenominator;
+    private final long myNumerator;
+
+    public BigRational() {
+        this(0L, 1L);
+    }
+
+    private BigRational(final BigInteger numerator, final BigInteger denominator) {
+
+        super();
+
+        myBigNumerator = numerator;
+        myBigDenominator = denominator;
+        myNumerator = 0L;
+        myDenominator = 0L;
+    }
+
+    private BigRational(final long numerator, final long denominator) {
+
+        super();
+
+        myNumerator = numerator;
+        myDenominator = denominator;
+        myBigNumerator = null;
+        myBigDenominator = null;
+    }
+
+    public BigRational add(final BigRational arg) {
+        if (this.isSafe() && arg.isSafe()) {
+            if (myDenominator == arg.myDenominator) {
+                return BigRational.of(myNumerator + arg.myNumerator, myDenominator);
+            } else {
+                return BigRational.of((myNumerator * arg.myDenominator) + (arg.myNumerator * myDenominator), myDenominator * arg.myDenominator);
+            }
+        } else {
+            final BigInteger tmpNumer = this.numerator().multiply(arg.denominator()).add(arg.numerator().multiply(this.denominator()));
+            return BigRational.of(tmpNumer, this.denominator().multiply(arg.denominator()));
+        }
+    }
+
+    public BigRational add(final double arg) {
+        return this.add(BigRational.valueOf(arg));
+    }
+
+    public int compareTo(final BigRational reference) {
+        if (this.isSafe() && reference.isSafe()) {
+            return Long.compare(myNumerator * reference.myDenominator, reference.myNumerator * myDenominator);
+        } else {
+            return this.numerator().multiply(reference.denominator()).compareTo(reference.numerator().multiply(this.denominator()));
+        }
+    }
+
+    public BigRational conjugate() {
+        return this;
+    }
+
+    /**
+     * The denominator is always positive, and has no common factor with the numerator.
+     */
+    public BigInteger denominator() {
+        return myBigDenominator != null ? myBigDenominator : BigInteger.valueOf(myDenominator);
+    }
+
+    public BigRational divide(final BigRational arg) {
+        if (this.isSafe() && arg.isSafe()) {
+            return BigRational.of(myNumerator * arg.myDenominator, myDenominator * arg.myNumerator);
+        } else {
+            return BigRational.of(this.numerator().multiply(arg.denominator()), this.denominator().multiply(arg.numerator()));
+        }
+    }
+
+    public BigRational divide(final double arg) {
+        return this.divide(BigRational.valueOf(arg));
+    }
+
+    @Override
+    public double doubleValue() {
+        if ((myBigNumerator == null) && (Math.abs(myNumerator) < SAFE_DOUBLE) && (myDenominator < SAFE_DOUBLE)) {
+            return (double) myNumerator / (double) myDenominator;
+        } else {
+            return this.toBigDecimal(MathContext.DECIMAL64).doubleValue();
+        }
+    }
+
+    public BigRational enforce(final NumberContext context) {
+        return BigRational.valueOf(this.toBigDecimal(context.getMathContext()));
+    }
+
+    @Override
+    public boolean equals(final Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if (!(obj instanceof BigRational)) {
+            return false;
+        }
+        final BigRational other = (BigRational) obj;
+        if (myBigNumerator != null) {
+            return myBigNumerator.equals(other.myBigNumerator) && myBigDenominator.equals(other.myBigDenominator);
+        } else {
+            return (other.myBigNumerator == null) && (myNumerator == other.myNumerator) && (myDenominator == other.myDenominator);
+        }
+    }
+
+    @Override
+    public float floatValue() {
+        return (float) this.doubleValue();
+    }
+
+    public BigRational get() {
+        return this;
+    }
+
+    @Override
+    public int hashCode() {
+        if (myBigNumerator != null) {
+            return (31 * myBigDenominator.hashCode()) + myBigNumerator.hashCode();
+        } else {
+            return (31 * Long.hashCode(myDenominator)) + Long.hashCode(myNumerator);
+        }
+    }
+
+    @Override
+    public int intValue() {
+        return (int) this.longValue();
+    }
+
+    public BigRational invert() {
+        if (myBigNumerator != null) {
+            return BigRational.of(myBigDenominator, myBigNumerator);
+        } else {
+            return BigRational.of(myDenominator, myNumerator);
+        }
+    }
+
+    public boolean isAbsolute() {
+        return this.sign() >= 0;
+    }
+
+    /**
+     * @return true if numerator and denominator are both represented by primitive long values
+     */
+    public boolean isPrimitive() {
+        return myBigNumerator == null;
+    }
+
+    public boolean isSmall(final double comparedTo) {
+        return BigScalar.CONTEXT.isSmall(comparedTo, this.doubleValue());
+    }
+
+    /**
+     * @return The integer part (truncated towards zero)
+     */
+    @Override
+    public long longValue() {
+        if (myBigNumerator != null) {
+            return myBigNumerator.divide(myBigDenominator).longValue();
+        } else {
+            return myNumerator / myDenominator;
+        }
+    }
+
+    public BigRational multiply(final BigRational arg) {
+        if (this.isSafe() && arg.isSafe()) {
+            return BigRational.of(myNumerator * arg.myNumerator, myDenominator * arg.myDenominator);
+        } else {
+            return BigRational.of(this.numerator().multiply(arg.numerator()), this.denominator().multiply(arg.denominator()));
+        }
+    }
+
+    public BigRational multiply(final double arg) {
+        return this.multiply(BigRational.valueOf(arg));
+    }
+
+    public BigRational negate() {
+        if (myBigNumerator != null) {
+            return BigRational.of(myBigNumerator.negate(), myBigDenominator);
+        } else {
+            return BigRational.of(-myNumerator, myDenominator);
+        }
+    }
+
+    public double norm() {
+        return ABS.invoke(this.doubleValue());
+    }
+
+    /**
+     * The numerator carries the sign.
+     */
+    public BigInteger numerator() {
+        return myBigNumerator != null ? myBigNumerator : BigInteger.valueOf(myNumerator);
+    }
+
+    public BigRational signum() {
+        switch (this.sign()) {
+        case 1:
+            return ONE;
+        case -1:
+            return MINUS_ONE;
+        default:
+            return ZERO;
+        }
+    }
+
+    public BigRational subtract(final BigRational arg) {
+        if (this.isSafe() && arg.isSafe()) {
+            if (myDenominator == arg.myDenominator) {
+                return BigRational.of(myNumerator - arg.myNumerator, myDenominator);
+            } else {
+                return BigRational.of((myNumerator * arg.myDenominator) - (arg.myNumerator * myDenominator), myDenominator * arg.myDenominator);
+            }
+        } else {
+            final BigInteger tmpNumer = this.numerator().multiply(arg.denominator()).subtract(arg.numerator().multiply(this.denominator()));
+            return BigRational.of(tmpNumer, this.denominator().multiply(arg.denominator()));
+        }
+    }
+
+    public BigRational subtract(final double arg) {
+        return this.subtract(BigRational.valueOf(arg));
+    }
+
+    public BigDecimal toBigDecimal() {
+        if (myDecimal == null) {
+            myDecimal = this.toBigDecimal(BigScalar.CONTEXT.getMathContext());
+        }
+        return myDecimal;
+    }
+
+    public RationalNumber toRationalNumber() {
+        if (myBigNumerator == null) {
+            return RationalNumber.of(myNumerator, myDenominator);
+        } else {
+            return RationalNumber.valueOf(this.toBigDecimal());
+        }
+    }
+
+    @Override
+    public String toString() {
+        return new StringBuilder(LEFT).append(this.numerator()).append(DIVIDE).append(this.denominator()).append(RIGHT).toString();
+    }
+
+    public String toString(final NumberContext context) {
+        return this.enforce(context).toString();
+    }
+
+    private boolean isSafe() {
+        return (myBigNumerator == null) && (Math.abs(myNumerator) <= SAFE_LIMIT) && (myDenominator <= SAFE_LIMIT);
+    }
+
+    private int sign() {
+        return myBigNumerator != null ? myBigNumerator.signum() : Long.signum(myNumerator);
+    }
+
+    private BigDecimal toBigDecimal(final MathContext context) {
+        return new BigDecimal(this.numerator()).divide(new BigDecimal(this.denominator()), context);
+    }
+
+}
@@ -0,0 +1,63 @@
+/*
+ * Copyright 1997-2018 Optimatika
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.ojalgo.scalar;
+
+import static org.ojalgo.constant.PrimitiveMath.*;
+
+/**
+ * Allocation free (until {@link #get()}) accumulator of {@link ComplexNumber} values.
+ *
+ * @author apete
+ */
+final class ComplexAccumulator implements Scalar.Accumulator<ComplexNumber> {
+
+    private double myImaginary = ZERO;
+    private double myReal = ZERO;
+
+    ComplexAccumulator() {
+        super();
+    }
+
+    public void add(final ComplexNumber addend) {
+        myReal += addend.doubleValue();
+        myImaginary += addend.i;
+    }
+
+    public void addProduct(final ComplexNumber left, final ComplexNumber right) {
+
+        final double tmpRe = right.doubleValue();
+        final double tmpIm = right.i;
+
+        myReal += (left.doubleValue() * tmpRe) - (left.i * tmpIm);
+        myImaginary += (left.doubleValue() * tmpIm) + (left.i * tmpRe);
+    }
+
+    public ComplexNumber get() {
+        return new ComplexNumber(myReal, myImaginary);
+    }
+
+    public void reset() {
+        myReal = ZERO;
+        myImaginary = ZERO;
+    }
+
+}
@@ -129,6 +129,10 @@ public class ComplexNumber extends Number implements Scalar<ComplexNumber>, Enfo
             return ComplexNumber.valueOf(number);
         }
 
+        public Scalar.Accumulator<ComplexNumber> newAccumulator() {
+            return new ComplexAccumulator();
+        }
+
         public ComplexNumber one() {
             return ONE;
         }
@@ -0,0 +1,63 @@
+/*
+ * Copyright 1997-2018 Optimatika
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.ojalgo.scalar;
+
+/**
+ * Fallback {@link Scalar.Accumulator} for any scalar type – it uses the immutable operations.
+ *
+ * @author apete
+ */
+final class GenericAccumulator<N extends Number> implements Scalar.Accumulator<N> {
+
+    private Scalar<N> myValue;
+    private final Scalar<N> myZero;
+
+    GenericAccumulator(final Scalar.Factory<N> factory) {
+
+        super();
+
+        myZero = factory.zero();
+        myValue = myZero;
+    }
+
+    public void add(final N addend) {
+        myValue = myValue.add(addend);
+    }
+
+    @SuppressWarnings("unchecked")
+    public void addProduct(final N left, final N right) {
+        if (left instanceof Scalar<?>) {
+            myValue = myValue.add(((Scalar<N>) left).multiply(right));
+        } else {
+            myValue = myValue.add(myZero.add(left).multiply(right));
+        }
+    }
+
+    public N get() {
+        return myValue.get();
+    }
+
+    public void reset() {
+        myValue = myZero;
+    }
+
+}
@@ -226,6 +226,10 @@ public class Quaternion extends Number implements Scalar<Quaternion>, Enforceabl
             return Quaternion.valueOf(number);
         }
 
+        public Scalar.Accumulator<Quaternion> newAccumulator() {
+            return new QuaternionAccumulator();
+        }
+
         public Quaternion one() {
             return ONE;
         }
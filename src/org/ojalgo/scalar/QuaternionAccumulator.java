@@ -0,0 +1,71 @@
+/*
+ * Copyright 1997-2018 Optimatika
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.ojalgo.scalar;
+
+import static org.ojalgo.constant.PrimitiveMath.*;
+
+/**
+ * Allocation free (until {@link #get()}) accumulator of {@link Quaternion} values.
+ *
+ * @author apete
+ */
+final class QuaternionAccumulator implements Scalar.Accumulator<Quaternion> {
+
+    private double myI = ZERO;
+    private double myJ = ZERO;
+    private double myK = ZERO;
+    private double myScalar = ZERO;
+
+    QuaternionAccumulator() {
+        super();
+    }
+
+    public void add(final Quaternion addend) {
+        myScalar += addend.scalar();
+        myI += addend.i;
+        myJ += addend.j;
+        myK += addend.k;
+    }
+
+    public void addProduct(final Quaternion left, final Quaternion right) {
+
+        final double tmpScalar = left.scalar();
+        final double tmpArgScalar = right.scalar();
+
+        myScalar += (tmpScalar * tmpArgScalar) - (left.i * right.i) - (left.j * right.j) - (left.k * right.k);
+        myI += ((tmpScalar * right.i) + (left.i * tmpArgScalar) + (left.j * right.k)) - (left.k * right.j);
+        myJ += ((tmpScalar * right.j) - (left.i * right.k)) + (left.j * tmpArgScalar) + (left.k * right.i);
+        myK += (((tmpScalar * right.k) + (left.i * right.j)) - (left.j * right.i)) + (left.k * tmpArgScalar);
+    }
+
+    public Quaternion get() {
+        return new Quaternion(myScalar, myI, myJ, myK);
+    }
+
+    public void reset() {
+        myScalar = ZERO;
+        myI = ZERO;
+        myJ = ZERO;
+        myK = ZERO;
+    }
+
+}
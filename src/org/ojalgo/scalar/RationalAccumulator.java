@@ -0,0 +1,142 @@
+/*
+ * Copyright 1997-2018 Optimatika
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.ojalgo.scalar;
+
+/**
+ * Accumulator of {@link RationalNumber} values. While numerators and denominators are small enough that
+ * nothing can overflow the accumulation is done on primitive long values, without creating any
+ * {@link RationalNumber} instances. Otherwise it falls back to (delegates to) the {@link RationalNumber}
+ * operations, so the results are the same as using those directly.
+ *
+ * @author apete
+ */
+final class RationalAccumulator implements Scalar.Accumulator<RationalNumber> {
+
+    /**
+     * Sums of products of two values this size will not overflow
+     */
+    private static final long SAFE_LIMIT = Math.round(Math.sqrt(Long.MAX_VALUE / 2L));
+
+    private static long gcd(final long a, final long b) {
+
+        long tmpMax = Math.abs(a);
+        long tmpMin = Math.abs(b);
+
+        while (tmpMin != 0L) {
+            final long tmpRemainder = tmpMax % tmpMin;
+            tmpMax = tmpMin;
+            tmpMin = tmpRemainder;
+        }
+
+        return tmpMax;
+    }
+
+    private static boolean isSafe(final long numerator, final long denominator) {
+        return (denominator > 0L) && (denominator <= SAFE_LIMIT) && (Math.abs(numerator) <= SAFE_LIMIT);
+    }
+
+    private long myDenominator = 1L;
+    private long myNumerator = 0L;
+
+    RationalAccumulator() {
+        super();
+    }
+
+    public void add(final RationalNumber addend) {
+        this.add(addend.getNumerator(), addend.getDenominator());
+    }
+
+    public void addProduct(final RationalNumber left, final RationalNumber right) {
+
+        final long tmpLeftNumer = left.getNumerator();
+        final long tmpLeftDenom = left.getDenominator();
+        final long tmpRightNumer = right.getNumerator();
+        final long tmpRightDenom = right.getDenominator();
+
+        if (RationalAccumulator.isSafe(tmpLeftNumer, tmpLeftDenom) && RationalAccumulator.isSafe(tmpRightNumer, tmpRightDenom)) {
+
+            long tmpNumer = tmpLeftNumer * tmpRightNumer;
+            long tmpDenom = tmpLeftDenom * tmpRightDenom;
+
+            final long tmpGCD = RationalAccumulator.gcd(tmpNumer, tmpDenom);
+            if (tmpGCD > 1L) {
+                tmpNumer /= tmpGCD;
+                tmpDenom /= tmpGCD;
+            }
+
+            this.add(tmpNumer, tmpDenom);
+
+        } else {
+
+            this.set(this.get().add(left.multiply(right)));
+        }
+    }
+
+    public RationalNumber get() {
+        return RationalNumber.of(myNumerator, myDenominator);
+    }
+
+    public void reset() {
+        myNumerator = 0L;
+        myDenominator = 1L;
+    }
+
+    private void add(final long numerator, final long denominator) {
+
+        if ((numerator == 0L) && (denominator != 0L)) {
+            return;
+        }
+
+        if (RationalAccumulator.isSafe(myNumerator, myDenominator) && RationalAccumulator.isSafe(numerator, denominator)) {
+
+            long tmpNumer;
+            long tmpDenom;
+
+            if (myDenominator == denominator) {
+                tmpNumer = myNumerator + numerator;
+                tmpDenom = denominator;
+            } else {
+                tmpNumer = (myNumerator * denominator) + (numerator * myDenominator);
+                tmpDenom = myDenominator * denominator;
+            }
+
+            final long tmpGCD = RationalAccumulator.gcd(tmpNumer, tmpDenom);
+            if (tmpGCD > 1L) {
+                tmpNumer /= tmpGCD;
+                tmpDenom /= tmpGCD;
+            }
+
+            myNumerator = tmpNumer;
+            myDenominator = tmpNumer == 0L ? 1L : tmpDenom;
+
+        } else {
+
+            this.set(this.get().add(RationalNumber.of(numerator, denominator)));
+        }
+    }
+
+    private void set(final RationalNumber value) {
+        myNumerator = value.getNumerator();
+        myDenominator = value.getDenominator();
+    }
+
+}
@@ -52,6 +52,10 @@ public final class RationalNumber extends Number implements Scalar<RationalNumbe
             return RationalNumber.valueOf(number);
         }
 
+        public Scalar.Accumulator<RationalNumber> newAccumulator() {
+            return new RationalAccumulator();
+        }
+
         public RationalNumber one() {
             return ONE;
         }
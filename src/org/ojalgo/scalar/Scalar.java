@@ -51,6 +51,32 @@ import org.ojalgo.type.context.NumberContext;
 public interface Scalar<N extends Number> extends AccessScalar<N>, Field<Scalar<N>>, NormedVectorSpace<Scalar<N>, N>, ScalarOperation.Addition<Scalar<N>, N>,
         ScalarOperation.Division<Scalar<N>, N>, ScalarOperation.Subtraction<Scalar<N>, N>, Comparable<N> {
 
+    /**
+     * The mutable counterpart of a {@link Scalar}, used to accumulate sums (of products) in kernel loops
+     * without creating an immutable intermediate instance per arithmetic operation. An instance is not thread
+     * safe – each thread/task should have its own.
+     */
+    public interface Accumulator<N extends Number> {
+
+        void add(N addend);
+
+        /**
+         * this += left * right
+         */
+        void addProduct(N left, N right);
+
+        /**
+         * @return The current (accumulated) value as an immutable instance
+         */
+        N get();
+
+        /**
+         * Reset to zero
+         */
+        void reset();
+
+    }
+
     public interface Factory<N extends Number> {
 
         N cast(double value);
@@ -61,6 +87,14 @@ public interface Scalar<N extends Number> extends AccessScalar<N>, Field<Scalar<
 
         Scalar<N> convert(Number number);
 
+        /**
+         * @return A new accumulator, initially zero. The default implementation delegates to the immutable
+         *         scalar operations; the types with primitive components have allocation free implementations.
+         */
+        default Scalar.Accumulator<N> newAccumulator() {
+            return new GenericAccumulator<>(this);
+        }
+
         @SuppressWarnings("unchecked")
         default N[] newArrayInstance(final int length) {
             return (N[]) Array.newInstance(this.zero().get().getClass(), length);
@@ -35,6 +35,10 @@ import org.ojalgo.type.CalendarDateUnit;
 
 /**
  * A {@link CoordinationSet} is used to coordinate a set of {@link CalendarDateSeries} instances.
+ * <p>
+ * With many, or long, series consider using a {@link SeriesFrame} instead – it stores primitive keys and
+ * values (no boxing) and its operations return views rather than copies.
+ * </p>
  *
  * @author apete
  */
@@ -247,6 +251,13 @@ public class CoordinationSet<N extends Number> extends HashMap<String, CalendarD
         return retVal;
     }
 
+    /**
+     * @return A (columnar, primitive) frame with the union of all the series' keys
+     */
+    public SeriesFrame toFrame() {
+        return SeriesFrame.from(this.values());
+    }
+
     @Override
     public String toString() {
 
@@ -0,0 +1,690 @@
+/*
+ * Copyright 1997-2018 Optimatika
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.ojalgo.series;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.UUID;
+
+import org.ojalgo.ProgrammingError;
+import org.ojalgo.array.BufferArray;
+import org.ojalgo.constant.PrimitiveMath;
+import org.ojalgo.netio.ASCII;
+import org.ojalgo.series.primitive.PrimitiveSeries;
+import org.ojalgo.structure.Access1D;
+import org.ojalgo.type.CalendarDate;
+import org.ojalgo.type.ColourData;
+import org.ojalgo.type.TypeUtils;
+
+/**
+ * A read-only time series backed by a memory-mapped file – nothing is parsed or copied when it is opened,
+ * and values are read directly from the mapped file (via {@link BufferArray}). Files are created, and
+ * appended to, using a {@link Writer}.
+ * <p>
+ * The file format is a fixed size header followed by fixed size blocks of (up to) {@value #BLOCK_SIZE}
+ * entries. Each block stores its first and last key (timestamp in millis), the number of entries, the keys
+ * delta encoded as int:s, and the values as raw doubles. The per-block first/last keys make up the index used
+ * to locate a key, or a range of keys, with a binary search. Within a block the keys are decoded on the fly.
+ * <p>
+ * An instance is a snapshot of the file as it was when opened. {@link #subMap(CalendarDate, CalendarDate)},
+ * {@link #headMap(CalendarDate)} and {@link #tailMap(CalendarDate)} return views of a range of the same
+ * mapped file.
+ *
+ * @author apete
+ */
+public final class MappedSeries extends AbstractMap<CalendarDate, Double> implements BasicSeries<CalendarDate, Double>, Access1D<Double> {
+
+    /**
+     * Appends entries to a file – creates it if it does not already exist. Keys must be strictly increasing,
+     * also in relation to what is already in the file. Entries are buffered a block at the time, and written
+     * when the block is full or when the writer is flushed/closed.
+     */
+    public static final class Writer implements AutoCloseable {
+
+        private long myBlockIndex;
+        private final FileChannel myChannel;
+        private int myCount;
+        private final int[] myDeltas = new int[BLOCK_SIZE];
+        private boolean myDirty = false;
+        private long myFirstKey;
+        private long myLastKey = Long.MIN_VALUE;
+        private final double[] myValues = new double[BLOCK_SIZE];
+
+        Writer(final File file) {
+
+            super();
+
+            try {
+
+                myChannel = new RandomAccessFile(file, "rw").getChannel();
+
+                final long tmpLength = myChannel.size();
+
+                if (tmpLength == 0L) {
+
+                    final ByteBuffer tmpHeader = ByteBuffer.allocate(HEADER_SIZE);
+                    tmpHeader.putLong(MAGIC);
+                    tmpHeader.putInt(VERSION);
+                    tmpHeader.putInt(BLOCK_SIZE);
+                    tmpHeader.flip();
+                    myChannel.write(tmpHeader, 0L);
+
+                    myBlockIndex = 0L;
+                    myCount = 0;
+
+                } else {
+
+                    final long tmpNumberOfBlocks = MappedSeries.validate(myChannel);
+
+                    if (tmpNumberOfBlocks == 0L) {
+
+                        myBlockIndex = 0L;
+                        myCount = 0;
+
+                    } else {
+
+                        myBlockIndex = tmpNumberOfBlocks - 1L;
+
+                        final ByteBuffer tmpBlock = ByteBuffer.allocate(BLOCK_BYTES);
+                        while (tmpBlock.hasRemaining() && (myChannel.read(tmpBlock, MappedSeries.position(myBlockIndex) + tmpBlock.position()) >= 0)) {
+                            // Read the whole (last) block
+                        }
+
+                        myFirstKey = tmpBlock.getLong(0);
+                        myLastKey = tmpBlock.getLong(8);
+                        myCount = tmpBlock.getInt(16);
+                        for (int j = 0; j < myCount; j++) {
+                            myDeltas[j] = tmpBlock.getInt(KEYS_OFFSET + (j * 4));
+                            myValues[j] = tmpBlock.getDouble(VALUES_OFFSET + (j * 8));
+                        }
+
+                        if (myCount == BLOCK_SIZE) {
+                            myBlockIndex++;
+                            myCount = 0;
+                        }
+                    }
+                }
+
+            } catch (final IOException exception) {
+                throw new RuntimeException(exception);
+            }
+        }
+
+        public void append(final BasicSeries<CalendarDate, ? extends Number> series) {
+            for (final Map.Entry<CalendarDate, ? extends Number> tmpEntry : series.entrySet()) {
+                this.append(tmpEntry.getKey().millis, tmpEntry.getValue().doubleValue());
+            }
+        }
+
+        public void append(final CalendarDate key, final double value) {
+            this.append(key.millis, value);
+        }
+
+        /**
+         * @param key Timestamp in millis
+         * @param value The value
+         */
+        public void append(final long key, final double value) {
+
+            if (key <= myLastKey) {
+                throw new IllegalArgumentException("Keys must be strictly increasing!");
+            }
+
+            if ((myCount == BLOCK_SIZE) || ((myCount > 0) && ((key - myLastKey) > Integer.MAX_VALUE))) {
+                this.writeBlock();
+                myBlockIndex++;
+                myCount = 0;
+            }
+
+            if (myCount == 0) {
+                myFirstKey = key;
+                myDeltas[0] = 0;
+            } else {
+                myDeltas[myCount] = (int) (key - myLastKey);
+            }
+            myValues[myCount] = value;
+
+            myLastKey = key;
+            myCount++;
+            myDirty = true;
+        }
+
+        public void close() {
+            this.flush();
+            try {
+                myChannel.close();
+            } catch (final IOException exception) {
+                throw new RuntimeException(exception);
+            }
+        }
+
+        /**
+         * Writes the current (possibly not yet full) block to the file. Entries appended after this will
+         * continue to fill that same block.
+         */
+        public void flush() {
+            if (myDirty) {
+                this.writeBlock();
+                try {
+                    myChannel.force(false);
+                } catch (final IOException exception) {
+                    throw new RuntimeException(exception);
+                }
+            }
+        }
+
+        private void writeBlock() {
+
+            final ByteBuffer tmpBlock = ByteBuffer.allocate(BLOCK_BYTES);
+
+            tmpBlock.putLong(0, myFirstKey);
+            tmpBlock.putLong(8, myLastKey);
+            tmpBlock.putInt(16, myCount);
+            for (int j = 0; j < myCount; j++) {
+                tmpBlock.putInt(KEYS_OFFSET + (j * 4), myDeltas[j]);
+                tmpBlock.putDouble(VALUES_OFFSET + (j * 8), myValues[j]);
+            }
+
+            try {
+                final long tmpPosition = MappedSeries.position(myBlockIndex);
+                while (tmpBlock.hasRemaining()) {
+                    myChannel.write(tmpBlock, tmpPosition + tmpBlock.position());
+                }
+            } catch (final IOException exception) {
+                throw new RuntimeException(exception);
+            }
+
+            myDirty = false;
+        }
+
+    }
+
+    static final class Storage {
+
+        /**
+         * Cumulative number of entries – the global index of the first entry in each block
+         */
+        final long[] first;
+        final long[] firstKeys;
+        final IntBuffer[] keys;
+        final long[] lastKeys;
+        final long total;
+        final BufferArray[] values;
+
+        Storage(final File file) {
+
+            super();
+
+            try (FileChannel tmpChannel = new RandomAccessFile(file, "r").getChannel()) {
+
+                final int tmpNumberOfBlocks = Math.toIntExact(MappedSeries.validate(tmpChannel));
+
+                first = new long[tmpNumberOfBlocks + 1];
+                firstKeys = new long[tmpNumberOfBlocks];
+                lastKeys = new long[tmpNumberOfBlocks];
+                keys = new IntBuffer[tmpNumberOfBlocks];
+                values = new BufferArray[tmpNumberOfBlocks];
+
+                // Each mapped segment must be smaller than 2GB
+                final int tmpBlocksPerSegment = Integer.MAX_VALUE / BLOCK_BYTES;
+
+                MappedByteBuffer tmpSegment = null;
+                for (int b = 0; b < tmpNumberOfBlocks; b++) {
+
+                    final int tmpLocal = b % tmpBlocksPerSegment;
+                    if (tmpLocal == 0) {
+                        final int tmpBlocks = Math.min(tmpBlocksPerSegment, tmpNumberOfBlocks - b);
+                        tmpSegment = tmpChannel.map(FileChannel.MapMode.READ_ONLY, MappedSeries.position(b), (long) tmpBlocks * BLOCK_BYTES);
+                    }
+
+                    final int tmpOffset = tmpLocal * BLOCK_BYTES;
+                    final int tmpCount = tmpSegment.getInt(tmpOffset + 16);
+
+                    firstKeys[b] = tmpSegment.getLong(tmpOffset);
+                    lastKeys[b] = tmpSegment.getLong(tmpOffset + 8);
+                    first[b + 1] = first[b] + tmpCount;
+
+                    keys[b] = Storage.slice(tmpSegment, tmpOffset + KEYS_OFFSET, tmpCount * 4).asIntBuffer();
+                    values[b] = BufferArray.wrap(Storage.slice(tmpSegment, tmpOffset + VALUES_OFFSET, tmpCount * 8).asDoubleBuffer());
+                }
+
+                total = first[tmpNumberOfBlocks];
+
+            } catch (final IOException exception) {
+                throw new RuntimeException(exception);
+            }
+        }
+
+        private static ByteBuffer slice(final ByteBuffer buffer, final int offset, final int length) {
+            final ByteBuffer retVal = buffer.duplicate();
+            retVal.position(offset);
+            retVal.limit(offset + length);
+            return retVal.slice();
+        }
+
+        /**
+         * @return The block containing the entry with that (global) index
+         */
+        int block(final long index) {
+            int low = 0;
+            int high = keys.length - 1;
+            while (low < high) {
+                final int mid = (low + high + 1) >>> 1;
+                if (first[mid] <= index) {
+                    low = mid;
+                } else {
+                    high = mid - 1;
+                }
+            }
+            return low;
+        }
+
+        double doubleValue(final long index) {
+            final int tmpBlock = this.block(index);
+            return values[tmpBlock].doubleValue(index - first[tmpBlock]);
+        }
+
+        /**
+         * @return The (global) index of the entry with that key, or -1 if there is no such entry
+         */
+        long index(final long key) {
+            final long retVal = this.lowerBound(key);
+            if ((retVal < total) && (this.key(retVal) == key)) {
+                return retVal;
+            } else {
+                return -1L;
+            }
+        }
+
+        long key(final long index) {
+
+            final int tmpBlock = this.block(index);
+            final IntBuffer tmpDeltas = keys[tmpBlock];
+
+            long retVal = firstKeys[tmpBlock];
+            for (int j = 1, limit = (int) (index - first[tmpBlock]); j <= limit; j++) {
+                retVal += tmpDeltas.get(j);
+            }
+            return retVal;
+        }
+
+        /**
+         * @return The (global) index of the first entry with a key greater than or equal to the input key
+         */
+        long lowerBound(final long key) {
+
+            int low = 0;
+            int high = lastKeys.length;
+            while (low < high) {
+                final int mid = (low + high) >>> 1;
+                if (lastKeys[mid] < key) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+
+            if (low == lastKeys.length) {
+                return total;
+            }
+
+            final IntBuffer tmpDeltas = keys[low];
+            long tmpKey = firstKeys[low];
+            int j = 0;
+            while (tmpKey < key) {
+                tmpKey += tmpDeltas.get(++j);
+            }
+            return first[low] + j;
+        }
+
+    }
+
+    static final int BLOCK_SIZE = 1024;
+
+    static final int HEADER_SIZE = 32;
+    static final int KEYS_OFFSET = 24;
+    static final long MAGIC = 0x6F6A416C676F5453L; // "ojAlgoTS"
+    static final int VALUES_OFFSET = KEYS_OFFSET + (4 * BLOCK_SIZE);
+    static final int BLOCK_BYTES = VALUES_OFFSET + (8 * BLOCK_SIZE);
+    static final int VERSION = 1;
+
+    /**
+     * Append to an existing file, or create a new one.
+     */
+    public static Writer newWriter(final File file) {
+        return new Writer(file);
+    }
+
+    /**
+     * Map the file as it is now – entries appended later will not be visible to the returned instance.
+     */
+    public static MappedSeries open(final File file) {
+        final Storage tmpStorage = new Storage(file);
+        return new MappedSeries(tmpStorage, 0L, tmpStorage.total);
+    }
+
+    static long position(final long block) {
+        return HEADER_SIZE + (block * BLOCK_BYTES);
+    }
+
+    /**
+     * @return The number of blocks
+     */
+    static long validate(final FileChannel channel) throws IOException {
+
+        final ByteBuffer tmpHeader = ByteBuffer.allocate(HEADER_SIZE);
+        while (tmpHeader.hasRemaining() && (channel.read(tmpHeader, tmpHeader.position()) >= 0)) {
+            // Read the whole header
+        }
+
+        if ((tmpHeader.position() < HEADER_SIZE) || (tmpHeader.getLong(0) != MAGIC)) {
+            throw new IllegalArgumentException("Not a series file!");
+        }
+        if (tmpHeader.getInt(8) != VERSION) {
+            throw new IllegalArgumentException("Unsupported version: " + tmpHeader.getInt(8));
+        }
+        if (tmpHeader.getInt(12) != BLOCK_SIZE) {
+            throw new IllegalArgumentException("Unsupported block size: " + tmpHeader.getInt(12));
+        }
+
+        return (channel.size() - HEADER_SIZE) / BLOCK_BYTES;
+    }
+
+    private ColourData myColour = null;
+    private final long myFirst;
+    private final long myLimit;
+    private String myName = null;
+    private final Storage myStorage;
+
+    MappedSeries(final Storage storage, final long first, final long limit) {
+
+        super();
+
+        myStorage = storage;
+        myFirst = first;
+        myLimit = Math.max(first, limit);
+    }
+
+    public PrimitiveSeries asPrimitive() {
+        return PrimitiveSeries.wrap(this);
+    }
+
+    public MappedSeries colour(final ColourData colour) {
+        myColour = colour;
+        return this;
+    }
+
+    public Comparator<? super CalendarDate> comparator() {
+        return null;
+    }
+
+    public long count() {
+        return myLimit - myFirst;
+    }
+
+    public double doubleValue(final CalendarDate key) {
+        final long tmpIndex = this.index(key.millis);
+        if (tmpIndex >= 0L) {
+            return myStorage.doubleValue(myFirst + tmpIndex);
+        } else {
+            return PrimitiveMath.NaN;
+        }
+    }
+
+    public double doubleValue(final long index) {
+        return myStorage.doubleValue(this.global(index));
+    }
+
+    @Override
+    public Set<Map.Entry<CalendarDate, Double>> entrySet() {
+        return new AbstractSet<Map.Entry<CalendarDate, Double>>() {
+
+            @Override
+            public Iterator<Map.Entry<CalendarDate, Double>> iterator() {
+
+                return new Iterator<Map.Entry<CalendarDate, Double>>() {
+
+                    private int myBlock = -1;
+                    private long myIndex = myFirst;
+                    private long myKey;
+
+                    public boolean hasNext() {
+                        return myIndex < myLimit;
+                    }
+
+                    public Map.Entry<CalendarDate, Double> next() {
+
+                        if (myIndex >= myLimit) {
+                            throw new NoSuchElementException();
+                        }
+
+                        if ((myBlock < 0) || (myIndex >= myStorage.first[myBlock + 1])) {
+                            myBlock = myStorage.block(myIndex);
+                            myKey = myStorage.key(myIndex);
+                        } else {
+                            myKey += myStorage.keys[myBlock].get((int) (myIndex - myStorage.first[myBlock]));
+                        }
+
+                        final Map.Entry<CalendarDate, Double> retVal = new AbstractMap.SimpleImmutableEntry<>(new CalendarDate(myKey),
+                                myStorage.values[myBlock].doubleValue(myIndex - myStorage.first[myBlock]));
+
+                        myIndex++;
+
+                        return retVal;
+                    }
+
+                };
+            }
+
+            @Override
+            public int size() {
+                return MappedSeries.this.size();
+            }
+        };
+    }
+
+    public CalendarDate firstKey() {
+        if (myLimit == myFirst) {
+            throw new NoSuchElementException();
+        }
+        return new CalendarDate(myStorage.key(myFirst));
+    }
+
+    public Double firstValue() {
+        return this.get(0L);
+    }
+
+    public Double get(final CalendarDate key) {
+        final long tmpIndex = this.index(key.millis);
+        if (tmpIndex >= 0L) {
+            return myStorage.doubleValue(myFirst + tmpIndex);
+        } else {
+            return null;
+        }
+    }
+
+    public Double get(final long index) {
+        return myStorage.doubleValue(this.global(index));
+    }
+
+    @Override
+    public Double get(final Object key) {
+        if (key instanceof CalendarDate) {
+            return this.get((CalendarDate) key);
+        } else {
+            return null;
+        }
+    }
+
+    public ColourData getColour() {
+        if (myColour == null) {
+            myColour = ColourData.random();
+        }
+        return myColour;
+    }
+
+    public String getName() {
+        if (myName == null) {
+            myName = UUID.randomUUID().toString();
+        }
+        return myName;
+    }
+
+    /**
+     * @return The keys (timestamps in millis), decoded in one pass
+     */
+    public long[] getPrimitiveKeys() {
+
+        final long[] retVal = new long[this.size()];
+
+        final Iterator<Map.Entry<CalendarDate, Double>> tmpIterator = this.entrySet().iterator();
+        for (int i = 0; i < retVal.length; i++) {
+            retVal[i] = tmpIterator.next().getKey().millis;
+        }
+
+        return retVal;
+    }
+
+    @Override
+    public MappedSeries headMap(final CalendarDate toKey) {
+        return new MappedSeries(myStorage, myFirst, this.lowerBound(toKey.millis));
+    }
+
+    public CalendarDate lastKey() {
+        if (myLimit == myFirst) {
+            throw new NoSuchElementException();
+        }
+        return new CalendarDate(myStorage.key(myLimit - 1L));
+    }
+
+    public Double lastValue() {
+        return this.get(this.count() - 1L);
+    }
+
+    public MappedSeries name(final String name) {
+        myName = name;
+        return this;
+    }
+
+    public double put(final CalendarDate key, final double value) {
+        ProgrammingError.throwForTryingToModifyAnImmutableObject();
+        return PrimitiveMath.NaN;
+    }
+
+    @Override
+    public Double put(final CalendarDate key, final Double value) {
+        ProgrammingError.throwForTryingToModifyAnImmutableObject();
+        return null;
+    }
+
+    @Override
+    public int size() {
+        return Math.toIntExact(this.count());
+    }
+
+    @Override
+    public MappedSeries subMap(final CalendarDate fromKey, final CalendarDate toKey) {
+        return new MappedSeries(myStorage, this.lowerBound(fromKey.millis), this.lowerBound(toKey.millis));
+    }
+
+    @Override
+    public MappedSeries tailMap(final CalendarDate fromKey) {
+        return new MappedSeries(myStorage, this.lowerBound(fromKey.millis), myLimit);
+    }
+
+    @Override
+    public String toString() {
+
+        final StringBuilder retVal = new StringBuilder();
+
+        if (myName != null) {
+            retVal.append(myName);
+            retVal.append(ASCII.NBSP);
+        }
+
+        if (myColour != null) {
+            retVal.append(TypeUtils.toHexString(myColour.getRGB()));
+            retVal.append(ASCII.NBSP);
+        }
+
+        if (this.size() <= 30) {
+            retVal.append(super.toString());
+        } else {
+            retVal.append("First:");
+            retVal.append(this.firstKey());
+            retVal.append(ASCII.EQUALS);
+            retVal.append(this.firstValue());
+            retVal.append(ASCII.NBSP);
+            retVal.append("Last:");
+            retVal.append(this.lastKey());
+            retVal.append(ASCII.EQUALS);
+            retVal.append(this.lastValue());
+            retVal.append(ASCII.NBSP);
+            retVal.append("Size:");
+            retVal.append(this.size());
+        }
+
+        return retVal.toString();
+    }
+
+    /**
+     * @return The global index corresponding to an index relative to this (sub)series
+     */
+    private long global(final long index) {
+        if ((index < 0L) || (index >= (myLimit - myFirst))) {
+            throw new ArrayIndexOutOfBoundsException();
+        }
+        return myFirst + index;
+    }
+
+    /**
+     * @return The index, relative to this (sub)series, or -1
+     */
+    private long index(final long key) {
+        final long retVal = myStorage.index(key);
+        if ((retVal >= myFirst) && (retVal < myLimit)) {
+            return retVal - myFirst;
+        } else {
+            return -1L;
+        }
+    }
+
+    /**
+     * @return A global index clamped to the range of this (sub)series
+     */
+    private long lowerBound(final long key) {
+        return Math.min(Math.max(myStorage.lowerBound(key), myFirst), myLimit);
+    }
+
+}
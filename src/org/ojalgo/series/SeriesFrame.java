@@ -0,0 +1,568 @@
+/*
+ * Copyright 1997-2018 Optimatika
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.ojalgo.series;
+
+import static org.ojalgo.constant.PrimitiveMath.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import org.ojalgo.ProgrammingError;
+import org.ojalgo.array.DenseArray;
+import org.ojalgo.array.Primitive64Array;
+import org.ojalgo.series.primitive.ExplicitTimeSeries;
+import org.ojalgo.series.primitive.PrimitiveSeries;
+import org.ojalgo.structure.Access1D;
+import org.ojalgo.structure.Access2D;
+import org.ojalgo.type.CalendarDate;
+
+/**
+ * A columnar alternative to {@link CoordinationSet}: one shared index of primitive long (epoch millisecond)
+ * keys, and one primitive double column per series. Missing values are NaN.
+ * <p>
+ * The data is stored once, in {@link DenseArray} instances created by the factory you choose – use
+ * {@link org.ojalgo.array.BufferArray#DIRECT64} to keep the data off-heap. All the derived frames –
+ * {@link #align(long...)}, {@link #resample(CalendarDate.Resolution)}, {@link #fillForward()},
+ * {@link #join(SeriesFrame)}, {@link #slice(long, long)}... – are views that share that data. They only
+ * allocate the new key index and (int) row mappings, never any of the values. Use
+ * {@link #copy(DenseArray.Factory)} to materialise a view.
+ * </p>
+ * <p>
+ * The frame is an {@link Access2D} with the keys as rows and the series as columns.
+ * </p>
+ *
+ * @author apete
+ */
+public final class SeriesFrame implements Access2D<Double> {
+
+    /**
+     * A column is a view of some underlying data: row i of the column is row(i) of the data, where a negative
+     * row means the value is missing.
+     */
+    static final class Column {
+
+        private final Access1D<Double> myData;
+        private final int myOffset;
+        private final int[] myRows;
+
+        Column(final Access1D<Double> data, final int[] rows, final int offset) {
+
+            super();
+
+            myData = data;
+            myRows = rows;
+            myOffset = offset;
+        }
+
+        double doubleValue(final int index) {
+            final int tmpRow = this.row(index);
+            return tmpRow >= 0 ? myData.doubleValue(tmpRow) : NaN;
+        }
+
+        /**
+         * Carry the last valid (not NaN) value forward.
+         */
+        Column fillForward(final int size) {
+
+            final int[] tmpRows = new int[size];
+
+            int tmpLast = -1;
+            for (int i = 0; i < size; i++) {
+                final int tmpRow = this.row(i);
+                if ((tmpRow >= 0) && !Double.isNaN(myData.doubleValue(tmpRow))) {
+                    tmpLast = tmpRow;
+                }
+                tmpRows[i] = tmpLast;
+            }
+
+            return new Column(myData, tmpRows, 0);
+        }
+
+        int row(final int index) {
+            return myRows != null ? myRows[myOffset + index] : myOffset + index;
+        }
+
+        /**
+         * @param selection Row indices of this column, negative for missing
+         */
+        Column select(final int[] selection) {
+
+            final int[] tmpRows = new int[selection.length];
+
+            for (int i = 0; i < selection.length; i++) {
+                tmpRows[i] = selection[i] >= 0 ? this.row(selection[i]) : -1;
+            }
+
+            return new Column(myData, tmpRows, 0);
+        }
+
+        Column slice(final int first) {
+            return new Column(myData, myRows, myOffset + first);
+        }
+
+    }
+
+    /**
+     * Coordinates the series – the keys are the union of all the series' keys.
+     */
+    public static SeriesFrame from(final Collection<? extends BasicSeries<CalendarDate, ?>> series) {
+        return SeriesFrame.from(series, Primitive64Array.FACTORY);
+    }
+
+    /**
+     * @param storage Use {@link org.ojalgo.array.BufferArray#DIRECT64} for off-heap storage
+     */
+    public static SeriesFrame from(final Collection<? extends BasicSeries<CalendarDate, ?>> series, final DenseArray.Factory<Double> storage) {
+
+        int tmpCount = 0;
+        for (final BasicSeries<CalendarDate, ?> tmpSeries : series) {
+            tmpCount += tmpSeries.size();
+        }
+
+        final long[] tmpAllKeys = new long[tmpCount];
+        int tmpIndex = 0;
+        for (final BasicSeries<CalendarDate, ?> tmpSeries : series) {
+            for (final CalendarDate tmpKey : tmpSeries.keySet()) {
+                tmpAllKeys[tmpIndex++] = tmpKey.millis;
+            }
+        }
+        final long[] tmpKeys = SeriesFrame.distinct(tmpAllKeys, tmpCount);
+
+        final List<String> tmpNames = new ArrayList<>(series.size());
+        final Column[] tmpColumns = new Column[series.size()];
+
+        int tmpColumn = 0;
+        for (final BasicSeries<CalendarDate, ?> tmpSeries : series) {
+
+            final DenseArray<Double> tmpData = storage.makeZero(tmpKeys.length);
+            tmpData.fillAll(NaN);
+
+            // Both the series and the index are sorted, so a simple merge will do
+            int tmpRow = 0;
+            for (final Map.Entry<CalendarDate, ? extends Number> tmpEntry : tmpSeries.entrySet()) {
+                final long tmpKey = tmpEntry.getKey().millis;
+                while (tmpKeys[tmpRow] < tmpKey) {
+                    tmpRow++;
+                }
+                final Number tmpValue = tmpEntry.getValue();
+                tmpData.set(tmpRow, tmpValue != null ? tmpValue.doubleValue() : NaN);
+            }
+
+            tmpNames.add(tmpSeries.getName() != null ? tmpSeries.getName() : Integer.toString(tmpColumn));
+            tmpColumns[tmpColumn++] = new Column(tmpData, null, 0);
+        }
+
+        return new SeriesFrame(tmpKeys, 0, tmpKeys.length, tmpNames, tmpColumns);
+    }
+
+    /**
+     * Wraps existing data – nothing is copied.
+     *
+     * @param keys Strictly increasing (epoch millisecond) keys
+     * @param names One name per column
+     * @param columns The values, each array the same length as the keys
+     */
+    public static SeriesFrame wrap(final long[] keys, final List<String> names, final double[]... columns) {
+
+        if (names.size() != columns.length) {
+            throw new ProgrammingError("There must be one name per column!");
+        }
+
+        final Column[] tmpColumns = new Column[columns.length];
+        for (int c = 0; c < columns.length; c++) {
+            if (columns[c].length != keys.length) {
+                throw new ProgrammingError("All columns must have the same length as the keys!");
+            }
+            tmpColumns[c] = new Column(Primitive64Array.wrap(columns[c]), null, 0);
+        }
+
+        return new SeriesFrame(keys, 0, keys.length, new ArrayList<>(names), tmpColumns);
+    }
+
+    /**
+     * Sorts (in place) and removes duplicates
+     */
+    static long[] distinct(final long[] keys, final int length) {
+
+        if (length == 0) {
+            return new long[0];
+        }
+
+        Arrays.sort(keys, 0, length);
+
+        int tmpUnique = 1;
+        for (int i = 1; i < length; i++) {
+            if (keys[i] != keys[tmpUnique - 1]) {
+                keys[tmpUnique++] = keys[i];
+            }
+        }
+
+        return Arrays.copyOf(keys, tmpUnique);
+    }
+
+    private final Column[] myColumns;
+    private final long[] myKeys;
+    private final List<String> myNames;
+    private final int myOffset;
+    private final int mySize;
+
+    private SeriesFrame(final long[] keys, final int offset, final int size, final List<String> names, final Column[] columns) {
+
+        super();
+
+        myKeys = keys;
+        myOffset = offset;
+        mySize = size;
+        myNames = names;
+        myColumns = columns;
+    }
+
+    /**
+     * @param keys Strictly increasing (epoch millisecond) keys
+     * @return A view with the given keys – values are matched on exact key equality, and missing keys give
+     *         NaN values.
+     */
+    public SeriesFrame align(final long... keys) {
+
+        final int[] tmpSelection = new int[keys.length];
+
+        int tmpRow = 0;
+        for (int i = 0; i < keys.length; i++) {
+            while ((tmpRow < mySize) && (this.key(tmpRow) < keys[i])) {
+                tmpRow++;
+            }
+            tmpSelection[i] = (tmpRow < mySize) && (this.key(tmpRow) == keys[i]) ? tmpRow : -1;
+        }
+
+        final Column[] tmpColumns = new Column[myColumns.length];
+        for (int c = 0; c < myColumns.length; c++) {
+            tmpColumns[c] = myColumns[c].select(tmpSelection);
+        }
+
+        return new SeriesFrame(keys, 0, keys.length, myNames, tmpColumns);
+    }
+
+    /**
+     * @return A view with the same keys as the other frame
+     */
+    public SeriesFrame align(final SeriesFrame other) {
+        return this.align(other.keys());
+    }
+
+    /**
+     * @return A new frame, with its own (dense) copy of the data – a materialised view
+     */
+    public SeriesFrame copy(final DenseArray.Factory<Double> storage) {
+
+        final Column[] tmpColumns = new Column[myColumns.length];
+
+        for (int c = 0; c < myColumns.length; c++) {
+            final Column tmpColumn = myColumns[c];
+            final DenseArray<Double> tmpData = storage.makeZero(mySize);
+            for (int i = 0; i < mySize; i++) {
+                tmpData.set(i, tmpColumn.doubleValue(i));
+            }
+            tmpColumns[c] = new Column(tmpData, null, 0);
+        }
+
+        return new SeriesFrame(this.keys(), 0, mySize, myNames, tmpColumns);
+    }
+
+    public long countColumns() {
+        return myColumns.length;
+    }
+
+    public long countRows() {
+        return mySize;
+    }
+
+    public double doubleValue(final long row, final long col) {
+        return myColumns[(int) col].doubleValue((int) row);
+    }
+
+    /**
+     * @return A view where any missing (NaN) value is replaced by the previous valid value in the same
+     *         column (if there is one).
+     */
+    public SeriesFrame fillForward() {
+
+        final Column[] tmpColumns = new Column[myColumns.length];
+        for (int c = 0; c < myColumns.length; c++) {
+            tmpColumns[c] = myColumns[c].fillForward(mySize);
+        }
+
+        return new SeriesFrame(myKeys, myOffset, mySize, myNames, tmpColumns);
+    }
+
+    public Double get(final long row, final long col) {
+        return this.doubleValue(row, col);
+    }
+
+    public CalendarDate getFirstKey() {
+        return new CalendarDate(this.key(0));
+    }
+
+    public CalendarDate getLastKey() {
+        return new CalendarDate(this.key(mySize - 1));
+    }
+
+    public String getName(final int col) {
+        return myNames.get(col);
+    }
+
+    public List<String> getNames() {
+        return Collections.unmodifiableList(myNames);
+    }
+
+    /**
+     * @return A view of the column
+     */
+    public PrimitiveSeries getSeries(final int col) {
+
+        final Column tmpColumn = myColumns[col];
+        final int tmpSize = mySize;
+
+        return new PrimitiveSeries() {
+
+            @Override
+            public int size() {
+                return tmpSize;
+            }
+
+            @Override
+            public double value(final int index) {
+                return tmpColumn.doubleValue(index);
+            }
+
+        };
+    }
+
+    public PrimitiveSeries getSeries(final String name) {
+        return this.getSeries(this.indexOf(name));
+    }
+
+    public ExplicitTimeSeries getTimeSeries(final int col) {
+        return new ExplicitTimeSeries(this.keys(), this.getSeries(col));
+    }
+
+    /**
+     * @return The column index, or -1 if there is no such series
+     */
+    public int indexOf(final String name) {
+        return myNames.indexOf(name);
+    }
+
+    /**
+     * Outer join – the keys are the union of both frames' keys, and the columns are this frame's followed by
+     * the other's.
+     */
+    public SeriesFrame join(final SeriesFrame other) {
+
+        for (final String tmpName : other.getNames()) {
+            if (myNames.contains(tmpName)) {
+                throw new ProgrammingError("Duplicate series name: " + tmpName);
+            }
+        }
+
+        final long[] tmpKeys = new long[mySize + other.mySize];
+        final int[] tmpLeft = new int[tmpKeys.length];
+        final int[] tmpRight = new int[tmpKeys.length];
+
+        int i = 0, j = 0, k = 0;
+        while ((i < mySize) || (j < other.mySize)) {
+            final long tmpLeftKey = i < mySize ? this.key(i) : Long.MAX_VALUE;
+            final long tmpRightKey = j < other.mySize ? other.key(j) : Long.MAX_VALUE;
+            if (tmpLeftKey == tmpRightKey) {
+                tmpKeys[k] = tmpLeftKey;
+                tmpLeft[k] = i++;
+                tmpRight[k] = j++;
+            } else if (tmpLeftKey < tmpRightKey) {
+                tmpKeys[k] = tmpLeftKey;
+                tmpLeft[k] = i++;
+                tmpRight[k] = -1;
+            } else {
+                tmpKeys[k] = tmpRightKey;
+                tmpLeft[k] = -1;
+                tmpRight[k] = j++;
+            }
+            k++;
+        }
+
+        final int[] tmpLeftSelection = Arrays.copyOf(tmpLeft, k);
+        final int[] tmpRightSelection = Arrays.copyOf(tmpRight, k);
+
+        final Column[] tmpColumns = new Column[myColumns.length + other.myColumns.length];
+        for (int c = 0; c < myColumns.length; c++) {
+            tmpColumns[c] = myColumns[c].select(tmpLeftSelection);
+        }
+        for (int c = 0; c < other.myColumns.length; c++) {
+            tmpColumns[myColumns.length + c] = other.myColumns[c].select(tmpRightSelection);
+        }
+
+        final List<String> tmpNames = new ArrayList<>(myNames);
+        tmpNames.addAll(other.getNames());
+
+        return new SeriesFrame(Arrays.copyOf(tmpKeys, k), 0, k, tmpNames, tmpColumns);
+    }
+
+    /**
+     * @return The (epoch millisecond) key of the row
+     */
+    public long key(final int row) {
+        return myKeys[myOffset + row];
+    }
+
+    /**
+     * @return The keys – not a copy unless this frame is a slice
+     */
+    public long[] keys() {
+        if ((myOffset == 0) && (mySize == myKeys.length)) {
+            return myKeys;
+        } else {
+            return Arrays.copyOfRange(myKeys, myOffset, myOffset + mySize);
+        }
+    }
+
+    /**
+     * The same as {@link CoordinationSet#prune()}
+     *
+     * @return A view where all series have a valid (not NaN) value at the first and last keys – those
+     *         between the latest first valid value and the earliest last valid value.
+     */
+    public SeriesFrame prune() {
+
+        int tmpFirst = 0;
+        int tmpLast = mySize - 1;
+
+        for (final Column tmpColumn : myColumns) {
+
+            int tmpColumnFirst = 0;
+            while ((tmpColumnFirst < mySize) && Double.isNaN(tmpColumn.doubleValue(tmpColumnFirst))) {
+                tmpColumnFirst++;
+            }
+            int tmpColumnLast = mySize - 1;
+            while ((tmpColumnLast >= 0) && Double.isNaN(tmpColumn.doubleValue(tmpColumnLast))) {
+                tmpColumnLast--;
+            }
+
+            tmpFirst = Math.max(tmpFirst, tmpColumnFirst);
+            tmpLast = Math.min(tmpLast, tmpColumnLast);
+        }
+
+        return this.view(tmpFirst, Math.max(tmpLast + 1, tmpFirst));
+    }
+
+    /**
+     * Maps the keys using the resolution, and then keeps the last valid (not NaN) value within each new key,
+     * per series. Same as {@link CalendarDateSeries#resample(CalendarDate.Resolution)}.
+     */
+    public SeriesFrame resample(final CalendarDate.Resolution resolution) {
+
+        final long[] tmpKeys = new long[mySize];
+        final int[] tmpBucketEnds = new int[mySize];
+
+        int tmpBuckets = 0;
+        for (int i = 0; i < mySize; i++) {
+            final long tmpKey = resolution.adjustInto(this.key(i));
+            if ((tmpBuckets == 0) || (tmpKeys[tmpBuckets - 1] != tmpKey)) {
+                tmpKeys[tmpBuckets++] = tmpKey;
+            }
+            tmpBucketEnds[tmpBuckets - 1] = i + 1;
+        }
+
+        final Column[] tmpColumns = new Column[myColumns.length];
+
+        for (int c = 0; c < myColumns.length; c++) {
+
+            final Column tmpColumn = myColumns[c];
+            final int[] tmpRows = new int[tmpBuckets];
+
+            int tmpBucketStart = 0;
+            for (int b = 0; b < tmpBuckets; b++) {
+                int tmpRow = -1;
+                for (int i = tmpBucketEnds[b] - 1; (tmpRow < 0) && (i >= tmpBucketStart); i--) {
+                    if (!Double.isNaN(tmpColumn.doubleValue(i))) {
+                        tmpRow = tmpColumn.row(i);
+                    }
+                }
+                tmpRows[b] = tmpRow;
+                tmpBucketStart = tmpBucketEnds[b];
+            }
+
+            tmpColumns[c] = new Column(tmpColumn.myData, tmpRows, 0);
+        }
+
+        return new SeriesFrame(Arrays.copyOf(tmpKeys, tmpBuckets), 0, tmpBuckets, myNames, tmpColumns);
+    }
+
+    /**
+     * @return A view with only the named series, in the given order
+     */
+    public SeriesFrame select(final String... names) {
+
+        final Column[] tmpColumns = new Column[names.length];
+        for (int c = 0; c < names.length; c++) {
+            final int tmpIndex = this.indexOf(names[c]);
+            if (tmpIndex < 0) {
+                throw new ProgrammingError("No such series: " + names[c]);
+            }
+            tmpColumns[c] = myColumns[tmpIndex];
+        }
+
+        return new SeriesFrame(myKeys, myOffset, mySize, Arrays.asList(names.clone()), tmpColumns);
+    }
+
+    /**
+     * @return A view of the keys in the range, both inclusive
+     */
+    public SeriesFrame slice(final long fromKey, final long toKey) {
+
+        int tmpFirst = Arrays.binarySearch(myKeys, myOffset, myOffset + mySize, fromKey);
+        if (tmpFirst < 0) {
+            tmpFirst = -(tmpFirst + 1);
+        }
+        int tmpLimit = Arrays.binarySearch(myKeys, myOffset, myOffset + mySize, toKey);
+        tmpLimit = tmpLimit < 0 ? -(tmpLimit + 1) : tmpLimit + 1;
+
+        return this.view(tmpFirst - myOffset, Math.max(tmpLimit, tmpFirst) - myOffset);
+    }
+
+    @Override
+    public String toString() {
+        return this.getClass().getSimpleName() + " < " + mySize + " x " + myColumns.length + " > " + myNames;
+    }
+
+    private SeriesFrame view(final int first, final int limit) {
+
+        final Column[] tmpColumns = new Column[myColumns.length];
+        for (int c = 0; c < myColumns.length; c++) {
+            tmpColumns[c] = myColumns[c].slice(first);
+        }
+
+        return new SeriesFrame(myKeys, myOffset + first, limit - first, myNames, tmpColumns);
+    }
+
+}
@@ -38,6 +38,19 @@ final class BinaryFunctionSeries extends PrimitiveSeries {
         myFunction = function;
     }
 
+    @Override
+    protected void fill(final int first, final int limit, final double[] destination, final int offset) {
+
+        final double[] tmpRight = new double[limit - first];
+
+        myLeftSeries.fill(first, limit, destination, offset);
+        myRightSeries.fill(first, limit, tmpRight, 0);
+
+        for (int i = 0; i < tmpRight.length; i++) {
+            destination[offset + i] = myFunction.invoke(destination[offset + i], tmpRight[i]);
+        }
+    }
+
     @Override
     public final int size() {
         return Math.min(myLeftSeries.size(), myRightSeries.size());
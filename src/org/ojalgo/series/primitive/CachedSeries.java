@@ -0,0 +1,69 @@
+/*
+ * Copyright 1997-2018 Optimatika
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.ojalgo.series.primitive;
+
+final class CachedSeries extends PrimitiveSeries {
+
+    private final PrimitiveSeries myBase;
+    private volatile double[] myValues = null;
+
+    CachedSeries(final PrimitiveSeries base) {
+
+        super();
+
+        myBase = base;
+    }
+
+    @Override
+    public PrimitiveSeries cache() {
+        return this;
+    }
+
+    @Override
+    public final int size() {
+        return this.getValues().length;
+    }
+
+    @Override
+    public final double value(final int index) {
+        return this.getValues()[index];
+    }
+
+    private double[] getValues() {
+        double[] retVal = myValues;
+        if (retVal == null) {
+            synchronized (this) {
+                retVal = myValues;
+                if (retVal == null) {
+                    myValues = retVal = myBase.values();
+                }
+            }
+        }
+        return retVal;
+    }
+
+    @Override
+    protected void fill(final int first, final int limit, final double[] destination, final int offset) {
+        System.arraycopy(this.getValues(), first, destination, offset, limit - first);
+    }
+
+}
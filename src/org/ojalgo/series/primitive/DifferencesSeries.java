@@ -42,6 +42,17 @@ final class DifferencesSeries extends PrimitiveSeries {
         myPeriod = period;
     }
 
+    @Override
+    protected void fill(final int first, final int limit, final double[] destination, final int offset) {
+
+        final double[] tmpBase = new double[(limit - first) + myPeriod];
+        mySeries.fill(first, limit + myPeriod, tmpBase, 0);
+
+        for (int i = 0, length = limit - first; i < length; i++) {
+            destination[offset + i] = tmpBase[i + myPeriod] - tmpBase[i];
+        }
+    }
+
     @Override
     public final int size() {
         return mySeries.size() - myPeriod;
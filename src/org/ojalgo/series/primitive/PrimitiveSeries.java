@@ -26,10 +26,27 @@ import static org.ojalgo.function.PrimitiveFunction.*;
 import java.util.Arrays;
 
 import org.ojalgo.array.Array1D;
+import org.ojalgo.concurrent.DivideAndConquer;
 import org.ojalgo.structure.Access1D;
 
+/**
+ * The operations (add, multiply, log, differences...) return lazy views that recompute value(index) through
+ * the whole chain on every access. Use {@link #toDataSeries()} (or {@link #values()}) to evaluate a chain in
+ * one fused pass, or {@link #cache()} to have that done on first access.
+ */
 public abstract class PrimitiveSeries implements Access1D<Double> {
 
+    /**
+     * Chains are evaluated block by block – each operation is applied to a whole block before moving on to
+     * the next operation.
+     */
+    static final int BLOCK = 4096;
+
+    /**
+     * Series longer than this are evaluated in parallel (by block).
+     */
+    static final int PARALLELISM_THRESHOLD = 16 * BLOCK;
+
     public static PrimitiveSeries copy(final Access1D<?> template) {
         return new AccessSeries(Array1D.PRIMITIVE64.copy(template));
     }
@@ -50,6 +67,15 @@ public abstract class PrimitiveSeries implements Access1D<Double> {
         return new BinaryFunctionSeries(this, ADD, addend);
     }
 
+    /**
+     * @return A series that evaluates this one (in one fused pass) on first access, and then keeps the
+     *         values. The values are a snapshot – subsequent changes to any underlying data are not
+     *         reflected.
+     */
+    public PrimitiveSeries cache() {
+        return new CachedSeries(this);
+    }
+
     public PrimitiveSeries copy() {
         return this.toDataSeries();
     }
@@ -124,15 +150,24 @@ public abstract class PrimitiveSeries implements Access1D<Double> {
         return new QuotientsSeries(this, period);
     }
 
+    /**
+     * @param window The number of elements in each window
+     * @return Rolling (moving) window statistics of this series
+     */
+    public RollingWindow rolling(final int window) {
+        return new RollingWindow(this, window);
+    }
+
     public PrimitiveSeries runningProduct(final double initialValue) {
 
         final int tmpNewSize = this.size() + 1;
 
         final double[] tmpValues = new double[tmpNewSize];
+        this.fill(0, tmpNewSize - 1, tmpValues, 1);
 
         double tmpAggrVal = tmpValues[0] = initialValue;
         for (int i = 1; i < tmpNewSize; i++) {
-            tmpValues[i] = tmpAggrVal *= this.value(i - 1);
+            tmpValues[i] = tmpAggrVal *= tmpValues[i];
         }
 
         return DataSeries.wrap(tmpValues);
@@ -143,10 +178,11 @@ public abstract class PrimitiveSeries implements Access1D<Double> {
         final int tmpNewSize = this.size() + 1;
 
         final double[] tmpValues = new double[tmpNewSize];
+        this.fill(0, tmpNewSize - 1, tmpValues, 1);
 
         double tmpAggrVal = tmpValues[0] = initialValue;
         for (int i = 1; i < tmpNewSize; i++) {
-            tmpValues[i] = tmpAggrVal += this.value(i - 1);
+            tmpValues[i] = tmpAggrVal += tmpValues[i];
         }
 
         return DataSeries.wrap(tmpValues);
@@ -162,6 +198,9 @@ public abstract class PrimitiveSeries implements Access1D<Double> {
         return new BinaryFunctionSeries(this, SUBTRACT, subtrahend);
     }
 
+    /**
+     * Evaluates the whole chain of operations in one fused pass (in parallel for long series).
+     */
     public final DataSeries toDataSeries() {
         return DataSeries.wrap(this.values());
     }
@@ -173,16 +212,53 @@ public abstract class PrimitiveSeries implements Access1D<Double> {
 
     public abstract double value(final int index);
 
+    /**
+     * Evaluates the whole chain of operations in one fused pass (in parallel for long series).
+     */
     public final double[] values() {
 
         final int tmpSize = this.size();
         final double[] retVal = new double[tmpSize];
 
-        for (int i = 0; i < tmpSize; i++) {
-            retVal[i] = this.value(i);
+        final int tmpBlocks = (tmpSize + BLOCK - 1) / BLOCK;
+
+        if (tmpSize > PARALLELISM_THRESHOLD) {
+
+            final DivideAndConquer tmpConquerer = new DivideAndConquer() {
+
+                @Override
+                protected void conquer(final int first, final int limit) {
+                    for (int b = first; b < limit; b++) {
+                        final int tmpFirst = b * BLOCK;
+                        PrimitiveSeries.this.fill(tmpFirst, Math.min(tmpFirst + BLOCK, tmpSize), retVal, tmpFirst);
+                    }
+                }
+
+            };
+
+            tmpConquerer.invoke(0, tmpBlocks, 1);
+
+        } else {
+
+            for (int b = 0; b < tmpBlocks; b++) {
+                final int tmpFirst = b * BLOCK;
+                this.fill(tmpFirst, Math.min(tmpFirst + BLOCK, tmpSize), retVal, tmpFirst);
+            }
         }
 
         return retVal;
     }
 
+    /**
+     * Bulk version of {@link #value(int)}: destination[offset + i - first] = value(i) for first &lt;= i &lt;
+     * limit. Operations should override this to first fill the range from their input series, and then apply
+     * themselves to the whole range – that's what makes the evaluation of a chain fused. Must not modify any
+     * state, as ranges may be filled concurrently.
+     */
+    protected void fill(final int first, final int limit, final double[] destination, final int offset) {
+        for (int i = first; i < limit; i++) {
+            destination[(offset + i) - first] = this.value(i);
+        }
+    }
+
 }
@@ -46,6 +46,11 @@ public abstract class PrimitiveTimeSeries extends PrimitiveSeries {
 
     public abstract CalendarDate last();
 
+    @Override
+    protected void fill(final int first, final int limit, final double[] destination, final int offset) {
+        myValueSeries.fill(first, limit, destination, offset);
+    }
+
     @Override
     public final int size() {
         return myValueSeries.size();
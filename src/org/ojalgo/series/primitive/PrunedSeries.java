@@ -42,6 +42,12 @@ final class PrunedSeries extends PrimitiveSeries {
         myShift = shift;
     }
 
+    @Override
+    protected void fill(final int first, final int limit, final double[] destination, final int offset) {
+        final int tmpShift = -Math.min(myShift, 0);
+        myBase.fill(first + tmpShift, limit + tmpShift, destination, offset);
+    }
+
     @Override
     public final int size() {
         return myBase.size() - Math.abs(myShift);
@@ -0,0 +1,331 @@
+/*
+ * Copyright 1997-2018 Optimatika
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.ojalgo.series.primitive;
+
+import static org.ojalgo.constant.PrimitiveMath.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Function;
+
+import org.ojalgo.ProgrammingError;
+import org.ojalgo.concurrent.DivideAndConquer;
+import org.ojalgo.function.PrimitiveFunction;
+
+/**
+ * Statistics over a window sliding along a series. Each statistic is computed eagerly, in a single O(n)
+ * pass, and returned as a {@link DataSeries} of size n - window + 1 where element i corresponds to the
+ * (input) elements [i, i + window).
+ * <p>
+ * Variance and covariance are updated with the Welford (add one, remove one) recurrences rather than by
+ * subtracting running sums of squares, and minimum/maximum use a monotonic deque of indices.
+ * </p>
+ *
+ * @author apete
+ */
+public final class RollingWindow {
+
+    /**
+     * Apply the same statistic to many series (columns) in parallel.
+     *
+     * @param columns The series
+     * @param window The window size
+     * @param statistic Something like RollingWindow::mean
+     * @return The results in the same order as the columns
+     */
+    public static List<DataSeries> apply(final List<? extends PrimitiveSeries> columns, final int window,
+            final Function<RollingWindow, DataSeries> statistic) {
+
+        final DataSeries[] retVal = new DataSeries[columns.size()];
+
+        final DivideAndConquer tmpConquerer = new DivideAndConquer() {
+
+            @Override
+            protected void conquer(final int first, final int limit) {
+                for (int c = first; c < limit; c++) {
+                    retVal[c] = statistic.apply(new RollingWindow(columns.get(c), window));
+                }
+            }
+
+        };
+
+        tmpConquerer.invoke(0, retVal.length, 1);
+
+        return new ArrayList<>(Arrays.asList(retVal));
+    }
+
+    private final PrimitiveSeries mySeries;
+    private final int myWindow;
+
+    RollingWindow(final PrimitiveSeries series, final int window) {
+
+        super();
+
+        ProgrammingError.throwIfNull(series);
+        if (window < 1) {
+            throw new IllegalArgumentException("The window must be at least 1!");
+        }
+
+        mySeries = series;
+        myWindow = window;
+    }
+
+    public DataSeries correlation(final PrimitiveSeries other) {
+
+        final double[][] tmpMoments = this.comoments(other);
+        final double[] tmpCovar = tmpMoments[0];
+        final double[] tmpVarX = tmpMoments[1];
+        final double[] tmpVarY = tmpMoments[2];
+
+        for (int i = 0; i < tmpCovar.length; i++) {
+            tmpCovar[i] = tmpCovar[i] / PrimitiveFunction.SQRT.invoke(tmpVarX[i] * tmpVarY[i]);
+        }
+
+        return DataSeries.wrap(tmpCovar);
+    }
+
+    /**
+     * Sample covariance (divided by window - 1)
+     */
+    public DataSeries covariance(final PrimitiveSeries other) {
+
+        final double[] retVal = this.comoments(other)[0];
+
+        final double tmpDivisor = myWindow - 1;
+        for (int i = 0; i < retVal.length; i++) {
+            retVal[i] /= tmpDivisor;
+        }
+
+        return DataSeries.wrap(retVal);
+    }
+
+    /**
+     * Exponentially weighted moving average with alpha = 2 / (window + 1) – the window is interpreted as the
+     * span. Unlike the other statistics the result has the same size as the input series.
+     */
+    public DataSeries ewma() {
+        return this.ewma(TWO / (myWindow + 1));
+    }
+
+    /**
+     * Exponentially weighted moving average: s(0) = x(0) and s(i) = alpha * x(i) + (1 - alpha) * s(i-1).
+     * Unlike the other statistics the result has the same size as the input series.
+     */
+    public DataSeries ewma(final double alpha) {
+
+        final double[] retVal = mySeries.values();
+
+        for (int i = 1; i < retVal.length; i++) {
+            retVal[i] = retVal[i - 1] + (alpha * (retVal[i] - retVal[i - 1]));
+        }
+
+        return DataSeries.wrap(retVal);
+    }
+
+    public int getWindow() {
+        return myWindow;
+    }
+
+    public DataSeries maximum() {
+        return this.extreme(true);
+    }
+
+    public DataSeries mean() {
+
+        final double[] tmpInput = mySeries.values();
+        final double[] retVal = this.allocate(tmpInput.length);
+
+        if (retVal.length > 0) {
+
+            double tmpMean = ZERO;
+            for (int i = 0; i < myWindow; i++) {
+                tmpMean += (tmpInput[i] - tmpMean) / (i + 1);
+            }
+            retVal[0] = tmpMean;
+
+            for (int i = 1; i < retVal.length; i++) {
+                tmpMean += (tmpInput[(i + myWindow) - 1] - tmpInput[i - 1]) / myWindow;
+                retVal[i] = tmpMean;
+            }
+        }
+
+        return DataSeries.wrap(retVal);
+    }
+
+    public DataSeries minimum() {
+        return this.extreme(false);
+    }
+
+    public DataSeries standardDeviation() {
+
+        final double[] retVal = this.variance().values();
+
+        for (int i = 0; i < retVal.length; i++) {
+            retVal[i] = PrimitiveFunction.SQRT.invoke(retVal[i]);
+        }
+
+        return DataSeries.wrap(retVal);
+    }
+
+    /**
+     * Uses Kahan (compensated) summation so that the add/remove updates do not accumulate rounding errors.
+     */
+    public DataSeries sum() {
+
+        final double[] tmpInput = mySeries.values();
+        final double[] retVal = this.allocate(tmpInput.length);
+
+        double tmpSum = ZERO;
+        double tmpCompensation = ZERO;
+
+        for (int i = 0; i < tmpInput.length; i++) {
+
+            double tmpTerm = tmpInput[i] - tmpCompensation;
+            double tmpNewSum = tmpSum + tmpTerm;
+            tmpCompensation = (tmpNewSum - tmpSum) - tmpTerm;
+            tmpSum = tmpNewSum;
+
+            if (i >= myWindow) {
+                tmpTerm = -tmpInput[i - myWindow] - tmpCompensation;
+                tmpNewSum = tmpSum + tmpTerm;
+                tmpCompensation = (tmpNewSum - tmpSum) - tmpTerm;
+                tmpSum = tmpNewSum;
+            }
+
+            if (i >= (myWindow - 1)) {
+                retVal[(i - myWindow) + 1] = tmpSum;
+            }
+        }
+
+        return DataSeries.wrap(retVal);
+    }
+
+    /**
+     * Sample variance (divided by window - 1)
+     */
+    public DataSeries variance() {
+        return this.covariance(mySeries);
+    }
+
+    private double[] allocate(final int inputSize) {
+        return new double[Math.max((inputSize - myWindow) + 1, 0)];
+    }
+
+    /**
+     * @return The (rolling) co-moment and the two second moments – sums of products of deviations from the
+     *         window means, not yet divided by anything.
+     */
+    private double[][] comoments(final PrimitiveSeries other) {
+
+        final double[] tmpX = mySeries.values();
+        final double[] tmpY = other == mySeries ? tmpX : other.values();
+
+        final int tmpSize = Math.min(tmpX.length, tmpY.length);
+
+        final double[] retCovar = this.allocate(tmpSize);
+        final double[] retVarX = tmpY == tmpX ? retCovar : new double[retCovar.length];
+        final double[] retVarY = tmpY == tmpX ? retCovar : new double[retCovar.length];
+
+        double tmpMeanX = ZERO, tmpMeanY = ZERO;
+        double tmpCovar = ZERO, tmpVarX = ZERO, tmpVarY = ZERO;
+
+        for (int i = 0; i < tmpSize; i++) {
+
+            if ((i >= myWindow) && (myWindow == 1)) {
+                tmpMeanX = tmpMeanY = tmpCovar = tmpVarX = tmpVarY = ZERO;
+            } else if (i >= myWindow) {
+                // Remove the oldest element, going from myWindow to myWindow - 1 elements
+                final double tmpOldX = tmpX[i - myWindow];
+                final double tmpOldY = tmpY[i - myWindow];
+                final double tmpPrevMeanX = ((myWindow * tmpMeanX) - tmpOldX) / (myWindow - 1);
+                final double tmpPrevMeanY = ((myWindow * tmpMeanY) - tmpOldY) / (myWindow - 1);
+                tmpCovar -= (tmpOldX - tmpPrevMeanX) * (tmpOldY - tmpMeanY);
+                tmpVarX -= (tmpOldX - tmpPrevMeanX) * (tmpOldX - tmpMeanX);
+                tmpVarY -= (tmpOldY - tmpPrevMeanY) * (tmpOldY - tmpMeanY);
+                tmpMeanX = tmpPrevMeanX;
+                tmpMeanY = tmpPrevMeanY;
+            }
+
+            final int tmpCount = Math.min(i, myWindow - 1) + 1;
+            final double tmpDeltaX = tmpX[i] - tmpMeanX;
+            final double tmpDeltaY = tmpY[i] - tmpMeanY;
+            tmpMeanX += tmpDeltaX / tmpCount;
+            tmpMeanY += tmpDeltaY / tmpCount;
+            tmpCovar += tmpDeltaX * (tmpY[i] - tmpMeanY);
+            tmpVarX += tmpDeltaX * (tmpX[i] - tmpMeanX);
+            tmpVarY += tmpDeltaY * (tmpY[i] - tmpMeanY);
+
+            if (i >= (myWindow - 1)) {
+                final int tmpIndex = (i - myWindow) + 1;
+                if (retVarX != retCovar) {
+                    retCovar[tmpIndex] = tmpCovar;
+                    retVarX[tmpIndex] = Math.max(tmpVarX, ZERO);
+                    retVarY[tmpIndex] = Math.max(tmpVarY, ZERO);
+                } else {
+                    // The downdates can leave a (tiny) negative second moment when the window is constant
+                    retCovar[tmpIndex] = Math.max(tmpCovar, ZERO);
+                }
+            }
+        }
+
+        return new double[][] { retCovar, retVarX, retVarY };
+    }
+
+    private DataSeries extreme(final boolean maximum) {
+
+        final double[] tmpInput = mySeries.values();
+        final double[] retVal = this.allocate(tmpInput.length);
+
+        // Monotonic deque of indices, stored in a ring buffer
+        final int[] tmpDeque = new int[myWindow + 1];
+        int tmpHead = 0;
+        int tmpLength = 0;
+
+        for (int i = 0; i < tmpInput.length; i++) {
+
+            if ((tmpLength > 0) && (tmpDeque[tmpHead] <= (i - myWindow))) {
+                tmpHead = (tmpHead + 1) % tmpDeque.length;
+                tmpLength--;
+            }
+
+            final double tmpValue = tmpInput[i];
+            while (tmpLength > 0) {
+                final double tmpLast = tmpInput[tmpDeque[(tmpHead + tmpLength - 1) % tmpDeque.length]];
+                if (maximum ? (tmpLast <= tmpValue) : (tmpLast >= tmpValue)) {
+                    tmpLength--;
+                } else {
+                    break;
+                }
+            }
+            tmpDeque[(tmpHead + tmpLength) % tmpDeque.length] = i;
+            tmpLength++;
+
+            if (i >= (myWindow - 1)) {
+                retVal[(i - myWindow) + 1] = tmpInput[tmpDeque[tmpHead]];
+            }
+        }
+
+        return DataSeries.wrap(retVal);
+    }
+
+}
@@ -36,6 +36,16 @@ final class UnaryFunctionSeries extends PrimitiveSeries {
         myFunction = aFunction;
     }
 
+    @Override
+    protected void fill(final int first, final int limit, final double[] destination, final int offset) {
+
+        mySeries.fill(first, limit, destination, offset);
+
+        for (int i = offset, end = (offset + limit) - first; i < end; i++) {
+            destination[i] = myFunction.invoke(destination[i]);
+        }
+    }
+
     @Override
     public final int size() {
         return mySeries.size();
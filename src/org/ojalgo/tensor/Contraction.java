@@ -0,0 +1,581 @@
+/*
+ * Copyright 1997-2018 Optimatika
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.ojalgo.tensor;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.ojalgo.array.ArrayAnyD;
+import org.ojalgo.array.Primitive64Array;
+import org.ojalgo.concurrent.DivideAndConquer;
+import org.ojalgo.matrix.store.PrimitiveDenseStore;
+import org.ojalgo.structure.Access1D;
+import org.ojalgo.structure.Access2D;
+import org.ojalgo.structure.AccessAnyD;
+
+/**
+ * Tensor contraction specified using index (Einstein summation) notation – "ij,jk-&gt;ik" is matrix
+ * multiplication, "i,j-&gt;ij" an outer product, "ii-&gt;" the trace and "ijk,aj-&gt;iak" a mode-2 product.
+ * Each operand is given one letter per dimension. Letters that occur in more than one operand, or more than
+ * once in the same operand, must have the same size. Letters that are not part of the output (after the
+ * "-&gt;") are summed over. If there is no "-&gt;" the output is the letters occurring exactly once, in
+ * alphabetical order.
+ * <p>
+ * With more than two operands they are contracted pairwise, each time choosing the pair that gives the
+ * smallest intermediate result. Each pairwise contraction is rearranged to a (batch of) matrix
+ * multiplications performed by {@link PrimitiveDenseStore}, with the batches executed in parallel.
+ * Everything is done in double precision.
+ * <p>
+ * Instances are immutable and may be reused.
+ *
+ * @author apete
+ */
+public final class Contraction {
+
+    static final class Operand {
+
+        final double[] data;
+        final int[] dims;
+        final char[] labels;
+
+        Operand(final char[] labels, final int[] dims, final double[] data) {
+            super();
+            this.labels = labels;
+            this.dims = dims;
+            this.data = data;
+        }
+
+        Operand(final char[] labels, final long[] shape, final Access1D<?> values) {
+
+            super();
+
+            if (shape.length != labels.length) {
+                throw new IllegalArgumentException("Operand rank " + shape.length + " does not match " + new String(labels) + "!");
+            }
+
+            this.labels = labels;
+            dims = new int[shape.length];
+            for (int d = 0; d < shape.length; d++) {
+                dims[d] = Math.toIntExact(shape[d]);
+            }
+
+            data = new double[Math.toIntExact(values.count())];
+            for (int i = 0; i < data.length; i++) {
+                data[i] = values.doubleValue(i);
+            }
+        }
+
+        int dim(final char label) {
+            for (int d = 0; d < labels.length; d++) {
+                if (labels[d] == label) {
+                    return dims[d];
+                }
+            }
+            throw new IllegalArgumentException();
+        }
+
+        boolean has(final char label) {
+            return Contraction.contains(labels, label);
+        }
+
+    }
+
+    /**
+     * @return The outer (tensor) product of the two operands – the rank of the result is the sum of the
+     *         operand ranks.
+     */
+    public static ArrayAnyD<Double> outer(final AccessAnyD<?> left, final AccessAnyD<?> right) {
+
+        final int tmpLeftRank = left.shape().length;
+        final int tmpRightRank = right.shape().length;
+
+        final char[] tmpLeft = Contraction.letters(0, tmpLeftRank);
+        final char[] tmpRight = Contraction.letters(tmpLeftRank, tmpRightRank);
+        final char[] tmpOutput = Contraction.letters(0, tmpLeftRank + tmpRightRank);
+
+        final Contraction tmpContraction = new Contraction(new char[][] { tmpLeft, tmpRight }, tmpOutput);
+
+        return tmpContraction.invoke(new Operand(tmpLeft, left.shape(), left), new Operand(tmpRight, right.shape(), right));
+    }
+
+    /**
+     * The mode-n product: Y = X &times;<sub>n</sub> U where y(i1,...,j,...,iN) = &sum; x(i1,...,in,...,iN)
+     * u(j,in)
+     *
+     * @param tensor X
+     * @param mode n (0-based)
+     * @param matrix U
+     * @return Y
+     */
+    public static ArrayAnyD<Double> product(final AccessAnyD<?> tensor, final int mode, final Access2D<?> matrix) {
+
+        final int tmpRank = tensor.shape().length;
+
+        final char[] tmpTensor = Contraction.letters(0, tmpRank);
+        final char[] tmpMatrix = new char[] { Contraction.letters(tmpRank, 1)[0], tmpTensor[mode] };
+        final char[] tmpOutput = tmpTensor.clone();
+        tmpOutput[mode] = tmpMatrix[0];
+
+        final Contraction tmpContraction = new Contraction(new char[][] { tmpTensor, tmpMatrix }, tmpOutput);
+
+        return tmpContraction.invoke(new Operand(tmpTensor, tensor.shape(), tensor),
+                new Operand(tmpMatrix, new long[] { matrix.countRows(), matrix.countColumns() }, matrix));
+    }
+
+    /**
+     * @param notation Something like "ij,jk-&gt;ik"
+     */
+    public static Contraction of(final String notation) {
+
+        final String tmpNotation = notation.replace(" ", "");
+        final int tmpArrow = tmpNotation.indexOf("->");
+
+        final String[] tmpParts = (tmpArrow >= 0 ? tmpNotation.substring(0, tmpArrow) : tmpNotation).split(",", -1);
+
+        final char[][] tmpInputs = new char[tmpParts.length][];
+        for (int i = 0; i < tmpParts.length; i++) {
+            tmpInputs[i] = Contraction.validate(tmpParts[i]);
+        }
+
+        char[] tmpOutput;
+        if (tmpArrow >= 0) {
+            tmpOutput = Contraction.validate(tmpNotation.substring(tmpArrow + 2));
+            for (int d = 0; d < tmpOutput.length; d++) {
+                if (Contraction.indexOf(tmpOutput, tmpOutput[d]) != d) {
+                    throw new IllegalArgumentException("Repeated output index " + tmpOutput[d] + "!");
+                }
+                boolean tmpFound = false;
+                for (final char[] tmpInput : tmpInputs) {
+                    tmpFound |= Contraction.contains(tmpInput, tmpOutput[d]);
+                }
+                if (!tmpFound) {
+                    throw new IllegalArgumentException("Output index " + tmpOutput[d] + " not in any input!");
+                }
+            }
+        } else {
+            final String tmpAll = String.join("", tmpParts);
+            final StringBuilder tmpImplicit = new StringBuilder();
+            for (final char tmpLabel : tmpAll.toCharArray()) {
+                if (tmpAll.indexOf(tmpLabel) == tmpAll.lastIndexOf(tmpLabel)) {
+                    tmpImplicit.append(tmpLabel);
+                }
+            }
+            tmpOutput = tmpImplicit.toString().toCharArray();
+            Arrays.sort(tmpOutput);
+        }
+
+        return new Contraction(tmpInputs, tmpOutput);
+    }
+
+    static boolean contains(final char[] labels, final char label) {
+        return Contraction.indexOf(labels, label) >= 0;
+    }
+
+    static int indexOf(final char[] labels, final char label) {
+        for (int i = 0; i < labels.length; i++) {
+            if (labels[i] == label) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    static char[] letters(final int first, final int count) {
+        final String tmpAlphabet = "abcdefghijklmnopqrstuvwxyzABCDEFGHIJKLMNOPQRSTUVWXYZ";
+        if ((first + count) > tmpAlphabet.length()) {
+            throw new IllegalArgumentException("Too many dimensions!");
+        }
+        return tmpAlphabet.substring(first, first + count).toCharArray();
+    }
+
+    /**
+     * Multiply matching (column-major) m*k and k*n slices of left and right, for each of the batches.
+     */
+    static double[] multiply(final double[] left, final double[] right, final int m, final int k, final int n, final int batches) {
+
+        final double[] retVal = new double[m * n * batches];
+
+        if (batches > 1) {
+
+            final DivideAndConquer tmpConquerer = new DivideAndConquer() {
+
+                @Override
+                protected void conquer(final int first, final int limit) {
+                    for (int b = first; b < limit; b++) {
+                        Contraction.multiply(left, right, m, k, n, b, retVal);
+                    }
+                }
+
+            };
+
+            tmpConquerer.invoke(0, batches, 1);
+
+        } else if (batches == 1) {
+
+            Contraction.multiply(left, right, m, k, n, 0, retVal);
+        }
+
+        return retVal;
+    }
+
+    static void multiply(final double[] left, final double[] right, final int m, final int k, final int n, final int batch, final double[] product) {
+
+        final PrimitiveDenseStore tmpLeft = PrimitiveDenseStore.FACTORY.makeZero(m, k);
+        System.arraycopy(left, batch * m * k, tmpLeft.data, 0, m * k);
+
+        final PrimitiveDenseStore tmpRight = PrimitiveDenseStore.FACTORY.makeZero(k, n);
+        System.arraycopy(right, batch * k * n, tmpRight.data, 0, k * n);
+
+        final PrimitiveDenseStore tmpProduct = PrimitiveDenseStore.FACTORY.makeZero(m, n);
+        tmpProduct.fillByMultiplying(tmpLeft, tmpRight);
+
+        System.arraycopy(tmpProduct.data, 0, product, batch * m * n, m * n);
+    }
+
+    /**
+     * Rearrange the elements (the dimensions) to match the new order of the labels.
+     */
+    static Operand permute(final Operand operand, final char[] order) {
+
+        if (Arrays.equals(operand.labels, order)) {
+            return operand;
+        }
+
+        final int tmpRank = order.length;
+
+        final int[] tmpStrides = new int[tmpRank];
+        for (int d = 0, stride = 1; d < tmpRank; d++) {
+            tmpStrides[d] = stride;
+            stride *= operand.dims[d];
+        }
+
+        final int[] tmpDims = new int[tmpRank];
+        final int[] tmpSteps = new int[tmpRank];
+        for (int d = 0; d < tmpRank; d++) {
+            final int tmpSource = Contraction.indexOf(operand.labels, order[d]);
+            tmpDims[d] = operand.dims[tmpSource];
+            tmpSteps[d] = tmpStrides[tmpSource];
+        }
+
+        final double[] tmpData = new double[operand.data.length];
+        final int[] tmpRef = new int[tmpRank];
+        int tmpIndex = 0;
+
+        for (int j = 0; j < tmpData.length; j++) {
+            tmpData[j] = operand.data[tmpIndex];
+            for (int d = 0; d < tmpRank; d++) {
+                tmpIndex += tmpSteps[d];
+                if (++tmpRef[d] < tmpDims[d]) {
+                    break;
+                }
+                tmpIndex -= tmpSteps[d] * tmpDims[d];
+                tmpRef[d] = 0;
+            }
+        }
+
+        return new Operand(order, tmpDims, tmpData);
+    }
+
+    /**
+     * Take diagonals (labels repeated within the operand) and sum over labels not in keep.
+     */
+    static Operand reduce(final Operand operand, final char[] keep) {
+
+        final int tmpRank = operand.labels.length;
+
+        final StringBuilder tmpLabels = new StringBuilder();
+        for (final char tmpLabel : operand.labels) {
+            if (Contraction.contains(keep, tmpLabel) && (tmpLabels.indexOf(String.valueOf(tmpLabel)) < 0)) {
+                tmpLabels.append(tmpLabel);
+            }
+        }
+
+        if (tmpLabels.length() == tmpRank) {
+            return operand;
+        }
+
+        final char[] tmpTargetLabels = tmpLabels.toString().toCharArray();
+        final int[] tmpTargetDims = new int[tmpTargetLabels.length];
+
+        final int[] tmpFirstPosition = new int[tmpRank];
+        final int[] tmpTargetStrides = new int[tmpRank];
+        for (int p = 0; p < tmpRank; p++) {
+            tmpFirstPosition[p] = Contraction.indexOf(operand.labels, operand.labels[p]);
+            tmpTargetStrides[p] = -1;
+        }
+
+        int tmpTargetCount = 1;
+        for (int t = 0; t < tmpTargetLabels.length; t++) {
+            final int tmpPosition = Contraction.indexOf(operand.labels, tmpTargetLabels[t]);
+            tmpTargetDims[t] = operand.dims[tmpPosition];
+            tmpTargetStrides[tmpPosition] = tmpTargetCount;
+            tmpTargetCount *= tmpTargetDims[t];
+        }
+
+        final double[] tmpData = new double[tmpTargetCount];
+        final int[] tmpRef = new int[tmpRank];
+
+        for (int s = 0; s < operand.data.length; s++) {
+
+            boolean tmpDiagonal = true;
+            int tmpTarget = 0;
+            for (int p = 0; tmpDiagonal && (p < tmpRank); p++) {
+                if (tmpFirstPosition[p] != p) {
+                    tmpDiagonal = tmpRef[p] == tmpRef[tmpFirstPosition[p]];
+                } else if (tmpTargetStrides[p] >= 0) {
+                    tmpTarget += tmpRef[p] * tmpTargetStrides[p];
+                }
+            }
+
+            if (tmpDiagonal) {
+                tmpData[tmpTarget] += operand.data[s];
+            }
+
+            for (int d = 0; (d < tmpRank) && (++tmpRef[d] == operand.dims[d]); d++) {
+                tmpRef[d] = 0;
+            }
+        }
+
+        return new Operand(tmpTargetLabels, tmpTargetDims, tmpData);
+    }
+
+    private static char[] validate(final String labels) {
+        for (final char tmpLabel : labels.toCharArray()) {
+            if (!Character.isLetter(tmpLabel)) {
+                throw new IllegalArgumentException("Invalid index " + tmpLabel + "!");
+            }
+        }
+        return labels.toCharArray();
+    }
+
+    private final char[][] myInputs;
+    private final char[] myOutput;
+
+    Contraction(final char[][] inputs, final char[] output) {
+
+        super();
+
+        myInputs = inputs;
+        myOutput = output;
+    }
+
+    public ArrayAnyD<Double> invoke(final AccessAnyD<?>... operands) {
+
+        this.checkOperandCount(operands.length);
+
+        final Operand[] tmpOperands = new Operand[operands.length];
+        for (int i = 0; i < operands.length; i++) {
+            tmpOperands[i] = new Operand(myInputs[i], operands[i].shape(), operands[i]);
+        }
+
+        return this.invoke(tmpOperands);
+    }
+
+    /**
+     * All operands must have the same {@link Tensor#dimensions()}.
+     */
+    public Tensor<Double> invoke(final Tensor<?>... operands) {
+
+        this.checkOperandCount(operands.length);
+
+        final int tmpDimensions = operands[0].dimensions();
+
+        final Operand[] tmpOperands = new Operand[operands.length];
+        for (int i = 0; i < operands.length; i++) {
+            if (operands[i].dimensions() != tmpDimensions) {
+                throw new IllegalArgumentException("All operands must have the same dimensions!");
+            }
+            tmpOperands[i] = new Operand(myInputs[i], operands[i].shape(), operands[i]);
+        }
+
+        final Operand tmpResult = this.contract(tmpOperands);
+
+        final AnyTensor<Double> retVal = new AnyTensor<>(myOutput.length, tmpDimensions, Primitive64Array.FACTORY);
+        final ArrayAnyD<Double> tmpArray = retVal.getArray();
+        for (int i = 0; i < tmpResult.data.length; i++) {
+            tmpArray.set(i, tmpResult.data[i]);
+        }
+
+        return retVal;
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder retVal = new StringBuilder();
+        for (int i = 0; i < myInputs.length; i++) {
+            if (i > 0) {
+                retVal.append(',');
+            }
+            retVal.append(myInputs[i]);
+        }
+        return retVal.append("->").append(myOutput).toString();
+    }
+
+    private void checkOperandCount(final int count) {
+        if (count != myInputs.length) {
+            throw new IllegalArgumentException("Expected " + myInputs.length + " operands, got " + count + "!");
+        }
+    }
+
+    private Operand contract(final Operand... operands) {
+
+        // Check that the sizes of matching labels agree
+        for (int i = 0; i < operands.length; i++) {
+            for (int d = 0; d < operands[i].labels.length; d++) {
+                for (int j = 0; j <= i; j++) {
+                    if (operands[j].has(operands[i].labels[d]) && (operands[j].dim(operands[i].labels[d]) != operands[i].dims[d])) {
+                        throw new IllegalArgumentException("Size mismatch for index " + operands[i].labels[d] + "!");
+                    }
+                }
+            }
+        }
+
+        final List<Operand> tmpOperands = new ArrayList<>(Arrays.asList(operands));
+
+        for (int i = 0; i < tmpOperands.size(); i++) {
+            tmpOperands.set(i, Contraction.reduce(tmpOperands.get(i), this.kept(tmpOperands, i, i)));
+        }
+
+        while (tmpOperands.size() > 1) {
+
+            int tmpBestI = 0;
+            int tmpBestJ = 1;
+            long tmpBestSize = Long.MAX_VALUE;
+
+            for (int i = 0; i < tmpOperands.size(); i++) {
+                for (int j = i + 1; j < tmpOperands.size(); j++) {
+                    final Operand tmpLeft = tmpOperands.get(i);
+                    final Operand tmpRight = tmpOperands.get(j);
+                    long tmpSize = 1L;
+                    for (final char tmpLabel : this.kept(tmpOperands, i, j)) {
+                        if (tmpLeft.has(tmpLabel)) {
+                            tmpSize *= tmpLeft.dim(tmpLabel);
+                        } else if (tmpRight.has(tmpLabel)) {
+                            tmpSize *= tmpRight.dim(tmpLabel);
+                        }
+                    }
+                    if (tmpSize < tmpBestSize) {
+                        tmpBestI = i;
+                        tmpBestJ = j;
+                        tmpBestSize = tmpSize;
+                    }
+                }
+            }
+
+            final Operand tmpProduct = this.contract(tmpOperands.get(tmpBestI), tmpOperands.get(tmpBestJ), this.kept(tmpOperands, tmpBestI, tmpBestJ));
+
+            tmpOperands.remove(tmpBestJ);
+            tmpOperands.remove(tmpBestI);
+            tmpOperands.add(tmpProduct);
+        }
+
+        return Contraction.permute(Contraction.reduce(tmpOperands.get(0), myOutput), myOutput);
+    }
+
+    private Operand contract(final Operand left, final Operand right, final char[] kept) {
+
+        final StringBuilder tmpFreeLeft = new StringBuilder();
+        final StringBuilder tmpContracted = new StringBuilder();
+        final StringBuilder tmpBatch = new StringBuilder();
+        final StringBuilder tmpFreeRight = new StringBuilder();
+
+        int m = 1, k = 1, n = 1, tmpBatches = 1;
+
+        for (int d = 0; d < left.labels.length; d++) {
+            final char tmpLabel = left.labels[d];
+            if (!right.has(tmpLabel)) {
+                tmpFreeLeft.append(tmpLabel);
+                m *= left.dims[d];
+            } else if (Contraction.contains(kept, tmpLabel)) {
+                tmpBatch.append(tmpLabel);
+                tmpBatches *= left.dims[d];
+            } else {
+                tmpContracted.append(tmpLabel);
+                k *= left.dims[d];
+            }
+        }
+        for (int d = 0; d < right.labels.length; d++) {
+            if (!left.has(right.labels[d])) {
+                tmpFreeRight.append(right.labels[d]);
+                n *= right.dims[d];
+            }
+        }
+
+        final Operand tmpLeft = Contraction.permute(left, (tmpFreeLeft.toString() + tmpContracted + tmpBatch).toCharArray());
+        final Operand tmpRight = Contraction.permute(right, (tmpContracted.toString() + tmpFreeRight + tmpBatch).toCharArray());
+
+        final double[] tmpData = Contraction.multiply(tmpLeft.data, tmpRight.data, m, k, n, tmpBatches);
+
+        final char[] tmpLabels = (tmpFreeLeft.toString() + tmpFreeRight + tmpBatch).toCharArray();
+        final int[] tmpDims = new int[tmpLabels.length];
+        for (int d = 0; d < tmpLabels.length; d++) {
+            tmpDims[d] = left.has(tmpLabels[d]) ? left.dim(tmpLabels[d]) : right.dim(tmpLabels[d]);
+        }
+
+        return new Operand(tmpLabels, tmpDims, tmpData);
+    }
+
+    private ArrayAnyD<Double> invoke(final Operand... operands) {
+
+        final Operand tmpResult = this.contract(operands);
+
+        final long[] tmpShape = new long[tmpResult.dims.length];
+        for (int d = 0; d < tmpShape.length; d++) {
+            tmpShape[d] = tmpResult.dims[d];
+        }
+
+        final ArrayAnyD<Double> retVal = ArrayAnyD.PRIMITIVE64.makeZero(tmpShape);
+        for (int i = 0; i < tmpResult.data.length; i++) {
+            retVal.set(i, tmpResult.data[i]);
+        }
+
+        return retVal;
+    }
+
+    /**
+     * @return The labels of operands i and j that are still needed – part of the output or present in any
+     *         of the other operands
+     */
+    private char[] kept(final List<Operand> operands, final int i, final int j) {
+
+        final StringBuilder retVal = new StringBuilder();
+
+        final String tmpCandidates = new String(operands.get(i).labels) + new String(operands.get(j).labels);
+
+        for (final char tmpLabel : tmpCandidates.toCharArray()) {
+            if (retVal.indexOf(String.valueOf(tmpLabel)) >= 0) {
+                continue;
+            }
+            boolean tmpNeeded = Contraction.contains(myOutput, tmpLabel);
+            for (int o = 0; !tmpNeeded && (o < operands.size()); o++) {
+                tmpNeeded = (o != i) && (o != j) && operands.get(o).has(tmpLabel);
+            }
+            if (tmpNeeded) {
+                retVal.append(tmpLabel);
+            }
+        }
+
+        return retVal.toString().toCharArray();
+    }
+
+}
@@ -0,0 +1,145 @@
+/*
+ * Copyright 1997-2018 Optimatika
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.ojalgo.array;
+
+import java.util.Spliterator;
+import java.util.stream.StreamSupport;
+
+import org.junit.jupiter.api.Test;
+import org.ojalgo.TestUtils;
+import org.ojalgo.function.aggregator.Aggregator;
+import org.ojalgo.matrix.store.MatrixStore;
+import org.ojalgo.matrix.store.PrimitiveDenseStore;
+import org.ojalgo.matrix.store.SparseStore;
+import org.ojalgo.random.Uniform;
+import org.ojalgo.type.context.NumberContext;
+
+public class PrimitiveSpliteratorTest {
+
+    private static final NumberContext PRECISION = NumberContext.getGeneral(10, 14);
+
+    static void assertSplitsExactly(final PrimitiveSpliterator spliterator) {
+
+        final long size = spliterator.estimateSize();
+
+        TestUtils.assertTrue(spliterator.hasCharacteristics(Spliterator.SIZED | Spliterator.SUBSIZED));
+
+        final PrimitiveSpliterator prefix = spliterator.trySplit();
+
+        if (prefix != null) {
+            TestUtils.assertEquals(size, prefix.estimateSize() + spliterator.estimateSize());
+            TestUtils.assertTrue(Math.abs(prefix.estimateSize() - spliterator.estimateSize()) <= 1L);
+            PrimitiveSpliteratorTest.assertSplitsExactly(prefix);
+            PrimitiveSpliteratorTest.assertSplitsExactly(spliterator);
+        } else {
+            TestUtils.assertTrue(size <= 1L);
+        }
+    }
+
+    static double sum(final BasicArray<Double> array) {
+        double retVal = 0.0;
+        for (long i = 0L; i < array.count(); i++) {
+            retVal += array.doubleValue(i);
+        }
+        return retVal;
+    }
+
+    @Test
+    public void testDenseArrays() {
+
+        final int count = 1000;
+
+        final BufferArray buffer = BufferArray.make(count);
+        final SegmentedArray<Double> segmented = Primitive64Array.FACTORY.makeSegmented(count);
+        final Primitive64Array plain = Primitive64Array.make(count);
+
+        final Uniform random = new Uniform();
+        for (int i = 0; i < count; i++) {
+            final double value = random.doubleValue();
+            buffer.set(i, value);
+            segmented.set(i, value);
+            plain.set(i, value);
+        }
+
+        final double expected = PrimitiveSpliteratorTest.sum(plain);
+
+        TestUtils.assertEquals(expected, buffer.stream(true).sum(), PRECISION);
+        TestUtils.assertEquals(expected, StreamSupport.doubleStream(segmented.primitiveSpliterator(), true).sum(), PRECISION);
+        TestUtils.assertEquals(expected, StreamSupport.doubleStream(plain.primitiveSpliterator(), true).sum(), PRECISION);
+
+        PrimitiveSpliteratorTest.assertSplitsExactly(buffer.primitiveSpliterator());
+        PrimitiveSpliteratorTest.assertSplitsExactly(segmented.primitiveSpliterator());
+
+        segmented.primitiveSpliterator().forEachRemaining((index, value) -> TestUtils.assertEquals(plain.doubleValue(index), value));
+    }
+
+    @Test
+    public void testDenseStoreRowsAndColumns() {
+
+        final PrimitiveDenseStore matrix = PrimitiveDenseStore.FACTORY.makeFilled(7, 9, new Uniform());
+
+        for (int j = 0; j < 9; j++) {
+            final int col = j;
+            final PrimitiveSpliterator spliterator = matrix.columnSpliterator(col);
+            TestUtils.assertEquals(7L, spliterator.estimateSize());
+            spliterator.forEachRemaining((index, value) -> TestUtils.assertEquals(matrix.doubleValue(index, col), value));
+        }
+
+        for (int i = 0; i < 7; i++) {
+            final int row = i;
+            final PrimitiveSpliterator spliterator = matrix.rowSpliterator(row);
+            TestUtils.assertEquals(9L, spliterator.estimateSize());
+            final PrimitiveSpliterator prefix = spliterator.trySplit();
+            prefix.forEachRemaining((index, value) -> TestUtils.assertEquals(matrix.doubleValue(row, index), value));
+            spliterator.forEachRemaining((index, value) -> TestUtils.assertEquals(matrix.doubleValue(row, index), value));
+            TestUtils.assertEquals(matrix.aggregateRow(row, Aggregator.SUM).doubleValue(),
+                    StreamSupport.doubleStream(matrix.rowSpliterator(row), true).sum(), PRECISION);
+        }
+    }
+
+    @Test
+    public void testSparse() {
+
+        final SparseStore<Double> left = SparseStore.PRIMITIVE.make(30, 40);
+        final SparseStore<Double> right = SparseStore.PRIMITIVE.make(40, 50);
+
+        final Uniform random = new Uniform();
+        for (int k = 0; k < 200; k++) {
+            left.set(Uniform.randomInteger(30), Uniform.randomInteger(40), random.doubleValue());
+            right.set(Uniform.randomInteger(40), Uniform.randomInteger(50), random.doubleValue());
+        }
+
+        final PrimitiveSpliterator nonzeros = right.nonzeroSpliterator();
+        TestUtils.assertEquals(right.nonzeros().estimateSize(), nonzeros.estimateSize());
+        PrimitiveSpliteratorTest.assertSplitsExactly(nonzeros);
+
+        final PrimitiveDenseStore copy = PrimitiveDenseStore.FACTORY.makeZero(40, 50);
+        right.nonzeroSpliterator().forEachRemaining((index, value) -> copy.set(index, value));
+        TestUtils.assertEquals(right, copy);
+
+        final MatrixStore<Double> expected = PrimitiveDenseStore.FACTORY.copy(left).multiply(copy);
+        final PrimitiveDenseStore actual = PrimitiveDenseStore.FACTORY.makeZero(30, 50);
+        left.multiply(right, actual);
+        TestUtils.assertEquals(expected, actual, PRECISION);
+    }
+
+}
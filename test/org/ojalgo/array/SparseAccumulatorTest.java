@@ -0,0 +1,125 @@
+/*
+ * Copyright 1997-2018 Optimatika
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.ojalgo.array;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+import org.ojalgo.TestUtils;
+import org.ojalgo.matrix.store.PrimitiveDenseStore;
+import org.ojalgo.matrix.store.SparseStore;
+
+public class SparseAccumulatorTest {
+
+    @Test
+    public void testAssembleSparseStore() {
+
+        final int tmpDim = 50;
+        final Random tmpRandom = new Random(123L);
+
+        final SparseAccumulator tmpFirst = new SparseAccumulator(tmpDim, tmpDim);
+        final SparseAccumulator tmpSecond = new SparseAccumulator(tmpDim, tmpDim);
+        final PrimitiveDenseStore tmpExpected = PrimitiveDenseStore.FACTORY.makeZero(tmpDim, tmpDim);
+
+        for (int e = 0; e < 2_000; e++) {
+            final int tmpRow = tmpRandom.nextInt(tmpDim);
+            final int tmpCol = tmpRandom.nextInt(tmpDim);
+            final double tmpValue = tmpRandom.nextGaussian();
+            (e % 2 == 0 ? tmpFirst : tmpSecond).add(tmpRow, tmpCol, tmpValue);
+            tmpExpected.add(tmpRow, tmpCol, tmpValue);
+        }
+
+        tmpFirst.addAll(tmpSecond);
+        TestUtils.assertEquals(2_000, tmpFirst.size());
+
+        final SparseStore<Double> tmpActual = SparseStore.makePrimitive(tmpDim, tmpDim);
+        tmpFirst.supplyTo(tmpActual);
+
+        TestUtils.assertTrue(tmpFirst.size() <= tmpDim * tmpDim);
+        TestUtils.assertEquals(tmpExpected, tmpActual);
+    }
+
+    @Test
+    public void testDuplicatesAndZeros() {
+
+        final SparseAccumulator tmpAccumulator = new SparseAccumulator(10L);
+
+        tmpAccumulator.add(7L, 1.0);
+        tmpAccumulator.add(2L, 3.0);
+        tmpAccumulator.add(7L, 2.0);
+        tmpAccumulator.add(5L, 1.0);
+        tmpAccumulator.add(5L, -1.0);
+
+        final SparseArray<Double> tmpArray = tmpAccumulator.toSparseArray(Primitive64Array.FACTORY);
+
+        TestUtils.assertEquals(2, tmpAccumulator.size());
+        TestUtils.assertEquals(2L, tmpArray.getActualLength());
+        TestUtils.assertEquals(3.0, tmpArray.doubleValue(2L));
+        TestUtils.assertEquals(3.0, tmpArray.doubleValue(7L));
+        TestUtils.assertEquals(0.0, tmpArray.doubleValue(5L));
+
+        tmpAccumulator.add(7L, 1.0);
+        TestUtils.assertEquals(4.0, tmpAccumulator.toSparseArray(Primitive64Array.FACTORY).doubleValue(7L));
+    }
+
+    @Test
+    public void testHashMapCompareWithHashMap() {
+
+        final Random tmpRandom = new Random(456L);
+
+        final LongToDoubleHashMap tmpActual = new LongToDoubleHashMap();
+        final Map<Long, Double> tmpExpected = new HashMap<>();
+
+        for (int i = 0; i < 20_000; i++) {
+            final long tmpKey = tmpRandom.nextInt(5_000) - 1_000L;
+            final double tmpValue = tmpRandom.nextDouble();
+            switch (tmpRandom.nextInt(3)) {
+            case 0:
+                tmpActual.put(tmpKey, tmpValue);
+                tmpExpected.put(tmpKey, tmpValue);
+                break;
+            case 1:
+                tmpActual.add(tmpKey, tmpValue);
+                tmpExpected.merge(tmpKey, tmpValue, Double::sum);
+                break;
+            default:
+                final Double tmpRemoved = tmpExpected.remove(tmpKey);
+                TestUtils.assertEquals(tmpRemoved != null ? tmpRemoved : 0.0, tmpActual.remove(tmpKey));
+                break;
+            }
+        }
+
+        TestUtils.assertEquals(tmpExpected.size(), tmpActual.size());
+        for (final Map.Entry<Long, Double> tmpEntry : tmpExpected.entrySet()) {
+            TestUtils.assertTrue(tmpActual.containsKey(tmpEntry.getKey()));
+            TestUtils.assertEquals(tmpEntry.getValue().doubleValue(), tmpActual.get(tmpEntry.getKey()));
+        }
+
+        final long[] tmpSorted = tmpActual.sortedKeys();
+        for (int k = 1; k < tmpSorted.length; k++) {
+            TestUtils.assertTrue(tmpSorted[k - 1] < tmpSorted[k]);
+        }
+    }
+
+}
@@ -0,0 +1,145 @@
+/*
+ * Copyright 1997-2018 Optimatika
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.ojalgo.array;
+
+import org.junit.jupiter.api.Test;
+import org.ojalgo.TestUtils;
+import org.ojalgo.function.PrimitiveFunction;
+import org.ojalgo.function.aggregator.Aggregator;
+import org.ojalgo.function.aggregator.AggregatorFunction;
+import org.ojalgo.function.aggregator.PrimitiveAggregator;
+import org.ojalgo.structure.StructureAnyD;
+
+/**
+ * @author apete
+ */
+public class StridedArrayTest {
+
+    static ArrayAnyD<Double> makeSequence(final long... shape) {
+        final ArrayAnyD<Double> retVal = ArrayAnyD.PRIMITIVE64.makeZero(shape);
+        for (long i = 0L; i < retVal.count(); i++) {
+            retVal.set(i, i);
+        }
+        return retVal;
+    }
+
+    @Test
+    public void testBulkOperationsOnSubBlock() {
+
+        final ArrayAnyD<Double> array = StridedArrayTest.makeSequence(4, 5, 3);
+
+        final StridedArray<Double> block = array.strided().slice(new long[] { 1, 1, 0 }, new long[] { 3, 4, 2 });
+        TestUtils.assertFalse(block.isContiguous());
+
+        final AggregatorFunction<Double> sum = PrimitiveAggregator.getSet().sum();
+        block.visitAll(sum);
+
+        double expected = 0.0;
+        for (long k = 0; k < 2; k++) {
+            for (long j = 1; j < 4; j++) {
+                for (long i = 1; i < 3; i++) {
+                    expected += array.doubleValue(new long[] { i, j, k });
+                }
+            }
+        }
+        TestUtils.assertEquals(expected, sum.doubleValue());
+
+        block.modifyAll(PrimitiveFunction.NEGATE);
+
+        for (long i = 0L; i < array.count(); i++) {
+            final long[] ref = StructureAnyD.reference(i, array.shape());
+            final boolean inside = (ref[0] >= 1) && (ref[0] < 3) && (ref[1] >= 1) && (ref[1] < 4) && (ref[2] < 2);
+            TestUtils.assertEquals(inside ? -i : i, array.doubleValue(i));
+        }
+
+        block.fillAll(0.0);
+        TestUtils.assertEquals(0.0, array.strided().slice(new long[] { 1, 1, 0 }, new long[] { 3, 4, 2 }).copy().aggregateAll(Aggregator.LARGEST).doubleValue());
+    }
+
+    @Test
+    public void testPermuteAndTranspose() {
+
+        final ArrayAnyD<Double> array = StridedArrayTest.makeSequence(2, 3, 4);
+
+        final StridedArray<Double> permuted = array.strided().permute(2, 0, 1);
+        TestUtils.assertEquals(4L, permuted.count(0));
+        TestUtils.assertEquals(2L, permuted.count(1));
+        TestUtils.assertEquals(3L, permuted.count(2));
+
+        for (long i = 0; i < 2; i++) {
+            for (long j = 0; j < 3; j++) {
+                for (long k = 0; k < 4; k++) {
+                    TestUtils.assertEquals(array.doubleValue(new long[] { i, j, k }), permuted.doubleValue(new long[] { k, i, j }));
+                }
+            }
+        }
+
+        final ArrayAnyD<Double> copy = permuted.copy();
+        for (long i = 0L; i < copy.count(); i++) {
+            TestUtils.assertEquals(permuted.doubleValue(i), copy.doubleValue(i));
+        }
+
+        final Array2D<Double> matrix = Array2D.PRIMITIVE64.rows(new double[][] { { 1, 2, 3 }, { 4, 5, 6 } });
+        final StridedArray<Double> transposed = matrix.strided().transpose();
+        for (long i = 0; i < 2; i++) {
+            for (long j = 0; j < 3; j++) {
+                TestUtils.assertEquals(matrix.doubleValue(i, j), transposed.doubleValue(new long[] { j, i }));
+            }
+        }
+
+        transposed.set(new long[] { 2, 1 }, 60.0);
+        TestUtils.assertEquals(60.0, matrix.doubleValue(1, 2));
+    }
+
+    @Test
+    public void testReshapeAndSelect() {
+
+        final ArrayAnyD<Double> array = StridedArrayTest.makeSequence(4, 6);
+
+        final StridedArray<Double> reshaped = array.strided().reshape(2, 3, 4);
+        TestUtils.assertTrue(reshaped.isContiguous());
+        for (long i = 0L; i < array.count(); i++) {
+            TestUtils.assertEquals(array.doubleValue(i), reshaped.doubleValue(i));
+        }
+
+        final StridedArray<Double> column = array.strided().select(1, 2);
+        TestUtils.assertEquals(1, column.rank());
+        TestUtils.assertTrue(column.isContiguous());
+        for (long i = 0; i < 4; i++) {
+            TestUtils.assertEquals(array.doubleValue(new long[] { i, 2 }), column.doubleValue(i));
+        }
+
+        // Every other row (the first dimension varies fastest) is evenly spaced, and can be reshaped
+        final StridedArray<Double> stepped = array.strided().slice(0, 0, 4, 2).reshape(12);
+        TestUtils.assertFalse(stepped.isContiguous());
+        TestUtils.assertEquals(array.doubleValue(new long[] { 2, 2 }), stepped.doubleValue(5));
+
+        // Every other column is not
+        try {
+            array.strided().slice(1, 0, 6, 2).reshape(12);
+            TestUtils.fail("Should not be possible without copying!");
+        } catch (final IllegalStateException expected) {
+            // Expected
+        }
+    }
+
+}
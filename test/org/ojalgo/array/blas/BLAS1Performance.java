@@ -0,0 +1,109 @@
+/*
+ * Copyright 1997-2018 Optimatika
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.ojalgo.array.blas;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.ojalgo.TestUtils;
+import org.ojalgo.type.CalendarDateUnit;
+import org.ojalgo.type.Stopwatch;
+
+/**
+ * Compares the unrolled multi-accumulator kernels with the plain single accumulator loops they replaced.
+ * Timing based, and therefore not part of the default build.
+ */
+@Tag("unstable")
+public class BLAS1Performance {
+
+    private static final int LENGTH = 4_096;
+    private static final int REPETITIONS = 100_000;
+
+    static double plainDOT(final double[] array1, final double[] array2) {
+        double retVal = 0.0;
+        for (int i = 0; i < array1.length; i++) {
+            retVal += array1[i] * array2[i];
+        }
+        return retVal;
+    }
+
+    static double plainNRM2(final double[] data) {
+        double retVal = 0.0;
+        for (int i = 0; i < data.length; i++) {
+            retVal += data[i] * data[i];
+        }
+        return Math.sqrt(retVal);
+    }
+
+    @Test
+    public void testDOT() {
+
+        final double[] array1 = BLAS1Test.random(LENGTH);
+        final double[] array2 = BLAS1Test.random(LENGTH);
+
+        double blackhole = 0.0;
+        for (int r = 0; r < REPETITIONS; r++) {
+            blackhole += BLAS1Performance.plainDOT(array1, array2);
+            blackhole += DOT.invoke(array1, 0, array2, 0, 0, LENGTH);
+        }
+
+        final Stopwatch clock = new Stopwatch();
+        for (int r = 0; r < REPETITIONS; r++) {
+            blackhole += BLAS1Performance.plainDOT(array1, array2);
+        }
+        final double plain = clock.stop(CalendarDateUnit.MILLIS).measure;
+
+        clock.reset();
+        for (int r = 0; r < REPETITIONS; r++) {
+            blackhole += DOT.invoke(array1, 0, array2, 0, 0, LENGTH);
+        }
+
+        TestUtils.assertTrue(!Double.isNaN(blackhole));
+        TestUtils.assertFasterThan(plain, CalendarDateUnit.MILLIS, clock);
+    }
+
+    @Test
+    public void testNRM2() {
+
+        final double[] data = BLAS1Test.random(LENGTH);
+
+        double blackhole = 0.0;
+        for (int r = 0; r < REPETITIONS; r++) {
+            blackhole += BLAS1Performance.plainNRM2(data);
+            blackhole += NRM2.invoke(data, 0, LENGTH, 1);
+        }
+
+        final Stopwatch clock = new Stopwatch();
+        for (int r = 0; r < REPETITIONS; r++) {
+            blackhole += BLAS1Performance.plainNRM2(data);
+        }
+        final double plain = clock.stop(CalendarDateUnit.MILLIS).measure;
+
+        clock.reset();
+        for (int r = 0; r < REPETITIONS; r++) {
+            blackhole += NRM2.invoke(data, 0, LENGTH, 1);
+        }
+
+        TestUtils.assertTrue(!Double.isNaN(blackhole));
+        TestUtils.assertFasterThan(plain, CalendarDateUnit.MILLIS, clock);
+    }
+
+}
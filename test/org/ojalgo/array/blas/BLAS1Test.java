@@ -0,0 +1,101 @@
+/*
+ * Copyright 1997-2018 Optimatika
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.ojalgo.array.blas;
+
+import org.junit.jupiter.api.Test;
+import org.ojalgo.TestUtils;
+import org.ojalgo.random.Uniform;
+import org.ojalgo.type.context.NumberContext;
+
+public class BLAS1Test {
+
+    private static final NumberContext PRECISION = NumberContext.getGeneral(12, 14);
+
+    static double[] random(final int length) {
+        final double[] retVal = new double[length];
+        final Uniform tmpUniform = new Uniform(-1, 2);
+        for (int i = 0; i < length; i++) {
+            retVal[i] = tmpUniform.doubleValue();
+        }
+        return retVal;
+    }
+
+    @Test
+    public void testASUM() {
+        for (int length = 0; length < 40; length++) {
+            for (int step = 1; step <= 3; step++) {
+                final double[] data = BLAS1Test.random(2 + (length * step));
+                double expected = 0.0;
+                for (int i = 1; i < (1 + (length * step)); i += step) {
+                    expected += Math.abs(data[i]);
+                }
+                TestUtils.assertEquals(expected, ASUM.invoke(data, 1, 1 + (length * step), step), PRECISION);
+            }
+        }
+    }
+
+    @Test
+    public void testDOT() {
+        for (int length = 0; length < 40; length++) {
+            final double[] array1 = BLAS1Test.random(length + 3);
+            final double[] array2 = BLAS1Test.random(length + 5);
+            double expected = 0.0;
+            for (int i = 1; i < length; i++) {
+                expected += array1[3 + i] * array2[5 + i];
+            }
+            TestUtils.assertEquals(expected, DOT.invoke(array1, 3, array2, 5, 1, length), PRECISION);
+        }
+    }
+
+    @Test
+    public void testNRM2() {
+
+        for (int length = 0; length < 40; length++) {
+            final double[] data = BLAS1Test.random(length);
+            double expected = 0.0;
+            for (int i = 0; i < length; i++) {
+                expected += data[i] * data[i];
+            }
+            TestUtils.assertEquals(Math.sqrt(expected), NRM2.invoke(data, 0, length, 1), PRECISION);
+        }
+
+        // Squares overflow and underflow, but the norm does not
+        final double[] huge = { 3E200, 4E200, 0.0 };
+        TestUtils.assertEquals(5E200, NRM2.invoke(huge, 0, 3, 1), PRECISION);
+        final double[] tiny = { 3E-200, 0.0, 4E-200 };
+        TestUtils.assertEquals(5E-200, NRM2.invoke(tiny, 0, 3, 2), PRECISION);
+    }
+
+    @Test
+    public void testSCAL() {
+        final double[] data = BLAS1Test.random(21);
+        final double[] expected = data.clone();
+        for (int i = 2; i < 19; i++) {
+            expected[i] *= 2.5;
+        }
+        SCAL.invoke(data, 1, 2.5, 1, 18);
+        for (int i = 0; i < data.length; i++) {
+            TestUtils.assertEquals(expected[i], data[i], PRECISION);
+        }
+    }
+
+}
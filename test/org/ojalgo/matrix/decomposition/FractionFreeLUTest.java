@@ -0,0 +1,94 @@
+/*
+ * Copyright 1997-2018 Optimatika
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.ojalgo.matrix.decomposition;
+
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+import org.ojalgo.TestUtils;
+import org.ojalgo.matrix.RationalMatrix;
+import org.ojalgo.matrix.store.PrimitiveDenseStore;
+import org.ojalgo.scalar.BigRational;
+import org.ojalgo.scalar.RationalNumber;
+import org.ojalgo.structure.Access2D;
+
+public class FractionFreeLUTest {
+
+    @Test
+    public void testExactSolution() throws Exception {
+
+        final int tmpDim = 30;
+        final Random tmpRandom = new Random(123L);
+
+        final RationalMatrix.DenseReceiver tmpReceiver = RationalMatrix.FACTORY.makeDense(tmpDim, tmpDim);
+        for (int i = 0; i < tmpDim; i++) {
+            for (int j = 0; j < tmpDim; j++) {
+                tmpReceiver.set(i, j, RationalNumber.of(tmpRandom.nextInt(201) - 100, 1 + tmpRandom.nextInt(3)));
+            }
+        }
+        final RationalMatrix tmpBody = tmpReceiver.build();
+
+        final PrimitiveDenseStore tmpRHS = PrimitiveDenseStore.FACTORY.makeZero(tmpDim, 2);
+        for (int i = 0; i < tmpDim; i++) {
+            tmpRHS.set(i, 0, tmpRandom.nextInt(10));
+            tmpRHS.set(i, 1, 0.5 * i);
+        }
+
+        final Access2D<BigRational> tmpSolution = tmpBody.solveExactly(tmpRHS);
+
+        // The residual must be exactly zero
+        for (int j = 0; j < 2; j++) {
+            for (int i = 0; i < tmpDim; i++) {
+                BigRational tmpSum = BigRational.valueOf(tmpRHS.doubleValue(i, j)).negate();
+                for (int k = 0; k < tmpDim; k++) {
+                    tmpSum = tmpSum.add(BigRational.valueOf(tmpBody.get(i, k)).multiply(tmpSolution.get(k, j)));
+                }
+                TestUtils.assertEquals(BigRational.ZERO, tmpSum);
+            }
+        }
+
+        final LU<Double> tmpPrimitive = LU.PRIMITIVE.make();
+        tmpPrimitive.decompose(PrimitiveDenseStore.FACTORY.copy(tmpBody));
+        TestUtils.assertEquals(tmpPrimitive.getDeterminant(), tmpBody.getExactDeterminant().doubleValue(), 1E-10 * Math.abs(tmpPrimitive.getDeterminant()));
+    }
+
+    @Test
+    public void testSingularAndInverse() {
+
+        final FractionFreeLU tmpDecomposition = new FractionFreeLU();
+
+        tmpDecomposition.decompose(Access2D.wrap(new double[][] { { 1, 2, 3 }, { 2, 4, 6 }, { 1, 1, 1 } }));
+        TestUtils.assertEquals(2, tmpDecomposition.getRank());
+        TestUtils.assertFalse(tmpDecomposition.isSolvable());
+        TestUtils.assertEquals(BigRational.ZERO, tmpDecomposition.getDeterminant());
+
+        tmpDecomposition.decompose(Access2D.wrap(new double[][] { { 0, 2 }, { 3, 1 } }));
+        TestUtils.assertEquals(BigRational.valueOf(-6L), tmpDecomposition.getDeterminant());
+
+        final Access2D<BigRational> tmpInverse = tmpDecomposition.getInverse();
+        TestUtils.assertEquals(BigRational.of(-1L, 6L), tmpInverse.get(0, 0));
+        TestUtils.assertEquals(BigRational.of(1L, 3L), tmpInverse.get(0, 1));
+        TestUtils.assertEquals(BigRational.of(1L, 2L), tmpInverse.get(1, 0));
+        TestUtils.assertEquals(BigRational.ZERO, tmpInverse.get(1, 1));
+    }
+
+}
@@ -0,0 +1,204 @@
+/*
+ * Copyright 1997-2018 Optimatika
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.ojalgo.matrix.store;
+
+import java.util.Random;
+import java.util.stream.DoubleStream;
+
+import org.junit.jupiter.api.Test;
+import org.ojalgo.TestUtils;
+import org.ojalgo.function.aggregator.Aggregator;
+import org.ojalgo.function.aggregator.AggregatorFunction;
+import org.ojalgo.function.aggregator.AggregatorSet;
+import org.ojalgo.function.aggregator.PrimitiveAggregator;
+import org.ojalgo.function.aggregator.RationalAggregator;
+import org.ojalgo.random.Uniform;
+import org.ojalgo.scalar.RationalNumber;
+import org.ojalgo.structure.Access2D;
+import org.ojalgo.type.context.NumberContext;
+
+public class ReductionTest {
+
+    private static final NumberContext PRECISION = NumberContext.getGeneral(12, 14);
+
+    static double aggregateSequentially(final Access2D<Double> matrix, final Aggregator aggregator) {
+        final AggregatorFunction<Double> retVal = PrimitiveAggregator.getSet().newInstance(aggregator);
+        for (long i = 0L, limit = matrix.count(); i < limit; i++) {
+            retVal.invoke(matrix.doubleValue(i));
+        }
+        return retVal.doubleValue();
+    }
+
+    static void assertSparseReductions(final SparseStore<Double> sparse, final PrimitiveDenseStore dense, final Aggregator aggregator) {
+
+        final PrimitiveDenseStore expectedRows = PrimitiveDenseStore.FACTORY.makeZero(dense.countRows(), 1);
+        dense.reduceRows(aggregator, expectedRows);
+        final PrimitiveDenseStore actualRows = PrimitiveDenseStore.FACTORY.makeZero(dense.countRows(), 1);
+        sparse.reduceRows(aggregator, actualRows);
+        TestUtils.assertEquals(aggregator.name(), expectedRows, actualRows, PRECISION);
+
+        final PrimitiveDenseStore expectedColumns = PrimitiveDenseStore.FACTORY.makeZero(1, dense.countColumns());
+        dense.reduceColumns(aggregator, expectedColumns);
+        final PrimitiveDenseStore actualColumns = PrimitiveDenseStore.FACTORY.makeZero(1, dense.countColumns());
+        sparse.reduceColumns(aggregator, actualColumns);
+        TestUtils.assertEquals(aggregator.name(), expectedColumns, actualColumns, PRECISION);
+    }
+
+    @Test
+    public void testCollector() {
+
+        final double[] values = new double[1000];
+        final Random random = new Random(123L);
+        for (int i = 0; i < values.length; i++) {
+            values[i] = 1.0 + random.nextDouble();
+        }
+
+        final AggregatorSet<Double> set = PrimitiveAggregator.getSet();
+
+        for (final Aggregator aggregator : Aggregator.values()) {
+            if (aggregator != Aggregator.PRODUCT && aggregator != Aggregator.PRODUCT2) {
+
+                final AggregatorFunction<Double> expected = set.newInstance(aggregator);
+                for (int i = 0; i < values.length; i++) {
+                    expected.invoke(values[i]);
+                }
+
+                final Double actual = DoubleStream.of(values).boxed().parallel().collect(set.collector(aggregator));
+
+                TestUtils.assertEquals(aggregator.name(), expected.doubleValue(), actual.doubleValue(), PRECISION);
+            }
+        }
+
+        final PrimitiveDenseStore matrix = PrimitiveDenseStore.FACTORY.copy(Access2D.wrap(new double[][] { { 1.0, 2.0 }, { 3.0, 4.0 } }));
+        TestUtils.assertEquals(2.5, matrix.elements().stream(true).collect(set.collectorOfElements(Aggregator.AVERAGE)).doubleValue());
+    }
+
+    @Test
+    public void testDense() {
+
+        final PrimitiveDenseStore matrix = PrimitiveDenseStore.FACTORY.makeFilled(7, 70, new Uniform(1.0, 1.0));
+
+        final GenericDenseStore<RationalNumber> rational = GenericDenseStore.RATIONAL.copy(matrix);
+
+        for (final Aggregator aggregator : Aggregator.values()) {
+
+            final double expected = ReductionTest.aggregateSequentially(matrix, aggregator);
+
+            TestUtils.assertEquals(aggregator.name(), expected, matrix.aggregateAll(aggregator).doubleValue(), PRECISION);
+            if (aggregator != Aggregator.PRODUCT && aggregator != Aggregator.PRODUCT2) {
+                // RationalNumber overflows
+                TestUtils.assertEquals(aggregator.name(), expected, rational.aggregateAll(aggregator).doubleValue(), PRECISION);
+            }
+
+            final PrimitiveDenseStore rows = PrimitiveDenseStore.FACTORY.makeZero(matrix.countRows(), 1L);
+            matrix.reduceRows(aggregator, rows);
+            final PrimitiveDenseStore columns = PrimitiveDenseStore.FACTORY.makeZero(1L, matrix.countColumns());
+            matrix.reduceColumns(aggregator, columns);
+
+            for (int i = 0; i < matrix.countRows(); i++) {
+                TestUtils.assertEquals(aggregator.name(), ReductionTest.aggregateSequentially(matrix.logical().row(i).get(), aggregator),
+                        rows.doubleValue(i), PRECISION);
+            }
+            for (int j = 0; j < matrix.countColumns(); j++) {
+                TestUtils.assertEquals(aggregator.name(), ReductionTest.aggregateSequentially(matrix.logical().column(j).get(), aggregator),
+                        columns.doubleValue(j), PRECISION);
+            }
+
+            final GenericDenseStore<RationalNumber> rationalColumns = GenericDenseStore.RATIONAL.makeZero(1L, matrix.countColumns());
+            rational.reduceColumns(aggregator, rationalColumns);
+            TestUtils.assertEquals(columns, rationalColumns, PRECISION);
+        }
+    }
+
+    @Test
+    public void testMergeAverageAndMinimum() {
+
+        final AggregatorSet<RationalNumber> set = RationalAggregator.getSet();
+
+        final AggregatorFunction<RationalNumber> average = set.newInstance(Aggregator.AVERAGE);
+        final AggregatorFunction<RationalNumber> part = set.newInstance(Aggregator.AVERAGE);
+        average.invoke(RationalNumber.valueOf(1));
+        part.invoke(RationalNumber.valueOf(2));
+        part.invoke(RationalNumber.valueOf(6));
+        average.merge(part);
+        TestUtils.assertEquals(RationalNumber.valueOf(3), average.get());
+
+        // An empty partial must not contribute a zero
+        final AggregatorFunction<RationalNumber> minimum = set.newInstance(Aggregator.MINIMUM);
+        minimum.invoke(RationalNumber.valueOf(5));
+        minimum.merge(set.newInstance(Aggregator.MINIMUM));
+        TestUtils.assertEquals(RationalNumber.valueOf(5), minimum.get());
+
+        // Not the thread-local instance
+        TestUtils.assertTrue(set.newInstance(Aggregator.SUM) != set.sum());
+    }
+
+    @Test
+    public void testSparse() {
+
+        final SparseStore<Double> sparse = SparseStore.PRIMITIVE.make(50, 100);
+        final Random random = new Random(456L);
+        for (int k = 0; k < 500; k++) {
+            sparse.set(random.nextInt(50), random.nextInt(100), random.nextGaussian());
+        }
+        final PrimitiveDenseStore dense = PrimitiveDenseStore.FACTORY.copy(sparse);
+
+        for (final Aggregator aggregator : Aggregator.values()) {
+
+            TestUtils.assertEquals(aggregator.name(), dense.aggregateAll(aggregator).doubleValue(), sparse.aggregateAll(aggregator).doubleValue(),
+                    PRECISION);
+
+            ReductionTest.assertSparseReductions(sparse, dense, aggregator);
+        }
+    }
+
+    /**
+     * Several zeros in the same row/column
+     */
+    @Test
+    public void testSparseWithManyZeros() {
+
+        final SparseStore<Double> sparse = SparseStore.PRIMITIVE.make(4, 3);
+        sparse.set(0, 0, 2.0);
+        sparse.set(0, 1, 3.0);
+        sparse.set(0, 2, 5.0);
+        sparse.set(1, 0, 4.0);
+        sparse.set(2, 1, 4.0);
+        final PrimitiveDenseStore dense = PrimitiveDenseStore.FACTORY.copy(sparse);
+
+        final PrimitiveDenseStore rows = PrimitiveDenseStore.FACTORY.makeZero(4, 1);
+        sparse.reduceRows(Aggregator.AVERAGE, rows);
+        TestUtils.assertEquals(4.0 / 3.0, rows.doubleValue(1), PRECISION);
+
+        final PrimitiveDenseStore columns = PrimitiveDenseStore.FACTORY.makeZero(1, 3);
+        sparse.reduceColumns(Aggregator.AVERAGE, columns);
+        TestUtils.assertEquals(1.5, columns.doubleValue(0), PRECISION);
+        TestUtils.assertEquals(1.75, columns.doubleValue(1), PRECISION);
+
+        for (final Aggregator aggregator : Aggregator.values()) {
+            TestUtils.assertEquals(aggregator.name(), dense.aggregateAll(aggregator).doubleValue(), sparse.aggregateAll(aggregator).doubleValue(),
+                    PRECISION);
+            ReductionTest.assertSparseReductions(sparse, dense, aggregator);
+        }
+    }
+
+}
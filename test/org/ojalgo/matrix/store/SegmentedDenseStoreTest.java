@@ -0,0 +1,95 @@
+/*
+ * Copyright 1997-2018 Optimatika
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.ojalgo.matrix.store;
+
+import org.junit.jupiter.api.Test;
+import org.ojalgo.TestUtils;
+import org.ojalgo.array.BufferArray;
+import org.ojalgo.array.DenseArray;
+import org.ojalgo.array.Primitive64Array;
+import org.ojalgo.matrix.decomposition.Cholesky;
+import org.ojalgo.random.Normal;
+import org.ojalgo.type.context.NumberContext;
+
+public class SegmentedDenseStoreTest {
+
+    private static final NumberContext PRECISION = NumberContext.getGeneral(10);
+
+    static SegmentedDenseStore copy(final MatrixStore<Double> source, final DenseArray.Factory<Double> segments, final int columnsPerSegment) {
+        final SegmentedDenseStore retVal = new SegmentedDenseStore((int) source.countRows(), (int) source.countColumns(), segments, columnsPerSegment);
+        for (long j = 0L; j < source.countColumns(); j++) {
+            for (long i = 0L; i < source.countRows(); i++) {
+                retVal.set(i, j, source.doubleValue(i, j));
+            }
+        }
+        return retVal;
+    }
+
+    @Test
+    public void testCholesky() {
+        this.doTestCholesky(Primitive64Array.FACTORY, 4);
+        this.doTestCholesky(BufferArray.DIRECT64, 3);
+    }
+
+    @Test
+    public void testMultiplyAndTranspose() {
+        this.doTestMultiplyAndTranspose(Primitive64Array.FACTORY, 4);
+        this.doTestMultiplyAndTranspose(BufferArray.DIRECT64, 3);
+    }
+
+    private void doTestCholesky(final DenseArray.Factory<Double> segments, final int columnsPerSegment) {
+
+        final int dim = 29;
+
+        final PrimitiveDenseStore random = PrimitiveDenseStore.FACTORY.makeFilled(dim, dim, new Normal());
+        final MatrixStore<Double> spd = random.multiply(random.transpose()).add(PrimitiveDenseStore.FACTORY.makeEye(dim, dim).multiply(dim));
+
+        final Cholesky<Double> expected = Cholesky.PRIMITIVE.make();
+        expected.decompose(spd);
+
+        final SegmentedDenseStore actual = SegmentedDenseStoreTest.copy(spd, segments, columnsPerSegment);
+        TestUtils.assertTrue(actual.decomposeCholesky());
+
+        TestUtils.assertEquals(expected.getL(), actual, PRECISION);
+
+        final PrimitiveDenseStore rhs = PrimitiveDenseStore.FACTORY.makeFilled(dim, 3, new Normal());
+        final PrimitiveDenseStore solution = actual.solveCholesky(rhs);
+        TestUtils.assertEquals(rhs, spd.multiply(solution), PRECISION);
+
+        final SegmentedDenseStore notPositiveDefinite = SegmentedDenseStoreTest.copy(spd.multiply(-1.0), segments, columnsPerSegment);
+        TestUtils.assertFalse(notPositiveDefinite.decomposeCholesky());
+    }
+
+    private void doTestMultiplyAndTranspose(final DenseArray.Factory<Double> segments, final int columnsPerSegment) {
+
+        final PrimitiveDenseStore left = PrimitiveDenseStore.FACTORY.makeFilled(23, 17, new Normal());
+        final PrimitiveDenseStore right = PrimitiveDenseStore.FACTORY.makeFilled(17, 11, new Normal());
+
+        final SegmentedDenseStore segmented = SegmentedDenseStoreTest.copy(left, segments, columnsPerSegment);
+        TestUtils.assertEquals(left, segmented);
+
+        TestUtils.assertEquals(left.multiply(right), segmented.multiply(right), PRECISION);
+        TestUtils.assertEquals(left.transpose(), segmented.copyTransposed());
+        TestUtils.assertEquals(left, segmented.copyTransposed().copyTransposed());
+    }
+
+}
@@ -0,0 +1,103 @@
+/*
+ * Copyright 1997-2018 Optimatika
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.ojalgo.matrix.store;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.jupiter.api.Test;
+import org.ojalgo.TestUtils;
+import org.ojalgo.matrix.decomposition.LU;
+import org.ojalgo.random.Uniform;
+
+public class WorkspaceTest {
+
+    @Test
+    public void testArrays() {
+
+        Workspace.clear();
+
+        final double[] first = Workspace.borrowArray(7);
+        first[3] = 1.0;
+        Workspace.giveBack(first);
+        Workspace.giveBack(first); // Giving back twice must not pool it twice
+
+        final double[] second = Workspace.borrowArray(7);
+        TestUtils.assertTrue(first == second);
+        TestUtils.assertEquals(0.0, second[3]);
+
+        TestUtils.assertTrue(Workspace.borrowArray(7) != second);
+        TestUtils.assertTrue(Workspace.borrowArray(8) != second);
+
+        Workspace.giveBack(second);
+        final AtomicReference<double[]> other = new AtomicReference<>();
+        final Thread thread = new Thread(() -> other.set(Workspace.borrowArray(7)));
+        thread.start();
+        try {
+            thread.join();
+        } catch (final InterruptedException cause) {
+            throw new RuntimeException(cause);
+        }
+        TestUtils.assertTrue(other.get() != second);
+
+        Workspace.clear();
+    }
+
+    @Test
+    public void testRepeatedDecompositions() {
+
+        final PrimitiveDenseStore body = PrimitiveDenseStore.FACTORY.makeFilled(9, 9, new Uniform());
+        final PrimitiveDenseStore rhs = PrimitiveDenseStore.FACTORY.makeFilled(9, 1, new Uniform());
+
+        final LU<Double> expected = LU.PRIMITIVE.make();
+        expected.decompose(body);
+        final MatrixStore<Double> solution = expected.getSolution(rhs);
+
+        for (int i = 0; i < 3; i++) {
+            final LU<Double> actual = LU.PRIMITIVE.make(body);
+            actual.decompose(body);
+            TestUtils.assertEquals(solution, actual.getSolution(rhs));
+        }
+    }
+
+    @Test
+    public void testStores() {
+
+        Workspace.clear();
+
+        final PrimitiveDenseStore first = Workspace.borrowStore(3, 2);
+        first.set(1, 1, 1.0);
+        Workspace.giveBack(first);
+
+        TestUtils.assertTrue(Workspace.borrowStore(2, 3) != first);
+
+        final PrimitiveDenseStore second = Workspace.borrowStore(3, 2);
+        TestUtils.assertTrue(first == second);
+        TestUtils.assertEquals(0.0, second.doubleValue(1, 1));
+
+        final PrimitiveDenseStore huge = Workspace.borrowStore(Workspace.LIMIT + 1L, 1L);
+        Workspace.giveBack(huge);
+        TestUtils.assertTrue(Workspace.borrowStore(Workspace.LIMIT + 1L, 1L) != huge);
+
+        Workspace.clear();
+    }
+
+}
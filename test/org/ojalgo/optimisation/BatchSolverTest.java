@@ -0,0 +1,95 @@
+/*
+ * Copyright 1997-2018 Optimatika
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.ojalgo.optimisation;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+
+import org.junit.jupiter.api.Test;
+import org.ojalgo.TestUtils;
+import org.ojalgo.optimisation.Optimisation.Result;
+import org.ojalgo.type.context.NumberContext;
+
+public class BatchSolverTest {
+
+    private static final NumberContext PRECISION = NumberContext.getGeneral(8);
+
+    /**
+     * A small knapsack problem. If integer the IntegerSolver will fork node tasks in the batch pool.
+     */
+    static ExpressionsBasedModel makeKnapsack(final Random random, final boolean integer) {
+
+        final ExpressionsBasedModel retVal = new ExpressionsBasedModel();
+
+        final Expression capacity = retVal.addExpression("Capacity").upper(10);
+
+        for (int i = 0; i < 8; i++) {
+            final Variable item = retVal.addVariable("Item" + i).lower(0).upper(1).integer(integer).weight(1 + random.nextInt(9));
+            capacity.set(item, 1 + random.nextInt(5));
+        }
+
+        return retVal;
+    }
+
+    @Test
+    public void testMixedModels() throws Exception {
+
+        final Random random = new Random(123L);
+
+        final List<ExpressionsBasedModel> models = new ArrayList<>();
+        for (int m = 0; m < 40; m++) {
+            models.add(BatchSolverTest.makeKnapsack(random, (m % 2) == 0));
+        }
+
+        final List<Result> expected = new ArrayList<>();
+        for (final ExpressionsBasedModel model : models) {
+            expected.add(model.copy().maximise());
+        }
+
+        final BatchSolver batch = new BatchSolver(2);
+        TestUtils.assertEquals(2, batch.getParallelism());
+
+        final List<CompletableFuture<Result>> futures = batch.maximise(models);
+        CompletableFuture.allOf(futures.toArray(new CompletableFuture<?>[futures.size()])).get();
+
+        for (int m = 0; m < models.size(); m++) {
+            final Result actual = futures.get(m).get();
+            TestUtils.assertStateNotLessThanOptimal(actual);
+            TestUtils.assertEquals(expected.get(m).getValue(), actual.getValue(), PRECISION);
+        }
+    }
+
+    @Test
+    public void testIterationLimitPerModel() throws Exception {
+
+        final ExpressionsBasedModel model = BatchSolverTest.makeKnapsack(new Random(456L), true);
+        model.options.iterations_abort = 1;
+
+        final Result actual = BatchSolver.getInstance().maximise(model).get();
+
+        // Aborted early, but still completes normally
+        TestUtils.assertTrue(actual != null);
+    }
+
+}
@@ -30,9 +30,102 @@ import org.ojalgo.TestUtils;
 import org.ojalgo.constant.BigMath;
 import org.ojalgo.netio.BasicLogger;
 import org.ojalgo.optimisation.Optimisation.Result;
+import org.ojalgo.type.context.NumberContext;
 
 public class ExpressionsBasedModelTest {
 
+    private static void assertSameAsFreshSolve(final ExpressionsBasedModel model, final Result actual) {
+
+        final Result expected = model.copy().minimise();
+
+        TestUtils.assertStateNotLessThanOptimal(actual);
+        TestUtils.assertEquals(expected.getValue(), model.objective().evaluate(actual).doubleValue(), NumberContext.getGeneral(8));
+        TestUtils.assertEquals(expected, actual, NumberContext.getGeneral(6));
+    }
+
+    @Test
+    public void testInPlaceUpdatesConvex() {
+
+        final ExpressionsBasedModel model = new ExpressionsBasedModel();
+
+        final Variable x = model.addVariable("X").lower(0);
+        final Variable y = model.addVariable("Y").lower(0);
+
+        final Expression objective = model.addExpression("Objective").weight(ONE);
+        objective.set(x, x, ONE);
+        objective.set(y, y, ONE);
+        objective.set(x, NEG);
+        objective.set(y, -2);
+
+        final Expression budget = model.addExpression("Budget").set(x, ONE).set(y, ONE).upper(ONE);
+
+        model.setMinimisation();
+        final ExpressionsBasedModel.Intermediate prepared = model.prepare();
+
+        ExpressionsBasedModelTest.assertSameAsFreshSolve(model, prepared.solve(null));
+        final Optimisation.Solver solver = prepared.getSolver();
+
+        for (int k = 0; k < 10; k++) {
+
+            budget.upper(0.5 + (0.25 * k));
+            prepared.update(budget);
+
+            x.weight(-0.2 * k);
+            prepared.update(x);
+
+            ExpressionsBasedModelTest.assertSameAsFreshSolve(model, prepared.solve(null));
+            TestUtils.assertTrue(solver == prepared.getSolver());
+        }
+    }
+
+    @Test
+    public void testInPlaceUpdatesLinear() {
+
+        final ExpressionsBasedModel model = new ExpressionsBasedModel();
+
+        final Variable x = model.addVariable("X").lower(0).upper(3).weight(-3);
+        final Variable y = model.addVariable("Y").lower(0).weight(-2);
+
+        final Expression capacity = model.addExpression("Capacity").set(x, ONE).set(y, ONE).upper(4);
+        final Expression labour = model.addExpression("Labour").set(x, ONE).set(y, THREE).upper(6);
+
+        model.setMinimisation();
+        final ExpressionsBasedModel.Intermediate prepared = model.prepare();
+
+        ExpressionsBasedModelTest.assertSameAsFreshSolve(model, prepared.solve(null));
+        final Optimisation.Solver solver = prepared.getSolver();
+
+        // Objective weight changes never make the current basis infeasible
+        for (int k = 0; k < 10; k++) {
+
+            x.weight(-3 + (0.5 * k));
+            prepared.update(x);
+
+            labour.weight(0.1 * k);
+            prepared.update(labour);
+
+            ExpressionsBasedModelTest.assertSameAsFreshSolve(model, prepared.solve(null));
+            TestUtils.assertTrue(solver == prepared.getSolver());
+        }
+
+        x.weight(-3);
+        prepared.update(x);
+        labour.weight(ZERO);
+        prepared.update(labour);
+
+        // Limit changes either update the solver in-place or have it rebuilt - the result is the same
+        for (int k = 0; k < 10; k++) {
+
+            capacity.upper((k % 2) == 0 ? 4 + (0.3 * k) : 1 + (0.1 * k));
+            prepared.update(capacity);
+
+            x.upper(2 + (0.2 * k));
+            prepared.update(x);
+
+            ExpressionsBasedModelTest.assertSameAsFreshSolve(model, prepared.solve(null));
+        }
+    }
+
     @Test
     public void testIntegerRounding() {
 
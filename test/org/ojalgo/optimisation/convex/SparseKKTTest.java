@@ -0,0 +1,274 @@
+/*
+ * Copyright 1997-2018 Optimatika
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.ojalgo.optimisation.convex;
+
+import java.math.BigDecimal;
+
+import org.junit.jupiter.api.Test;
+import org.ojalgo.TestUtils;
+import org.ojalgo.matrix.store.MatrixStore;
+import org.ojalgo.matrix.store.PrimitiveDenseStore;
+import org.ojalgo.matrix.store.RowsSupplier;
+import org.ojalgo.matrix.store.SparseStore;
+import org.ojalgo.optimisation.Expression;
+import org.ojalgo.optimisation.ExpressionsBasedModel;
+import org.ojalgo.optimisation.Optimisation;
+import org.ojalgo.optimisation.Variable;
+import org.ojalgo.type.context.NumberContext;
+
+/**
+ * Verifies that the sparse KKT path produces the same solutions as the (default) dense path.
+ *
+ * @author apete
+ */
+public class SparseKKTTest extends OptimisationConvexTests {
+
+    private static final NumberContext ACCURACY = NumberContext.getGeneral(6, 8);
+
+    /**
+     * A smoothing (tridiagonal Q) problem with a budget constraint. Optionally each variable also has an upper
+     * bound small enough to be active for many of them.
+     */
+    static ExpressionsBasedModel buildModel(final int size, final boolean bounded) {
+
+        final ExpressionsBasedModel retVal = new ExpressionsBasedModel();
+
+        final Variable[] variables = new Variable[size];
+        for (int i = 0; i < size; i++) {
+            variables[i] = retVal.addVariable("X" + i);
+            if (bounded) {
+                variables[i].lower(BigDecimal.ZERO).upper(new BigDecimal("0.01"));
+            }
+        }
+
+        final Expression objective = retVal.addExpression("Objective").weight(BigDecimal.ONE);
+        for (int i = 0; i < size; i++) {
+            objective.set(variables[i], variables[i], i + 1 < size ? 2.1 : 1.1);
+            if (i + 1 < size) {
+                objective.set(variables[i], variables[i + 1], -1.0);
+            }
+            objective.set(variables[i], -Math.sin(i / 10.0));
+        }
+
+        final Expression budget = retVal.addExpression("Budget").level(BigDecimal.ONE);
+        for (int i = 0; i < size; i++) {
+            budget.set(variables[i], BigDecimal.ONE);
+        }
+
+        return retVal;
+    }
+
+    private static void compareDenseAndSparse(final ExpressionsBasedModel model) {
+
+        model.options.sparse = Boolean.FALSE;
+        final Optimisation.Result dense = model.minimise();
+
+        model.options.sparse = Boolean.TRUE;
+        final Optimisation.Result sparse = model.minimise();
+
+        TestUtils.assertTrue(dense.getState().isOptimal());
+        TestUtils.assertStateAndSolution(dense, sparse, ACCURACY);
+        TestUtils.assertEquals(dense.getValue(), sparse.getValue(), ACCURACY);
+    }
+
+    @Test
+    public void testActiveSetSolver() {
+        SparseKKTTest.compareDenseAndSparse(SparseKKTTest.buildModel(250, true));
+    }
+
+    @Test
+    public void testDefaultIsSparseForLargeSparseProblems() {
+
+        TestUtils.assertFalse(ConvexSolver.isSparse(ConvexSolver.SPARSE_THRESHOLD - 1, 1));
+        TestUtils.assertTrue(ConvexSolver.isSparse(ConvexSolver.SPARSE_THRESHOLD, 3 * ConvexSolver.SPARSE_THRESHOLD));
+        TestUtils.assertFalse(ConvexSolver.isSparse(ConvexSolver.SPARSE_THRESHOLD, ConvexSolver.SPARSE_THRESHOLD * ConvexSolver.SPARSE_THRESHOLD));
+
+        final ExpressionsBasedModel model = SparseKKTTest.buildModel(ConvexSolver.SPARSE_THRESHOLD, true);
+
+        final ConvexSolver.Builder builder = ConvexSolver.getBuilder();
+        ConvexSolver.copy(model, builder);
+        TestUtils.assertTrue(builder.isSparse());
+
+        model.options.sparse = Boolean.FALSE;
+        ConvexSolver.copy(model, builder);
+        TestUtils.assertFalse(builder.isSparse());
+    }
+
+    @Test
+    public void testEqualityConstrainedSolver() {
+        SparseKKTTest.compareDenseAndSparse(SparseKKTTest.buildModel(250, false));
+    }
+
+    /**
+     * With validation switched on [Q] must still never be converted to a dense store (this one would be 200MB),
+     * and an indefinite [Q] must be rejected.
+     */
+    @Test
+    public void testLargeSparseValidated() {
+
+        final ExpressionsBasedModel model = SparseKKTTest.buildModel(5000, false);
+        model.options.validate = true;
+
+        final ConvexSolver.Builder builder = ConvexSolver.getBuilder();
+        ConvexSolver.copy(model, builder);
+        TestUtils.assertTrue(builder.isSparse());
+
+        final Optimisation.Result result = builder.build(model.options).solve();
+
+        TestUtils.assertTrue(result.getState().isOptimal());
+        TestUtils.assertTrue(builder.isSparse());
+        double budget = 0.0;
+        for (int i = 0; i < 5000; i++) {
+            budget += result.doubleValue(i);
+        }
+        TestUtils.assertEquals(1.0, budget, ACCURACY);
+
+        TestUtils.assertTrue(builder.getStoredQ() instanceof SparseStore);
+
+        ((SparseStore<Double>) builder.getStoredQ()).set(2500, 2500, -1.0);
+        try {
+            builder.build(model.options).solve();
+            TestUtils.fail("Q is not positive semidefinite!");
+        } catch (final IllegalArgumentException expected) {
+            // Expected
+        }
+        TestUtils.assertTrue(builder.isSparse());
+    }
+
+    @Test
+    public void testPositiveSemidefinite() {
+
+        // Tridiagonal [-1 2 -1] with zero row sums - singular, but positive semidefinite
+        final SparseStore<Double> mtrxQ = SparseStore.PRIMITIVE.make(100, 100);
+        for (int i = 0; i < 100; i++) {
+            mtrxQ.set(i, i, (i == 0) || (i == 99) ? 1.0 : 2.0);
+            if (i > 0) {
+                mtrxQ.set(i, i - 1, -1.0);
+                mtrxQ.set(i - 1, i, -1.0);
+            }
+        }
+        TestUtils.assertTrue(new SparseKKT().isPositiveSemidefinite(mtrxQ));
+
+        // One negative eigenvalue
+        mtrxQ.set(50, 50, 1.5);
+        TestUtils.assertFalse(new SparseKKT().isPositiveSemidefinite(mtrxQ));
+
+        // The same for a dense [Q]
+        final PrimitiveDenseStore denseQ = PrimitiveDenseStore.FACTORY.copy(mtrxQ);
+        TestUtils.assertFalse(new SparseKKT().isPositiveSemidefinite(denseQ));
+        denseQ.set(50, 50, 2.0);
+        TestUtils.assertTrue(new SparseKKT().isPositiveSemidefinite(denseQ));
+    }
+
+    /**
+     * min 1/2 (x0² + x1² + x2²) when x0 + x1 + x2 == 3 and x0 - x1 &lt;= -1 (included) gives x = [0.5, 1.5, 1]
+     * with multipliers [-1, 0.5] (sign convention of the KKT system used by the solvers).
+     */
+    @Test
+    public void testSmallSystem() {
+
+        final SparseStore<Double> mtrxQ = SparseStore.PRIMITIVE.make(3, 3);
+        mtrxQ.set(0, 0, 1.0);
+        mtrxQ.set(1, 1, 1.0);
+        mtrxQ.set(2, 2, 1.0);
+
+        final MatrixStore<Double> mtrxAE = PrimitiveDenseStore.FACTORY.rows(new double[][] { { 1.0, 1.0, 1.0 } });
+
+        final RowsSupplier<Double> mtrxAI = PrimitiveDenseStore.FACTORY.makeRowsSupplier(3);
+        mtrxAI.addRow().set(1, 1.0);
+        mtrxAI.addRow().set(0, 1.0);
+        mtrxAI.getRow(1).set(1, -1.0);
+
+        final SparseKKT kkt = new SparseKKT();
+        TestUtils.assertTrue(kkt.compute(mtrxQ, mtrxAE, mtrxAI, new int[] { 1 }));
+
+        final MatrixStore<Double> rhs = PrimitiveDenseStore.FACTORY.columns(new double[] { 0.0, 0.0, 0.0, 3.0, -1.0 });
+        final PrimitiveDenseStore solution = PrimitiveDenseStore.FACTORY.makeZero(5, 1);
+        TestUtils.assertTrue(kkt.solve(rhs, solution));
+
+        final MatrixStore<Double> expected = PrimitiveDenseStore.FACTORY.columns(new double[] { 0.5, 1.5, 1.0, -1.0, 0.5 });
+        TestUtils.assertEquals(expected, solution, ACCURACY);
+    }
+
+    /**
+     * No constraints at all, and a [Q] large enough to be stored sparse. [Q] must be solved with the sparse
+     * LDL – validated or not – and give the same solution as a dense [Q].
+     */
+    @Test
+    @SuppressWarnings("deprecation")
+    public void testUnconstrainedSolver() {
+
+        final int size = 2 * ConvexSolver.SPARSE_THRESHOLD;
+
+        final SparseStore<Double> sparseQ = SparseStore.PRIMITIVE.make(size, size);
+        final PrimitiveDenseStore mtrxC = PrimitiveDenseStore.FACTORY.makeZero(size, 1);
+        for (int i = 0; i < size; i++) {
+            sparseQ.set(i, i, 2.1);
+            if (i + 1 < size) {
+                sparseQ.set(i, i + 1, -1.0);
+                sparseQ.set(i + 1, i, -1.0);
+            }
+            mtrxC.set(i, Math.sin(i / 10.0));
+        }
+        final PrimitiveDenseStore denseQ = PrimitiveDenseStore.FACTORY.copy(sparseQ);
+
+        final Optimisation.Options options = new Optimisation.Options();
+
+        final ConvexSolver denseSolver = ConvexSolver.getBuilder(denseQ, mtrxC).build(options);
+        TestUtils.assertTrue(denseSolver instanceof UnconstrainedSolver);
+        final Optimisation.Result expected = denseSolver.solve();
+        TestUtils.assertTrue(expected.getState().isOptimal());
+
+        for (final boolean validate : new boolean[] { false, true }) {
+
+            options.validate = validate;
+
+            final ConvexSolver.Builder builder = ConvexSolver.getBuilder(sparseQ, mtrxC);
+            TestUtils.assertTrue(builder.isSparse());
+            TestUtils.assertEquals(denseQ, builder.getQ(), ACCURACY); // Dense copy on demand
+
+            final ConvexSolver sparseSolver = builder.build(options);
+            TestUtils.assertTrue(sparseSolver instanceof UnconstrainedSolver);
+
+            final Optimisation.Result actual = sparseSolver.solve();
+
+            TestUtils.assertStateAndSolution(expected, actual, ACCURACY);
+            TestUtils.assertEquals(mtrxC, sparseQ.multiply(PrimitiveDenseStore.FACTORY.columns(actual)), ACCURACY);
+            TestUtils.assertTrue(builder.isSparse());
+        }
+    }
+
+    @Test
+    public void testValidatedActiveSetSolver() {
+        final ExpressionsBasedModel model = SparseKKTTest.buildModel(250, true);
+        model.options.validate = true;
+        SparseKKTTest.compareDenseAndSparse(model);
+    }
+
+    @Test
+    public void testValidatedEqualityConstrainedSolver() {
+        final ExpressionsBasedModel model = SparseKKTTest.buildModel(250, false);
+        model.options.validate = true;
+        SparseKKTTest.compareDenseAndSparse(model);
+    }
+
+}
@@ -0,0 +1,98 @@
+/*
+ * Copyright 1997-2018 Optimatika
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.ojalgo.optimisation.integer;
+
+import java.io.File;
+
+import org.junit.jupiter.api.Test;
+import org.ojalgo.TestUtils;
+import org.ojalgo.optimisation.ExpressionsBasedModel;
+import org.ojalgo.optimisation.MathProgSysModel;
+import org.ojalgo.optimisation.Optimisation;
+import org.ojalgo.type.context.NumberContext;
+
+/**
+ * Solves a couple of the easy MIPLIB models using the different
+ * {@linkplain org.ojalgo.optimisation.Optimisation.Options#mip_branching} rules.
+ *
+ * @author apete
+ */
+public class BranchingRuleTest extends OptimisationIntegerTests {
+
+    private static final NumberContext PRECISION = NumberContext.getGeneral(8, 6);
+
+    private static void doTest(final String modelName, final double expected, final IntegerSolver.BranchingRule rule) {
+
+        final ExpressionsBasedModel model = MathProgSysModel.make(new File(AbstractCaseFileMPS.PATH + modelName)).getExpressionsBasedModel();
+
+        model.options.mip_branching = rule;
+
+        final Optimisation.Result result = model.minimise();
+
+        TestUtils.assertStateNotLessThanOptimal(result);
+        TestUtils.assertTrue(model.validate(PRECISION));
+        TestUtils.assertEquals(expected, result.getValue(), PRECISION);
+    }
+
+    @Test
+    public void testFlugpl() {
+        for (final IntegerSolver.BranchingRule rule : IntegerSolver.BranchingRule.values()) {
+            BranchingRuleTest.doTest("flugpl.mps", 1201500, rule);
+        }
+    }
+
+    @Test
+    public void testGr4x6() {
+        for (final IntegerSolver.BranchingRule rule : IntegerSolver.BranchingRule.values()) {
+            BranchingRuleTest.doTest("gr4x6.mps", 202.35, rule);
+        }
+    }
+
+    @Test
+    public void testPseudoCosts() {
+
+        final PseudoCosts pseudoCosts = new PseudoCosts(3);
+
+        // No observations at all
+        TestUtils.assertEquals(1.0, pseudoCosts.getDown(0));
+        TestUtils.assertEquals(0, pseudoCosts.countReliability(0));
+
+        pseudoCosts.update(0, false, 1.0, 0.5);
+        pseudoCosts.update(0, false, 3.0, 0.5);
+        pseudoCosts.update(0, true, 2.0, 0.25);
+
+        TestUtils.assertEquals(4.0, pseudoCosts.getDown(0));
+        TestUtils.assertEquals(8.0, pseudoCosts.getUp(0));
+        TestUtils.assertEquals(1, pseudoCosts.countReliability(0));
+
+        // Variables without observations use the average
+        TestUtils.assertEquals(4.0, pseudoCosts.getDown(1));
+        TestUtils.assertEquals(8.0, pseudoCosts.getUp(2));
+
+        // Infeasible children are not recorded
+        pseudoCosts.update(1, true, Double.POSITIVE_INFINITY, 0.5);
+        TestUtils.assertEquals(0, pseudoCosts.countReliability(1));
+
+        TestUtils.assertEquals(2.0 * 4.0, pseudoCosts.score(0, 0.5));
+    }
+
+}
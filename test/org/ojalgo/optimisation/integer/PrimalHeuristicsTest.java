@@ -0,0 +1,167 @@
+/*
+ * Copyright 1997-2018 Optimatika
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.ojalgo.optimisation.integer;
+
+import java.util.Arrays;
+
+import org.junit.jupiter.api.Test;
+import org.ojalgo.TestUtils;
+import org.ojalgo.array.Primitive64Array;
+import org.ojalgo.optimisation.Expression;
+import org.ojalgo.optimisation.ExpressionsBasedModel;
+import org.ojalgo.optimisation.Optimisation;
+import org.ojalgo.optimisation.Variable;
+import org.ojalgo.type.context.NumberContext;
+
+public class PrimalHeuristicsTest extends OptimisationIntegerTests {
+
+    private static final NumberContext PRECISION = new NumberContext(7, 6);
+
+    private static ExpressionsBasedModel makeModel() {
+
+        final Variable x = Variable.make("X").lower(0).upper(10).weight(5).integer(true);
+        final Variable y = Variable.make("Y").lower(0).upper(10).weight(4).integer(true);
+        final Variable z = Variable.make("Z").lower(0).upper(10).weight(3).integer(true);
+
+        final ExpressionsBasedModel retVal = new ExpressionsBasedModel(x, y, z);
+
+        final Expression first = retVal.addExpression("First").upper(5.5);
+        first.set(x, 2).set(y, 3).set(z, 1);
+
+        final Expression second = retVal.addExpression("Second").upper(11.3);
+        second.set(x, 4).set(y, 1).set(z, 2);
+
+        final Expression third = retVal.addExpression("Third").upper(8.7);
+        third.set(x, 3).set(y, 4).set(z, 2);
+
+        retVal.setMaximisation();
+
+        return retVal;
+    }
+
+    private static void doTest(final PrimalHeuristic heuristic, final boolean withIncumbent, final boolean expectSolution) {
+
+        final ExpressionsBasedModel integerModel = PrimalHeuristicsTest.makeModel().simplify();
+        final int[] integerIndices = new int[] { 0, 1, 2 };
+
+        final Optimisation.Result nodeSolution = integerModel.relax(false).prepare().solve(null);
+        TestUtils.assertStateNotLessThanOptimal(nodeSolution);
+
+        final Optimisation.Result incumbent = withIncumbent ? new Optimisation.Result(Optimisation.State.FEASIBLE, Primitive64Array.make(3)) : null;
+
+        final Optimisation.Result candidate = heuristic.search(integerModel, integerIndices, nodeSolution, incumbent);
+
+        if (expectSolution) {
+            TestUtils.assertTrue(candidate != null);
+        }
+
+        if (candidate != null) {
+            TestUtils.assertStateNotLessThanFeasible(candidate);
+            TestUtils.assertTrue(integerModel.validate(candidate));
+            for (int i = 0; i < integerIndices.length; i++) {
+                final double value = candidate.doubleValue(integerIndices[i]);
+                TestUtils.assertEquals(Math.rint(value), value, PRECISION);
+            }
+        }
+    }
+
+    @Test
+    public void testDiving() {
+        PrimalHeuristicsTest.doTest(PrimalHeuristics.DIVING, false, true);
+        PrimalHeuristicsTest.doTest(PrimalHeuristics.DIVING, true, true);
+    }
+
+    @Test
+    public void testFeasibilityPump() {
+        PrimalHeuristicsTest.doTest(PrimalHeuristics.FEASIBILITY_PUMP, false, true);
+    }
+
+    /**
+     * A and B are at their upper limits, and Z at 0, in both the relaxation and the incumbent – they are fixed
+     * (3 of 4 is enough). The sub-MIP then finds the integer optimum of the remaining, fractional, variable.
+     */
+    @Test
+    public void testRINS() {
+
+        final Variable a = Variable.make("A").lower(0).upper(3).weight(1).integer(true);
+        final Variable b = Variable.make("B").lower(0).upper(2).weight(1).integer(true);
+        final Variable y = Variable.make("Y").lower(0).upper(10).weight(2).integer(true);
+        final Variable z = Variable.make("Z").lower(0).upper(10).weight(1.5).integer(true);
+
+        final ExpressionsBasedModel integerModel = new ExpressionsBasedModel(a, b, y, z);
+        integerModel.addExpression("Shared").upper(7).set(y, 2).set(z, 2);
+        integerModel.setMaximisation();
+
+        final int[] integerIndices = new int[] { 0, 1, 2, 3 };
+
+        final Optimisation.Result nodeSolution = integerModel.relax(false).prepare().solve(null);
+        TestUtils.assertStateNotLessThanOptimal(nodeSolution);
+        TestUtils.assertEquals(3.5, nodeSolution.doubleValue(2), PRECISION);
+
+        // No incumbent to compare with - nothing to do
+        TestUtils.assertTrue(PrimalHeuristics.RINS.search(integerModel, integerIndices, nodeSolution, null) == null);
+
+        final Optimisation.Result incumbent = new Optimisation.Result(Optimisation.State.FEASIBLE, Primitive64Array.wrap(new double[] { 3, 2, 0, 0 }));
+        TestUtils.assertTrue(integerModel.validate(incumbent));
+
+        final Optimisation.Result candidate = PrimalHeuristics.RINS.search(integerModel, integerIndices, nodeSolution, incumbent);
+
+        TestUtils.assertTrue(candidate != null);
+        TestUtils.assertStateNotLessThanFeasible(candidate);
+        TestUtils.assertTrue(integerModel.validate(candidate));
+
+        TestUtils.assertEquals(3.0, candidate.doubleValue(0), PRECISION);
+        TestUtils.assertEquals(2.0, candidate.doubleValue(1), PRECISION);
+        TestUtils.assertEquals(3.0, candidate.doubleValue(2), PRECISION);
+        TestUtils.assertEquals(0.0, candidate.doubleValue(3), PRECISION);
+
+        final double incumbentValue = integerModel.objective().evaluate(incumbent).doubleValue();
+        final double candidateValue = integerModel.objective().evaluate(candidate).doubleValue();
+        TestUtils.assertEquals(5.0, incumbentValue, PRECISION);
+        TestUtils.assertEquals(11.0, candidateValue, PRECISION);
+    }
+
+    @Test
+    public void testSameOptimumWithAndWithoutHeuristics() {
+
+        final ExpressionsBasedModel without = PrimalHeuristicsTest.makeModel();
+        without.options.mip_heuristics.clear();
+        final Optimisation.Result expected = without.maximise();
+
+        final ExpressionsBasedModel with = PrimalHeuristicsTest.makeModel();
+        with.options.mip_heuristics.addAll(Arrays.asList(PrimalHeuristics.FEASIBILITY_PUMP, PrimalHeuristics.RINS));
+        with.options.mip_heuristics_frequency = 1;
+        final Optimisation.Result actual = with.maximise();
+
+        TestUtils.assertStateNotLessThanOptimal(expected);
+        TestUtils.assertStateNotLessThanOptimal(actual);
+        TestUtils.assertEquals(expected.getValue(), actual.getValue(), PRECISION);
+        TestUtils.assertTrue(with.validate(actual));
+    }
+
+    @Test
+    public void testSimpleRounding() {
+        // Only "less than" constraints with non-negative coefficients - rounding down is always feasible
+        PrimalHeuristicsTest.doTest(PrimalHeuristics.SIMPLE_ROUNDING, false, true);
+    }
+
+}
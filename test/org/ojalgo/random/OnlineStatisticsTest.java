@@ -0,0 +1,172 @@
+/*
+ * Copyright 1997-2018 Optimatika
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.ojalgo.random;
+
+import static org.ojalgo.constant.PrimitiveMath.*;
+
+import java.util.Arrays;
+
+import org.junit.jupiter.api.Test;
+import org.ojalgo.TestUtils;
+import org.ojalgo.array.Primitive64Array;
+import org.ojalgo.type.context.NumberContext;
+
+/**
+ * OnlineStatisticsTest
+ *
+ * @author apete
+ */
+public class OnlineStatisticsTest extends RandomTests {
+
+    private static final NumberContext PRECISION = new NumberContext(10, 12);
+
+    private static double[] sample(final RandomNumber distribution, final int size, final long seed) {
+        final double[] retVal = new double[size];
+        distribution.setRandom(new Xoshiro256(seed));
+        distribution.fill(retVal);
+        return retVal;
+    }
+
+    @Test
+    public void testCompareWithSampleSet() {
+
+        final double[] tmpValues = OnlineStatisticsTest.sample(new Gamma(2.0, 0.5), 10_000, 1L);
+
+        final SampleSet tmpExact = SampleSet.wrap(Primitive64Array.wrap(tmpValues));
+
+        final OnlineStatistics tmpOnline = new OnlineStatistics();
+        tmpOnline.add(tmpValues);
+
+        TestUtils.assertEquals(tmpExact.count(), tmpOnline.count());
+        TestUtils.assertEquals(tmpExact.getMean(), tmpOnline.getMean(), PRECISION);
+        TestUtils.assertEquals(tmpExact.getVariance(), tmpOnline.getVariance(), PRECISION);
+        TestUtils.assertEquals(tmpExact.getStandardDeviation(), tmpOnline.getStandardDeviation(), PRECISION);
+        TestUtils.assertEquals(tmpExact.getSumOfSquares(), tmpOnline.getSumOfSquares(), PRECISION);
+        TestUtils.assertEquals(tmpExact.getMinimum(), tmpOnline.getMinimum());
+        TestUtils.assertEquals(tmpExact.getMaximum(), tmpOnline.getMaximum());
+        TestUtils.assertEquals(tmpExact.getSmallest(), tmpOnline.getSmallest());
+        TestUtils.assertEquals(tmpExact.getLargest(), tmpOnline.getLargest());
+
+        // Two-pass calculation of the third and fourth central moments
+        final double tmpMean = tmpExact.getMean();
+        double tmpM2 = ZERO, tmpM3 = ZERO, tmpM4 = ZERO;
+        for (final double tmpValue : tmpValues) {
+            final double tmpDiff = tmpValue - tmpMean;
+            tmpM2 += tmpDiff * tmpDiff;
+            tmpM3 += tmpDiff * tmpDiff * tmpDiff;
+            tmpM4 += tmpDiff * tmpDiff * tmpDiff * tmpDiff;
+        }
+        final double tmpCount = tmpValues.length;
+        TestUtils.assertEquals((Math.sqrt(tmpCount) * tmpM3) / Math.pow(tmpM2, 1.5), tmpOnline.getSkewness(), PRECISION);
+        TestUtils.assertEquals(((tmpCount * tmpM4) / (tmpM2 * tmpM2)) - THREE, tmpOnline.getKurtosis(), PRECISION);
+
+        // Gamma(2): skewness 2/sqrt(2), excess kurtosis 6/2
+        TestUtils.assertEquals(SQRT_TWO, tmpOnline.getSkewness(), 0.2);
+        TestUtils.assertEquals(THREE, tmpOnline.getKurtosis(), 1.0);
+
+        // Quantiles are approximate, check that the ranks are close
+        final double[] tmpSorted = tmpValues.clone();
+        Arrays.sort(tmpSorted);
+        TestUtils.assertEquals(0.25, OnlineStatisticsTest.rank(tmpSorted, tmpOnline.getQuartile1()), 0.02);
+        TestUtils.assertEquals(0.50, OnlineStatisticsTest.rank(tmpSorted, tmpOnline.getMedian()), 0.02);
+        TestUtils.assertEquals(0.75, OnlineStatisticsTest.rank(tmpSorted, tmpOnline.getQuartile3()), 0.02);
+    }
+
+    @Test
+    public void testEmpty() {
+
+        final OnlineStatistics tmpOnline = new OnlineStatistics();
+
+        TestUtils.assertEquals(0L, tmpOnline.count());
+        TestUtils.assertTrue(Double.isNaN(tmpOnline.getMean()));
+        TestUtils.assertTrue(Double.isNaN(tmpOnline.getMedian()));
+        TestUtils.assertEquals(ZERO, tmpOnline.getVariance());
+    }
+
+    @Test
+    public void testMerge() {
+
+        final double[] tmpValues = OnlineStatisticsTest.sample(new Normal(10.0, 2.0), 200_000, 2L);
+
+        final OnlineStatistics tmpAll = new OnlineStatistics();
+        tmpAll.add(tmpValues);
+
+        final OnlineStatistics tmpMerged = new OnlineStatistics();
+        for (int p = 0; p < 7; p++) {
+            final OnlineStatistics tmpPart = new OnlineStatistics();
+            for (int i = p; i < tmpValues.length; i += 7) {
+                tmpPart.add(tmpValues[i]);
+            }
+            tmpMerged.merge(tmpPart);
+        }
+
+        TestUtils.assertEquals(tmpAll.count(), tmpMerged.count());
+        TestUtils.assertEquals(tmpAll.getMean(), tmpMerged.getMean(), PRECISION);
+        TestUtils.assertEquals(tmpAll.getVariance(), tmpMerged.getVariance(), PRECISION);
+        TestUtils.assertEquals(tmpAll.getSkewness(), tmpMerged.getSkewness(), new NumberContext(6, 8));
+        TestUtils.assertEquals(tmpAll.getKurtosis(), tmpMerged.getKurtosis(), new NumberContext(6, 8));
+        TestUtils.assertEquals(tmpAll.getMinimum(), tmpMerged.getMinimum());
+        TestUtils.assertEquals(tmpAll.getMaximum(), tmpMerged.getMaximum());
+
+        final double[] tmpSorted = tmpValues.clone();
+        Arrays.sort(tmpSorted);
+        for (int q = 1; q < 10; q++) {
+            final double tmpProbability = q / TEN;
+            TestUtils.assertEquals(tmpProbability, OnlineStatisticsTest.rank(tmpSorted, tmpMerged.getQuantile(tmpProbability)), 0.01);
+        }
+
+        final OnlineStatistics tmpCollected = Arrays.stream(tmpValues).parallel().collect(OnlineStatistics::new, OnlineStatistics::add,
+                OnlineStatistics::merge);
+        TestUtils.assertEquals(tmpAll.getMean(), tmpCollected.getMean(), PRECISION);
+        TestUtils.assertEquals(tmpAll.getVariance(), tmpCollected.getVariance(), PRECISION);
+    }
+
+    @Test
+    public void testQuantileSketchMemory() {
+
+        final QuantileSketch tmpSketch = new QuantileSketch();
+
+        final Uniform tmpUniform = new Uniform();
+        tmpUniform.setSeed(3L);
+        for (int i = 0; i < 1_000_000; i++) {
+            tmpSketch.add(tmpUniform.doubleValue());
+        }
+
+        TestUtils.assertEquals(1_000_000L, tmpSketch.count());
+        TestUtils.assertTrue(tmpSketch.size() < 1_000);
+
+        for (int q = 1; q < 10; q++) {
+            final double tmpProbability = q / TEN;
+            TestUtils.assertEquals(tmpProbability, tmpSketch.getQuantile(tmpProbability), 0.01);
+            TestUtils.assertEquals(tmpProbability, tmpSketch.getRank(tmpProbability), 0.01);
+        }
+    }
+
+    private static double rank(final double[] sorted, final double value) {
+        int tmpIndex = Arrays.binarySearch(sorted, value);
+        if (tmpIndex < 0) {
+            tmpIndex = -(tmpIndex + 1);
+        }
+        return (double) tmpIndex / sorted.length;
+    }
+
+}
@@ -0,0 +1,183 @@
+/*
+ * Copyright 1997-2018 Optimatika
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.ojalgo.random;
+
+import static org.ojalgo.constant.PrimitiveMath.*;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.ojalgo.TestUtils;
+
+/**
+ * @author apete
+ */
+public class QuasiRandomTest extends RandomTests {
+
+    /**
+     * Sobol' g-function test integrand – the exact integral is 1.0
+     */
+    static double estimateG(final QuasiRandom sequence, final int numberOfPoints) {
+
+        final double[] tmpPoint = new double[sequence.getDimension()];
+
+        double tmpSum = ZERO;
+        for (int n = 0; n < numberOfPoints; n++) {
+            sequence.next(tmpPoint);
+            double tmpProduct = ONE;
+            for (int d = 0; d < tmpPoint.length; d++) {
+                tmpProduct *= (Math.abs((FOUR * tmpPoint[d]) - TWO) + d + ONE) / (d + TWO);
+            }
+            tmpSum += tmpProduct;
+        }
+
+        return tmpSum / numberOfPoints;
+    }
+
+    static double estimateSumOfSquares(final QuasiRandom sequence, final int numberOfPoints) {
+
+        final Normal tmpNormal = new Normal();
+        final double[] tmpPoint = new double[sequence.getDimension()];
+
+        double tmpSum = ZERO;
+        for (int n = 0; n < numberOfPoints; n++) {
+            sequence.next(tmpNormal, tmpPoint);
+            for (int d = 0; d < tmpPoint.length; d++) {
+                tmpSum += tmpPoint[d] * tmpPoint[d];
+            }
+        }
+
+        return tmpSum / numberOfPoints;
+    }
+
+    @Test
+    public void testHaltonFirstPoints() {
+
+        final Halton tmpHalton = new Halton(2);
+        final double[] tmpPoint = new double[2];
+
+        final double[][] tmpExpected = { { HALF, ONE / THREE }, { QUARTER, TWO / THREE }, { THREE / FOUR, ONE / NINE }, { ONE / EIGHT, FOUR / NINE } };
+
+        for (final double[] tmpExpectedPoint : tmpExpected) {
+            tmpHalton.next(tmpPoint);
+            TestUtils.assertEquals(tmpExpectedPoint[0], tmpPoint[0], 1E-15);
+            TestUtils.assertEquals(tmpExpectedPoint[1], tmpPoint[1], 1E-15);
+        }
+    }
+
+    @Test
+    public void testIntegration() {
+
+        final int tmpDimension = 8;
+        final int tmpPoints = 4096;
+
+        // Pseudo-random standard error is about 0.003
+        TestUtils.assertEquals(ONE, QuasiRandomTest.estimateG(new Sobol(tmpDimension), tmpPoints), 0.0015);
+        TestUtils.assertEquals(ONE, QuasiRandomTest.estimateG(new Halton(tmpDimension, 123L), tmpPoints), 0.0015);
+
+        // Pseudo-random standard error is about 0.0625 (the quasi-random error is dominated by the tails)
+        TestUtils.assertEquals(tmpDimension, QuasiRandomTest.estimateSumOfSquares(new Sobol(tmpDimension), tmpPoints), 0.04);
+        TestUtils.assertEquals(tmpDimension, QuasiRandomTest.estimateSumOfSquares(new Halton(tmpDimension, 123L), tmpPoints), 0.04);
+    }
+
+    @Test
+    public void testOpenUnitInterval() {
+
+        final QuasiRandom[] tmpSequences = { new Sobol(300), new Halton(300), new Halton(300, 1L) };
+
+        for (final QuasiRandom tmpSequence : tmpSequences) {
+            final double[] tmpPoint = new double[tmpSequence.getDimension()];
+            for (int n = 0; n < 1000; n++) {
+                tmpSequence.next(tmpPoint);
+                for (final double tmpValue : tmpPoint) {
+                    TestUtils.assertTrue((tmpValue > ZERO) && (tmpValue < ONE));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testSkip() {
+
+        final QuasiRandom[] tmpSequential = { new Sobol(30), new Halton(30, 7L) };
+        final QuasiRandom[] tmpSkipped = { new Sobol(30), new Halton(30, 7L) };
+
+        final double[] tmpExpected = new double[30];
+        final double[] tmpActual = new double[30];
+
+        for (int i = 0; i < tmpSequential.length; i++) {
+
+            for (int n = 0; n < 100; n++) {
+                tmpSequential[i].next(tmpExpected);
+            }
+
+            tmpSkipped[i].skip(99L);
+            tmpSkipped[i].next(tmpActual);
+            TestUtils.assertTrue(Arrays.equals(tmpExpected, tmpActual));
+
+            tmpSequential[i].next(tmpExpected);
+            tmpSkipped[i].next(tmpActual);
+            TestUtils.assertTrue(Arrays.equals(tmpExpected, tmpActual));
+
+            tmpSkipped[i].reset();
+            tmpSkipped[i].next(tmpActual);
+            tmpSequential[i].reset();
+            tmpSequential[i].next(tmpExpected);
+            TestUtils.assertTrue(Arrays.equals(tmpExpected, tmpActual));
+        }
+    }
+
+    @Test
+    public void testSobolFirstPoints() {
+
+        final Sobol tmpSobol = new Sobol(2);
+        final double[] tmpPoint = new double[2];
+
+        final double[][] tmpExpected = { { 0.5, 0.5 }, { 0.75, 0.25 }, { 0.25, 0.75 }, { 0.375, 0.375 }, { 0.875, 0.875 }, { 0.625, 0.125 },
+                { 0.125, 0.625 } };
+
+        for (final double[] tmpExpectedPoint : tmpExpected) {
+            tmpSobol.next(tmpPoint);
+            TestUtils.assertEquals(tmpExpectedPoint[0], tmpPoint[0], 1E-15);
+            TestUtils.assertEquals(tmpExpectedPoint[1], tmpPoint[1], 1E-15);
+        }
+    }
+
+    @Test
+    public void testSobolPolynomials() {
+
+        final List<long[]> tmpPolynomials = Sobol.primitivePolynomials(Sobol.INITIAL.length);
+
+        for (int i = 0; i < Sobol.INITIAL.length; i++) {
+            TestUtils.assertEquals(Sobol.INITIAL[i].length - 1, tmpPolynomials.get(i)[0]);
+            TestUtils.assertEquals(Sobol.INITIAL[i][0], tmpPolynomials.get(i)[1]);
+        }
+
+        // The number of primitive polynomials of degree 8 is 16, and there are 1+1+2+2+6+6+18 of lower degree
+        final List<long[]> tmpMore = Sobol.primitivePolynomials(52);
+        TestUtils.assertEquals(8L, tmpMore.get(51)[0]);
+        TestUtils.assertEquals(8L, tmpMore.get(36)[0]);
+        TestUtils.assertEquals(7L, tmpMore.get(35)[0]);
+    }
+
+}
@@ -122,6 +122,53 @@ public class RandomNumberTest extends RandomTests {
      * Tests that the error function implementation returns correct confidence intervals for +/- 6 standard
      * deviations. They are all correct to at least 10 decimal places.
      */
+    @Test
+    public void testBulkFillMoments() {
+
+        final int tmpSize = 200_000;
+        final double[] tmpSamples = new double[tmpSize];
+
+        final RandomNumber[] tmpDistributions = new RandomNumber[] { new Normal(), new Normal(-2.0, 0.5), new Exponential(), new Exponential(3.0),
+                new Gamma(0.5, 1.0), new Gamma(3.7, 2.0), new LogNormal(0.0, 0.25), new Uniform(-1.0, 3.0) };
+
+        for (final RandomNumber tmpDistribution : tmpDistributions) {
+
+            tmpDistribution.setRandom(new Xoshiro256(1234L));
+            tmpDistribution.fill(tmpSamples);
+
+            final SampleSet tmpSampleSet = SampleSet.wrap(Primitive64Array.wrap(tmpSamples));
+
+            // 6 standard errors
+            final double tmpStdErr = tmpDistribution.getStandardDeviation() / PrimitiveFunction.SQRT.invoke(tmpSize);
+            TestUtils.assertEquals(tmpDistribution.toString(), tmpDistribution.getExpected(), tmpSampleSet.getMean(), SIX * tmpStdErr);
+            TestUtils.assertEquals(tmpDistribution.toString(), tmpDistribution.getVariance(), tmpSampleSet.getVariance(), 0.05 * tmpDistribution.getVariance());
+        }
+    }
+
+    @Test
+    public void testBulkFillReproducible() {
+
+        final Normal tmpNormal = new Normal();
+
+        final Primitive64Array tmpFirst = Primitive64Array.make(3 * RandomNumber.BLOCK_SIZE + 17);
+        final Primitive64Array tmpSecond = Primitive64Array.make(3 * RandomNumber.BLOCK_SIZE + 17);
+
+        tmpNormal.setSeed(42L);
+        tmpNormal.fill(tmpFirst);
+        tmpNormal.setSeed(42L);
+        tmpNormal.fill(tmpSecond);
+
+        TestUtils.assertEquals(tmpFirst, tmpSecond);
+
+        final double[] tmpSmall = new double[10];
+        tmpNormal.setSeed(7L);
+        tmpNormal.fill(tmpSmall, 2, 8);
+        TestUtils.assertEquals(ZERO, tmpSmall[0]);
+        TestUtils.assertEquals(ZERO, tmpSmall[9]);
+        tmpNormal.setSeed(7L);
+        TestUtils.assertEquals(tmpNormal.doubleValue(), tmpSmall[2]);
+    }
+
     @Test
     public void testERF() {
 
@@ -556,4 +603,20 @@ public class RandomNumberTest extends RandomTests {
         }
     }
 
+    @Test
+    public void testXoshiro256() {
+
+        final Xoshiro256 tmpFirst = new Xoshiro256(99L);
+        final Xoshiro256 tmpSecond = new Xoshiro256(99L);
+
+        for (int i = 0; i < 1000; i++) {
+            final double tmpValue = tmpFirst.nextDouble();
+            TestUtils.assertEquals(tmpValue, tmpSecond.nextDouble());
+            TestUtils.assertTrue((ZERO <= tmpValue) && (tmpValue < ONE));
+        }
+
+        tmpSecond.setSeed(100L);
+        TestUtils.assertFalse(tmpFirst.nextLong() == tmpSecond.nextLong());
+    }
+
 }
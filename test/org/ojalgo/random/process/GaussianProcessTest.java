@@ -28,8 +28,10 @@ import java.util.Collection;
 import org.junit.jupiter.api.Test;
 import org.ojalgo.TestUtils;
 import org.ojalgo.function.PrimitiveFunction;
+import org.ojalgo.matrix.store.MatrixStore;
 import org.ojalgo.matrix.store.PrimitiveDenseStore;
 import org.ojalgo.random.Normal;
+import org.ojalgo.random.Normal1D;
 import org.ojalgo.random.process.GaussianField.Mean;
 import org.ojalgo.type.context.NumberContext;
 import org.ojalgo.type.keyvalue.ComparableToDouble;
@@ -39,6 +41,129 @@ import org.ojalgo.type.keyvalue.ComparableToDouble;
  */
 public class GaussianProcessTest {
 
+    static final class SquaredExponential implements GaussianField.Covariance<Double> {
+
+        private final double myNoise;
+        private final double myScale;
+
+        SquaredExponential(final double scale, final double noise) {
+            super();
+            myScale = scale;
+            myNoise = noise;
+        }
+
+        public void calibrate(final Collection<ComparableToDouble<Double>> observations, final Mean<Double> mean) {
+        }
+
+        public double invoke(final Double anArg1, final Double anArg2) {
+
+            final double tmpDiff = anArg1.doubleValue() - anArg2.doubleValue();
+
+            double retVal = myScale * myScale * PrimitiveFunction.EXP.invoke(-(tmpDiff * tmpDiff) / TWO);
+
+            if (tmpDiff == ZERO) {
+                retVal += myNoise * myNoise;
+            }
+
+            return retVal;
+        }
+
+    }
+
+    private static final NumberContext ACCURACY = new NumberContext(7, 10);
+
+    /**
+     * The original (SVD based) implementation
+     */
+    static void assertReference(final GaussianField<Double> field, final Normal1D actual, final Double... args) {
+
+        final MatrixStore<Double> tmpRegCoef = field.getRegressionCoefficients(args);
+
+        final MatrixStore<Double> tmpLocations = field.getM1(args).add(tmpRegCoef.multiply(field.getM2differenses()));
+        final MatrixStore<Double> tmpCovariances = field.getC11(args).subtract(tmpRegCoef.multiply(field.getC21(args)));
+
+        TestUtils.assertEquals(tmpLocations, actual.getExpected(), ACCURACY);
+        TestUtils.assertEquals(tmpCovariances.sliceDiagonal(0L, 0L), actual.getVariance(), ACCURACY);
+    }
+
+    @Test
+    public void testIncrementalFactorisation() {
+
+        final GaussianField<Double> tmpField = new GaussianField<>(new SquaredExponential(1.27, 0.3));
+
+        final Double[] tmpArgs = { -0.6, 0.2, 1.1 };
+
+        for (int i = 0; i < 12; i++) {
+
+            final double tmpKey = (0.37 * i) - 2.0;
+            tmpField.addObservation(tmpKey, Math.sin(tmpKey));
+
+            // Each query extends the cached factorisation
+            GaussianProcessTest.assertReference(tmpField, tmpField.getDistribution(tmpArgs), tmpArgs);
+        }
+
+        // Observations added out of order, and recalibrating, must also be handled
+        tmpField.addObservation(-3.0, Math.sin(-3.0));
+        GaussianProcessTest.assertReference(tmpField, tmpField.getDistribution(tmpArgs), tmpArgs);
+
+        tmpField.calibrate();
+        GaussianProcessTest.assertReference(tmpField, tmpField.getDistribution(tmpArgs), tmpArgs);
+    }
+
+    @Test
+    public void testMarginalDistributions() {
+
+        final GaussianField<Double> tmpField = new GaussianField<>(new SquaredExponential(1.27, 0.3));
+        for (int i = 0; i < 20; i++) {
+            final double tmpKey = 0.5 * i;
+            tmpField.addObservation(tmpKey, Math.cos(tmpKey));
+        }
+
+        final Double[] tmpArgs = new Double[50];
+        for (int j = 0; j < tmpArgs.length; j++) {
+            tmpArgs[j] = (0.21 * j) - 0.5;
+        }
+
+        final Normal1D tmpJoint = tmpField.getDistribution(tmpArgs);
+        final Normal[] tmpMarginals = tmpField.getMarginalDistributions(tmpArgs);
+
+        for (int j = 0; j < tmpArgs.length; j++) {
+            TestUtils.assertEquals(tmpJoint.getExpected().doubleValue(j), tmpMarginals[j].getExpected(), ACCURACY);
+            TestUtils.assertEquals(tmpJoint.getVariance().doubleValue(j), tmpMarginals[j].getVariance(), ACCURACY);
+        }
+    }
+
+    @Test
+    public void testSparseApproximation() {
+
+        final double tmpNoise = 0.1;
+
+        final GaussianField<Double> tmpExact = new GaussianField<>(new SquaredExponential(1.0, tmpNoise));
+        final GaussianField<Double> tmpSparse = new GaussianField<>(new SquaredExponential(1.0, ZERO));
+        tmpSparse.setSparseApproximation(100, 40, tmpNoise * tmpNoise);
+
+        for (int i = 0; i < 400; i++) {
+            final double tmpKey = 0.025 * i;
+            final double tmpValue = Math.sin(tmpKey) + (tmpNoise * Math.sin(7919.0 * i));
+            tmpExact.addObservation(tmpKey, tmpValue);
+            tmpSparse.addObservation(tmpKey, tmpValue);
+        }
+
+        // Off the observation grid, and the exact variance includes the noise
+        final Double[] tmpArgs = { 0.51, 2.49, 5.01, 7.49, 9.51 };
+
+        final Normal[] tmpExpected = tmpExact.getMarginalDistributions(tmpArgs);
+        final Normal[] tmpActual = tmpSparse.getMarginalDistributions(tmpArgs);
+        final Normal1D tmpJoint = tmpSparse.getDistribution(tmpArgs);
+
+        for (int j = 0; j < tmpArgs.length; j++) {
+            TestUtils.assertEquals(tmpExpected[j].getExpected(), tmpActual[j].getExpected(), 0.01);
+            TestUtils.assertEquals(tmpExpected[j].getVariance() - (tmpNoise * tmpNoise), tmpActual[j].getVariance(), 0.001);
+            TestUtils.assertEquals(tmpActual[j].getExpected(), tmpJoint.getExpected().doubleValue(j), 1E-9);
+            TestUtils.assertEquals(tmpActual[j].getVariance(), tmpJoint.getVariance().doubleValue(j), 1E-9);
+        }
+    }
+
     @Test
     public void testTutorial() {
 
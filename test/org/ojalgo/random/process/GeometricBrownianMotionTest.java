@@ -35,6 +35,7 @@ import org.ojalgo.random.ContinuousDistribution;
 import org.ojalgo.random.LogNormal;
 import org.ojalgo.random.Normal;
 import org.ojalgo.random.SampleSet;
+import org.ojalgo.random.Sobol;
 import org.ojalgo.type.context.NumberContext;
 
 /**
@@ -221,6 +222,116 @@ public class GeometricBrownianMotionTest extends RandomProcessTests {
         TestUtils.assertEquals(ONE, tmpGeometrVal / tmpFactoryVal, tmpDeltaFinal);
     }
 
+    /**
+     * The inverse CDF of the normalised increment is implemented by every process – the quasi-Monte Carlo
+     * simulation relies on it.
+     */
+    @Test
+    public void testNormalisedRandomIncrementQuantiles() {
+
+        final double tmpOneSigma = new Normal().getDistribution(ONE);
+
+        final AbstractProcess<?>[] tmpGaussianProcesses = new AbstractProcess<?>[] { GeometricBrownianMotion.make(1.1, 0.04), new WienerProcess() };
+        for (final AbstractProcess<?> tmpProcess : tmpGaussianProcesses) {
+            TestUtils.assertEquals(ZERO, tmpProcess.getNormalisedRandomIncrement(HALF), 1E-14);
+            TestUtils.assertEquals(ONE, tmpProcess.getNormalisedRandomIncrement(tmpOneSigma), 1E-9);
+            TestUtils.assertEquals(-ONE, tmpProcess.getNormalisedRandomIncrement(ONE - tmpOneSigma), 1E-9);
+        }
+
+        // Poisson(1): P(0) = 0.368, P(≤1) = 0.736, P(≤2) = 0.920, P(≤3) = 0.981 and P(≤4) = 0.996
+        final PoissonProcess tmpPoisson = new PoissonProcess(TWO);
+        TestUtils.assertEquals(ZERO, tmpPoisson.getNormalisedRandomIncrement(0.1));
+        TestUtils.assertEquals(ONE, tmpPoisson.getNormalisedRandomIncrement(HALF));
+        TestUtils.assertEquals(FOUR, tmpPoisson.getNormalisedRandomIncrement(0.99));
+    }
+
+    @Test
+    public void testQuasiMonteCarlo() {
+
+        final GeometricBrownianMotion tmpProcess = GeometricBrownianMotion.make(1.1, 0.04);
+        tmpProcess.setValue(ONE);
+
+        final int tmpRealisations = 4096;
+        final int tmpSteps = 12;
+        final double tmpStepSize = ONE / tmpSteps;
+
+        final RandomProcess.SimulationResults tmpResults = tmpProcess.simulate(tmpRealisations, tmpSteps, tmpStepSize, new Sobol(tmpSteps));
+
+        TestUtils.assertEquals(ONE, tmpProcess.getValue());
+
+        // A small fraction of the (pseudo-random) standard error
+        final double tmpStandardError = tmpProcess.getStandardDeviation(ONE) / PrimitiveFunction.SQRT.invoke(tmpRealisations);
+        final SampleSet tmpFinal = tmpResults.getSampleSet(tmpSteps - 1);
+        TestUtils.assertEquals(tmpProcess.getExpected(ONE), tmpFinal.getMean(), tmpStandardError / TEN);
+        TestUtils.assertEquals(tmpProcess.getStandardDeviation(ONE), tmpFinal.getStandardDeviation(), tmpStandardError);
+
+        // The Brownian bridge gives paths with the correct distribution at every step, not just at the end
+        final WienerProcess tmpWiener = new WienerProcess();
+        final RandomProcess.SimulationResults tmpWienerResults = tmpWiener.simulate(tmpRealisations, tmpSteps, tmpStepSize, new Sobol(tmpSteps));
+        for (int s = 0; s < tmpSteps; s++) {
+            final SampleSet tmpSampleSet = tmpWienerResults.getSampleSet(s);
+            TestUtils.assertEquals(ZERO, tmpSampleSet.getMean(), 0.001);
+            TestUtils.assertEquals((s + 1) * tmpStepSize, tmpSampleSet.getVariance(), 0.01);
+        }
+    }
+
+    @Test
+    public void testSeededSimulation() {
+
+        final GeometricBrownianMotion tmpProcess = GeometricBrownianMotion.make(1.1, 0.04);
+        tmpProcess.setValue(ONE);
+
+        final int tmpRealisations = 2000;
+        final int tmpSteps = 12;
+        final double tmpStepSize = ONE / tmpSteps;
+
+        final RandomProcess.SimulationResults tmpFirst = tmpProcess.simulate(tmpRealisations, tmpSteps, tmpStepSize, 123L);
+        final RandomProcess.SimulationResults tmpSecond = tmpProcess.simulate(tmpRealisations, tmpSteps, tmpStepSize, 123L);
+        final RandomProcess.SimulationStatistics tmpStatistics = tmpProcess.simulateStatistics(tmpRealisations, tmpSteps, tmpStepSize, 123L);
+
+        TestUtils.assertEquals(ONE, tmpProcess.getValue());
+        TestUtils.assertEquals(tmpRealisations, tmpFirst.countScenarios());
+        TestUtils.assertEquals(tmpSteps, tmpFirst.countSampleSets());
+        TestUtils.assertEquals(tmpRealisations, tmpStatistics.countScenarios());
+
+        final NumberContext tmpPrecision = new NumberContext(7, 12);
+
+        for (int s = 0; s < tmpSteps; s++) {
+
+            final SampleSet tmpFirstSet = tmpFirst.getSampleSet(s);
+            final SampleSet tmpSecondSet = tmpSecond.getSampleSet(s);
+
+            for (int r = 0; r < tmpRealisations; r++) {
+                TestUtils.assertEquals(tmpFirstSet.doubleValue(r), tmpSecondSet.doubleValue(r));
+            }
+
+            TestUtils.assertEquals(tmpFirstSet.getMean(), tmpStatistics.getMean(s), tmpPrecision);
+            TestUtils.assertEquals(tmpFirstSet.getVariance(), tmpStatistics.getVariance(s), tmpPrecision);
+            TestUtils.assertEquals(tmpFirstSet.getMinimum(), tmpStatistics.getMinimum(s));
+            TestUtils.assertEquals(tmpFirstSet.getMaximum(), tmpStatistics.getMaximum(s));
+        }
+
+        // 5 standard errors
+        final double tmpTolerance = (FIVE * tmpProcess.getStandardDeviation(ONE)) / PrimitiveFunction.SQRT.invoke(tmpRealisations);
+        TestUtils.assertEquals(tmpProcess.getExpected(ONE), tmpStatistics.getMean(tmpSteps - 1), tmpTolerance);
+
+        final RandomProcess.SimulationResults tmpOther = tmpProcess.simulate(tmpRealisations, tmpSteps, tmpStepSize, 456L);
+        TestUtils.assertFalse(tmpOther.getSampleSet(0).doubleValue(0) == tmpFirst.getSampleSet(0).doubleValue(0));
+    }
+
+    @Test
+    public void testSeededSimulationFewRealisations() {
+
+        final WienerProcess tmpProcess = new WienerProcess();
+
+        final RandomProcess.SimulationResults tmpResults = tmpProcess.simulate(3, 5, ONE, 42L);
+        final RandomProcess.SimulationStatistics tmpStatistics = tmpProcess.simulateStatistics(3, 5, ONE, 42L);
+
+        for (int s = 0; s < 5; s++) {
+            TestUtils.assertEquals(tmpResults.getSampleSet(s).getMean(), tmpStatistics.getMean(s), new NumberContext(7, 12));
+        }
+    }
+
     @Test
     public void testWikipediaCases() {
 
@@ -0,0 +1,114 @@
+/*
+ * Copyright 1997-2018 Optimatika
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.ojalgo.random.process;
+
+import static org.ojalgo.constant.PrimitiveMath.*;
+
+import java.util.Arrays;
+
+import org.junit.jupiter.api.Test;
+import org.ojalgo.TestUtils;
+import org.ojalgo.matrix.store.PrimitiveDenseStore;
+import org.ojalgo.random.SampleSet;
+import org.ojalgo.type.context.NumberContext;
+
+/**
+ * Process1DTest
+ *
+ * @author apete
+ */
+public class Process1DTest extends RandomProcessTests {
+
+    @Test
+    public void testCorrelatedWiener() {
+
+        final PrimitiveDenseStore tmpCorrelations = PrimitiveDenseStore.FACTORY.rows(new double[][] { { 1.0, 0.8, -0.3 }, { 0.8, 1.0, 0.0 }, { -0.3, 0.0, 1.0 } });
+
+        final Wiener1D tmpProcess = new Wiener1D(tmpCorrelations, Arrays.asList(new WienerProcess(), new WienerProcess(), new WienerProcess()));
+
+        final int tmpRealisations = 4000;
+        final int tmpSteps = 4;
+
+        final RandomProcess.SimulationResults[] tmpResults = tmpProcess.simulate(tmpRealisations, tmpSteps, QUARTER, 123L);
+        final RandomProcess.SimulationResults[] tmpAgain = tmpProcess.simulate(tmpRealisations, tmpSteps, QUARTER, 123L);
+        final RandomProcess.SimulationStatistics[] tmpStatistics = tmpProcess.simulateStatistics(tmpRealisations, tmpSteps, QUARTER, 123L);
+
+        TestUtils.assertEquals(3, tmpResults.length);
+
+        final SampleSet[] tmpTerminal = new SampleSet[3];
+        for (int p = 0; p < 3; p++) {
+
+            tmpTerminal[p] = tmpResults[p].getSampleSet(tmpSteps - 1);
+
+            for (int r = 0; r < tmpRealisations; r++) {
+                TestUtils.assertEquals(tmpTerminal[p].doubleValue(r), tmpAgain[p].getSampleSet(tmpSteps - 1).doubleValue(r));
+            }
+
+            TestUtils.assertEquals(tmpTerminal[p].getMean(), tmpStatistics[p].getMean(tmpSteps - 1), new NumberContext(7, 12));
+            TestUtils.assertEquals(tmpTerminal[p].getVariance(), tmpStatistics[p].getVariance(tmpSteps - 1), new NumberContext(7, 12));
+
+            // After 1.0 time units, N(0,1)
+            TestUtils.assertEquals(ZERO, tmpTerminal[p].getMean(), 0.1);
+            TestUtils.assertEquals(ONE, tmpTerminal[p].getVariance(), 0.1);
+        }
+
+        for (int i = 0; i < 3; i++) {
+            for (int j = 0; j < 3; j++) {
+                TestUtils.assertEquals(tmpCorrelations.doubleValue(i, j), tmpTerminal[i].getCorrelation(tmpTerminal[j]), 0.05);
+            }
+        }
+    }
+
+    @Test
+    public void testSemidefiniteCorrelations() {
+
+        // Not positive definite – the second and third processes are the same
+        final PrimitiveDenseStore tmpCorrelations = PrimitiveDenseStore.FACTORY.rows(new double[][] { { 1.0, 0.5, 0.5 }, { 0.5, 1.0, 1.0 }, { 0.5, 1.0, 1.0 } });
+
+        final GeometricBrownian1D tmpProcess = new GeometricBrownian1D(tmpCorrelations, Arrays.asList(GeometricBrownianMotion.make(1.1, 0.04),
+                GeometricBrownianMotion.make(1.1, 0.04), GeometricBrownianMotion.make(1.1, 0.04)));
+        tmpProcess.setValues(PrimitiveDenseStore.FACTORY.rows(new double[][] { { 1.0, 1.0, 1.0 } }));
+
+        final RandomProcess.SimulationResults[] tmpResults = tmpProcess.simulate(500, 3, ONE, 7L);
+
+        final SampleSet tmpFirst = tmpResults[0].getSampleSet(2);
+        final SampleSet tmpSecond = tmpResults[1].getSampleSet(2);
+        final SampleSet tmpThird = tmpResults[2].getSampleSet(2);
+
+        for (int r = 0; r < 500; r++) {
+            TestUtils.assertFalse(Double.isNaN(tmpFirst.doubleValue(r)));
+            TestUtils.assertEquals(tmpSecond.doubleValue(r), tmpThird.doubleValue(r), 1E-6);
+        }
+
+        // Inconsistent, indefinite, correlations – the negative eigenvalue is ignored
+        final PrimitiveDenseStore tmpIndefinite = PrimitiveDenseStore.FACTORY.rows(new double[][] { { 1.0, 0.9, 0.9 }, { 0.9, 1.0, -0.5 }, { 0.9, -0.5, 1.0 } });
+
+        final Wiener1D tmpWiener = new Wiener1D(tmpIndefinite, Arrays.asList(new WienerProcess(), new WienerProcess(), new WienerProcess()));
+
+        for (final RandomProcess.SimulationResults tmpResult : tmpWiener.simulate(100, 2, ONE, 7L)) {
+            for (int r = 0; r < 100; r++) {
+                TestUtils.assertFalse(Double.isNaN(tmpResult.getSampleSet(1).doubleValue(r)));
+            }
+        }
+    }
+
+}
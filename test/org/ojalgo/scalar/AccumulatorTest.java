@@ -0,0 +1,83 @@
+/*
+ * Copyright 1997-2018 Optimatika
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.ojalgo.scalar;
+
+import java.util.Random;
+import java.util.function.Supplier;
+
+import org.junit.jupiter.api.Test;
+import org.ojalgo.TestUtils;
+
+/**
+ * Accumulating using {@link Scalar.Accumulator} must give exactly the same results as using the immutable
+ * scalar operations.
+ */
+public class AccumulatorTest {
+
+    private static final Random RANDOM = new Random(123L);
+
+    static <N extends Number & Scalar<N>> void doTest(final Scalar.Factory<N> factory, final Supplier<N> supplier) {
+
+        final Scalar.Accumulator<N> tmpAccumulator = factory.newAccumulator();
+
+        for (int t = 0; t < 10; t++) {
+
+            tmpAccumulator.reset();
+            Scalar<N> tmpExpected = factory.zero();
+
+            for (int i = 0; i < 50; i++) {
+                final N tmpLeft = supplier.get();
+                final N tmpRight = supplier.get();
+                final N tmpAddend = supplier.get();
+
+                tmpAccumulator.addProduct(tmpLeft, tmpRight);
+                tmpExpected = tmpExpected.add(tmpLeft.multiply(tmpRight));
+
+                tmpAccumulator.add(tmpAddend);
+                tmpExpected = tmpExpected.add(tmpAddend);
+            }
+
+            TestUtils.assertEquals(tmpExpected.get(), tmpAccumulator.get());
+        }
+    }
+
+    @Test
+    public void testBigRational() {
+        AccumulatorTest.doTest(BigRational.FACTORY, () -> BigRational.of(RANDOM.nextInt(), 1 + RANDOM.nextInt(Integer.MAX_VALUE)));
+    }
+
+    @Test
+    public void testComplexNumber() {
+        AccumulatorTest.doTest(ComplexNumber.FACTORY, () -> ComplexNumber.of(RANDOM.nextGaussian(), RANDOM.nextGaussian()));
+    }
+
+    @Test
+    public void testQuaternion() {
+        AccumulatorTest.doTest(Quaternion.FACTORY, () -> Quaternion.of(RANDOM.nextGaussian(), RANDOM.nextGaussian(), RANDOM.nextGaussian(), RANDOM.nextGaussian()));
+    }
+
+    @Test
+    public void testRationalNumber() {
+        AccumulatorTest.doTest(RationalNumber.FACTORY, () -> RationalNumber.of(RANDOM.nextInt(1_000) - 500, 1 + RANDOM.nextInt(12)));
+    }
+
+}
@@ -0,0 +1,75 @@
+/*
+ * Copyright 1997-2018 Optimatika
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.ojalgo.scalar;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+
+import org.junit.jupiter.api.Test;
+import org.ojalgo.TestUtils;
+
+public class BigRationalTest {
+
+    @Test
+    public void testExactConversions() {
+
+        TestUtils.assertEquals(BigRational.of(1L, 10L), BigRational.valueOf(new BigDecimal("0.1")));
+        TestUtils.assertEquals(BigRational.of(3602879701896397L, 36028797018963968L), BigRational.valueOf(0.1));
+        TestUtils.assertEquals(BigRational.of(-3L, 4L), BigRational.valueOf(RationalNumber.of(6L, -8L)));
+        TestUtils.assertEquals(0.1, BigRational.valueOf(0.1).doubleValue());
+    }
+
+    @Test
+    public void testPromoteAndDemote() {
+
+        final BigRational tmpLarge = BigRational.of(Long.MAX_VALUE, 3L);
+        TestUtils.assertTrue(tmpLarge.isPrimitive());
+
+        final BigRational tmpSquare = tmpLarge.multiply(tmpLarge);
+        TestUtils.assertFalse(tmpSquare.isPrimitive());
+        TestUtils.assertEquals(BigInteger.valueOf(Long.MAX_VALUE).pow(2), tmpSquare.numerator());
+        TestUtils.assertEquals(BigInteger.valueOf(9L), tmpSquare.denominator());
+
+        final BigRational tmpBack = tmpSquare.divide(tmpLarge);
+        TestUtils.assertTrue(tmpBack.isPrimitive());
+        TestUtils.assertEquals(tmpLarge, tmpBack);
+
+        TestUtils.assertEquals(tmpLarge, tmpLarge.add(tmpLarge).subtract(tmpLarge));
+        TestUtils.assertEquals(BigRational.ZERO, tmpLarge.subtract(tmpLarge));
+        TestUtils.assertEquals(1, tmpSquare.compareTo(tmpLarge));
+    }
+
+    @Test
+    public void testSmallArithmetic() {
+
+        final BigRational tmpHalf = BigRational.of(1L, 2L);
+        final BigRational tmpThird = BigRational.of(-2L, -6L);
+
+        TestUtils.assertEquals(BigRational.of(5L, 6L), tmpHalf.add(tmpThird));
+        TestUtils.assertEquals(BigRational.of(1L, 6L), tmpHalf.subtract(tmpThird));
+        TestUtils.assertEquals(BigRational.of(1L, 6L), tmpHalf.multiply(tmpThird));
+        TestUtils.assertEquals(BigRational.of(3L, 2L), tmpHalf.divide(tmpThird));
+        TestUtils.assertEquals(BigRational.of(-3L, 1L), tmpThird.invert().negate());
+        TestUtils.assertEquals(-1, tmpThird.compareTo(tmpHalf));
+    }
+
+}
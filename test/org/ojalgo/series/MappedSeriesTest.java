@@ -0,0 +1,228 @@
+/*
+ * Copyright 1997-2018 Optimatika
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.ojalgo.series;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.Map;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.ojalgo.TestUtils;
+import org.ojalgo.type.CalendarDate;
+
+public class MappedSeriesTest {
+
+    private static final long START = 1_500_000_000_000L;
+    private static final long STEP = 60_000L;
+
+    static void assertEntries(final MappedSeries series, final long[] keys, final double[] values, final int first, final int limit) {
+
+        TestUtils.assertEquals(limit - first, series.size());
+
+        for (int i = first; i < limit; i++) {
+            TestUtils.assertEquals(values[i], series.doubleValue(i - first));
+            TestUtils.assertEquals(values[i], series.get(new CalendarDate(keys[i])).doubleValue());
+        }
+
+        final Iterator<Map.Entry<CalendarDate, Double>> iterator = series.entrySet().iterator();
+        for (int i = first; i < limit; i++) {
+            final Map.Entry<CalendarDate, Double> entry = iterator.next();
+            TestUtils.assertEquals(keys[i], entry.getKey().millis);
+            TestUtils.assertEquals(values[i], entry.getValue().doubleValue());
+        }
+        TestUtils.assertFalse(iterator.hasNext());
+
+        final long[] primitiveKeys = series.getPrimitiveKeys();
+        for (int i = first; i < limit; i++) {
+            TestUtils.assertEquals(keys[i], primitiveKeys[i - first]);
+        }
+    }
+
+    static long key(final int index) {
+        return START + (index * STEP);
+    }
+
+    private File myFile;
+
+    @AfterEach
+    public void deleteFile() {
+        myFile.delete();
+    }
+
+    @BeforeEach
+    public void makeFile() throws IOException {
+        myFile = File.createTempFile("MappedSeriesTest", ".series");
+        myFile.delete();
+    }
+
+    @Test
+    public void testAppendToFullLastBlock() {
+
+        final int total = MappedSeries.BLOCK_SIZE + 10;
+        final long[] keys = new long[total];
+        final double[] values = new double[total];
+        for (int i = 0; i < total; i++) {
+            keys[i] = MappedSeriesTest.key(i);
+            values[i] = -i;
+        }
+
+        try (MappedSeries.Writer writer = MappedSeries.newWriter(myFile)) {
+            for (int i = 0; i < MappedSeries.BLOCK_SIZE; i++) {
+                writer.append(keys[i], values[i]);
+            }
+        }
+        TestUtils.assertEquals(MappedSeries.position(1L), myFile.length());
+
+        try (MappedSeries.Writer writer = MappedSeries.newWriter(myFile)) {
+            for (int i = MappedSeries.BLOCK_SIZE; i < total; i++) {
+                writer.append(keys[i], values[i]);
+            }
+        }
+        TestUtils.assertEquals(MappedSeries.position(2L), myFile.length());
+
+        MappedSeriesTest.assertEntries(MappedSeries.open(myFile), keys, values, 0, total);
+    }
+
+    @Test
+    public void testAppendToPartialLastBlock() {
+
+        final int total = 1700;
+        final long[] keys = new long[total];
+        final double[] values = new double[total];
+        for (int i = 0; i < total; i++) {
+            keys[i] = MappedSeriesTest.key(i);
+            values[i] = i * 0.5;
+        }
+
+        try (MappedSeries.Writer writer = MappedSeries.newWriter(myFile)) {
+            for (int i = 0; i < 1500; i++) {
+                writer.append(keys[i], values[i]);
+            }
+        }
+
+        // A snapshot taken before appending more does not see the new entries
+        final MappedSeries before = MappedSeries.open(myFile);
+
+        try (MappedSeries.Writer writer = MappedSeries.newWriter(myFile)) {
+            try {
+                writer.append(keys[1499], 0.0);
+                TestUtils.fail("Keys must be strictly increasing, also in relation to what is already in the file!");
+            } catch (final IllegalArgumentException expected) {
+                // Expected
+            }
+            for (int i = 1500; i < total; i++) {
+                writer.append(keys[i], values[i]);
+            }
+        }
+        TestUtils.assertEquals(MappedSeries.position(2L), myFile.length());
+
+        MappedSeriesTest.assertEntries(before, keys, values, 0, 1500);
+        MappedSeriesTest.assertEntries(MappedSeries.open(myFile), keys, values, 0, total);
+    }
+
+    @Test
+    public void testKeyGapForcesNewBlock() {
+
+        final long[] keys = { 0L, 1L, 2L + Integer.MAX_VALUE + 10L, 3L + Integer.MAX_VALUE + 10L };
+        final double[] values = { 1.0, 2.0, 3.0, 4.0 };
+
+        try (MappedSeries.Writer writer = MappedSeries.newWriter(myFile)) {
+            for (int i = 0; i < keys.length; i++) {
+                writer.append(keys[i], values[i]);
+            }
+        }
+        TestUtils.assertEquals(MappedSeries.position(2L), myFile.length());
+
+        final MappedSeries series = MappedSeries.open(myFile);
+
+        MappedSeriesTest.assertEntries(series, keys, values, 0, keys.length);
+
+        TestUtils.assertEquals(keys[2], series.tailMap(new CalendarDate(2L)).firstKey().millis);
+        TestUtils.assertEquals(2, series.headMap(new CalendarDate(keys[2])).size());
+    }
+
+    @Test
+    public void testRoundTripAndViews() {
+
+        final int total = 2500;
+        final long[] keys = new long[total];
+        final double[] values = new double[total];
+        for (int i = 0; i < total; i++) {
+            keys[i] = MappedSeriesTest.key(i);
+            values[i] = Math.sin(i);
+        }
+
+        try (MappedSeries.Writer writer = MappedSeries.newWriter(myFile)) {
+            for (int i = 0; i < total; i++) {
+                writer.append(new CalendarDate(keys[i]), values[i]);
+            }
+        }
+
+        final MappedSeries series = MappedSeries.open(myFile);
+
+        MappedSeriesTest.assertEntries(series, keys, values, 0, total);
+        TestUtils.assertEquals(keys[0], series.firstKey().millis);
+        TestUtils.assertEquals(keys[total - 1], series.lastKey().millis);
+        TestUtils.assertEquals(values[total - 1], series.lastValue().doubleValue());
+
+        // Missing keys
+        TestUtils.assertTrue(series.get(new CalendarDate(keys[7] + 1L)) == null);
+        TestUtils.assertTrue(Double.isNaN(series.doubleValue(new CalendarDate(keys[0] - 1L))));
+        TestUtils.assertTrue(series.get("Not a key") == null);
+
+        // Sub-map crossing block boundaries, and starting between two keys
+        final MappedSeries sub = series.subMap(new CalendarDate(keys[1000] + 1L), new CalendarDate(keys[2100]));
+        MappedSeriesTest.assertEntries(sub, keys, values, 1001, 2100);
+        TestUtils.assertTrue(sub.get(new CalendarDate(keys[1000])) == null);
+        TestUtils.assertTrue(sub.get(new CalendarDate(keys[2100])) == null);
+
+        // Sub-map of a sub-map is clamped to the outer view
+        MappedSeriesTest.assertEntries(sub.subMap(new CalendarDate(keys[0]), new CalendarDate(keys[1030])), keys, values, 1001, 1030);
+        MappedSeriesTest.assertEntries(sub.tailMap(new CalendarDate(keys[2000])), keys, values, 2000, 2100);
+
+        MappedSeriesTest.assertEntries(series.headMap(new CalendarDate(keys[5])), keys, values, 0, 5);
+        MappedSeriesTest.assertEntries(series.tailMap(new CalendarDate(keys[total - 5])), keys, values, total - 5, total);
+
+        TestUtils.assertEquals(0, series.subMap(new CalendarDate(keys[10]), new CalendarDate(keys[5])).size());
+        TestUtils.assertEquals(0, series.tailMap(new CalendarDate(keys[total - 1] + 1L)).size());
+
+        // Index based access is bounded by the view
+        for (final long index : new long[] { -1L, sub.count() }) {
+            try {
+                sub.doubleValue(index);
+                TestUtils.fail("Index outside the view!");
+            } catch (final ArrayIndexOutOfBoundsException expected) {
+                // Expected
+            }
+            try {
+                sub.get(index);
+                TestUtils.fail("Index outside the view!");
+            } catch (final ArrayIndexOutOfBoundsException expected) {
+                // Expected
+            }
+        }
+    }
+
+}
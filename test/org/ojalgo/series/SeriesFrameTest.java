@@ -0,0 +1,277 @@
+/*
+ * Copyright 1997-2018 Optimatika
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.ojalgo.series;
+
+import static org.ojalgo.constant.PrimitiveMath.*;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.junit.jupiter.api.Test;
+import org.ojalgo.ProgrammingError;
+import org.ojalgo.TestUtils;
+import org.ojalgo.array.BufferArray;
+import org.ojalgo.array.Primitive64Array;
+import org.ojalgo.type.CalendarDate;
+import org.ojalgo.type.CalendarDateUnit;
+
+public class SeriesFrameTest {
+
+    private static final long HOUR = CalendarDateUnit.HOUR.toDurationInMillis();
+
+    static void assertColumn(final long[] expectedKeys, final double[] expectedValues, final SeriesFrame frame, final String name) {
+
+        TestUtils.assertEquals(expectedKeys, frame.keys());
+        TestUtils.assertEquals(expectedKeys.length, frame.countRows());
+
+        final int tmpCol = frame.indexOf(name);
+        TestUtils.assertTrue(tmpCol >= 0);
+
+        for (int i = 0; i < expectedKeys.length; i++) {
+            TestUtils.assertEquals(expectedKeys[i], frame.key(i));
+            SeriesFrameTest.assertValue(expectedValues[i], frame.doubleValue(i, tmpCol));
+            SeriesFrameTest.assertValue(expectedValues[i], frame.getSeries(name).value(i));
+        }
+    }
+
+    static void assertValue(final double expected, final double actual) {
+        if (Double.isNaN(expected)) {
+            TestUtils.assertTrue(Double.isNaN(actual));
+        } else {
+            TestUtils.assertEquals(expected, actual);
+        }
+    }
+
+    static SeriesFrame newFrame() {
+
+        final long[] tmpKeys = { 1L * HOUR, 2L * HOUR, 4L * HOUR, 5L * HOUR, 7L * HOUR, 8L * HOUR };
+        final double[] tmpA = { 1.0, NaN, 3.0, NaN, NaN, 6.0 };
+        final double[] tmpB = { NaN, 20.0, 30.0, 40.0, NaN, NaN };
+
+        return SeriesFrame.wrap(tmpKeys, Arrays.asList("A", "B"), tmpA, tmpB);
+    }
+
+    @Test
+    public void testAlign() {
+
+        final SeriesFrame tmpFrame = SeriesFrameTest.newFrame();
+
+        final long[] tmpKeys = { 0L, 2L * HOUR, 3L * HOUR, 4L * HOUR, 8L * HOUR, 9L * HOUR };
+        final SeriesFrame tmpAligned = tmpFrame.align(tmpKeys);
+
+        SeriesFrameTest.assertColumn(tmpKeys, new double[] { NaN, NaN, NaN, 3.0, 6.0, NaN }, tmpAligned, "A");
+        SeriesFrameTest.assertColumn(tmpKeys, new double[] { NaN, 20.0, NaN, 30.0, NaN, NaN }, tmpAligned, "B");
+
+        // Aligning a frame to itself changes nothing
+        SeriesFrameTest.assertColumn(tmpFrame.keys(), new double[] { 1.0, NaN, 3.0, NaN, NaN, 6.0 }, tmpFrame.align(tmpFrame), "A");
+    }
+
+    @Test
+    public void testCopy() {
+
+        final SeriesFrame tmpFrame = SeriesFrameTest.newFrame().slice(2L * HOUR, 7L * HOUR).fillForward();
+
+        final SeriesFrame tmpHeap = tmpFrame.copy(Primitive64Array.FACTORY);
+        final SeriesFrame tmpOffHeap = tmpFrame.copy(BufferArray.DIRECT64);
+
+        TestUtils.assertEquals(tmpFrame.getNames(), tmpHeap.getNames());
+        TestUtils.assertEquals(tmpFrame.getNames(), tmpOffHeap.getNames());
+
+        for (final String tmpName : tmpFrame.getNames()) {
+            final double[] tmpExpected = new double[(int) tmpFrame.countRows()];
+            for (int i = 0; i < tmpExpected.length; i++) {
+                tmpExpected[i] = tmpFrame.doubleValue(i, tmpFrame.indexOf(tmpName));
+            }
+            SeriesFrameTest.assertColumn(tmpFrame.keys(), tmpExpected, tmpHeap, tmpName);
+            SeriesFrameTest.assertColumn(tmpFrame.keys(), tmpExpected, tmpOffHeap, tmpName);
+        }
+    }
+
+    @Test
+    public void testFillForward() {
+
+        final SeriesFrame tmpFrame = SeriesFrameTest.newFrame();
+        final SeriesFrame tmpFilled = tmpFrame.fillForward();
+
+        SeriesFrameTest.assertColumn(tmpFrame.keys(), new double[] { 1.0, 1.0, 3.0, 3.0, 3.0, 6.0 }, tmpFilled, "A");
+        SeriesFrameTest.assertColumn(tmpFrame.keys(), new double[] { NaN, 20.0, 30.0, 40.0, 40.0, 40.0 }, tmpFilled, "B");
+
+        // The original is unchanged
+        SeriesFrameTest.assertColumn(tmpFrame.keys(), new double[] { 1.0, NaN, 3.0, NaN, NaN, 6.0 }, tmpFrame, "A");
+
+        // Filling forward after aligning carries the values across the new keys
+        final long[] tmpKeys = { 2L * HOUR, 3L * HOUR, 4L * HOUR, 6L * HOUR };
+        SeriesFrameTest.assertColumn(tmpKeys, new double[] { NaN, NaN, 3.0, 3.0 }, tmpFrame.align(tmpKeys).fillForward(), "A");
+    }
+
+    @Test
+    public void testJoin() {
+
+        final SeriesFrame tmpLeft = SeriesFrameTest.newFrame();
+        final SeriesFrame tmpRight = SeriesFrame.wrap(new long[] { 0L, 4L * HOUR, 6L * HOUR, 9L * HOUR }, Arrays.asList("C"),
+                new double[] { -1.0, -2.0, -3.0, -4.0 });
+
+        final SeriesFrame tmpJoined = tmpLeft.join(tmpRight);
+
+        TestUtils.assertEquals(3, tmpJoined.countColumns());
+        TestUtils.assertEquals(Arrays.asList("A", "B", "C"), tmpJoined.getNames());
+
+        final long[] tmpKeys = { 0L, 1L * HOUR, 2L * HOUR, 4L * HOUR, 5L * HOUR, 6L * HOUR, 7L * HOUR, 8L * HOUR, 9L * HOUR };
+        SeriesFrameTest.assertColumn(tmpKeys, new double[] { NaN, 1.0, NaN, 3.0, NaN, NaN, NaN, 6.0, NaN }, tmpJoined, "A");
+        SeriesFrameTest.assertColumn(tmpKeys, new double[] { NaN, NaN, 20.0, 30.0, 40.0, NaN, NaN, NaN, NaN }, tmpJoined, "B");
+        SeriesFrameTest.assertColumn(tmpKeys, new double[] { -1.0, NaN, NaN, -2.0, NaN, -3.0, NaN, NaN, -4.0 }, tmpJoined, "C");
+
+        try {
+            tmpJoined.join(tmpRight);
+            TestUtils.fail("Duplicate series name!");
+        } catch (final ProgrammingError expected) {
+            // Expected
+        }
+    }
+
+    @Test
+    public void testResample() {
+
+        final CalendarDateSeries<Double> tmpSeries = new CalendarDateSeries<Double>().name("S");
+        for (int i = 0; i < 100; i++) {
+            tmpSeries.put(new CalendarDate((i * i * HOUR) / 7L), Double.valueOf(i));
+        }
+
+        final CoordinationSet<Double> tmpSet = new CoordinationSet<>();
+        tmpSet.put(tmpSeries);
+
+        for (final CalendarDateUnit tmpUnit : new CalendarDateUnit[] { CalendarDateUnit.HOUR, CalendarDateUnit.DAY, CalendarDateUnit.WEEK }) {
+
+            final CalendarDateSeries<Double> tmpExpected = tmpSeries.resample(tmpUnit);
+            final SeriesFrame tmpActual = tmpSet.toFrame().resample(tmpUnit);
+
+            final long[] tmpKeys = new long[tmpExpected.size()];
+            final double[] tmpValues = new double[tmpExpected.size()];
+            int i = 0;
+            for (final Map.Entry<CalendarDate, Double> tmpEntry : tmpExpected.entrySet()) {
+                tmpKeys[i] = tmpEntry.getKey().millis;
+                tmpValues[i++] = tmpEntry.getValue();
+            }
+
+            SeriesFrameTest.assertColumn(tmpKeys, tmpValues, tmpActual, "S");
+        }
+
+        // Missing values don't hide valid ones earlier in the same bucket
+        final SeriesFrame tmpFrame = SeriesFrame.wrap(new long[] { 1L, 2L, HOUR + 1L, HOUR + 2L }, Arrays.asList("X"),
+                new double[] { 1.0, NaN, NaN, NaN });
+        final long tmpFirst = CalendarDateUnit.HOUR.adjustInto(0L);
+        final long tmpSecond = CalendarDateUnit.HOUR.adjustInto(HOUR);
+        SeriesFrameTest.assertColumn(new long[] { tmpFirst, tmpSecond }, new double[] { 1.0, NaN }, tmpFrame.resample(CalendarDateUnit.HOUR), "X");
+    }
+
+    @Test
+    public void testSliceAndPrune() {
+
+        final SeriesFrame tmpFrame = SeriesFrameTest.newFrame();
+
+        // Both ends inclusive, and the range does not have to hit existing keys
+        final SeriesFrame tmpSlice = tmpFrame.slice(2L * HOUR, 7L * HOUR);
+        final long[] tmpKeys = { 2L * HOUR, 4L * HOUR, 5L * HOUR, 7L * HOUR };
+        SeriesFrameTest.assertColumn(tmpKeys, new double[] { NaN, 3.0, NaN, NaN }, tmpSlice, "A");
+        SeriesFrameTest.assertColumn(tmpKeys, new double[] { 20.0, 30.0, 40.0, NaN }, tmpSlice, "B");
+        SeriesFrameTest.assertColumn(tmpKeys, new double[] { NaN, 3.0, NaN, NaN }, tmpFrame.slice(3L * HOUR / 2L, 15L * HOUR / 2L), "A");
+
+        // A slice of a slice
+        final SeriesFrame tmpSubSlice = tmpSlice.slice(3L * HOUR, 5L * HOUR);
+        SeriesFrameTest.assertColumn(new long[] { 4L * HOUR, 5L * HOUR }, new double[] { 30.0, 40.0 }, tmpSubSlice, "B");
+        TestUtils.assertEquals(new CalendarDate(4L * HOUR), tmpSubSlice.getFirstKey());
+        TestUtils.assertEquals(new CalendarDate(5L * HOUR), tmpSubSlice.getLastKey());
+
+        // Derived views of a slice
+        SeriesFrameTest.assertColumn(tmpKeys, new double[] { NaN, 3.0, 3.0, 3.0 }, tmpSlice.fillForward(), "A");
+        SeriesFrameTest.assertColumn(new long[] { 4L * HOUR, 8L * HOUR }, new double[] { 30.0, NaN }, tmpSlice.align(4L * HOUR, 8L * HOUR), "B");
+        SeriesFrameTest.assertColumn(new long[] { 5L * HOUR }, new double[] { 40.0 }, tmpSlice.select("B", "A").slice(5L * HOUR, 5L * HOUR), "B");
+
+        // An empty range
+        TestUtils.assertEquals(0, tmpFrame.slice(5L * HOUR + 1L, 7L * HOUR - 1L).countRows());
+
+        // Prune: A is valid from 1h to 8h, B from 2h to 5h
+        final SeriesFrame tmpPruned = tmpFrame.prune();
+        final long[] tmpPrunedKeys = { 2L * HOUR, 4L * HOUR, 5L * HOUR };
+        SeriesFrameTest.assertColumn(tmpPrunedKeys, new double[] { NaN, 3.0, NaN }, tmpPruned, "A");
+        SeriesFrameTest.assertColumn(tmpPrunedKeys, new double[] { 20.0, 30.0, 40.0 }, tmpPruned, "B");
+    }
+
+    @Test
+    public void testToFrameRoundTrip() {
+
+        final CalendarDateSeries<Double> tmpA = new CalendarDateSeries<Double>().name("A");
+        final CalendarDateSeries<Double> tmpB = new CalendarDateSeries<Double>().name("B");
+        final CalendarDateSeries<Double> tmpC = new CalendarDateSeries<Double>().name("C");
+        for (int i = 0; i < 50; i++) {
+            tmpA.put(new CalendarDate(i * HOUR), Double.valueOf(i));
+            if ((i % 3) == 0) {
+                tmpB.put(new CalendarDate((i + 25) * HOUR), Double.valueOf(-i));
+            }
+            if ((i % 7) == 0) {
+                tmpC.put(new CalendarDate((i * HOUR) + 1L), Double.valueOf(i / 7.0));
+            }
+        }
+
+        final CoordinationSet<Double> tmpSet = new CoordinationSet<>();
+        tmpSet.put(tmpA);
+        tmpSet.put(tmpB);
+        tmpSet.put(tmpC);
+
+        final SeriesFrame tmpFrame = tmpSet.toFrame();
+
+        TestUtils.assertEquals(3, tmpFrame.countColumns());
+
+        final long[] tmpKeys = tmpSet.getAllCalendarDates().stream().mapToLong(d -> d.millis).toArray();
+        TestUtils.assertEquals(tmpKeys, tmpFrame.keys());
+        TestUtils.assertEquals(tmpSet.getEarliestFirstKey(), tmpFrame.getFirstKey());
+        TestUtils.assertEquals(tmpSet.getLatestLastKey(), tmpFrame.getLastKey());
+
+        for (final CalendarDateSeries<Double> tmpSeries : tmpSet.values()) {
+
+            final double[] tmpValues = new double[tmpKeys.length];
+            for (int i = 0; i < tmpKeys.length; i++) {
+                final Double tmpValue = tmpSeries.get(new CalendarDate(tmpKeys[i]));
+                tmpValues[i] = tmpValue != null ? tmpValue.doubleValue() : NaN;
+            }
+            SeriesFrameTest.assertColumn(tmpKeys, tmpValues, tmpFrame, tmpSeries.getName());
+
+            // ...and back to a series
+            final int tmpCol = tmpFrame.indexOf(tmpSeries.getName());
+            final CalendarDateSeries<Double> tmpBack = new CalendarDateSeries<>();
+            for (int i = 0; i < tmpKeys.length; i++) {
+                final double tmpValue = tmpFrame.doubleValue(i, tmpCol);
+                if (!Double.isNaN(tmpValue)) {
+                    tmpBack.put(new CalendarDate(tmpFrame.key(i)), tmpValue);
+                }
+            }
+            TestUtils.assertEquals(new TreeMap<>(tmpSeries), new TreeMap<>(tmpBack));
+        }
+
+        // Pruning keeps the keys from the latest first key to the earliest last key
+        final SeriesFrame tmpPrunedFrame = tmpFrame.prune();
+        TestUtils.assertEquals(tmpSet.getLatestFirstKey(), tmpPrunedFrame.getFirstKey());
+        TestUtils.assertEquals(tmpSet.getEarliestLastKey(), tmpPrunedFrame.getLastKey());
+    }
+
+}
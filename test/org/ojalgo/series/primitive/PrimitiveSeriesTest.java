@@ -0,0 +1,173 @@
+/*
+ * Copyright 1997-2018 Optimatika
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.ojalgo.series.primitive;
+
+import org.junit.jupiter.api.Test;
+import org.ojalgo.TestUtils;
+import org.ojalgo.random.Uniform;
+
+public class PrimitiveSeriesTest {
+
+    /**
+     * The fused (block-wise, possibly parallel) evaluation must give exactly the same values as the element
+     * by element evaluation – the same operations are performed in the same order.
+     */
+    static void assertFused(final PrimitiveSeries series) {
+
+        final double[] tmpValues = series.values();
+
+        TestUtils.assertEquals(series.size(), tmpValues.length);
+        for (int i = 0; i < tmpValues.length; i++) {
+            if (Double.compare(series.value(i), tmpValues[i]) != 0) {
+                TestUtils.fail("Index " + i + ": " + series.value(i) + " != " + tmpValues[i]);
+            }
+        }
+    }
+
+    static DataSeries positive(final int size) {
+        final double[] retVal = new double[size];
+        final Uniform tmpUniform = new Uniform(1.0, 2.0);
+        for (int i = 0; i < size; i++) {
+            retVal[i] = tmpUniform.doubleValue();
+        }
+        return DataSeries.wrap(retVal);
+    }
+
+    @Test
+    public void testCache() {
+
+        final double[] tmpRaw = PrimitiveSeriesTest.positive(100).values();
+        final DataSeries tmpData = DataSeries.wrap(tmpRaw);
+
+        final PrimitiveSeries tmpChain = tmpData.add(1.0).multiply(tmpData);
+        final PrimitiveSeries tmpCached = tmpChain.cache();
+
+        TestUtils.assertTrue(tmpCached == tmpCached.cache());
+        TestUtils.assertEquals(tmpChain.size(), tmpCached.size());
+        PrimitiveSeriesTest.assertFused(tmpCached);
+        for (int i = 0; i < tmpRaw.length; i++) {
+            TestUtils.assertEquals(tmpChain.value(i), tmpCached.value(i));
+        }
+
+        // A snapshot – later changes to the data are not reflected
+        final double tmpBefore = tmpCached.value(7);
+        tmpRaw[7] = 100.0;
+        TestUtils.assertEquals(tmpBefore, tmpCached.value(7));
+        TestUtils.assertEquals(101.0 * 100.0, tmpChain.value(7));
+
+        // Cached series within chains
+        PrimitiveSeriesTest.assertFused(tmpCached.differences().add(tmpCached.prune(-1)));
+        PrimitiveSeriesTest.assertFused(tmpCached.prune(3).quotients(2).cache().log());
+    }
+
+    @Test
+    public void testFusedAboveParallelismThreshold() {
+        this.doTestChains(PrimitiveSeries.PARALLELISM_THRESHOLD + PrimitiveSeries.BLOCK + 123);
+    }
+
+    @Test
+    public void testFusedAcrossBlocks() {
+        this.doTestChains(PrimitiveSeries.BLOCK + 1);
+        this.doTestChains((3 * PrimitiveSeries.BLOCK) - 1);
+    }
+
+    @Test
+    public void testFusedSmall() {
+        this.doTestChains(50);
+    }
+
+    @Test
+    public void testPruned() {
+
+        final DataSeries tmpData = PrimitiveSeriesTest.positive(20);
+
+        for (final int tmpShift : new int[] { -5, -1, 0, 1, 5 }) {
+
+            final PrimitiveSeries tmpPruned = tmpData.prune(tmpShift);
+
+            TestUtils.assertEquals(20 - Math.abs(tmpShift), tmpPruned.size());
+            PrimitiveSeriesTest.assertFused(tmpPruned);
+            for (int i = 0; i < tmpPruned.size(); i++) {
+                TestUtils.assertEquals(tmpData.value(i - Math.min(tmpShift, 0)), tmpPruned.value(i));
+            }
+
+            PrimitiveSeriesTest.assertFused(tmpPruned.prune(-tmpShift));
+            PrimitiveSeriesTest.assertFused(tmpPruned.differences(2).prune(tmpShift / 2));
+        }
+    }
+
+    @Test
+    public void testRunning() {
+
+        final PrimitiveSeries tmpChain = PrimitiveSeriesTest.positive(300).differences().prune(-4).multiply(0.5);
+
+        final PrimitiveSeries tmpSum = tmpChain.runningSum(1.0);
+        final PrimitiveSeries tmpProduct = tmpChain.runningProduct(1.0);
+
+        TestUtils.assertEquals(tmpChain.size() + 1, tmpSum.size());
+        TestUtils.assertEquals(tmpChain.size() + 1, tmpProduct.size());
+
+        double tmpExpectedSum = 1.0;
+        double tmpExpectedProduct = 1.0;
+        TestUtils.assertEquals(tmpExpectedSum, tmpSum.value(0));
+        TestUtils.assertEquals(tmpExpectedProduct, tmpProduct.value(0));
+        for (int i = 0; i < tmpChain.size(); i++) {
+            tmpExpectedSum += tmpChain.value(i);
+            tmpExpectedProduct *= tmpChain.value(i);
+            TestUtils.assertEquals(tmpExpectedSum, tmpSum.value(i + 1));
+            TestUtils.assertEquals(tmpExpectedProduct, tmpProduct.value(i + 1));
+        }
+    }
+
+    private void doTestChains(final int size) {
+
+        final DataSeries tmpX = PrimitiveSeriesTest.positive(size);
+        final DataSeries tmpY = PrimitiveSeriesTest.positive(size + 10);
+
+        // Unary and binary
+        PrimitiveSeriesTest.assertFused(tmpX.add(2.0).multiply(tmpY).log().divide(3.0));
+        PrimitiveSeriesTest.assertFused(tmpX.subtract(tmpY).exp().subtract(1.0).divide(tmpX));
+
+        // Differences and quotients, where each block needs the values from the next
+        PrimitiveSeriesTest.assertFused(tmpX.differences());
+        PrimitiveSeriesTest.assertFused(tmpX.quotients(7).differences(3));
+        PrimitiveSeriesTest.assertFused(tmpX.multiply(tmpY).quotients().log().differences(2));
+
+        // Pruned with positive and negative shifts, at different depths of the chain
+        PrimitiveSeriesTest.assertFused(tmpX.prune(5).add(tmpY.prune(-5)));
+        PrimitiveSeriesTest.assertFused(tmpY.prune(-3).differences().prune(4).multiply(tmpX.quotients(2).prune(-1)));
+        PrimitiveSeriesTest.assertFused(tmpX.log().prune(-9).quotients(3).prune(2).subtract(tmpY.prune(-10).differences(5)));
+
+        // Nested, with both sides of binary operations being chains
+        final PrimitiveSeries tmpLeft = tmpX.differences(2).multiply(tmpY.prune(-2).log());
+        final PrimitiveSeries tmpRight = tmpY.quotients().prune(-1).add(tmpX.exp().prune(1));
+        PrimitiveSeriesTest.assertFused(tmpLeft.divide(tmpRight).differences().prune(-6));
+
+        // The DataSeries copy is the fused evaluation
+        final PrimitiveSeries tmpChain = tmpLeft.subtract(tmpRight);
+        final DataSeries tmpCopy = tmpChain.toDataSeries();
+        for (int i = 0; i < tmpChain.size(); i++) {
+            TestUtils.assertEquals(tmpChain.value(i), tmpCopy.value(i));
+        }
+    }
+
+}
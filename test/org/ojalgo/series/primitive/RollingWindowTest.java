@@ -0,0 +1,359 @@
+/*
+ * Copyright 1997-2018 Optimatika
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.ojalgo.series.primitive;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Function;
+
+import org.junit.jupiter.api.Test;
+import org.ojalgo.TestUtils;
+import org.ojalgo.random.Normal;
+import org.ojalgo.random.Uniform;
+
+public class RollingWindowTest {
+
+    /**
+     * The naive O(n·w) reference – each window computed from scratch, two-pass for the (co)variances
+     */
+    static final class Naive {
+
+        private final double[] myX;
+        private final double[] myY;
+        private final int myWindow;
+
+        Naive(final double[] x, final double[] y, final int window) {
+            super();
+            myX = x;
+            myY = y;
+            myWindow = window;
+        }
+
+        double[] correlation() {
+            final double[] retVal = this.covariance();
+            final double[] tmpVarX = this.moment(myX, myX);
+            final double[] tmpVarY = this.moment(myY, myY);
+            for (int i = 0; i < retVal.length; i++) {
+                retVal[i] = (retVal[i] * (myWindow - 1)) / Math.sqrt(tmpVarX[i] * tmpVarY[i]);
+            }
+            return retVal;
+        }
+
+        double[] covariance() {
+            final double[] retVal = this.moment(myX, myY);
+            for (int i = 0; i < retVal.length; i++) {
+                retVal[i] /= (myWindow - 1);
+            }
+            return retVal;
+        }
+
+        double[] maximum() {
+            final double[] retVal = new double[this.size()];
+            for (int i = 0; i < retVal.length; i++) {
+                double tmpMax = Double.NEGATIVE_INFINITY;
+                for (int j = i; j < (i + myWindow); j++) {
+                    tmpMax = Math.max(tmpMax, myX[j]);
+                }
+                retVal[i] = tmpMax;
+            }
+            return retVal;
+        }
+
+        double[] mean() {
+            final double[] retVal = this.sum();
+            for (int i = 0; i < retVal.length; i++) {
+                retVal[i] /= myWindow;
+            }
+            return retVal;
+        }
+
+        double[] minimum() {
+            final double[] retVal = new double[this.size()];
+            for (int i = 0; i < retVal.length; i++) {
+                double tmpMin = Double.POSITIVE_INFINITY;
+                for (int j = i; j < (i + myWindow); j++) {
+                    tmpMin = Math.min(tmpMin, myX[j]);
+                }
+                retVal[i] = tmpMin;
+            }
+            return retVal;
+        }
+
+        double[] sum() {
+            final double[] retVal = new double[this.size()];
+            for (int i = 0; i < retVal.length; i++) {
+                double tmpSum = 0.0;
+                for (int j = i; j < (i + myWindow); j++) {
+                    tmpSum += myX[j];
+                }
+                retVal[i] = tmpSum;
+            }
+            return retVal;
+        }
+
+        double[] variance() {
+            return new Naive(myX, myX, myWindow).covariance();
+        }
+
+        private double[] moment(final double[] x, final double[] y) {
+            final double[] retVal = new double[this.size()];
+            for (int i = 0; i < retVal.length; i++) {
+                double tmpMeanX = 0.0, tmpMeanY = 0.0;
+                for (int j = i; j < (i + myWindow); j++) {
+                    tmpMeanX += x[j];
+                    tmpMeanY += y[j];
+                }
+                tmpMeanX /= myWindow;
+                tmpMeanY /= myWindow;
+                double tmpMoment = 0.0;
+                for (int j = i; j < (i + myWindow); j++) {
+                    tmpMoment += (x[j] - tmpMeanX) * (y[j] - tmpMeanY);
+                }
+                retVal[i] = tmpMoment;
+            }
+            return retVal;
+        }
+
+        private int size() {
+            return Math.max(myX.length - myWindow + 1, 0);
+        }
+
+    }
+
+    private static final double TOLERANCE = 1E-10;
+
+    static void assertEquals(final double[] expected, final PrimitiveSeries actual) {
+        TestUtils.assertEquals(expected.length, actual.size());
+        for (int i = 0; i < expected.length; i++) {
+            final double tmpExpected = expected[i];
+            final double tmpActual = actual.value(i);
+            if (Double.isNaN(tmpExpected)) {
+                TestUtils.assertTrue(Double.isNaN(tmpActual));
+            } else {
+                TestUtils.assertEquals(tmpExpected, tmpActual, TOLERANCE * Math.max(1.0, Math.abs(tmpExpected)));
+            }
+        }
+    }
+
+    static void assertStatistics(final double[] x, final double[] y, final int window) {
+
+        final Naive tmpNaive = new Naive(x, y, window);
+        final DataSeries tmpX = DataSeries.wrap(x);
+        final DataSeries tmpY = DataSeries.wrap(y);
+        final RollingWindow tmpRolling = tmpX.rolling(window);
+
+        TestUtils.assertEquals(window, tmpRolling.getWindow());
+
+        RollingWindowTest.assertEquals(tmpNaive.sum(), tmpRolling.sum());
+        RollingWindowTest.assertEquals(tmpNaive.mean(), tmpRolling.mean());
+        RollingWindowTest.assertEquals(tmpNaive.minimum(), tmpRolling.minimum());
+        RollingWindowTest.assertEquals(tmpNaive.maximum(), tmpRolling.maximum());
+        RollingWindowTest.assertEquals(tmpNaive.variance(), tmpRolling.variance());
+        // Compared squared – near 0 the square root amplifies any rounding error in the variance
+        final double[] tmpStdDev = tmpRolling.standardDeviation().values();
+        for (int i = 0; i < tmpStdDev.length; i++) {
+            TestUtils.assertFalse(tmpStdDev[i] < 0.0);
+            tmpStdDev[i] *= tmpStdDev[i];
+        }
+        RollingWindowTest.assertEquals(tmpNaive.variance(), DataSeries.wrap(tmpStdDev));
+        RollingWindowTest.assertEquals(tmpNaive.covariance(), tmpRolling.covariance(tmpY));
+
+        // Undefined when either window is constant, and increasingly ill-conditioned as the variances go to 0
+        final double[] tmpCorrelation = tmpNaive.correlation();
+        final double[] tmpVarX = tmpNaive.variance();
+        final double[] tmpVarY = new Naive(y, y, window).variance();
+        final DataSeries tmpActual = tmpRolling.correlation(tmpY);
+        TestUtils.assertEquals(tmpCorrelation.length, tmpActual.size());
+        for (int i = 0; i < tmpCorrelation.length; i++) {
+            final double tmpMinVar = Math.min(tmpVarX[i], tmpVarY[i]);
+            if (tmpMinVar > 0.0) {
+                TestUtils.assertEquals(tmpCorrelation[i], tmpActual.value(i), TOLERANCE / Math.min(1.0, tmpMinVar));
+            }
+        }
+    }
+
+    static double[] random(final int size) {
+        final double[] retVal = new double[size];
+        final Normal tmpNormal = new Normal(10.0, 3.0);
+        for (int i = 0; i < size; i++) {
+            retVal[i] = tmpNormal.doubleValue();
+        }
+        return retVal;
+    }
+
+    @Test
+    public void testApply() {
+
+        final List<DataSeries> tmpColumns = Arrays.asList(DataSeries.wrap(RollingWindowTest.random(50)), DataSeries.wrap(RollingWindowTest.random(70)),
+                DataSeries.wrap(RollingWindowTest.random(3)));
+
+        final Function<RollingWindow, DataSeries> tmpStatistic = RollingWindow::variance;
+        final List<DataSeries> tmpResults = RollingWindow.apply(tmpColumns, 5, tmpStatistic);
+
+        TestUtils.assertEquals(tmpColumns.size(), tmpResults.size());
+        for (int c = 0; c < tmpColumns.size(); c++) {
+            final double[] tmpValues = tmpColumns.get(c).values();
+            RollingWindowTest.assertEquals(new Naive(tmpValues, tmpValues, 5).variance(), tmpResults.get(c));
+        }
+    }
+
+    @Test
+    public void testConstantInput() {
+
+        final double[] tmpX = new double[40];
+        Arrays.fill(tmpX, 7.25);
+
+        final RollingWindow tmpRolling = DataSeries.wrap(tmpX).rolling(6);
+
+        final double[] tmpZeros = new double[35];
+        final double[] tmpConstants = new double[35];
+        Arrays.fill(tmpConstants, 7.25);
+
+        // Exactly 0 – no negative variances from cancellation
+        RollingWindowTest.assertEquals(tmpZeros, tmpRolling.variance());
+        RollingWindowTest.assertEquals(tmpZeros, tmpRolling.standardDeviation());
+        for (final double tmpValue : tmpRolling.variance().values()) {
+            TestUtils.assertTrue(tmpValue == 0.0);
+        }
+        RollingWindowTest.assertEquals(tmpConstants, tmpRolling.mean());
+        RollingWindowTest.assertEquals(tmpConstants, tmpRolling.minimum());
+        RollingWindowTest.assertEquals(tmpConstants, tmpRolling.maximum());
+
+        RollingWindowTest.assertStatistics(tmpX, RollingWindowTest.random(40), 6);
+    }
+
+    @Test
+    public void testDriftingSum() {
+
+        final int tmpSize = 1_000_000;
+        final int tmpWindow = 100;
+
+        final double[] tmpX = new double[tmpSize];
+        final Uniform tmpNoise = new Uniform(-1.0, 2.0);
+        for (int i = 0; i < tmpSize; i++) {
+            tmpX[i] = 1E6 + (i * 1E-3) + tmpNoise.doubleValue();
+        }
+
+        final DataSeries tmpRolling = DataSeries.wrap(tmpX).rolling(tmpWindow).sum();
+
+        TestUtils.assertEquals(tmpSize - tmpWindow + 1, tmpRolling.size());
+
+        // Check the tail, after the longest sequence of add/remove updates
+        for (int i = tmpRolling.size() - 1000; i < tmpRolling.size(); i++) {
+            double tmpExpected = 0.0;
+            double tmpCompensation = 0.0;
+            for (int j = i; j < (i + tmpWindow); j++) {
+                final double tmpTerm = tmpX[j] - tmpCompensation;
+                final double tmpSum = tmpExpected + tmpTerm;
+                tmpCompensation = (tmpSum - tmpExpected) - tmpTerm;
+                tmpExpected = tmpSum;
+            }
+            TestUtils.assertEquals(tmpExpected, tmpRolling.value(i), 1E-14 * Math.abs(tmpExpected));
+        }
+    }
+
+    @Test
+    public void testEWMA() {
+
+        final double[] tmpX = RollingWindowTest.random(100);
+        final double tmpAlpha = 2.0 / 11.0;
+
+        // s(i) = (1-a)^i * x(0) + sum_{k=1..i} a * (1-a)^(i-k) * x(k)
+        final double[] tmpExpected = new double[tmpX.length];
+        for (int i = 0; i < tmpX.length; i++) {
+            double tmpValue = Math.pow(1.0 - tmpAlpha, i) * tmpX[0];
+            for (int k = 1; k <= i; k++) {
+                tmpValue += tmpAlpha * Math.pow(1.0 - tmpAlpha, i - k) * tmpX[k];
+            }
+            tmpExpected[i] = tmpValue;
+        }
+
+        RollingWindowTest.assertEquals(tmpExpected, DataSeries.wrap(tmpX).rolling(10).ewma());
+        RollingWindowTest.assertEquals(tmpExpected, DataSeries.wrap(tmpX).rolling(3).ewma(tmpAlpha));
+    }
+
+    @Test
+    public void testWindowEqualToSize() {
+        RollingWindowTest.assertStatistics(RollingWindowTest.random(17), RollingWindowTest.random(17), 17);
+    }
+
+    @Test
+    public void testWindowLargerThanSize() {
+
+        final double[] tmpX = RollingWindowTest.random(5);
+        final RollingWindow tmpRolling = DataSeries.wrap(tmpX).rolling(6);
+
+        TestUtils.assertEquals(0, tmpRolling.sum().size());
+        TestUtils.assertEquals(0, tmpRolling.mean().size());
+        TestUtils.assertEquals(0, tmpRolling.minimum().size());
+        TestUtils.assertEquals(0, tmpRolling.maximum().size());
+        TestUtils.assertEquals(0, tmpRolling.variance().size());
+        TestUtils.assertEquals(0, tmpRolling.standardDeviation().size());
+        TestUtils.assertEquals(0, tmpRolling.covariance(DataSeries.wrap(RollingWindowTest.random(5))).size());
+        TestUtils.assertEquals(0, tmpRolling.correlation(DataSeries.wrap(RollingWindowTest.random(5))).size());
+    }
+
+    @Test
+    public void testWindowOfOne() {
+
+        final double[] tmpX = RollingWindowTest.random(30);
+        final RollingWindow tmpRolling = DataSeries.wrap(tmpX).rolling(1);
+
+        RollingWindowTest.assertEquals(tmpX, tmpRolling.sum());
+        RollingWindowTest.assertEquals(tmpX, tmpRolling.mean());
+        RollingWindowTest.assertEquals(tmpX, tmpRolling.minimum());
+        RollingWindowTest.assertEquals(tmpX, tmpRolling.maximum());
+
+        // The sample (co)variance of a single observation is 0/0
+        RollingWindowTest.assertStatistics(tmpX, RollingWindowTest.random(30), 1);
+
+        try {
+            DataSeries.wrap(tmpX).rolling(0);
+            TestUtils.fail("The window must be at least 1!");
+        } catch (final IllegalArgumentException expected) {
+            // Expected
+        }
+    }
+
+    @Test
+    public void testWindows() {
+
+        final double[] tmpX = RollingWindowTest.random(200);
+        final double[] tmpY = RollingWindowTest.random(200);
+
+        // Plateaus and repeated values exercise the deque's ties, and give (exactly) 0 variances
+        for (int i = 50; i < 80; i++) {
+            tmpX[i] = Math.rint(tmpX[i]);
+        }
+        for (int i = 120; i < 140; i++) {
+            tmpX[i] = 10.0;
+        }
+
+        for (final int tmpWindow : new int[] { 2, 3, 7, 20, 64, 199 }) {
+            RollingWindowTest.assertStatistics(tmpX, tmpY, tmpWindow);
+            for (final double tmpValue : DataSeries.wrap(tmpX).rolling(tmpWindow).standardDeviation().values()) {
+                TestUtils.assertFalse(Double.isNaN(tmpValue));
+            }
+        }
+    }
+
+}
@@ -0,0 +1,201 @@
+/*
+ * Copyright 1997-2018 Optimatika
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.ojalgo.tensor;
+
+import org.junit.jupiter.api.Test;
+import org.ojalgo.TestUtils;
+import org.ojalgo.array.ArrayAnyD;
+import org.ojalgo.matrix.store.PrimitiveDenseStore;
+import org.ojalgo.random.Uniform;
+import org.ojalgo.type.context.NumberContext;
+
+public class ContractionTest {
+
+    private static final NumberContext PRECISION = NumberContext.getGeneral(12, 14);
+
+    static void assertEquals(final ArrayAnyD<Double> expected, final ArrayAnyD<Double> actual) {
+        TestUtils.assertEquals(expected.shape().length, actual.shape().length);
+        for (int d = 0; d < expected.shape().length; d++) {
+            TestUtils.assertEquals(expected.shape()[d], actual.shape()[d]);
+        }
+        TestUtils.assertEquals(expected, actual, PRECISION);
+    }
+
+    static ArrayAnyD<Double> random(final long... shape) {
+        final ArrayAnyD<Double> retVal = ArrayAnyD.PRIMITIVE64.makeZero(shape);
+        final Uniform uniform = new Uniform(-1, 2);
+        for (long i = 0L; i < retVal.count(); i++) {
+            retVal.set(i, uniform.doubleValue());
+        }
+        return retVal;
+    }
+
+    static ArrayAnyD<Double> zero(final long... shape) {
+        return ArrayAnyD.PRIMITIVE64.makeZero(shape);
+    }
+
+    @Test
+    public void testBatch() {
+
+        final ArrayAnyD<Double> a = ContractionTest.random(3, 2, 4);
+        final ArrayAnyD<Double> b = ContractionTest.random(3, 4, 5);
+
+        final ArrayAnyD<Double> expected = ContractionTest.zero(3, 2, 5);
+        for (long n = 0; n < 3; n++) {
+            for (long i = 0; i < 2; i++) {
+                for (long k = 0; k < 5; k++) {
+                    double sum = 0.0;
+                    for (long j = 0; j < 4; j++) {
+                        sum += a.doubleValue(new long[] { n, i, j }) * b.doubleValue(new long[] { n, j, k });
+                    }
+                    expected.set(new long[] { n, i, k }, sum);
+                }
+            }
+        }
+
+        ContractionTest.assertEquals(expected, Contraction.of("bij,bjk->bik").invoke(a, b));
+    }
+
+    @Test
+    public void testChainOfThree() {
+
+        final ArrayAnyD<Double> a = ContractionTest.random(2, 9);
+        final ArrayAnyD<Double> b = ContractionTest.random(9, 8);
+        final ArrayAnyD<Double> c = ContractionTest.random(8, 3);
+
+        final ArrayAnyD<Double> expected = ContractionTest.zero(2, 3);
+        for (long i = 0; i < 2; i++) {
+            for (long l = 0; l < 3; l++) {
+                double sum = 0.0;
+                for (long j = 0; j < 9; j++) {
+                    for (long k = 0; k < 8; k++) {
+                        sum += a.doubleValue(new long[] { i, j }) * b.doubleValue(new long[] { j, k }) * c.doubleValue(new long[] { k, l });
+                    }
+                }
+                expected.set(new long[] { i, l }, sum);
+            }
+        }
+
+        // Whichever pair is contracted first, the result is the same
+        ContractionTest.assertEquals(expected, Contraction.of("ij,jk,kl->il").invoke(a, b, c));
+        ContractionTest.assertEquals(expected, Contraction.of("jk,ij,kl->il").invoke(b, a, c));
+    }
+
+    @Test
+    public void testMatrixProduct() {
+
+        final ArrayAnyD<Double> a = ContractionTest.random(3, 4);
+        final ArrayAnyD<Double> b = ContractionTest.random(4, 5);
+
+        final ArrayAnyD<Double> expected = ContractionTest.zero(3, 5);
+        for (long i = 0; i < 3; i++) {
+            for (long k = 0; k < 5; k++) {
+                double sum = 0.0;
+                for (long j = 0; j < 4; j++) {
+                    sum += a.doubleValue(new long[] { i, j }) * b.doubleValue(new long[] { j, k });
+                }
+                expected.set(new long[] { i, k }, sum);
+            }
+        }
+
+        ContractionTest.assertEquals(expected, Contraction.of("ij,jk->ik").invoke(a, b));
+        // Implicit output – the letters occurring once, in alphabetical order
+        ContractionTest.assertEquals(expected, Contraction.of("ij,jk").invoke(a, b));
+    }
+
+    @Test
+    public void testOuterAndModeProduct() {
+
+        final ArrayAnyD<Double> x = ContractionTest.random(2, 3);
+        final ArrayAnyD<Double> y = ContractionTest.random(4);
+
+        final ArrayAnyD<Double> expectedOuter = ContractionTest.zero(2, 3, 4);
+        for (long i = 0; i < 2; i++) {
+            for (long j = 0; j < 3; j++) {
+                for (long k = 0; k < 4; k++) {
+                    expectedOuter.set(new long[] { i, j, k }, x.doubleValue(new long[] { i, j }) * y.doubleValue(new long[] { k }));
+                }
+            }
+        }
+        ContractionTest.assertEquals(expectedOuter, Contraction.outer(x, y));
+
+        final ArrayAnyD<Double> tensor = ContractionTest.random(3, 4, 5);
+        final PrimitiveDenseStore matrix = PrimitiveDenseStore.FACTORY.makeFilled(6, 4, new Uniform());
+
+        final ArrayAnyD<Double> expectedProduct = ContractionTest.zero(3, 6, 5);
+        for (long i = 0; i < 3; i++) {
+            for (long a = 0; a < 6; a++) {
+                for (long k = 0; k < 5; k++) {
+                    double sum = 0.0;
+                    for (long j = 0; j < 4; j++) {
+                        sum += tensor.doubleValue(new long[] { i, j, k }) * matrix.doubleValue(a, j);
+                    }
+                    expectedProduct.set(new long[] { i, a, k }, sum);
+                }
+            }
+        }
+        ContractionTest.assertEquals(expectedProduct, Contraction.product(tensor, 1, matrix));
+    }
+
+    @Test
+    public void testSizeMismatch() {
+
+        try {
+            Contraction.of("ij,jk->ik").invoke(ContractionTest.random(3, 4), ContractionTest.random(5, 2));
+            TestUtils.fail("The sizes of j do not match!");
+        } catch (final IllegalArgumentException expected) {
+            // Expected
+        }
+
+        try {
+            Contraction.of("ii->i").invoke(ContractionTest.random(3, 4));
+            TestUtils.fail("The sizes of i do not match!");
+        } catch (final IllegalArgumentException expected) {
+            // Expected
+        }
+    }
+
+    @Test
+    public void testSingleOperand() {
+
+        final ArrayAnyD<Double> a = ContractionTest.random(4, 4);
+
+        double trace = 0.0;
+        double sum = 0.0;
+        final ArrayAnyD<Double> diagonal = ContractionTest.zero(4);
+        final ArrayAnyD<Double> transposed = ContractionTest.zero(4, 4);
+        for (long i = 0; i < 4; i++) {
+            trace += a.doubleValue(new long[] { i, i });
+            diagonal.set(new long[] { i }, a.doubleValue(new long[] { i, i }));
+            for (long j = 0; j < 4; j++) {
+                sum += a.doubleValue(new long[] { i, j });
+                transposed.set(new long[] { j, i }, a.doubleValue(new long[] { i, j }));
+            }
+        }
+
+        TestUtils.assertEquals(trace, Contraction.of("ii->").invoke(a).doubleValue(0L), PRECISION);
+        TestUtils.assertEquals(sum, Contraction.of("ij->").invoke(a).doubleValue(0L), PRECISION);
+        ContractionTest.assertEquals(diagonal, Contraction.of("ii->i").invoke(a));
+        ContractionTest.assertEquals(transposed, Contraction.of("ij->ji").invoke(a));
+    }
+
+}